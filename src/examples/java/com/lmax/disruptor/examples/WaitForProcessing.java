@@ -26,6 +26,7 @@ public class WaitForProcessing
         Consumer firstConsumer = new Consumer();
         Consumer lastConsumer = new Consumer();
         disruptor.handleEventsWith(firstConsumer).then(lastConsumer);
+        disruptor.start();
         final RingBuffer<LongEvent> ringBuffer = disruptor.getRingBuffer();
 
         EventTranslator<LongEvent> translator = (event, sequence) -> event.set(sequence - 4);
@@ -33,16 +34,14 @@ public class WaitForProcessing
         ringBuffer.tryPublishEvent(translator);
 
         waitForSpecificConsumer(disruptor, lastConsumer, ringBuffer);
-        waitForRingBufferToBeIdle(ringBuffer);
+        waitForRingBufferToBeIdle(disruptor, ringBuffer);
     }
 
-    @SuppressWarnings("StatementWithEmptyBody")
-    private static void waitForRingBufferToBeIdle(final RingBuffer<LongEvent> ringBuffer)
+    private static void waitForRingBufferToBeIdle(
+        final Disruptor<LongEvent> disruptor,
+        final RingBuffer<LongEvent> ringBuffer)
     {
-        while (ringBuffer.getBufferSize() - ringBuffer.remainingCapacity() != 0)
-        {
-            // Wait for priocessing...
-        }
+        disruptor.whenProcessed(ringBuffer.getCursor()).join();
     }
 
     private static void waitForSpecificConsumer(
@@ -50,13 +49,6 @@ public class WaitForProcessing
         final Consumer lastConsumer,
         final RingBuffer<LongEvent> ringBuffer)
     {
-        long lastPublishedValue;
-        long sequenceValueFor;
-        do
-        {
-            lastPublishedValue = ringBuffer.getCursor();
-            sequenceValueFor = disruptor.getSequenceValueFor(lastConsumer);
-        }
-        while (sequenceValueFor < lastPublishedValue);
+        disruptor.whenProcessedBy(lastConsumer, ringBuffer.getCursor()).join();
     }
 }
@@ -1,5 +1,6 @@
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.queue.RingBufferBlockingQueue;
 import com.lmax.disruptor.util.Constants;
 import com.lmax.disruptor.util.DaemonThreadFactory;
 import com.lmax.disruptor.util.SimpleEvent;
@@ -8,6 +9,7 @@ import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -29,14 +31,19 @@ import java.util.concurrent.TimeUnit;
 @Fork(1)
 public class BlockingQueueBenchmark
 {
-    private BlockingQueue<SimpleEvent> arrayBlockingQueue;
+    @Param({"ArrayBlockingQueue", "RingBufferBlockingQueue"})
+    public String queueType;
+
+    private BlockingQueue<SimpleEvent> blockingQueue;
     private volatile boolean consumerRunning;
     private SimpleEvent simpleEvent;
 
     @Setup
     public void setup(final Blackhole bh) throws InterruptedException
     {
-        arrayBlockingQueue = new ArrayBlockingQueue<>(Constants.RINGBUFFER_SIZE);
+        blockingQueue = "RingBufferBlockingQueue".equals(queueType) ?
+                RingBufferBlockingQueue.createSingleProducerSingleConsumer(Constants.RINGBUFFER_SIZE) :
+                new ArrayBlockingQueue<>(Constants.RINGBUFFER_SIZE);
 
         final CountDownLatch consumerStartedLatch = new CountDownLatch(1);
         final Thread eventHandler = DaemonThreadFactory.INSTANCE.newThread(() ->
@@ -44,7 +51,7 @@ public class BlockingQueueBenchmark
             consumerStartedLatch.countDown();
             while (consumerRunning)
             {
-                SimpleEvent event = arrayBlockingQueue.poll();
+                SimpleEvent event = blockingQueue.poll();
                 if (event != null)
                 {
                     bh.consume(event);
@@ -62,7 +69,7 @@ public class BlockingQueueBenchmark
     @Benchmark
     public void producing() throws InterruptedException
     {
-        if (!arrayBlockingQueue.offer(simpleEvent, 1, TimeUnit.SECONDS))
+        if (!blockingQueue.offer(simpleEvent, 1, TimeUnit.SECONDS))
         {
             throw new IllegalStateException("Queue full, benchmark should not experience backpressure");
         }
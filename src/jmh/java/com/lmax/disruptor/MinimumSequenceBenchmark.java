@@ -0,0 +1,81 @@
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.MinimumSequenceTree;
+import com.lmax.disruptor.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of finding the minimum gating sequence on a ring buffer that is nearly full, so that each claim has to
+ * wait for the slowest of many consumers while the others are well ahead.  Compares scanning every sequence with
+ * {@link Util#getMinimumSequence(Sequence[], long)} against a {@link MinimumSequenceTree} queried for the wrap point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+@Fork(1)
+public class MinimumSequenceBenchmark
+{
+    private static final long AHEAD = Long.MAX_VALUE / 2;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64", "128"})
+    public int gatingSequences;
+
+    private Sequence[] sequences;
+    private MinimumSequenceTree tree;
+    private Sequence slowest;
+    private long wrapPoint;
+
+    @Setup
+    public void setup()
+    {
+        sequences = new Sequence[gatingSequences];
+        for (int i = 0; i < gatingSequences; i++)
+        {
+            sequences[i] = new Sequence(AHEAD);
+        }
+        slowest = sequences[gatingSequences / 2];
+        slowest.set(0L);
+        tree = new MinimumSequenceTree(sequences);
+    }
+
+    @Benchmark
+    public long scan()
+    {
+        slowest.set(++wrapPoint);
+        return Util.getMinimumSequence(sequences, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long tree()
+    {
+        slowest.set(++wrapPoint);
+        return tree.getMinimumSequence(wrapPoint, Long.MAX_VALUE);
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                .include(MinimumSequenceBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -10,6 +10,7 @@ import org.openjdk.jmh.annotations.Group;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -191,6 +192,48 @@ public class MultiProducerSequencerBenchmark
         s.value2.publish(2L);
     }
 
+    /*
+     * Publishing a contiguous batch and scanning it back as a consumer would, comparing the block
+     * based availability tracking of MultiProducerSequencer with the per slot tracking of
+     * com.lmax.disruptor.alternatives.MultiProducerSequencerVarHandle. Scores are per batch.
+     */
+    @State(Scope.Thread)
+    public static class StateBatchPublish
+    {
+        @Param({"1", "4", "16", "64", "256", "1024"})
+        int batchSize;
+
+        Sequencer blockSequencer;
+        Sequencer slotSequencer;
+
+        @Setup
+        public void setup()
+        {
+            blockSequencer = new MultiProducerSequencer(4096, new BusySpinWaitStrategy());
+            slotSequencer = new MultiProducerSequencerVarHandle(4096, new BusySpinWaitStrategy());
+        }
+    }
+
+    @Benchmark
+    public long publishBatchBlockAvailability(final StateBatchPublish s, final ThreadPinningState t)
+    {
+        return publishAndScan(s.blockSequencer, s.batchSize);
+    }
+
+    @Benchmark
+    public long publishBatchSlotAvailability(final StateBatchPublish s, final ThreadPinningState t)
+    {
+        return publishAndScan(s.slotSequencer, s.batchSize);
+    }
+
+    private static long publishAndScan(final Sequencer sequencer, final int batchSize)
+    {
+        final long hi = sequencer.next(batchSize);
+        final long lo = hi - (batchSize - 1);
+        sequencer.publish(lo, hi);
+        return sequencer.getHighestPublishedSequence(lo, hi);
+    }
+
     public static void main(final String[] args) throws RunnerException
     {
         Options opt = new OptionsBuilder()
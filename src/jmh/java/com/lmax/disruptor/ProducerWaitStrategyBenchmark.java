@@ -0,0 +1,109 @@
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.SimpleEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claim latency for a publisher on a ring buffer that is kept (almost) full by a slow consumer, so that
+ * most claims have to wait on the {@link ProducerWaitStrategy}.  Run in SampleTime mode to get the
+ * p99/p999 claim latency for each strategy.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+@Fork(1)
+public class ProducerWaitStrategyBenchmark
+{
+    private static final int RING_BUFFER_SIZE = 1 << 10;
+    private static final long CONSUMER_TOKENS = 100;
+
+    @Param({"parking", "busy-spin", "yielding", "phased", "blocking"})
+    public String producerWaitStrategy;
+
+    @Param({"SINGLE", "MULTI"})
+    public String producerType;
+
+    private RingBuffer<SimpleEvent> ringBuffer;
+    private Disruptor<SimpleEvent> disruptor;
+
+    @Setup
+    public void setup()
+    {
+        disruptor = new Disruptor<>(SimpleEvent::new,
+                RING_BUFFER_SIZE,
+                DaemonThreadFactory.INSTANCE,
+                ProducerType.valueOf(producerType),
+                new BusySpinWaitStrategy(),
+                createProducerWaitStrategy(producerWaitStrategy));
+
+        disruptor.handleEventsWith((event, sequence, endOfBatch) -> Blackhole.consumeCPU(CONSUMER_TOKENS));
+
+        ringBuffer = disruptor.start();
+    }
+
+    private static ProducerWaitStrategy createProducerWaitStrategy(final String name)
+    {
+        switch (name)
+        {
+            case "parking":
+                return new ParkingProducerWaitStrategy();
+            case "busy-spin":
+                return new BusySpinProducerWaitStrategy();
+            case "yielding":
+                return new YieldingProducerWaitStrategy();
+            case "phased":
+                return PhasedBackoffProducerWaitStrategy.withParking(10, 100, TimeUnit.MICROSECONDS);
+            case "blocking":
+                return new BlockingProducerWaitStrategy();
+            default:
+                throw new IllegalArgumentException(name);
+        }
+    }
+
+    @Benchmark
+    public long claimOnFullRing()
+    {
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).setValue(sequence);
+        ringBuffer.publish(sequence);
+        return sequence;
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        disruptor.halt();
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                .include(ProducerWaitStrategyBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.lmax.disruptor;
 
+import com.lmax.disruptor.util.MinimumSequenceTree;
 import com.lmax.disruptor.util.Util;
 
 import java.util.Arrays;
@@ -30,18 +31,57 @@ public abstract class AbstractSequencer implements Sequencer
     private static final AtomicReferenceFieldUpdater<AbstractSequencer, Sequence[]> SEQUENCE_UPDATER =
         AtomicReferenceFieldUpdater.newUpdater(AbstractSequencer.class, Sequence[].class, "gatingSequences");
 
+    private static final int TREE_THRESHOLD = 4 * MinimumSequenceTree.FAN_OUT;
+
     protected final int bufferSize;
     protected final WaitStrategy waitStrategy;
-    protected final Sequence cursor = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    protected final ProducerWaitStrategy producerWaitStrategy;
+    protected final Sequence cursor;
     protected volatile Sequence[] gatingSequences = new Sequence[0];
+    protected final Sequence minimumGatingSequence = new MinimumGatingSequence(this);
+    private volatile MinimumSequenceTree gatingSequenceTree;
 
     /**
-     * Create with the specified buffer size and wait strategy.
+     * Create with the specified buffer size and wait strategy, publishers waiting on a full buffer will
+     * use a {@link ParkingProducerWaitStrategy}.
      *
      * @param bufferSize   The total number of entries, must be a positive power of 2.
      * @param waitStrategy The wait strategy used by this sequencer
      */
     public AbstractSequencer(final int bufferSize, final WaitStrategy waitStrategy)
+    {
+        this(bufferSize, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Create with the specified buffer size, wait strategy and producer wait strategy.
+     *
+     * @param bufferSize           The total number of entries, must be a positive power of 2.
+     * @param waitStrategy         The wait strategy used by this sequencer
+     * @param producerWaitStrategy The strategy used by publishers waiting for the buffer to have capacity
+     */
+    public AbstractSequencer(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        this(bufferSize, waitStrategy, producerWaitStrategy, new Sequence(Sequencer.INITIAL_CURSOR_VALUE));
+    }
+
+    /**
+     * Create with the specified buffer size, wait strategies and the sequence that provides the cursor.
+     * Used by sequencers whose cursor is derived from more than one underlying sequence.
+     *
+     * @param bufferSize           The total number of entries, must be a positive power of 2.
+     * @param waitStrategy         The wait strategy used by this sequencer
+     * @param producerWaitStrategy The strategy used by publishers waiting for the buffer to have capacity
+     * @param cursor               The sequence holding the highest published sequence
+     */
+    protected AbstractSequencer(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy,
+        final Sequence cursor)
     {
         if (bufferSize < 1)
         {
@@ -54,6 +94,8 @@ public abstract class AbstractSequencer implements Sequencer
 
         this.bufferSize = bufferSize;
         this.waitStrategy = waitStrategy;
+        this.producerWaitStrategy = producerWaitStrategy;
+        this.cursor = cursor;
     }
 
     /**
@@ -101,13 +143,41 @@ public abstract class AbstractSequencer implements Sequencer
         return Util.getMinimumSequence(gatingSequences, cursor.get());
     }
 
+    /**
+     * Get the minimum of the gating sequences for a claim that needs them to have reached a target.  With many gating
+     * sequences they are tracked by a {@link MinimumSequenceTree}, so that only the consumers behind the target are
+     * read.
+     *
+     * @param target  the value the gating sequences need to have reached, e.g. the wrap point of a claim.
+     * @param minimum an initial default minimum, returned if there are no gating sequences.
+     * @return the minimum of the gating sequences and {@code minimum} if it is below the target, otherwise a
+     * lower bound of it that is not below the target.
+     */
+    protected final long getMinimumGatingSequence(final long target, final long minimum)
+    {
+        final Sequence[] gatingSequences = this.gatingSequences;
+        if (gatingSequences.length < TREE_THRESHOLD)
+        {
+            return Util.getMinimumSequence(gatingSequences, minimum);
+        }
+
+        MinimumSequenceTree tree = gatingSequenceTree;
+        if (tree == null || !tree.isFor(gatingSequences))
+        {
+            tree = new MinimumSequenceTree(gatingSequences);
+            gatingSequenceTree = tree;
+        }
+
+        return tree.getMinimumSequence(target, minimum);
+    }
+
     /**
      * @see Sequencer#newBarrier(Sequence...)
      */
     @Override
     public SequenceBarrier newBarrier(final Sequence... sequencesToTrack)
     {
-        return new ProcessingSequenceBarrier(this, waitStrategy, cursor, sequencesToTrack);
+        return new ProcessingSequenceBarrier(this, waitStrategy, producerWaitStrategy, cursor, sequencesToTrack);
     }
 
     /**
@@ -129,8 +199,65 @@ public abstract class AbstractSequencer implements Sequencer
     {
         return "AbstractSequencer{" +
             "waitStrategy=" + waitStrategy +
+            ", producerWaitStrategy=" + producerWaitStrategy +
             ", cursor=" + cursor +
             ", gatingSequences=" + Arrays.toString(gatingSequences) +
             '}';
     }
-}
\ No newline at end of file
+
+    /**
+     * Exposes the minimum of the current gating sequences (or the cursor if there are none)
+     * as a single read only Sequence for the {@link ProducerWaitStrategy}.
+     */
+    private static final class MinimumGatingSequence extends Sequence
+    {
+        private final AbstractSequencer sequencer;
+
+        MinimumGatingSequence(final AbstractSequencer sequencer)
+        {
+            this.sequencer = sequencer;
+        }
+
+        @Override
+        public long get()
+        {
+            return Util.getMinimumSequence(sequencer.gatingSequences, sequencer.cursor.get());
+        }
+
+        @Override
+        public void set(final long value)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setVolatile(final long value)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean compareAndSet(final long expectedValue, final long newValue)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long addAndGet(final long increment)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getAndAdd(final long increment)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString()
+        {
+            return Long.toString(get());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phased wait strategy that learns how long each barrier usually waits for events and picks its spin and yield
+ * phases to match.
+ *
+ * <p>For each barrier an average of the recent waits is kept.  While the usual wait is within the spin limit the
+ * strategy spins, then yields, giving close to busy spin latency when events arrive quickly.  When the usual wait is
+ * longer it skips the spin phase and only yields for about twice the usual wait, and once it is longer than the yield
+ * limit the strategy goes straight to the fallback strategy, so an idle processor uses almost no CPU.  Events that
+ * arrive during the short initial spin are not counted, and a burst after an idle period pulls the average down
+ * within a few waits.
+ *
+ * <p>The average is only an estimate: processors sharing a barrier, such as the workers of a {@link WorkerPool},
+ * update it without coordination.
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy
+{
+    private static final int SPIN_TRIES = 100;
+    private static final int AVERAGE_SHIFT = 2;
+    // Longer waits are counted as this many times the yield limit, so one long idle period is soon forgotten
+    private static final int MAX_OBSERVED_YIELD_LIMITS = 4;
+    private static final long DEFAULT_MAX_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long DEFAULT_MAX_YIELD_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final long maxSpinNanos;
+    private final long maxYieldNanos;
+    private final long maxObservedNanos;
+    private final WaitStrategy fallbackStrategy;
+    private final Map<SequenceBarrier, BarrierStats> stats = new WeakHashMap<>();
+    private final ThreadLocal<BarrierStats> lastStats = new ThreadLocal<>();
+
+    /**
+     * Construct {@link AdaptiveWaitStrategy} with spin and yield limits of 20us and 200us, falling back to a
+     * {@link ParkingWaitStrategy}.
+     */
+    public AdaptiveWaitStrategy()
+    {
+        this(DEFAULT_MAX_SPIN_NANOS, DEFAULT_MAX_YIELD_NANOS, TimeUnit.NANOSECONDS, new ParkingWaitStrategy(0));
+    }
+
+    /**
+     * @param maxSpin          The longest usual wait to busy spin for.
+     * @param maxYield         The longest usual wait to yield for.
+     * @param units            Time units used for the limits.
+     * @param fallbackStrategy After spinning and yielding, the strategy to fall back to.
+     */
+    public AdaptiveWaitStrategy(
+        final long maxSpin,
+        final long maxYield,
+        final TimeUnit units,
+        final WaitStrategy fallbackStrategy)
+    {
+        if (maxSpin < 0 || maxYield < maxSpin)
+        {
+            throw new IllegalArgumentException("maxSpin must not be negative or greater than maxYield");
+        }
+
+        this.maxSpinNanos = units.toNanos(maxSpin);
+        this.maxYieldNanos = units.toNanos(maxYield);
+        this.maxObservedNanos = MAX_OBSERVED_YIELD_LIMITS * maxYieldNanos;
+        this.fallbackStrategy = fallbackStrategy;
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException, TimeoutException
+    {
+        long availableSequence;
+        int counter = SPIN_TRIES;
+        while ((availableSequence = dependentSequence.get()) < sequence)
+        {
+            barrier.checkAlert();
+            if (0 == --counter)
+            {
+                return waitAdaptively(sequence, cursor, dependentSequence, barrier);
+            }
+            Thread.onSpinWait();
+        }
+
+        return availableSequence;
+    }
+
+    private long waitAdaptively(
+        final long sequence,
+        final Sequence cursor,
+        final Sequence dependentSequence,
+        final SequenceBarrier barrier)
+        throws AlertException, InterruptedException, TimeoutException
+    {
+        final BarrierStats barrierStats = statsFor(barrier);
+        final long averageWaitNanos = barrierStats.averageWaitNanos;
+        final long spinNanos = averageWaitNanos <= maxSpinNanos ? maxSpinNanos : 0;
+        final long yieldNanos = averageWaitNanos <= maxSpinNanos
+            ? maxYieldNanos
+            : averageWaitNanos <= maxYieldNanos ? Math.min(maxYieldNanos, 2 * averageWaitNanos) : 0;
+        final long startTime = System.nanoTime();
+
+        long availableSequence;
+        int counter = SPIN_TRIES;
+        while ((availableSequence = dependentSequence.get()) < sequence)
+        {
+            barrier.checkAlert();
+            if (0 == --counter)
+            {
+                final long waitedNanos = System.nanoTime() - startTime;
+                if (waitedNanos > spinNanos + yieldNanos)
+                {
+                    availableSequence = fallbackStrategy.waitFor(sequence, cursor, dependentSequence, barrier);
+                    break;
+                }
+                counter = waitedNanos > spinNanos ? 1 : SPIN_TRIES;
+            }
+
+            if (counter == 1)
+            {
+                Thread.yield();
+            }
+            else
+            {
+                Thread.onSpinWait();
+            }
+        }
+
+        barrierStats.record(System.nanoTime() - startTime);
+        return availableSequence;
+    }
+
+    /**
+     * @param barrier to get the usual wait of.
+     * @return the average recent wait of the barrier in nanoseconds.
+     */
+    long getAverageWaitNanos(final SequenceBarrier barrier)
+    {
+        return statsFor(barrier).averageWaitNanos;
+    }
+
+    private BarrierStats statsFor(final SequenceBarrier barrier)
+    {
+        // A processor thread almost always waits on the same barrier, so only a change of barrier takes the lock
+        final BarrierStats last = lastStats.get();
+        if (last != null && last.barrier.get() == barrier)
+        {
+            return last;
+        }
+
+        final BarrierStats barrierStats;
+        synchronized (stats)
+        {
+            barrierStats = stats.computeIfAbsent(barrier, key -> new BarrierStats(key, maxObservedNanos));
+        }
+        lastStats.set(barrierStats);
+        return barrierStats;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        fallbackStrategy.signalAllWhenBlocking();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AdaptiveWaitStrategy{" +
+            "maxSpinNanos=" + maxSpinNanos +
+            ", maxYieldNanos=" + maxYieldNanos +
+            ", fallbackStrategy=" + fallbackStrategy +
+            '}';
+    }
+
+    private static final class BarrierStats
+    {
+        private final WeakReference<SequenceBarrier> barrier;
+        private final long maxObservedNanos;
+        private long averageWaitNanos;
+
+        BarrierStats(final SequenceBarrier barrier, final long maxObservedNanos)
+        {
+            this.barrier = new WeakReference<>(barrier);
+            this.maxObservedNanos = maxObservedNanos;
+        }
+
+        void record(final long waitNanos)
+        {
+            final long observed = Math.min(waitNanos, maxObservedNanos);
+            averageWaitNanos += (observed - averageWaitNanos) >> AVERAGE_SHIFT;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.lmax.disruptor;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.lmax.disruptor.RewindAction.REWIND;
@@ -40,7 +41,11 @@ public final class BatchEventProcessor<T>
     private final EventHandler<? super T> eventHandler;
     private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
     private BatchRewindStrategy batchRewindStrategy = new SimpleBatchRewindStrategy();
+    private ProcessorMetrics<? super T> metrics;
+    private int maxBatchSize = Integer.MAX_VALUE;
+    private long maxBatchNanos = 0L;
     private int retriesAttempted = 0;
+    private volatile SequenceCompletion sequenceCompletion;
 
     /**
      * Construct a {@link EventProcessor} that will automatically track the progress by updating its sequence when
@@ -75,6 +80,26 @@ public final class BatchEventProcessor<T>
         sequenceBarrier.alert();
     }
 
+    @Override
+    public SequenceCompletion getSequenceCompletion()
+    {
+        SequenceCompletion sequenceCompletion = this.sequenceCompletion;
+        if (sequenceCompletion == null)
+        {
+            synchronized (this)
+            {
+                sequenceCompletion = this.sequenceCompletion;
+                if (sequenceCompletion == null)
+                {
+                    sequenceCompletion = new SequenceCompletion(sequence);
+                    this.sequenceCompletion = sequenceCompletion;
+                }
+            }
+        }
+
+        return sequenceCompletion;
+    }
+
     @Override
     public boolean isRunning()
     {
@@ -113,6 +138,61 @@ public final class BatchEventProcessor<T>
         this.batchRewindStrategy = batchRewindStrategy;
     }
 
+    /**
+     * Set the {@link ProcessorMetrics} to report batch sizes, wait times, service times and handled events to.
+     * No metrics are recorded unless this is set, it takes effect the next time the processor is started.
+     *
+     * @param metrics to report to, e.g. a {@link HistogramProcessorMetrics}.
+     */
+    public void setMetrics(final ProcessorMetrics<? super T> metrics)
+    {
+        if (null == metrics)
+        {
+            throw new NullPointerException();
+        }
+
+        this.metrics = metrics;
+    }
+
+    /**
+     * Limit the number of events handled in a batch.  When more events are available the processor handles them in
+     * several batches, updating its sequence after each, so that later stages and the publishers gated on it can make
+     * progress while it catches up with a backlog.  It takes effect the next time the processor is started.
+     *
+     * @param maxBatchSize the maximum number of events in a batch, the default is no limit.
+     * @throws IllegalArgumentException if the size is less than 1.
+     */
+    public void setMaxBatchSize(final int maxBatchSize)
+    {
+        if (maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("maxBatchSize must not be less than 1");
+        }
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Limit the time spent handling a batch.  Once it has passed the next event ends the batch, with endOfBatch set,
+     * and the processor updates its sequence before handling the rest of the available events.  The size given to
+     * {@link EventHandler#onBatchStart(long)} is then an upper bound.  This reads the clock before every event, so
+     * prefer {@link #setMaxBatchSize(int)} when the cost of handling an event is predictable.  It takes effect the
+     * next time the processor is started.
+     *
+     * @param maxBatchDuration the maximum time to spend on a batch, the default is no limit.
+     * @param unit             of the duration.
+     * @throws IllegalArgumentException if the duration is not positive.
+     */
+    public void setMaxBatchDuration(final long maxBatchDuration, final TimeUnit unit)
+    {
+        if (maxBatchDuration <= 0)
+        {
+            throw new IllegalArgumentException("maxBatchDuration must be positive");
+        }
+
+        this.maxBatchNanos = unit.toNanos(maxBatchDuration);
+    }
+
     /**
      * It is ok to have another thread rerun this method after a halt().
      *
@@ -155,8 +235,13 @@ public final class BatchEventProcessor<T>
 
     private void processEvents()
     {
+        final ProcessorMetrics<? super T> metrics = this.metrics;
+        final long maxBatchSize = this.maxBatchSize;
+        final long maxBatchNanos = this.maxBatchNanos;
+        final boolean timed = metrics != null || maxBatchNanos != 0L;
         T event = null;
         long nextSequence = sequence.get() + 1L;
+        long endOfLastBatchNanos = timed ? System.nanoTime() : 0L;
 
         while (true)
         {
@@ -167,20 +252,43 @@ public final class BatchEventProcessor<T>
                 {
 
                     final long availableSequence = sequenceBarrier.waitFor(nextSequence);
-                    if (availableSequence >= nextSequence)
+                    final long startOfBatchNanos = timed ? System.nanoTime() : 0L;
+                    long endOfBatchSequence = Math.min(availableSequence, nextSequence + maxBatchSize - 1L);
+                    if (endOfBatchSequence >= nextSequence)
                     {
-                        eventHandler.onBatchStart(availableSequence - nextSequence + 1);
+                        eventHandler.onBatchStart(endOfBatchSequence - nextSequence + 1);
                     }
 
-                    while (nextSequence <= availableSequence)
+                    while (nextSequence <= endOfBatchSequence)
                     {
+                        if (maxBatchNanos != 0L && nextSequence < endOfBatchSequence &&
+                            System.nanoTime() - startOfBatchNanos >= maxBatchNanos)
+                        {
+                            endOfBatchSequence = nextSequence;
+                        }
+
                         event = dataProvider.get(nextSequence);
-                        eventHandler.onEvent(event, nextSequence, nextSequence == availableSequence);
+                        eventHandler.onEvent(event, nextSequence, nextSequence == endOfBatchSequence);
+                        if (metrics != null)
+                        {
+                            metrics.onEventProcessed(event, nextSequence);
+                        }
                         nextSequence++;
                     }
 
+                    if (metrics != null && endOfBatchSequence >= startOfBatchSequence)
+                    {
+                        final long endOfBatchNanos = System.nanoTime();
+                        metrics.onBatchProcessed(
+                            endOfBatchSequence - startOfBatchSequence + 1,
+                            startOfBatchNanos - endOfLastBatchNanos,
+                            endOfBatchNanos - startOfBatchNanos);
+                        endOfLastBatchNanos = endOfBatchNanos;
+                    }
+
                     retriesAttempted = 0;
-                    sequence.set(availableSequence);
+                    sequence.set(endOfBatchSequence);
+                    notifySequenceAdvanced(endOfBatchSequence);
                 }
                 catch (final RewindableException e)
                 {
@@ -206,10 +314,16 @@ public final class BatchEventProcessor<T>
                     break;
                 }
             }
+            catch (final ReportedEventException ex)
+            {
+                // The event handler already passed the failure to the exception handler, which rethrew it
+                throw propagate(ex.getCause());
+            }
             catch (final Throwable ex)
             {
                 handleEventException(ex, nextSequence, event);
                 sequence.set(nextSequence);
+                notifySequenceAdvanced(nextSequence);
                 nextSequence++;
             }
         }
@@ -221,6 +335,15 @@ public final class BatchEventProcessor<T>
         notifyShutdown();
     }
 
+    private void notifySequenceAdvanced(final long value)
+    {
+        final SequenceCompletion sequenceCompletion = this.sequenceCompletion;
+        if (sequenceCompletion != null)
+        {
+            sequenceCompletion.sequenceAdvanced(value);
+        }
+    }
+
     private void notifyTimeout(final long availableSequence)
     {
         try
@@ -267,7 +390,7 @@ public final class BatchEventProcessor<T>
      * Delegate to {@link ExceptionHandler#handleEventException(Throwable, long, Object)} on the delegate or
      * the default {@link ExceptionHandler} if one has not been configured.
      */
-    private void handleEventException(final Throwable ex, final long sequence, final T event)
+    void handleEventException(final Throwable ex, final long sequence, final T event)
     {
         getExceptionHandler().handleEventException(ex, sequence, event);
     }
@@ -295,4 +418,25 @@ public final class BatchEventProcessor<T>
         ExceptionHandler<? super T> handler = exceptionHandler;
         return handler == null ? ExceptionHandlers.defaultHandler() : handler;
     }
+
+    private static RuntimeException propagate(final Throwable ex)
+    {
+        if (ex instanceof Error)
+        {
+            throw (Error) ex;
+        }
+        return ex instanceof RuntimeException ? (RuntimeException) ex : new RuntimeException(ex);
+    }
+
+    /**
+     * Thrown by an event handler that reported a failure through {@link #handleEventException(Throwable, long, Object)}
+     * itself, when the {@link ExceptionHandler} rethrew it, so that it ends the processor without being reported again.
+     */
+    static final class ReportedEventException extends RuntimeException
+    {
+        ReportedEventException(final Throwable cause)
+        {
+            super(null, cause, false, false);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking strategy that uses a lock and condition variable for publishers waiting on a full ring buffer.
+ * Consumers signal the condition as they make progress, but only take the lock when a publisher is
+ * actually blocked.
+ *
+ * <p>Consumers that do not go through a {@link SequenceBarrier} handed out by the sequencer (e.g. an
+ * {@link EventPoller}) will not signal, so blocked publishers also recheck the gating sequences after
+ * a bounded interval.
+ *
+ * <p>This strategy can be used when throughput and low-latency are not as important as CPU resource.
+ */
+public final class BlockingProducerWaitStrategy implements ProducerWaitStrategy
+{
+    private static final long DEFAULT_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition consumerProgressed = lock.newCondition();
+    private final AtomicInteger blockedPublishers = new AtomicInteger(0);
+    private final long recheckNanos;
+
+    /**
+     * Provides a blocking producer wait strategy with the default recheck interval.
+     */
+    public BlockingProducerWaitStrategy()
+    {
+        this(DEFAULT_RECHECK_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param recheckInterval The maximum time a blocked publisher waits before rechecking the gating sequences.
+     * @param units           Time units used for the recheck interval.
+     */
+    public BlockingProducerWaitStrategy(final long recheckInterval, final TimeUnit units)
+    {
+        this.recheckNanos = units.toNanos(recheckInterval);
+    }
+
+    @Override
+    public long waitFor(final long wrapPoint, final Sequence gatingSequence)
+    {
+        long minSequence;
+        if ((minSequence = gatingSequence.get()) >= wrapPoint)
+        {
+            return minSequence;
+        }
+
+        boolean interrupted = false;
+        lock.lock();
+        try
+        {
+            // A full fence, so the consumer that moves the gating sequence past this read sees the blocked publisher
+            blockedPublishers.getAndIncrement();
+            while (wrapPoint > (minSequence = gatingSequence.get()))
+            {
+                try
+                {
+                    consumerProgressed.awaitNanos(recheckNanos);
+                }
+                catch (final InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        finally
+        {
+            blockedPublishers.getAndDecrement();
+            lock.unlock();
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        return minSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        // The consumer's sequence may have been set with a release store, order it before reading the publishers
+        VarHandle.fullFence();
+        if (blockedPublishers.get() != 0)
+        {
+            lock.lock();
+            try
+            {
+                consumerProgressed.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BlockingProducerWaitStrategy{" +
+            "blockedPublishers=" + blockedPublishers +
+            ", recheckNanos=" + recheckNanos +
+            '}';
+    }
+}
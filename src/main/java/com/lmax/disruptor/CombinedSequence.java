@@ -0,0 +1,100 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.util.Arrays;
+
+/**
+ * The lowest of a group of {@link Sequence}s owned by a group of event processors, to be tracked by the ring buffer
+ * and by later stages as if the group were a single event processor.
+ *
+ * <p>Unlike a {@link FixedSequenceGroup} it can be set, as is done when it is added to the gating sequences of a ring
+ * buffer, which moves all of the sequences of the group.  That must only be done while the group is not running.
+ */
+class CombinedSequence extends Sequence
+{
+    private final Sequence[] sequences;
+
+    CombinedSequence(final Sequence[] sequences)
+    {
+        this.sequences = Arrays.copyOf(sequences, sequences.length);
+    }
+
+    @Override
+    public long get()
+    {
+        return Util.getMinimumSequence(sequences);
+    }
+
+    @Override
+    public void set(final long value)
+    {
+        for (final Sequence sequence : sequences)
+        {
+            sequence.set(value);
+        }
+    }
+
+    @Override
+    public void setVolatile(final long value)
+    {
+        set(value);
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public boolean compareAndSet(final long expectedValue, final long newValue)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public long incrementAndGet()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public long addAndGet(final long increment)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported.
+     */
+    @Override
+    public long getAndAdd(final long increment)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String toString()
+    {
+        return Long.toString(get());
+    }
+}
@@ -35,6 +35,26 @@ public class EventPoller<T>
         boolean onEvent(T event, long sequence, boolean endOfBatch) throws Exception;
     }
 
+    /**
+     * A callback used to process a range of events with a single call
+     *
+     * @param <T> the type of the event
+     */
+    public interface RangeHandler<T>
+    {
+        /**
+         * Called with all of the available events to consume them
+         *
+         * @param events the provider from which to get the events of the range
+         * @param firstSequence the sequence of the first event of the range
+         * @param lastSequence the sequence of the last event of the range, inclusive
+         * @return the sequence of the last event consumed, from {@code firstSequence - 1} if none were consumed up to
+         *         {@code lastSequence}. Events after it will be fed to the handler again on the next poll
+         * @throws Exception any exceptions thrown by the handler will be propagated to the caller of {@code pollRange}
+         */
+        long onEvents(DataProvider<T> events, long firstSequence, long lastSequence) throws Exception;
+    }
+
     /**
      * Indicates the result of a call to {@link #poll(Handler)}
      */
@@ -128,6 +148,46 @@ public class EventPoller<T>
         }
     }
 
+    /**
+     * Polls for events using the given range handler, which is called once with all of the known available
+     * events. <br>
+     * <br>
+     * If the handler throws, none of the events of the range are considered consumed.
+     *
+     * @param rangeHandler the handler used to consume events
+     * @return the state of the event poller after the poll is attempted
+     * @throws Exception exceptions thrown from the handler are propagated to the caller
+     * @throws IllegalStateException if the handler returns a sequence outside of the range it was given
+     */
+    public PollState pollRange(final RangeHandler<T> rangeHandler) throws Exception
+    {
+        final long currentSequence = sequence.get();
+        final long nextSequence = currentSequence + 1;
+        final long availableSequence = sequencer.getHighestPublishedSequence(nextSequence, gatingSequence.get());
+
+        if (nextSequence <= availableSequence)
+        {
+            final long processedSequence = rangeHandler.onEvents(dataProvider, nextSequence, availableSequence);
+            if (processedSequence < currentSequence || processedSequence > availableSequence)
+            {
+                throw new IllegalStateException(
+                    "Consumed sequence " + processedSequence + " is outside of " + nextSequence + ".." + availableSequence);
+            }
+
+            sequence.set(processedSequence);
+
+            return PollState.PROCESSING;
+        }
+        else if (sequencer.getCursor() >= nextSequence)
+        {
+            return PollState.GATING;
+        }
+        else
+        {
+            return PollState.IDLE;
+        }
+    }
+
     /**
      * Creates an event poller. Most users will want {@link RingBuffer#newPoller(Sequence...)}
      * which will set up the poller automatically
@@ -43,4 +43,15 @@ public interface EventProcessor extends Runnable
      * Implementations should ideally return false only when the associated thread is idle.
      */
     boolean isRunning();
+
+    /**
+     * Get the {@link SequenceCompletion} notified each time this EventProcessor advances its sequence, to wait for the
+     * sequence to reach a target without spinning.
+     *
+     * @return the sequence completion of this EventProcessor, or null if it does not support one.
+     */
+    default SequenceCompletion getSequenceCompletion()
+    {
+        return null;
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Histogram;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link ProcessorMetrics} recording the batch sizes, wait times and service times of a {@link BatchEventProcessor}
+ * in {@link Histogram}s, and optionally the latency of each event from a {@link System#nanoTime()} timestamp set on
+ * the event when it was published.
+ *
+ * <p>The histograms can be read from any thread while the event processor is running.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class HistogramProcessorMetrics<T> implements ProcessorMetrics<T>
+{
+    private final Histogram batchSizes = new Histogram();
+    private final Histogram waitNanos = new Histogram();
+    private final Histogram serviceNanos = new Histogram();
+    private final Histogram latencyNanos = new Histogram();
+    private final ToLongFunction<? super T> publishedNanos;
+
+    /**
+     * Record batch sizes, wait times and service times only.
+     */
+    public HistogramProcessorMetrics()
+    {
+        this(null);
+    }
+
+    /**
+     * Record batch sizes, wait times, service times and the latency of each event.
+     *
+     * @param publishedNanos to get the {@link System#nanoTime()} when the event was published, or null to not record
+     *                       the latency of events.
+     */
+    public HistogramProcessorMetrics(final ToLongFunction<? super T> publishedNanos)
+    {
+        this.publishedNanos = publishedNanos;
+    }
+
+    @Override
+    public void onBatchProcessed(final long batchSize, final long waitNanos, final long serviceNanos)
+    {
+        this.batchSizes.record(batchSize);
+        this.waitNanos.record(waitNanos);
+        this.serviceNanos.record(serviceNanos);
+    }
+
+    @Override
+    public void onEventProcessed(final T event, final long sequence)
+    {
+        if (publishedNanos != null)
+        {
+            latencyNanos.record(System.nanoTime() - publishedNanos.applyAsLong(event));
+        }
+    }
+
+    /**
+     * @return the number of events in each batch.
+     */
+    public Histogram getBatchSizes()
+    {
+        return batchSizes;
+    }
+
+    /**
+     * @return the time waited for each batch to become available, in nanoseconds.
+     */
+    public Histogram getWaitNanos()
+    {
+        return waitNanos;
+    }
+
+    /**
+     * @return the time taken to handle each batch, in nanoseconds.
+     */
+    public Histogram getServiceNanos()
+    {
+        return serviceNanos;
+    }
+
+    /**
+     * @return the time from each event being published until it was handled, in nanoseconds.  Empty unless the
+     * event has a published timestamp.
+     */
+    public Histogram getLatencyNanos()
+    {
+        return latencyNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "HistogramProcessorMetrics{" +
+            "batchSizes=" + batchSizes +
+            ", waitNanos=" + waitNanos +
+            ", serviceNanos=" + serviceNanos +
+            ", latencyNanos=" + latencyNanos +
+            '}';
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * A group of {@link BatchEventProcessor}s sharing a stage by the key of each event, e.g. an instrument id.  Every
+ * event is handled by exactly one {@link EventHandler} of the group, chosen by {@link #partitionOf(long, int)}, so all
+ * events with the same key are handled by the same thread in the order they were published.
+ *
+ * <p>Every member reads all of the events from the ring buffer and skips those of other partitions.  A member holds
+ * back each of its events until it sees the next one of its partition or the end of the batch, so that the
+ * {@code endOfBatch} flag is set on the last event of the partition in each batch, which makes it safe for handlers to
+ * flush on it.  An exception thrown for a held back event is reported to the {@link ExceptionHandler} of the member
+ * with the sequence and event that it was thrown for, without holding up the events after it.
+ *
+ * <p>The group is tracked by the ring buffer and by later stages through the single {@link Sequence} from
+ * {@link #getSequence()}, the lowest sequence of its members.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class KeyPartitionedGroup<T>
+{
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int HIGH_BITS_SHIFT = Integer.SIZE;
+
+    private final BatchEventProcessor<T>[] eventProcessors;
+    private final Sequence sequence;
+
+    /**
+     * Create a group with a member for each handler.
+     *
+     * @param dataProvider    to which events are published.
+     * @param sequenceBarrier on which the members wait.
+     * @param keyFunction     to get the key of an event, it must return the same key each time it is called for an
+     *                        event and is called by every member for every event.
+     * @param eventHandlers   one for each partition of the keys.
+     */
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public KeyPartitionedGroup(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final ToLongFunction<? super T> keyFunction,
+        final EventHandler<? super T>... eventHandlers)
+    {
+        if (eventHandlers.length == 0)
+        {
+            throw new IllegalArgumentException("A key partitioned group needs at least one event handler");
+        }
+
+        eventProcessors = new BatchEventProcessor[eventHandlers.length];
+        final Sequence[] sequences = new Sequence[eventHandlers.length];
+        for (int i = 0; i < eventHandlers.length; i++)
+        {
+            final PartitionEventHandler<T> partitionHandler =
+                new PartitionEventHandler<>(eventHandlers[i], keyFunction, i, eventHandlers.length);
+            eventProcessors[i] = new BatchEventProcessor<>(dataProvider, sequenceBarrier, partitionHandler);
+            partitionHandler.eventProcessor = eventProcessors[i];
+            sequences[i] = eventProcessors[i].getSequence();
+        }
+
+        sequence = new CombinedSequence(sequences);
+    }
+
+    /**
+     * Get the partition of a key, spreading both sequential and strided keys evenly.
+     *
+     * @param key        of an event.
+     * @param partitions the number of partitions.
+     * @return the partition of the key, from 0 to {@code partitions - 1}.
+     */
+    public static int partitionOf(final long key, final int partitions)
+    {
+        final long hash = key * GOLDEN_RATIO;
+        return (int) (((hash >>> HIGH_BITS_SHIFT) * partitions) >>> HIGH_BITS_SHIFT);
+    }
+
+    /**
+     * Get the sequence up to which all events have been handled by the group, to gate the ring buffer or a later
+     * stage on.  Setting it moves all of the members of the group to the value, which must only be done while the
+     * group is not running, e.g. when adding it to the gating sequences of a ring buffer.
+     *
+     * @return the sequence of the group.
+     */
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return the members of the group in order of partition, each is run by its own thread.
+     */
+    public EventProcessor[] getEventProcessors()
+    {
+        return Arrays.copyOf(eventProcessors, eventProcessors.length, EventProcessor[].class);
+    }
+
+    /**
+     * Set the {@link ExceptionHandler} of all of the members of the group.
+     *
+     * @param exceptionHandler to handle exceptions propagated out of the event handlers.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        for (final BatchEventProcessor<T> eventProcessor : eventProcessors)
+        {
+            eventProcessor.setExceptionHandler(exceptionHandler);
+        }
+    }
+
+    /**
+     * Halt all of the members of the group.
+     */
+    public void halt()
+    {
+        for (final BatchEventProcessor<T> eventProcessor : eventProcessors)
+        {
+            eventProcessor.halt();
+        }
+    }
+
+    /**
+     * @return true if any member of the group is running.
+     */
+    public boolean isRunning()
+    {
+        for (final BatchEventProcessor<T> eventProcessor : eventProcessors)
+        {
+            if (eventProcessor.isRunning())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "KeyPartitionedGroup{" +
+            "partitions=" + eventProcessors.length +
+            ", sequence=" + sequence +
+            '}';
+    }
+
+    private static final class PartitionEventHandler<T> implements EventHandler<T>
+    {
+        private final EventHandler<? super T> eventHandler;
+        private final ToLongFunction<? super T> keyFunction;
+        private final int partition;
+        private final int partitions;
+        private long batchSize;
+        private boolean batchStarted;
+        private BatchEventProcessor<T> eventProcessor;
+        private T heldEvent;
+        private long heldSequence;
+
+        PartitionEventHandler(
+            final EventHandler<? super T> eventHandler,
+            final ToLongFunction<? super T> keyFunction,
+            final int partition,
+            final int partitions)
+        {
+            this.eventHandler = eventHandler;
+            this.keyFunction = keyFunction;
+            this.partition = partition;
+            this.partitions = partitions;
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            this.batchSize = batchSize;
+            this.batchStarted = false;
+        }
+
+        @Override
+        public void onEvent(final T event, final long sequence, final boolean endOfBatch) throws Exception
+        {
+            final long key;
+            try
+            {
+                key = keyFunction.applyAsLong(event);
+            }
+            catch (final Throwable e)
+            {
+                // The batch ends here, the held event must be handled before its slot can be reused
+                releaseHeldEvent(true);
+                throw e;
+            }
+
+            if (heldEvent != null && sequence <= heldSequence)
+            {
+                // The batch is being replayed after a RewindableException, the held event will be seen again
+                heldEvent = null;
+            }
+
+            if (partitionOf(key, partitions) == partition)
+            {
+                if (!batchStarted)
+                {
+                    batchStarted = true;
+                    // Only an upper bound, the events of the batch in this partition are not known up front
+                    eventHandler.onBatchStart(batchSize);
+                }
+
+                // Hold the event before releasing the previous one, so that it is not lost if the previous one fails
+                final T releasedEvent = heldEvent;
+                final long releasedSequence = heldSequence;
+                heldEvent = event;
+                heldSequence = sequence;
+                if (releasedEvent != null)
+                {
+                    handleEvent(releasedEvent, releasedSequence, false);
+                }
+            }
+
+            if (endOfBatch)
+            {
+                releaseHeldEvent(true);
+            }
+        }
+
+        private void releaseHeldEvent(final boolean endOfBatch)
+        {
+            final T event = heldEvent;
+            if (event != null)
+            {
+                heldEvent = null;
+                handleEvent(event, heldSequence, endOfBatch);
+            }
+        }
+
+        private void handleEvent(final T event, final long sequence, final boolean endOfBatch)
+        {
+            try
+            {
+                eventHandler.onEvent(event, sequence, endOfBatch);
+            }
+            catch (final RewindableException e)
+            {
+                throw e;
+            }
+            catch (final Throwable e)
+            {
+                // Reported here rather than by the processor, which only knows the event that released this one
+                reportEventException(e, sequence, event);
+            }
+        }
+
+        private void reportEventException(final Throwable e, final long sequence, final T event)
+        {
+            try
+            {
+                eventProcessor.handleEventException(e, sequence, event);
+            }
+            catch (final Throwable handlerException)
+            {
+                throw new BatchEventProcessor.ReportedEventException(handlerException);
+            }
+        }
+
+        @Override
+        public void onStart()
+        {
+            eventHandler.onStart();
+        }
+
+        @Override
+        public void onShutdown()
+        {
+            heldEvent = null;
+            eventHandler.onShutdown();
+        }
+
+        @Override
+        public void setSequenceCallback(final Sequence sequenceCallback)
+        {
+            eventHandler.setSequenceCallback(sequenceCallback);
+        }
+
+        @Override
+        public void onTimeout(final long sequence) throws Exception
+        {
+            eventHandler.onTimeout(sequence);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.valueOf(eventHandler);
+        }
+    }
+}
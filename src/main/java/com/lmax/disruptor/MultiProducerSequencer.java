@@ -20,7 +20,6 @@ import com.lmax.disruptor.util.Util;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.util.Arrays;
-import java.util.concurrent.locks.LockSupport;
 
 
 /**
@@ -34,14 +33,19 @@ import java.util.concurrent.locks.LockSupport;
 public final class MultiProducerSequencer extends AbstractSequencer
 {
     private static final VarHandle AVAILABLE_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int MAX_BLOCK_SIZE = 16;
 
     private final Sequence gatingSequenceCache = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
 
     // availableBuffer tracks the state of each ringbuffer slot
     // see below for more details on the approach
     private final int[] availableBuffer;
+    // availableBlocks tracks blocks of slots that were published as a whole
+    private final int[] availableBlocks;
     private final int indexMask;
     private final int indexShift;
+    private final int blockSize;
+    private final int blockShift;
 
     /**
      * Construct a Sequencer with the selected wait strategy and buffer size.
@@ -51,12 +55,32 @@ public final class MultiProducerSequencer extends AbstractSequencer
      */
     public MultiProducerSequencer(final int bufferSize, final WaitStrategy waitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        this(bufferSize, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Construct a Sequencer with the selected wait strategies and buffer size.
+     *
+     * @param bufferSize           the size of the buffer that this will sequence over.
+     * @param waitStrategy         for those waiting on sequences.
+     * @param producerWaitStrategy for publishers waiting on the buffer to have capacity.
+     */
+    public MultiProducerSequencer(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        super(bufferSize, waitStrategy, producerWaitStrategy);
         availableBuffer = new int[bufferSize];
         Arrays.fill(availableBuffer, -1);
 
         indexMask = bufferSize - 1;
         indexShift = Util.log2(bufferSize);
+
+        blockSize = Math.min(MAX_BLOCK_SIZE, bufferSize);
+        blockShift = Util.log2(blockSize);
+        availableBlocks = new int[bufferSize >> blockShift];
+        Arrays.fill(availableBlocks, -1);
     }
 
     /**
@@ -65,17 +89,17 @@ public final class MultiProducerSequencer extends AbstractSequencer
     @Override
     public boolean hasAvailableCapacity(final int requiredCapacity)
     {
-        return hasAvailableCapacity(gatingSequences, requiredCapacity, cursor.get());
+        return hasAvailableCapacity(requiredCapacity, cursor.get());
     }
 
-    private boolean hasAvailableCapacity(final Sequence[] gatingSequences, final int requiredCapacity, final long cursorValue)
+    private boolean hasAvailableCapacity(final int requiredCapacity, final long cursorValue)
     {
         long wrapPoint = (cursorValue + requiredCapacity) - bufferSize;
         long cachedGatingSequence = gatingSequenceCache.get();
 
         if (wrapPoint > cachedGatingSequence || cachedGatingSequence > cursorValue)
         {
-            long minSequence = Util.getMinimumSequence(gatingSequences, cursorValue);
+            long minSequence = getMinimumGatingSequence(wrapPoint, cursorValue);
             gatingSequenceCache.set(minSequence);
 
             if (wrapPoint > minSequence)
@@ -124,10 +148,10 @@ public final class MultiProducerSequencer extends AbstractSequencer
 
         if (wrapPoint > cachedGatingSequence || cachedGatingSequence > current)
         {
-            long gatingSequence;
-            while (wrapPoint > (gatingSequence = Util.getMinimumSequence(gatingSequences, current)))
+            long gatingSequence = getMinimumGatingSequence(wrapPoint, current);
+            if (wrapPoint > gatingSequence)
             {
-                LockSupport.parkNanos(1L); // TODO, should we spin based on the wait strategy?
+                gatingSequence = producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence);
             }
 
             gatingSequenceCache.set(gatingSequence);
@@ -164,7 +188,7 @@ public final class MultiProducerSequencer extends AbstractSequencer
             current = cursor.get();
             next = current + n;
 
-            if (!hasAvailableCapacity(gatingSequences, n, current))
+            if (!hasAvailableCapacity(n, current))
             {
                 throw InsufficientCapacityException.INSTANCE;
             }
@@ -201,10 +225,25 @@ public final class MultiProducerSequencer extends AbstractSequencer
     @Override
     public void publish(final long lo, final long hi)
     {
-        for (long l = lo; l <= hi; l++)
+        final int blockMask = blockSize - 1;
+
+        long sequence = lo;
+        while (sequence <= hi && (sequence & blockMask) != 0)
+        {
+            setAvailable(sequence++);
+        }
+
+        while (sequence + blockMask <= hi)
+        {
+            setBlockAvailable(sequence);
+            sequence += blockSize;
+        }
+
+        while (sequence <= hi)
         {
-            setAvailable(l);
+            setAvailable(sequence++);
         }
+
         waitStrategy.signalAllWhenBlocking();
     }
 
@@ -226,6 +265,16 @@ public final class MultiProducerSequencer extends AbstractSequencer
      * minimum gating sequence is effectively our last available position in the
      * buffer), when we have new data and successfully claimed a slot we can simply
      * write over the top.
+     *
+     * <p>-- To keep batch publication from being linear in the size of the batch, the buffer
+     * is also split into aligned blocks of blockSize slots.  When a publish covers a whole
+     * block the availability flag is written once into availableBlocks instead of into
+     * each slot of availableBuffer.  A slot is available if either its own flag or the flag
+     * of its block matches, so readers check the block flag first and can then skip the
+     * whole block.  As all slots of a block belong to the same lap of the ring buffer the
+     * same availability flag applies to both.  Whichever of the two flags is from the later
+     * lap is the current state of the slot, so that sequences behind the wrap point are still
+     * reported as unavailable.
      */
     private void setAvailable(final long sequence)
     {
@@ -237,25 +286,59 @@ public final class MultiProducerSequencer extends AbstractSequencer
         AVAILABLE_ARRAY.setRelease(availableBuffer, index, flag);
     }
 
+    private void setBlockAvailable(final long sequence)
+    {
+        AVAILABLE_ARRAY.setRelease(availableBlocks, calculateBlockIndex(sequence), calculateAvailabilityFlag(sequence));
+    }
+
+    private boolean isBlockAvailable(final long sequence)
+    {
+        int flag = calculateAvailabilityFlag(sequence);
+        return (int) AVAILABLE_ARRAY.getAcquire(availableBlocks, calculateBlockIndex(sequence)) == flag;
+    }
+
+    private boolean isSlotAvailable(final long sequence)
+    {
+        int flag = calculateAvailabilityFlag(sequence);
+        return (int) AVAILABLE_ARRAY.getAcquire(availableBuffer, calculateIndex(sequence)) == flag;
+    }
+
     /**
      * @see Sequencer#isAvailable(long)
      */
     @Override
     public boolean isAvailable(final long sequence)
     {
-        int index = calculateIndex(sequence);
         int flag = calculateAvailabilityFlag(sequence);
-        return (int) AVAILABLE_ARRAY.getAcquire(availableBuffer, index) == flag;
+        int slotFlag = (int) AVAILABLE_ARRAY.getAcquire(availableBuffer, calculateIndex(sequence));
+        int blockFlag = (int) AVAILABLE_ARRAY.getAcquire(availableBlocks, calculateBlockIndex(sequence));
+
+        // Whichever was written on the later lap holds the current state of the slot
+        return (slotFlag - blockFlag < 0 ? blockFlag : slotFlag) == flag;
     }
 
     @Override
     public long getHighestPublishedSequence(final long lowerBound, final long availableSequence)
     {
-        for (long sequence = lowerBound; sequence <= availableSequence; sequence++)
+        final int blockMask = blockSize - 1;
+
+        long sequence = lowerBound;
+        while (sequence <= availableSequence)
         {
-            if (!isAvailable(sequence))
+            final long endOfBlock = sequence | blockMask;
+            if (isBlockAvailable(sequence))
+            {
+                sequence = endOfBlock + 1;
+                continue;
+            }
+
+            final long scanTo = Math.min(endOfBlock, availableSequence);
+            for (; sequence <= scanTo; sequence++)
             {
-                return sequence - 1;
+                if (!isSlotAvailable(sequence))
+                {
+                    return sequence - 1;
+                }
             }
         }
 
@@ -272,12 +355,18 @@ public final class MultiProducerSequencer extends AbstractSequencer
         return ((int) sequence) & indexMask;
     }
 
+    private int calculateBlockIndex(final long sequence)
+    {
+        return calculateIndex(sequence) >> blockShift;
+    }
+
     @Override
     public String toString()
     {
         return "MultiProducerSequencer{" +
                 "bufferSize=" + bufferSize +
                 ", waitStrategy=" + waitStrategy +
+                ", producerWaitStrategy=" + producerWaitStrategy +
                 ", cursor=" + cursor +
                 ", gatingSequences=" + Arrays.toString(gatingSequences) +
                 '}';
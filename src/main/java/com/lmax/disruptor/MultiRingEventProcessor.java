@@ -0,0 +1,510 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link EventProcessor} that handles the events of several ring buffers on one thread, passing them all to a
+ * single {@link EventHandler}.  The ring to take the next batch from is chosen by a {@link RingSelection}, and the
+ * processor keeps a {@link Sequence} for each ring from {@link #getSequence(int)} to gate that ring on.
+ *
+ * <p>When none of the rings have events available the processor waits on the {@link WaitStrategy} it is given.  For
+ * it to be woken by a publication to any of the rings, all of the rings must have been created with that same
+ * {@link WaitStrategy} instance.  As with a {@link SequenceBarrier}, the processor blocks on the cursors of the rings,
+ * which are signalled on publication, and then waits for any processors that a barrier is gated on.
+ *
+ * <p>The sequence given to the handler is the sequence of the event in its own ring, and
+ * {@link EventHandler#setSequenceCallback(Sequence)} is not called as there is no single sequence to update.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class MultiRingEventProcessor<T>
+    implements EventProcessor
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+    private ExceptionHandler<? super T> exceptionHandler;
+    private final DataProvider<T>[] dataProviders;
+    private final SequenceBarrier[] barriers;
+    private final Cursored[] cursors;
+    private final WaitStrategy waitStrategy;
+    private final EventHandler<? super T> eventHandler;
+    private final Sequence[] sequences;
+    private final long[] nextSequences;
+    private final int[] maxBatchSizes;
+    private final Sequence anyPublished = new AnyPublishedSequence();
+    private final Sequence anyAvailable = new AnyAvailableSequence();
+    private RingSelection ringSelection = RingSelection.ROUND_ROBIN;
+
+    /**
+     * Construct a processor for the events of several ring buffers, each gated on nothing but its own cursor.
+     *
+     * @param waitStrategy the {@link WaitStrategy} instance that all of the ring buffers were created with.
+     * @param eventHandler is the delegate to which the events of all of the rings are dispatched.
+     * @param ringBuffers  to handle the events of, in order of priority for {@link RingSelection#PRIORITY}.
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public MultiRingEventProcessor(
+        final WaitStrategy waitStrategy,
+        final EventHandler<? super T> eventHandler,
+        final RingBuffer<T>... ringBuffers)
+    {
+        this(Arrays.copyOf(ringBuffers, ringBuffers.length, DataProvider[].class), newBarriers(ringBuffers), waitStrategy, eventHandler);
+    }
+
+    /**
+     * Construct a processor for the events of several data providers.
+     *
+     * <p>A data provider that is {@link Cursored}, such as a {@link RingBuffer}, has its cursor waited on for
+     * publications.  The barrier of any other data provider is used as its cursor, so should not be gated on other
+     * processors, as they do not signal the {@link WaitStrategy} when they make progress.
+     *
+     * @param dataProviders to which events are published, in order of priority for {@link RingSelection#PRIORITY}.
+     * @param barriers      one for each data provider, on which the processor waits for its events.
+     * @param waitStrategy  the {@link WaitStrategy} instance used by all of the barriers.
+     * @param eventHandler  is the delegate to which the events of all of the data providers are dispatched.
+     */
+    public MultiRingEventProcessor(
+        final DataProvider<T>[] dataProviders,
+        final SequenceBarrier[] barriers,
+        final WaitStrategy waitStrategy,
+        final EventHandler<? super T> eventHandler)
+    {
+        if (dataProviders.length == 0 || dataProviders.length != barriers.length)
+        {
+            throw new IllegalArgumentException("A barrier is needed for each of one or more data providers");
+        }
+
+        this.dataProviders = Arrays.copyOf(dataProviders, dataProviders.length);
+        this.barriers = Arrays.copyOf(barriers, barriers.length);
+        this.cursors = new Cursored[dataProviders.length];
+        this.waitStrategy = waitStrategy;
+        this.eventHandler = eventHandler;
+        this.sequences = new Sequence[dataProviders.length];
+        this.nextSequences = new long[dataProviders.length];
+        this.maxBatchSizes = new int[dataProviders.length];
+        for (int i = 0; i < sequences.length; i++)
+        {
+            sequences[i] = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+            maxBatchSizes[i] = Integer.MAX_VALUE;
+            cursors[i] = dataProviders[i] instanceof Cursored ? (Cursored) dataProviders[i] : barriers[i]::getCursor;
+        }
+    }
+
+    /**
+     * Create a processor for priority lanes, which always handles the events of a higher priority lane before those
+     * of a lower one.  A lower priority lane is handled in batches of up to {@code checkInterval} events, so a burst
+     * of events in a higher priority lane waits for at most that many lower priority events, e.g. to let control
+     * messages overtake a backlog of market data.  The lanes share the single handler, which can be an
+     * {@link AggregateEventHandler} to run a chain of handlers on the processor's thread.
+     *
+     * @param <T>           the type of the events.
+     * @param waitStrategy  the {@link WaitStrategy} instance that all of the ring buffers were created with.
+     * @param checkInterval the maximum number of events of a lane handled before checking the lanes before it.
+     * @param eventHandler  is the delegate to which the events of all of the lanes are dispatched.
+     * @param lanes         the ring buffer of each lane, highest priority first.
+     * @return the processor, with {@link RingSelection#PRIORITY} selection.
+     * @throws IllegalArgumentException if the interval is less than 1.
+     */
+    @SafeVarargs
+    public static <T> MultiRingEventProcessor<T> withPriorityLanes(
+        final WaitStrategy waitStrategy,
+        final int checkInterval,
+        final EventHandler<? super T> eventHandler,
+        final RingBuffer<T>... lanes)
+    {
+        if (checkInterval < 1)
+        {
+            throw new IllegalArgumentException("checkInterval must not be less than 1");
+        }
+
+        final MultiRingEventProcessor<T> eventProcessor = new MultiRingEventProcessor<>(waitStrategy, eventHandler, lanes);
+        eventProcessor.setRingSelection(RingSelection.PRIORITY);
+        for (int i = 1; i < lanes.length; i++)
+        {
+            eventProcessor.setMaxBatchSize(i, checkInterval);
+        }
+        return eventProcessor;
+    }
+
+    private static SequenceBarrier[] newBarriers(final RingBuffer<?>[] ringBuffers)
+    {
+        final SequenceBarrier[] barriers = new SequenceBarrier[ringBuffers.length];
+        for (int i = 0; i < ringBuffers.length; i++)
+        {
+            barriers[i] = ringBuffers[i].newBarrier();
+        }
+        return barriers;
+    }
+
+    /**
+     * Not supported, there is a sequence for each ring.
+     *
+     * @throws UnsupportedOperationException always, use {@link #getSequence(int)}.
+     */
+    @Override
+    public Sequence getSequence()
+    {
+        throw new UnsupportedOperationException("A MultiRingEventProcessor has a sequence for each ring");
+    }
+
+    /**
+     * Get the sequence of the events of a ring that have been handled, to gate that ring on.
+     *
+     * @param ring the index of the ring, in the order they were given.
+     * @return the sequence of the ring.
+     */
+    public Sequence getSequence(final int ring)
+    {
+        return sequences[ring];
+    }
+
+    /**
+     * @return the number of rings handled by this processor.
+     */
+    public int getRingCount()
+    {
+        return sequences.length;
+    }
+
+    /**
+     * Find the index of a ring.
+     *
+     * @param dataProvider the ring buffer or data provider.
+     * @return the index of the ring, or -1 if the processor does not handle its events.
+     */
+    public int indexOf(final DataProvider<?> dataProvider)
+    {
+        for (int i = 0; i < dataProviders.length; i++)
+        {
+            if (dataProviders[i] == dataProvider)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the barrier on which the processor waits for the events of a ring.
+     *
+     * @param ring the index of the ring, in the order they were given.
+     * @return the barrier of the ring.
+     */
+    public SequenceBarrier getBarrier(final int ring)
+    {
+        return barriers[ring];
+    }
+
+    @Override
+    public void halt()
+    {
+        running.set(HALTED);
+        for (final SequenceBarrier barrier : barriers)
+        {
+            barrier.alert();
+        }
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running.get() != IDLE;
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link MultiRingEventProcessor}.
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Set how the ring to take the next batch from is chosen, it takes effect the next time the processor is started.
+     *
+     * @param ringSelection the default is {@link RingSelection#ROUND_ROBIN}.
+     */
+    public void setRingSelection(final RingSelection ringSelection)
+    {
+        if (null == ringSelection)
+        {
+            throw new NullPointerException();
+        }
+
+        this.ringSelection = ringSelection;
+    }
+
+    /**
+     * Limit the number of events taken from a ring at a time, which sets its weight for
+     * {@link RingSelection#ROUND_ROBIN} and how long it can hold back the rings before it for
+     * {@link RingSelection#PRIORITY}.  It takes effect the next time the processor is started.
+     *
+     * @param ring         the index of the ring, in the order they were given.
+     * @param maxBatchSize the maximum number of events in a batch from the ring, the default is no limit.
+     * @throws IllegalArgumentException if the size is less than 1.
+     */
+    public void setMaxBatchSize(final int ring, final int maxBatchSize)
+    {
+        if (maxBatchSize < 1)
+        {
+            throw new IllegalArgumentException("maxBatchSize must not be less than 1");
+        }
+
+        maxBatchSizes[ring] = maxBatchSize;
+    }
+
+    /**
+     * It is ok to have another thread rerun this method after a halt().
+     *
+     * @throws IllegalStateException if this object instance is already running in a thread
+     */
+    @Override
+    public void run()
+    {
+        int witnessValue = running.compareAndExchange(IDLE, RUNNING);
+        if (witnessValue == IDLE)
+        {
+            for (final SequenceBarrier barrier : barriers)
+            {
+                barrier.clearAlert();
+            }
+
+            notifyStart();
+            try
+            {
+                if (running.get() == RUNNING)
+                {
+                    processEvents();
+                }
+            }
+            finally
+            {
+                notifyShutdown();
+                running.set(IDLE);
+            }
+        }
+        else
+        {
+            if (witnessValue == RUNNING)
+            {
+                throw new IllegalStateException("Thread is already running");
+            }
+            else
+            {
+                notifyStart();
+                notifyShutdown();
+            }
+        }
+    }
+
+    private void processEvents()
+    {
+        final int ringCount = barriers.length;
+        final int[] maxBatchSizes = this.maxBatchSizes.clone();
+        final boolean priority = ringSelection == RingSelection.PRIORITY;
+        for (int i = 0; i < ringCount; i++)
+        {
+            nextSequences[i] = sequences[i].get() + 1L;
+        }
+
+        T event = null;
+        int ring = 0;
+        long nextSequence = 0L;
+
+        while (true)
+        {
+            try
+            {
+                boolean handled = false;
+                for (ring = 0; ring < ringCount; ring++)
+                {
+                    nextSequence = nextSequences[ring];
+                    if (barriers[ring].getCursor() < nextSequence)
+                    {
+                        continue;
+                    }
+
+                    final long availableSequence = barriers[ring].waitFor(nextSequence);
+                    final long endOfBatchSequence = Math.min(availableSequence, nextSequence + maxBatchSizes[ring] - 1L);
+                    if (endOfBatchSequence < nextSequence)
+                    {
+                        continue;
+                    }
+
+                    eventHandler.onBatchStart(endOfBatchSequence - nextSequence + 1);
+                    final DataProvider<T> dataProvider = dataProviders[ring];
+                    while (nextSequence <= endOfBatchSequence)
+                    {
+                        event = dataProvider.get(nextSequence);
+                        eventHandler.onEvent(event, nextSequence, nextSequence == endOfBatchSequence);
+                        nextSequence++;
+                    }
+
+                    sequences[ring].set(endOfBatchSequence);
+                    nextSequences[ring] = nextSequence;
+                    handled = true;
+
+                    if (priority)
+                    {
+                        break;
+                    }
+                }
+
+                if (!handled)
+                {
+                    for (final SequenceBarrier barrier : barriers)
+                    {
+                        barrier.signalProgress();
+                    }
+                    waitStrategy.waitFor(1L, anyPublished, anyAvailable, barriers[0]);
+                }
+            }
+            catch (final TimeoutException e)
+            {
+                notifyTimeout(Util.getMinimumSequence(sequences));
+            }
+            catch (final AlertException ex)
+            {
+                if (running.get() != RUNNING)
+                {
+                    break;
+                }
+            }
+            catch (final Throwable ex)
+            {
+                handleEventException(ex, nextSequence, event);
+                if (ring < ringCount)
+                {
+                    sequences[ring].set(nextSequence);
+                    nextSequences[ring] = nextSequence + 1L;
+                }
+            }
+        }
+    }
+
+    private void notifyTimeout(final long sequence)
+    {
+        try
+        {
+            eventHandler.onTimeout(sequence);
+        }
+        catch (final Throwable e)
+        {
+            handleEventException(e, sequence, null);
+        }
+    }
+
+    private void notifyStart()
+    {
+        try
+        {
+            eventHandler.onStart();
+        }
+        catch (final Throwable ex)
+        {
+            getExceptionHandler().handleOnStartException(ex);
+        }
+    }
+
+    private void notifyShutdown()
+    {
+        try
+        {
+            eventHandler.onShutdown();
+        }
+        catch (final Throwable ex)
+        {
+            getExceptionHandler().handleOnShutdownException(ex);
+        }
+    }
+
+    private void handleEventException(final Throwable ex, final long sequence, final T event)
+    {
+        getExceptionHandler().handleEventException(ex, sequence, event);
+    }
+
+    private ExceptionHandler<? super T> getExceptionHandler()
+    {
+        ExceptionHandler<? super T> handler = exceptionHandler;
+        return handler == null ? ExceptionHandlers.defaultHandler() : handler;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MultiRingEventProcessor{" +
+            "eventHandler=" + eventHandler +
+            ", rings=" + sequences.length +
+            ", ringSelection=" + ringSelection +
+            '}';
+    }
+
+    /**
+     * Reads as 1 when any of the rings has had events published that the processor has not handled, otherwise 0, so
+     * that the processor can block on all of the rings with a single call to the {@link WaitStrategy}.
+     */
+    private final class AnyPublishedSequence extends Sequence
+    {
+        @Override
+        public long get()
+        {
+            for (int i = 0; i < cursors.length; i++)
+            {
+                if (cursors[i].getCursor() >= nextSequences[i])
+                {
+                    return 1L;
+                }
+            }
+            return 0L;
+        }
+    }
+
+    /**
+     * Reads as 1 when any of the rings has events that are available to the processor through its barrier, i.e. once
+     * any processors the barrier is gated on have handled them, otherwise 0.
+     */
+    private final class AnyAvailableSequence extends Sequence
+    {
+        @Override
+        public long get()
+        {
+            for (int i = 0; i < barriers.length; i++)
+            {
+                if (barriers[i].getCursor() >= nextSequences[i])
+                {
+                    return 1L;
+                }
+            }
+            return 0L;
+        }
+    }
+}
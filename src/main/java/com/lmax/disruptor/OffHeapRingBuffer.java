@@ -0,0 +1,1094 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Ring based store of fixed size slots held outside of the Java heap, for exchanging events between event
+ * producers and {@link EventProcessor}s without any objects per entry for the garbage collector to trace.
+ *
+ * <p>The slots are held in direct or memory-mapped {@link ByteBuffer}s.  As a single buffer is limited to
+ * 2GB the slots are spread over as many segments of up to 1GB as needed.  Events are read and written through
+ * a flyweight {@link ByteBuffer} per thread that is positioned over the slot of a sequence, see
+ * {@link #get(long)}.  Sequencing is the same as for a {@link RingBuffer}, so an OffHeapRingBuffer can be used
+ * by a {@link BatchEventProcessor} or {@link EventPoller} with a barrier from {@link #newBarrier(Sequence...)}.
+ */
+public final class OffHeapRingBuffer implements Cursored, EventSequencer<ByteBuffer>, EventSink<ByteBuffer>
+{
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final Sequencer sequencer;
+    private final int bufferSize;
+    private final int slotSize;
+    private final int indexMask;
+    private final int segmentShift;
+    private final int segmentMask;
+    private final ByteBuffer[] segments;
+    private final ThreadLocal<ByteBuffer[]> perThreadSegments = ThreadLocal.withInitial(this::duplicateSegments);
+
+    private OffHeapRingBuffer(final Sequencer sequencer, final int slotSize, final ByteBuffer[] segments)
+    {
+        this.sequencer = sequencer;
+        this.bufferSize = sequencer.getBufferSize();
+        this.slotSize = slotSize;
+        this.indexMask = bufferSize - 1;
+        this.segmentShift = Integer.numberOfTrailingZeros(slotsPerSegment(bufferSize, slotSize));
+        this.segmentMask = (1 << segmentShift) - 1;
+        this.segments = segments;
+    }
+
+    /**
+     * Create an OffHeapRingBuffer with slots held in direct byte buffers.
+     *
+     * @param sequencer sequencer to handle the ordering of events moving through the ring buffer.
+     * @param slotSize  number of bytes in each slot.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if slotSize is less than 1 or greater than 1GB
+     */
+    public static OffHeapRingBuffer allocateDirect(final Sequencer sequencer, final int slotSize)
+    {
+        final int segmentSize = slotsPerSegment(sequencer.getBufferSize(), slotSize) * slotSize;
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount(sequencer.getBufferSize(), slotSize)];
+        for (int i = 0; i < segments.length; i++)
+        {
+            segments[i] = ByteBuffer.allocateDirect(segmentSize).order(ByteOrder.nativeOrder());
+        }
+
+        return new OffHeapRingBuffer(sequencer, slotSize, segments);
+    }
+
+    /**
+     * Create an OffHeapRingBuffer with slots held in a file mapped into memory, starting at the beginning of
+     * the file.  The file is extended as required.
+     *
+     * @param sequencer sequencer to handle the ordering of events moving through the ring buffer.
+     * @param slotSize  number of bytes in each slot.
+     * @param channel   open for reading and writing on the file to map.
+     * @return a constructed ring buffer.
+     * @throws IOException              if the file can not be mapped
+     * @throws IllegalArgumentException if slotSize is less than 1 or greater than 1GB
+     */
+    public static OffHeapRingBuffer map(final Sequencer sequencer, final int slotSize, final FileChannel channel)
+        throws IOException
+    {
+        final int segmentSize = slotsPerSegment(sequencer.getBufferSize(), slotSize) * slotSize;
+        final ByteBuffer[] segments = new ByteBuffer[segmentCount(sequencer.getBufferSize(), slotSize)];
+        for (int i = 0; i < segments.length; i++)
+        {
+            segments[i] = channel
+                .map(FileChannel.MapMode.READ_WRITE, (long) i * segmentSize, segmentSize)
+                .order(ByteOrder.nativeOrder());
+        }
+
+        return new OffHeapRingBuffer(sequencer, slotSize, segments);
+    }
+
+    /**
+     * Create a new OffHeapRingBuffer with slots held in direct byte buffers.
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of slots to create within the ring buffer.
+     * @param slotSize     number of bytes in each slot.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2,
+     *                                  or slotSize is less than 1 or greater than 1GB
+     */
+    public static OffHeapRingBuffer allocateDirect(
+        final ProducerType producerType,
+        final int bufferSize,
+        final int slotSize,
+        final WaitStrategy waitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return allocateDirect(new SingleProducerSequencer(bufferSize, waitStrategy), slotSize);
+            case MULTI:
+                return allocateDirect(new MultiProducerSequencer(bufferSize, waitStrategy), slotSize);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    private static int slotsPerSegment(final int bufferSize, final int slotSize)
+    {
+        if (slotSize < 1 || slotSize > MAX_SEGMENT_BYTES)
+        {
+            throw new IllegalArgumentException("slotSize must be between 1 and " + MAX_SEGMENT_BYTES);
+        }
+
+        return Math.min(bufferSize, Integer.highestOneBit(MAX_SEGMENT_BYTES / slotSize));
+    }
+
+    private static int segmentCount(final int bufferSize, final int slotSize)
+    {
+        return bufferSize / slotsPerSegment(bufferSize, slotSize);
+    }
+
+    private ByteBuffer[] duplicateSegments()
+    {
+        final ByteBuffer[] duplicates = new ByteBuffer[segments.length];
+        for (int i = 0; i < segments.length; i++)
+        {
+            duplicates[i] = segments[i].duplicate().order(ByteOrder.nativeOrder());
+        }
+        return duplicates;
+    }
+
+    private ByteBuffer slot(final long sequence)
+    {
+        final int index = (int) sequence & indexMask;
+        final int position = (index & segmentMask) * slotSize;
+
+        final ByteBuffer segment = perThreadSegments.get()[index >>> segmentShift];
+        segment.limit(position + slotSize).position(position);
+
+        return segment;
+    }
+
+    /**
+     * @return the number of bytes in each slot.
+     */
+    public int getSlotSize()
+    {
+        return slotSize;
+    }
+
+    /**
+     * <p>Get the event for a given sequence in the RingBuffer.</p>
+     *
+     * <p>This call has 2 uses.  Firstly use this call when publishing to a ring buffer.
+     * After calling {@link OffHeapRingBuffer#next()} use this call to get hold of the
+     * slot to fill with data before calling {@link OffHeapRingBuffer#publish(long)}.</p>
+     *
+     * <p>Secondly use this call when consuming data from the ring buffer.  After calling
+     * {@link SequenceBarrier#waitFor(long)} call this method with any value greater than
+     * that your current consumer sequence and less than or equal to the value returned from
+     * the {@link SequenceBarrier#waitFor(long)} method.</p>
+     *
+     * <p>The returned buffer is a view owned by the calling thread with its position and limit set to the
+     * bounds of the slot, so relative reads and writes stay within the slot.  The same view is repositioned
+     * on the next call from the same thread, so it should not be held on to.</p>
+     *
+     * @param sequence for the event
+     * @return the slot for the given sequence
+     */
+    @Override
+    public ByteBuffer get(final long sequence)
+    {
+        return slot(sequence);
+    }
+
+    /**
+     * Increment and return the next sequence for the ring buffer.  Calls of this
+     * method should ensure that they always publish the sequence afterward.  E.g.
+     * <pre>
+     * long sequence = ringBuffer.next();
+     * try {
+     *     Event e = ringBuffer.get(sequence);
+     *     // Do some work with the event.
+     * } finally {
+     *     ringBuffer.publish(sequence);
+     * }
+     * </pre>
+     *
+     * @return The next sequence to publish to.
+     * @see OffHeapRingBuffer#publish(long)
+     * @see OffHeapRingBuffer#get(long)
+     */
+    @Override
+    public long next()
+    {
+        return sequencer.next();
+    }
+
+    /**
+     * The same functionality as {@link OffHeapRingBuffer#next()}, but allows the caller to claim
+     * the next n sequences.
+     *
+     * @param n number of slots to claim
+     * @return sequence number of the highest slot claimed
+     * @see Sequencer#next(int)
+     */
+    @Override
+    public long next(final int n)
+    {
+        return sequencer.next(n);
+    }
+
+    /**
+     * <p>Increment and return the next sequence for the ring buffer.  Calls of this
+     * method should ensure that they always publish the sequence afterward.  E.g.</p>
+     * <pre>
+     * long sequence = ringBuffer.next();
+     * try {
+     *     Event e = ringBuffer.get(sequence);
+     *     // Do some work with the event.
+     * } finally {
+     *     ringBuffer.publish(sequence);
+     * }
+     * </pre>
+     * <p>This method will not block if there is not space available in the ring
+     * buffer, instead it will throw an {@link InsufficientCapacityException}.</p>
+     *
+     * @return The next sequence to publish to.
+     * @throws InsufficientCapacityException if the necessary space in the ring buffer is not available
+     * @see OffHeapRingBuffer#publish(long)
+     * @see OffHeapRingBuffer#get(long)
+     */
+    @Override
+    public long tryNext() throws InsufficientCapacityException
+    {
+        return sequencer.tryNext();
+    }
+
+    /**
+     * The same functionality as {@link OffHeapRingBuffer#tryNext()}, but allows the caller to attempt
+     * to claim the next n sequences.
+     *
+     * @param n number of slots to claim
+     * @return sequence number of the highest slot claimed
+     * @throws InsufficientCapacityException if the necessary space in the ring buffer is not available
+     */
+    @Override
+    public long tryNext(final int n) throws InsufficientCapacityException
+    {
+        return sequencer.tryNext(n);
+    }
+
+    /**
+     * Sets the cursor to a specific sequence and returns the preallocated entry that is stored there.  This
+     * can cause a data race and should only be done in controlled circumstances, e.g. during initialisation.
+     *
+     * @param sequence The sequence to claim.
+     * @return The preallocated event.
+     */
+    public ByteBuffer claimAndGetPreallocated(final long sequence)
+    {
+        sequencer.claim(sequence);
+        return get(sequence);
+    }
+
+    /**
+     * Determines if the event for a given sequence is currently available.
+     *
+     * <p>Note that this does not guarantee that event will still be available
+     * on the next interaction with the RingBuffer. For example, it is not
+     * necessarily safe to write code like this:
+     *
+     * <pre>{@code
+     * if (ringBuffer.isAvailable(sequence))
+     * {
+     *     final ByteBuffer e = ringBuffer.get(sequence);
+     *     // ...do something with e
+     * }
+     * }</pre>
+     *
+     * <p>because there is a race between the reading thread and the writing thread.
+     *
+     * <p>This method will also return false when querying for sequences that are
+     * behind the ring buffer's wrap point.
+     *
+     * @param sequence The sequence to identify the entry.
+     * @return If the event published with the given sequence number is currently available.
+     */
+    public boolean isAvailable(final long sequence)
+    {
+        return sequencer.isAvailable(sequence);
+    }
+
+    /**
+     * Add the specified gating sequences to this instance of the Disruptor.  They will
+     * safely and atomically added to the list of gating sequences.
+     *
+     * @param gatingSequences The sequences to add.
+     */
+    public void addGatingSequences(final Sequence... gatingSequences)
+    {
+        sequencer.addGatingSequences(gatingSequences);
+    }
+
+    /**
+     * Get the minimum sequence value from all of the gating sequences
+     * added to this ringBuffer.
+     *
+     * @return The minimum gating sequence or the cursor sequence if
+     * no sequences have been added.
+     */
+    public long getMinimumGatingSequence()
+    {
+        return sequencer.getMinimumSequence();
+    }
+
+    /**
+     * Remove the specified sequence from this ringBuffer.
+     *
+     * @param sequence to be removed.
+     * @return <code>true</code> if this sequence was found, <code>false</code> otherwise.
+     */
+    public boolean removeGatingSequence(final Sequence sequence)
+    {
+        return sequencer.removeGatingSequence(sequence);
+    }
+
+    /**
+     * Create a new SequenceBarrier to be used by an EventProcessor to track which messages
+     * are available to be read from the ring buffer given a list of sequences to track.
+     *
+     * @param sequencesToTrack the additional sequences to track
+     * @return A sequence barrier that will track the specified sequences.
+     * @see SequenceBarrier
+     */
+    public SequenceBarrier newBarrier(final Sequence... sequencesToTrack)
+    {
+        return sequencer.newBarrier(sequencesToTrack);
+    }
+
+    /**
+     * Creates an event poller for this ring buffer gated on the supplied sequences.
+     *
+     * @param gatingSequences to be gated on.
+     * @return A poller that will gate on this ring buffer and the supplied sequences.
+     */
+    public EventPoller<ByteBuffer> newPoller(final Sequence... gatingSequences)
+    {
+        return sequencer.newPoller(this, gatingSequences);
+    }
+
+    /**
+     * Get the current cursor value for the ring buffer.  The actual value received
+     * will depend on the type of {@link Sequencer} that is being used.
+     *
+     * @see MultiProducerSequencer
+     * @see SingleProducerSequencer
+     */
+    @Override
+    public long getCursor()
+    {
+        return sequencer.getCursor();
+    }
+
+    /**
+     * The size of the buffer.
+     *
+     * @return size of buffer
+     */
+    @Override
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * Given specified <code>requiredCapacity</code> determines if that amount of space
+     * is available.  Note, you can not assume that if this method returns <code>true</code>
+     * that a call to {@link OffHeapRingBuffer#next()} will not block.  Especially true if this
+     * ring buffer is set up to handle multiple producers.
+     *
+     * @param requiredCapacity The capacity to check for.
+     * @return <code>true</code> If the specified <code>requiredCapacity</code> is available
+     * <code>false</code> if not.
+     */
+    @Override
+    public boolean hasAvailableCapacity(final int requiredCapacity)
+    {
+        return sequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslator)
+     */
+    @Override
+    public void publishEvent(final EventTranslator<ByteBuffer> translator)
+    {
+        final long sequence = sequencer.next();
+        translateAndPublish(translator, sequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslator)
+     */
+    @Override
+    public boolean tryPublishEvent(final EventTranslator<ByteBuffer> translator)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            translateAndPublish(translator, sequence);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorOneArg, Object)
+     * com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorOneArg, A)
+     */
+    @Override
+    public <A> void publishEvent(final EventTranslatorOneArg<ByteBuffer, A> translator, final A arg0)
+    {
+        final long sequence = sequencer.next();
+        translateAndPublish(translator, sequence, arg0);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorOneArg, Object)
+     * com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorOneArg, A)
+     */
+    @Override
+    public <A> boolean tryPublishEvent(final EventTranslatorOneArg<ByteBuffer, A> translator, final A arg0)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            translateAndPublish(translator, sequence, arg0);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorTwoArg, Object, Object)
+     * com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorTwoArg, A, B)
+     */
+    @Override
+    public <A, B> void publishEvent(final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final A arg0, final B arg1)
+    {
+        final long sequence = sequencer.next();
+        translateAndPublish(translator, sequence, arg0, arg1);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorTwoArg, Object, Object)
+     * com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorTwoArg, A, B)
+     */
+    @Override
+    public <A, B> boolean tryPublishEvent(final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final A arg0, final B arg1)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            translateAndPublish(translator, sequence, arg0, arg1);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorThreeArg, Object, Object, Object)
+     * com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorThreeArg, A, B, C)
+     */
+    @Override
+    public <A, B, C> void publishEvent(final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final A arg0, final B arg1, final C arg2)
+    {
+        final long sequence = sequencer.next();
+        translateAndPublish(translator, sequence, arg0, arg1, arg2);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorThreeArg, Object, Object, Object)
+     * com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorThreeArg, A, B, C)
+     */
+    @Override
+    public <A, B, C> boolean tryPublishEvent(final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final A arg0, final B arg1, final C arg2)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            translateAndPublish(translator, sequence, arg0, arg1, arg2);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvent(com.lmax.disruptor.EventTranslatorVararg, java.lang.Object...)
+     */
+    @Override
+    public void publishEvent(final EventTranslatorVararg<ByteBuffer> translator, final Object... args)
+    {
+        final long sequence = sequencer.next();
+        translateAndPublish(translator, sequence, args);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvent(com.lmax.disruptor.EventTranslatorVararg, java.lang.Object...)
+     */
+    @Override
+    public boolean tryPublishEvent(final EventTranslatorVararg<ByteBuffer> translator, final Object... args)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            translateAndPublish(translator, sequence, args);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslator[])
+     */
+    @Override
+    public void publishEvents(final EventTranslator<ByteBuffer>[] translators)
+    {
+        publishEvents(translators, 0, translators.length);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslator[], int, int)
+     */
+    @Override
+    public void publishEvents(final EventTranslator<ByteBuffer>[] translators, final int batchStartsAt, final int batchSize)
+    {
+        checkBounds(translators, batchStartsAt, batchSize);
+        final long finalSequence = sequencer.next(batchSize);
+        translateAndPublishBatch(translators, batchStartsAt, batchSize, finalSequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslator[])
+     */
+    @Override
+    public boolean tryPublishEvents(final EventTranslator<ByteBuffer>[] translators)
+    {
+        return tryPublishEvents(translators, 0, translators.length);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslator[], int, int)
+     */
+    @Override
+    public boolean tryPublishEvents(final EventTranslator<ByteBuffer>[] translators, final int batchStartsAt, final int batchSize)
+    {
+        checkBounds(translators, batchStartsAt, batchSize);
+        try
+        {
+            final long finalSequence = sequencer.tryNext(batchSize);
+            translateAndPublishBatch(translators, batchStartsAt, batchSize, finalSequence);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorOneArg, Object[])
+     * com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorOneArg, A[])
+     */
+    @Override
+    public <A> void publishEvents(final EventTranslatorOneArg<ByteBuffer, A> translator, final A[] arg0)
+    {
+        publishEvents(translator, 0, arg0.length, arg0);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorOneArg, int, int, Object[])
+     * com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorOneArg, int, int, A[])
+     */
+    @Override
+    public <A> void publishEvents(final EventTranslatorOneArg<ByteBuffer, A> translator, final int batchStartsAt, final int batchSize, final A[] arg0)
+    {
+        checkBounds(arg0, batchStartsAt, batchSize);
+        final long finalSequence = sequencer.next(batchSize);
+        translateAndPublishBatch(translator, arg0, batchStartsAt, batchSize, finalSequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorOneArg, Object[])
+     * com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorOneArg, A[])
+     */
+    @Override
+    public <A> boolean tryPublishEvents(final EventTranslatorOneArg<ByteBuffer, A> translator, final A[] arg0)
+    {
+        return tryPublishEvents(translator, 0, arg0.length, arg0);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorOneArg, int, int, Object[])
+     * com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorOneArg, int, int, A[])
+     */
+    @Override
+    public <A> boolean tryPublishEvents(
+            final EventTranslatorOneArg<ByteBuffer, A> translator, final int batchStartsAt, final int batchSize, final A[] arg0)
+    {
+        checkBounds(arg0, batchStartsAt, batchSize);
+        try
+        {
+            final long finalSequence = sequencer.tryNext(batchSize);
+            translateAndPublishBatch(translator, arg0, batchStartsAt, batchSize, finalSequence);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorTwoArg, Object[], Object[])
+     * com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorTwoArg, A[], B[])
+     */
+    @Override
+    public <A, B> void publishEvents(final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final A[] arg0, final B[] arg1)
+    {
+        publishEvents(translator, 0, arg0.length, arg0, arg1);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorTwoArg, int, int, Object[], Object[])
+     * com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorTwoArg, int, int, A[], B[])
+     */
+    @Override
+    public <A, B> void publishEvents(
+        final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final int batchStartsAt, final int batchSize, final A[] arg0, final B[] arg1)
+    {
+        checkBounds(arg0, arg1, batchStartsAt, batchSize);
+        final long finalSequence = sequencer.next(batchSize);
+        translateAndPublishBatch(translator, arg0, arg1, batchStartsAt, batchSize, finalSequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorTwoArg, Object[], Object[])
+     * com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorTwoArg, A[], B[])
+     */
+    @Override
+    public <A, B> boolean tryPublishEvents(final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final A[] arg0, final B[] arg1)
+    {
+        return tryPublishEvents(translator, 0, arg0.length, arg0, arg1);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorTwoArg, int, int, Object[], Object[])
+     * com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorTwoArg, int, int, A[], B[])
+     */
+    @Override
+    public <A, B> boolean tryPublishEvents(
+        final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final int batchStartsAt, final int batchSize, final A[] arg0, final B[] arg1)
+    {
+        checkBounds(arg0, arg1, batchStartsAt, batchSize);
+        try
+        {
+            final long finalSequence = sequencer.tryNext(batchSize);
+            translateAndPublishBatch(translator, arg0, arg1, batchStartsAt, batchSize, finalSequence);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorThreeArg, Object[], Object[], Object[])
+     * com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorThreeArg, A[], B[], C[])
+     */
+    @Override
+    public <A, B, C> void publishEvents(final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final A[] arg0, final B[] arg1, final C[] arg2)
+    {
+        publishEvents(translator, 0, arg0.length, arg0, arg1, arg2);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorThreeArg, int, int, Object[], Object[], Object[])
+     * com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorThreeArg, int, int, A[], B[], C[])
+     */
+    @Override
+    public <A, B, C> void publishEvents(
+        final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final int batchStartsAt, final int batchSize, final A[] arg0, final B[] arg1, final C[] arg2)
+    {
+        checkBounds(arg0, arg1, arg2, batchStartsAt, batchSize);
+        final long finalSequence = sequencer.next(batchSize);
+        translateAndPublishBatch(translator, arg0, arg1, arg2, batchStartsAt, batchSize, finalSequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorThreeArg, Object[], Object[], Object[])
+     * com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorThreeArg, A[], B[], C[])
+     */
+    @Override
+    public <A, B, C> boolean tryPublishEvents(
+        final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final A[] arg0, final B[] arg1, final C[] arg2)
+    {
+        return tryPublishEvents(translator, 0, arg0.length, arg0, arg1, arg2);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorThreeArg, int, int, Object[], Object[], Object[])
+     * com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorThreeArg, int, int, A[], B[], C[])
+     */
+    @Override
+    public <A, B, C> boolean tryPublishEvents(
+        final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final int batchStartsAt, final int batchSize, final A[] arg0, final B[] arg1, final C[] arg2)
+    {
+        checkBounds(arg0, arg1, arg2, batchStartsAt, batchSize);
+        try
+        {
+            final long finalSequence = sequencer.tryNext(batchSize);
+            translateAndPublishBatch(translator, arg0, arg1, arg2, batchStartsAt, batchSize, finalSequence);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorVararg, java.lang.Object[][])
+     */
+    @Override
+    public void publishEvents(final EventTranslatorVararg<ByteBuffer> translator, final Object[]... args)
+    {
+        publishEvents(translator, 0, args.length, args);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#publishEvents(com.lmax.disruptor.EventTranslatorVararg, int, int, java.lang.Object[][])
+     */
+    @Override
+    public void publishEvents(final EventTranslatorVararg<ByteBuffer> translator, final int batchStartsAt, final int batchSize, final Object[]... args)
+    {
+        checkBounds(batchStartsAt, batchSize, args);
+        final long finalSequence = sequencer.next(batchSize);
+        translateAndPublishBatch(translator, batchStartsAt, batchSize, finalSequence, args);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorVararg, java.lang.Object[][])
+     */
+    @Override
+    public boolean tryPublishEvents(final EventTranslatorVararg<ByteBuffer> translator, final Object[]... args)
+    {
+        return tryPublishEvents(translator, 0, args.length, args);
+    }
+
+    /**
+     * @see com.lmax.disruptor.EventSink#tryPublishEvents(com.lmax.disruptor.EventTranslatorVararg, int, int, java.lang.Object[][])
+     */
+    @Override
+    public boolean tryPublishEvents(
+        final EventTranslatorVararg<ByteBuffer> translator, final int batchStartsAt, final int batchSize, final Object[]... args)
+    {
+        checkBounds(args, batchStartsAt, batchSize);
+        try
+        {
+            final long finalSequence = sequencer.tryNext(batchSize);
+            translateAndPublishBatch(translator, batchStartsAt, batchSize, finalSequence, args);
+            return true;
+        }
+        catch (InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Publish the specified sequence.  This action marks this particular
+     * message as being available to be read.
+     *
+     * @param sequence the sequence to publish.
+     */
+    @Override
+    public void publish(final long sequence)
+    {
+        sequencer.publish(sequence);
+    }
+
+    /**
+     * Publish the specified sequences.  This action marks these particular
+     * messages as being available to be read.
+     *
+     * @param lo the lowest sequence number to be published
+     * @param hi the highest sequence number to be published
+     * @see Sequencer#next(int)
+     */
+    @Override
+    public void publish(final long lo, final long hi)
+    {
+        sequencer.publish(lo, hi);
+    }
+
+    /**
+     * Get the remaining capacity for this ringBuffer.
+     *
+     * @return The number of slots remaining.
+     */
+    @Override
+    public long remainingCapacity()
+    {
+        return sequencer.remainingCapacity();
+    }
+
+    private void checkBounds(final EventTranslator<ByteBuffer>[] translators, final int batchStartsAt, final int batchSize)
+    {
+        checkBatchSizing(batchStartsAt, batchSize);
+        batchOverRuns(translators, batchStartsAt, batchSize);
+    }
+
+    private void checkBatchSizing(final int batchStartsAt, final int batchSize)
+    {
+        if (batchStartsAt < 0 || batchSize < 0)
+        {
+            throw new IllegalArgumentException("Both batchStartsAt and batchSize must be positive but got: batchStartsAt " + batchStartsAt + " and batchSize " + batchSize);
+        }
+        else if (batchSize > bufferSize)
+        {
+            throw new IllegalArgumentException("The ring buffer cannot accommodate " + batchSize + " it only has space for " + bufferSize + " entities.");
+        }
+    }
+
+    private <A> void checkBounds(final A[] arg0, final int batchStartsAt, final int batchSize)
+    {
+        checkBatchSizing(batchStartsAt, batchSize);
+        batchOverRuns(arg0, batchStartsAt, batchSize);
+    }
+
+    private <A, B> void checkBounds(final A[] arg0, final B[] arg1, final int batchStartsAt, final int batchSize)
+    {
+        checkBatchSizing(batchStartsAt, batchSize);
+        batchOverRuns(arg0, batchStartsAt, batchSize);
+        batchOverRuns(arg1, batchStartsAt, batchSize);
+    }
+
+    private <A, B, C> void checkBounds(
+        final A[] arg0, final B[] arg1, final C[] arg2, final int batchStartsAt, final int batchSize)
+    {
+        checkBatchSizing(batchStartsAt, batchSize);
+        batchOverRuns(arg0, batchStartsAt, batchSize);
+        batchOverRuns(arg1, batchStartsAt, batchSize);
+        batchOverRuns(arg2, batchStartsAt, batchSize);
+    }
+
+    private void checkBounds(final int batchStartsAt, final int batchSize, final Object[][] args)
+    {
+        checkBatchSizing(batchStartsAt, batchSize);
+        batchOverRuns(args, batchStartsAt, batchSize);
+    }
+
+    private <A> void batchOverRuns(final A[] arg0, final int batchStartsAt, final int batchSize)
+    {
+        if (batchStartsAt + batchSize > arg0.length)
+        {
+            throw new IllegalArgumentException(
+                "A batchSize of: " + batchSize +
+                    " with batchStatsAt of: " + batchStartsAt +
+                    " will overrun the available number of arguments: " + (arg0.length - batchStartsAt));
+        }
+    }
+
+    private void translateAndPublish(final EventTranslator<ByteBuffer> translator, final long sequence)
+    {
+        try
+        {
+            translator.translateTo(get(sequence), sequence);
+        }
+        finally
+        {
+            sequencer.publish(sequence);
+        }
+    }
+
+    private <A> void translateAndPublish(final EventTranslatorOneArg<ByteBuffer, A> translator, final long sequence, final A arg0)
+    {
+        try
+        {
+            translator.translateTo(get(sequence), sequence, arg0);
+        }
+        finally
+        {
+            sequencer.publish(sequence);
+        }
+    }
+
+    private <A, B> void translateAndPublish(final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final long sequence, final A arg0, final B arg1)
+    {
+        try
+        {
+            translator.translateTo(get(sequence), sequence, arg0, arg1);
+        }
+        finally
+        {
+            sequencer.publish(sequence);
+        }
+    }
+
+    private <A, B, C> void translateAndPublish(
+        final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator, final long sequence,
+        final A arg0, final B arg1, final C arg2)
+    {
+        try
+        {
+            translator.translateTo(get(sequence), sequence, arg0, arg1, arg2);
+        }
+        finally
+        {
+            sequencer.publish(sequence);
+        }
+    }
+
+    private void translateAndPublish(final EventTranslatorVararg<ByteBuffer> translator, final long sequence, final Object... args)
+    {
+        try
+        {
+            translator.translateTo(get(sequence), sequence, args);
+        }
+        finally
+        {
+            sequencer.publish(sequence);
+        }
+    }
+
+    private void translateAndPublishBatch(
+        final EventTranslator<ByteBuffer>[] translators, final int batchStartsAt,
+        final int batchSize, final long finalSequence)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try
+        {
+            long sequence = initialSequence;
+            final int batchEndsAt = batchStartsAt + batchSize;
+            for (int i = batchStartsAt; i < batchEndsAt; i++)
+            {
+                final EventTranslator<ByteBuffer> translator = translators[i];
+                translator.translateTo(get(sequence), sequence++);
+            }
+        }
+        finally
+        {
+            sequencer.publish(initialSequence, finalSequence);
+        }
+    }
+
+    private <A> void translateAndPublishBatch(
+        final EventTranslatorOneArg<ByteBuffer, A> translator, final A[] arg0,
+        final int batchStartsAt, final int batchSize, final long finalSequence)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try
+        {
+            long sequence = initialSequence;
+            final int batchEndsAt = batchStartsAt + batchSize;
+            for (int i = batchStartsAt; i < batchEndsAt; i++)
+            {
+                translator.translateTo(get(sequence), sequence++, arg0[i]);
+            }
+        }
+        finally
+        {
+            sequencer.publish(initialSequence, finalSequence);
+        }
+    }
+
+    private <A, B> void translateAndPublishBatch(
+        final EventTranslatorTwoArg<ByteBuffer, A, B> translator, final A[] arg0,
+        final B[] arg1, final int batchStartsAt, final int batchSize,
+        final long finalSequence)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try
+        {
+            long sequence = initialSequence;
+            final int batchEndsAt = batchStartsAt + batchSize;
+            for (int i = batchStartsAt; i < batchEndsAt; i++)
+            {
+                translator.translateTo(get(sequence), sequence++, arg0[i], arg1[i]);
+            }
+        }
+        finally
+        {
+            sequencer.publish(initialSequence, finalSequence);
+        }
+    }
+
+    private <A, B, C> void translateAndPublishBatch(
+        final EventTranslatorThreeArg<ByteBuffer, A, B, C> translator,
+        final A[] arg0, final B[] arg1, final C[] arg2, final int batchStartsAt,
+        final int batchSize, final long finalSequence)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try
+        {
+            long sequence = initialSequence;
+            final int batchEndsAt = batchStartsAt + batchSize;
+            for (int i = batchStartsAt; i < batchEndsAt; i++)
+            {
+                translator.translateTo(get(sequence), sequence++, arg0[i], arg1[i], arg2[i]);
+            }
+        }
+        finally
+        {
+            sequencer.publish(initialSequence, finalSequence);
+        }
+    }
+
+    private void translateAndPublishBatch(
+        final EventTranslatorVararg<ByteBuffer> translator, final int batchStartsAt,
+        final int batchSize, final long finalSequence, final Object[][] args)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        try
+        {
+            long sequence = initialSequence;
+            final int batchEndsAt = batchStartsAt + batchSize;
+            for (int i = batchStartsAt; i < batchEndsAt; i++)
+            {
+                translator.translateTo(get(sequence), sequence++, args[i]);
+            }
+        }
+        finally
+        {
+            sequencer.publish(initialSequence, finalSequence);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OffHeapRingBuffer{" +
+            "bufferSize=" + bufferSize +
+            ", slotSize=" + slotSize +
+            ", segments=" + segments.length +
+            ", sequencer=" + sequencer +
+            "}";
+    }
+}
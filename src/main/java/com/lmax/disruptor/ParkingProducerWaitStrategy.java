@@ -0,0 +1,66 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parking strategy for publishers waiting on a full ring buffer, using <code>LockSupport.parkNanos(n)</code>
+ * between each check of the gating sequences.
+ *
+ * <p>This is the default {@link ProducerWaitStrategy}.  Note that on most operating systems the effective
+ * park time will be much larger than requested (e.g. ~50us with the default Linux timer slack), which can show
+ * up in claim latency when the ring buffer is briefly full.
+ */
+public final class ParkingProducerWaitStrategy implements ProducerWaitStrategy
+{
+    private static final long DEFAULT_PARK_NANOS = 1L;
+
+    private final long parkNanos;
+
+    /**
+     * Provides a parking producer wait strategy with the minimum park time.
+     */
+    public ParkingProducerWaitStrategy()
+    {
+        this(DEFAULT_PARK_NANOS);
+    }
+
+    /**
+     * @param parkNanos How long the strategy should park between checks, in nanoseconds
+     */
+    public ParkingProducerWaitStrategy(final long parkNanos)
+    {
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public long waitFor(final long wrapPoint, final Sequence gatingSequence)
+    {
+        long minSequence;
+        while (wrapPoint > (minSequence = gatingSequence.get()))
+        {
+            LockSupport.parkNanos(parkNanos);
+        }
+
+        return minSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Blocking strategy that parks {@link EventProcessor}s waiting on a barrier with <code>LockSupport.park</code> and
+ * has publishers unpark the registered waiters, without holding a lock or monitor.
+ *
+ * <p>Unlike the {@link BlockingWaitStrategy} a waiting virtual thread releases its carrier thread instead of pinning
+ * it, so this strategy suits event processors started on virtual threads, e.g. by a
+ * {@link com.lmax.disruptor.util.VirtualThreadFactory}.  Publishers only pay for an unpark when a processor is
+ * actually waiting.
+ *
+ * <p>Waiting on a dependent sequence behind the cursor is done by spinning and then yielding, which also gives up
+ * the carrier of a virtual thread.
+ */
+public final class ParkingWaitStrategy implements WaitStrategy
+{
+    private static final int DEFAULT_SPIN_TRIES = 100;
+
+    private final int spinTries;
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Provides a parking wait strategy that spins briefly before parking.
+     */
+    public ParkingWaitStrategy()
+    {
+        this(DEFAULT_SPIN_TRIES);
+    }
+
+    /**
+     * @param spinTries the number of times to check the sequences before parking or yielding.
+     */
+    public ParkingWaitStrategy(final int spinTries)
+    {
+        if (spinTries < 0)
+        {
+            throw new IllegalArgumentException("spinTries must not be negative");
+        }
+
+        this.spinTries = spinTries;
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursorSequence, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException
+    {
+        int counter = spinTries;
+        while (cursorSequence.get() < sequence && counter > 0)
+        {
+            barrier.checkAlert();
+            Thread.onSpinWait();
+            --counter;
+        }
+
+        if (cursorSequence.get() < sequence)
+        {
+            park(sequence, cursorSequence, barrier);
+        }
+
+        long availableSequence;
+        counter = spinTries;
+        while ((availableSequence = dependentSequence.get()) < sequence)
+        {
+            barrier.checkAlert();
+            if (counter > 0)
+            {
+                Thread.onSpinWait();
+                --counter;
+            }
+            else
+            {
+                Thread.yield();
+            }
+        }
+
+        return availableSequence;
+    }
+
+    private void park(final long sequence, final Sequence cursorSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException
+    {
+        final Thread thread = Thread.currentThread();
+        waiters.add(thread);
+        try
+        {
+            // Registered before the check, so a publish after it will unpark this thread
+            while (cursorSequence.get() < sequence)
+            {
+                barrier.checkAlert();
+                LockSupport.park(this);
+                if (Thread.interrupted())
+                {
+                    throw new InterruptedException();
+                }
+            }
+        }
+        finally
+        {
+            waiters.remove(thread);
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        // The cursor may have been published with a release store, order it before reading the waiters
+        VarHandle.fullFence();
+        if (!waiters.isEmpty())
+        {
+            for (final Thread waiter : waiters)
+            {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ParkingWaitStrategy{" +
+            "spinTries=" + spinTries +
+            ", waiters=" + waiters.size() +
+            '}';
+    }
+}
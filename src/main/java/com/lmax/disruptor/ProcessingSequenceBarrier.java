@@ -23,6 +23,7 @@ package com.lmax.disruptor;
 final class ProcessingSequenceBarrier implements SequenceBarrier
 {
     private final WaitStrategy waitStrategy;
+    private final ProducerWaitStrategy producerWaitStrategy;
     private final Sequence dependentSequence;
     private volatile boolean alerted = false;
     private final Sequence cursorSequence;
@@ -31,11 +32,13 @@ final class ProcessingSequenceBarrier implements SequenceBarrier
     ProcessingSequenceBarrier(
         final Sequencer sequencer,
         final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy,
         final Sequence cursorSequence,
         final Sequence[] dependentSequences)
     {
         this.sequencer = sequencer;
         this.waitStrategy = waitStrategy;
+        this.producerWaitStrategy = producerWaitStrategy;
         this.cursorSequence = cursorSequence;
         if (0 == dependentSequences.length)
         {
@@ -53,6 +56,9 @@ final class ProcessingSequenceBarrier implements SequenceBarrier
     {
         checkAlert();
 
+        // The caller has published its progress before coming back for more events
+        producerWaitStrategy.signalAllWhenBlocking();
+
         long availableSequence = waitStrategy.waitFor(sequence, cursorSequence, dependentSequence, this);
 
         if (availableSequence < sequence)
@@ -63,6 +69,12 @@ final class ProcessingSequenceBarrier implements SequenceBarrier
         return sequencer.getHighestPublishedSequence(sequence, availableSequence);
     }
 
+    @Override
+    public void signalProgress()
+    {
+        producerWaitStrategy.signalAllWhenBlocking();
+    }
+
     @Override
     public long getCursor()
     {
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Callback from a {@link BatchEventProcessor} reporting how it spends its time, see
+ * {@link BatchEventProcessor#setMetrics(ProcessorMetrics)}.
+ *
+ * <p>The callbacks are made on the thread of the event processor, between handling events, so implementations
+ * should be cheap and must not allocate on the hot path.  {@link HistogramProcessorMetrics} records them in
+ * histograms.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public interface ProcessorMetrics<T>
+{
+    /**
+     * Called after all of the events in a batch have been passed to the {@link EventHandler} and before the sequence
+     * of the event processor is moved past them.
+     *
+     * @param batchSize    the number of events in the batch.
+     * @param waitNanos    the time from the end of the previous batch until this batch was available, i.e. the time
+     *                     the event processor was idle waiting on the {@link SequenceBarrier}.
+     * @param serviceNanos the time taken by the {@link EventHandler} to handle the batch.
+     */
+    void onBatchProcessed(long batchSize, long waitNanos, long serviceNanos);
+
+    /**
+     * Called after each event has been passed to the {@link EventHandler}, e.g. to record the latency from a
+     * timestamp set on the event when it was published.
+     *
+     * @param event    that was handled.
+     * @param sequence of the event.
+     */
+    default void onEventProcessed(final T event, final long sequence)
+    {
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Strategy employed by a {@link Sequencer} for making publishers wait when the ring buffer is full and
+ * a claim has to wait for the slowest gating {@link Sequence} to move past the wrap point.
+ *
+ * <p>This is the producer side counterpart of {@link WaitStrategy}.
+ */
+public interface ProducerWaitStrategy
+{
+    /**
+     * Wait for the minimum of the gating sequences to reach the given wrap point.
+     *
+     * @param wrapPoint      the sequence that the slowest gating sequence must reach before the claim can proceed.
+     * @param gatingSequence the minimum of the gating sequences of the sequencer.
+     * @return the observed minimum gating sequence, which will be greater than or equal to the wrap point.
+     */
+    long waitFor(long wrapPoint, Sequence gatingSequence);
+
+    /**
+     * Implementations should signal the waiting publishers that a consumer has advanced.  This is called
+     * by {@link SequenceBarrier}s handed out by the sequencer each time an {@link EventProcessor} comes
+     * back to wait for more events, i.e. after it has updated its own sequence.
+     */
+    void signalAllWhenBlocking();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * Callback interface to be implemented for processing all of the events available in the {@link RingBuffer} with a
+ * single call, rather than one call per event as for an {@link EventHandler}.  This suits handlers that work on a
+ * batch as a whole, such as checksumming a range of events or serializing them into one buffer that is written with
+ * a single system call.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ * @see RangeEventProcessor#setExceptionHandler(ExceptionHandler) if you want to handle exceptions propagated out of the handler.
+ */
+@FunctionalInterface
+public interface RangeEventHandler<T>
+{
+    /**
+     * Called with the range of events that have been published to the {@link RingBuffer} and are available to be
+     * processed without having to wait for any new event to arrive.  The events must only be read from the data
+     * provider within the range and before this method returns, the range is considered processed once it returns.
+     *
+     * @param events        from which to get the events of the range.
+     * @param firstSequence of the first event of the range.
+     * @param lastSequence  of the last event of the range, inclusive.
+     * @throws Exception if the RangeEventHandler would like the exception handled further up the chain.
+     */
+    void onEvents(DataProvider<? extends T> events, long firstSequence, long lastSequence) throws Exception;
+
+    /**
+     * Called once on thread start before first event is available.
+     */
+    default void onStart()
+    {
+    }
+
+    /**
+     * Called once just before the event processing thread is shutdown.
+     *
+     * <p>Sequence event processing will already have stopped before this method is called. No events will
+     * be processed after this message.
+     */
+    default void onShutdown()
+    {
+    }
+
+    /**
+     * Used by the {@link RangeEventProcessor} to set a callback allowing the handler to notify when it has finished
+     * consuming events if this happens after the {@link #onEvents(DataProvider, long, long)} call.
+     *
+     * @param sequenceCallback callback on which to notify the {@link RangeEventProcessor} that the sequence has progressed.
+     */
+    default void setSequenceCallback(Sequence sequenceCallback)
+    {
+    }
+
+    /**
+     * Invoked when a {@link RangeEventProcessor}'s {@link WaitStrategy} throws a {@link TimeoutException}.
+     *
+     * @param sequence - the last processed sequence.
+     * @throws Exception if the implementation is unable to handle this timeout.
+     */
+    default void onTimeout(long sequence) throws Exception
+    {
+    }
+}
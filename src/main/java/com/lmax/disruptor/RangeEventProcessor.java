@@ -0,0 +1,295 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.lmax.disruptor.RewindAction.REWIND;
+
+/**
+ * Convenience class for consuming entries from a {@link RingBuffer} and delegating each range of available events
+ * to a {@link RangeEventHandler} with a single call.
+ *
+ * <p>If the handler throws, the exception is passed to the {@link ExceptionHandler} with the last sequence of the
+ * range and a null event, and the whole range is treated as processed.  A {@link RewindableException} rewinds the
+ * whole range according to the {@link BatchRewindStrategy}.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class RangeEventProcessor<T>
+    implements EventProcessor
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+    private ExceptionHandler<? super T> exceptionHandler;
+    private final DataProvider<T> dataProvider;
+    private final SequenceBarrier sequenceBarrier;
+    private final RangeEventHandler<? super T> eventHandler;
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private BatchRewindStrategy batchRewindStrategy = new SimpleBatchRewindStrategy();
+    private int retriesAttempted = 0;
+    private volatile SequenceCompletion sequenceCompletion;
+
+    /**
+     * Construct a {@link EventProcessor} that will automatically track the progress by updating its sequence when
+     * the {@link RangeEventHandler#onEvents(DataProvider, long, long)} method returns.
+     *
+     * @param dataProvider    to which events are published.
+     * @param sequenceBarrier on which it is waiting.
+     * @param eventHandler    is the delegate to which ranges of events are dispatched.
+     */
+    public RangeEventProcessor(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final RangeEventHandler<? super T> eventHandler)
+    {
+        this.dataProvider = dataProvider;
+        this.sequenceBarrier = sequenceBarrier;
+        this.eventHandler = eventHandler;
+
+        eventHandler.setSequenceCallback(sequence);
+    }
+
+    @Override
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    @Override
+    public void halt()
+    {
+        running.set(HALTED);
+        sequenceBarrier.alert();
+    }
+
+    @Override
+    public SequenceCompletion getSequenceCompletion()
+    {
+        SequenceCompletion sequenceCompletion = this.sequenceCompletion;
+        if (sequenceCompletion == null)
+        {
+            synchronized (this)
+            {
+                sequenceCompletion = this.sequenceCompletion;
+                if (sequenceCompletion == null)
+                {
+                    sequenceCompletion = new SequenceCompletion(sequence);
+                    this.sequenceCompletion = sequenceCompletion;
+                }
+            }
+        }
+
+        return sequenceCompletion;
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running.get() != IDLE;
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link RangeEventProcessor}.
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Set a new {@link BatchRewindStrategy} for customizing how to handle a {@link RewindableException},
+     * the default is a {@link SimpleBatchRewindStrategy} which always rewinds.
+     *
+     * @param batchRewindStrategy to replace the existing rewindStrategy.
+     */
+    public void setRewindStrategy(final BatchRewindStrategy batchRewindStrategy)
+    {
+        if (null == batchRewindStrategy)
+        {
+            throw new NullPointerException();
+        }
+
+        this.batchRewindStrategy = batchRewindStrategy;
+    }
+
+    /**
+     * It is ok to have another thread rerun this method after a halt().
+     *
+     * @throws IllegalStateException if this object instance is already running in a thread
+     */
+    @Override
+    public void run()
+    {
+        int witnessValue = running.compareAndExchange(IDLE, RUNNING);
+        if (witnessValue == IDLE)
+        {
+            sequenceBarrier.clearAlert();
+
+            notifyStart();
+            try
+            {
+                if (running.get() == RUNNING)
+                {
+                    processEvents();
+                }
+            }
+            finally
+            {
+                notifyShutdown();
+                running.set(IDLE);
+            }
+        }
+        else
+        {
+            if (witnessValue == RUNNING)
+            {
+                throw new IllegalStateException("Thread is already running");
+            }
+            else
+            {
+                notifyStart();
+                notifyShutdown();
+            }
+        }
+    }
+
+    private void processEvents()
+    {
+        long nextSequence = sequence.get() + 1L;
+
+        while (true)
+        {
+            long availableSequence = nextSequence - 1L;
+            try
+            {
+                try
+                {
+                    availableSequence = sequenceBarrier.waitFor(nextSequence);
+                    if (availableSequence >= nextSequence)
+                    {
+                        eventHandler.onEvents(dataProvider, nextSequence, availableSequence);
+                        nextSequence = availableSequence + 1L;
+                    }
+
+                    retriesAttempted = 0;
+                    sequence.set(availableSequence);
+                    notifySequenceAdvanced(availableSequence);
+                }
+                catch (final RewindableException e)
+                {
+                    if (this.batchRewindStrategy.handleRewindException(e, ++retriesAttempted) != REWIND)
+                    {
+                        retriesAttempted = 0;
+                        throw e;
+                    }
+                }
+            }
+            catch (final TimeoutException e)
+            {
+                notifyTimeout(sequence.get());
+            }
+            catch (final AlertException ex)
+            {
+                if (running.get() != RUNNING)
+                {
+                    break;
+                }
+            }
+            catch (final Throwable ex)
+            {
+                handleEventException(ex, availableSequence, null);
+                sequence.set(availableSequence);
+                notifySequenceAdvanced(availableSequence);
+                nextSequence = availableSequence + 1L;
+            }
+        }
+    }
+
+    private void notifySequenceAdvanced(final long value)
+    {
+        final SequenceCompletion sequenceCompletion = this.sequenceCompletion;
+        if (sequenceCompletion != null)
+        {
+            sequenceCompletion.sequenceAdvanced(value);
+        }
+    }
+
+    private void notifyTimeout(final long availableSequence)
+    {
+        try
+        {
+            eventHandler.onTimeout(availableSequence);
+        }
+        catch (final Throwable e)
+        {
+            handleEventException(e, availableSequence, null);
+        }
+    }
+
+    private void notifyStart()
+    {
+        try
+        {
+            eventHandler.onStart();
+        }
+        catch (final Throwable ex)
+        {
+            getExceptionHandler().handleOnStartException(ex);
+        }
+    }
+
+    private void notifyShutdown()
+    {
+        try
+        {
+            eventHandler.onShutdown();
+        }
+        catch (final Throwable ex)
+        {
+            getExceptionHandler().handleOnShutdownException(ex);
+        }
+    }
+
+    private void handleEventException(final Throwable ex, final long sequence, final T event)
+    {
+        getExceptionHandler().handleEventException(ex, sequence, event);
+    }
+
+    private ExceptionHandler<? super T> getExceptionHandler()
+    {
+        ExceptionHandler<? super T> handler = exceptionHandler;
+        return handler == null ? ExceptionHandlers.defaultHandler() : handler;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RangeEventProcessor{" +
+            "eventHandler=" + eventHandler +
+            '}';
+    }
+}
@@ -131,6 +131,29 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return new RingBuffer<>(factory, sequencer);
     }
 
+    /**
+     * Create a new multiple producer RingBuffer with the specified wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory              used to create the events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how publishers wait for the ring buffer to have capacity.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see MultiProducerSequencer
+     */
+    public static <E> RingBuffer<E> createMultiProducer(
+        final EventFactory<E> factory,
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        MultiProducerSequencer sequencer = new MultiProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy);
+
+        return new RingBuffer<>(factory, sequencer);
+    }
+
     /**
      * Create a new multiple producer RingBuffer using the default wait strategy  {@link BlockingWaitStrategy}.
      *
@@ -167,6 +190,29 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return new RingBuffer<>(factory, sequencer);
     }
 
+    /**
+     * Create a new single producer RingBuffer with the specified wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory              used to create the events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how the publisher waits for the ring buffer to have capacity.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     * @see SingleProducerSequencer
+     */
+    public static <E> RingBuffer<E> createSingleProducer(
+        final EventFactory<E> factory,
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        SingleProducerSequencer sequencer = new SingleProducerSequencer(bufferSize, waitStrategy, producerWaitStrategy);
+
+        return new RingBuffer<>(factory, sequencer);
+    }
+
     /**
      * Create a new single producer RingBuffer using the default wait strategy  {@link BlockingWaitStrategy}.
      *
@@ -182,6 +228,57 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return createSingleProducer(factory, bufferSize, new BlockingWaitStrategy());
     }
 
+    /**
+     * Create a new sharded producer RingBuffer with the specified wait strategy.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory      used to create the events within the ring buffer.
+     * @param bufferSize   number of elements to create within the ring buffer.
+     * @param laneCount    number of publisher threads, each takes chunks of sequences in a lane of its own.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2,
+     *                                  or laneCount is less than 1 or greater than bufferSize
+     * @see ShardedProducerSequencer
+     */
+    public static <E> RingBuffer<E> createShardedProducer(
+        final EventFactory<E> factory,
+        final int bufferSize,
+        final int laneCount,
+        final WaitStrategy waitStrategy)
+    {
+        ShardedProducerSequencer sequencer = new ShardedProducerSequencer(bufferSize, laneCount, waitStrategy);
+
+        return new RingBuffer<>(factory, sequencer);
+    }
+
+    /**
+     * Create a new sharded producer RingBuffer with the specified wait strategies.
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param factory              used to create the events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param laneCount            number of publisher threads, each takes chunks of sequences in a lane of its own.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how publishers wait for the ring buffer to have capacity.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2,
+     *                                  or laneCount is less than 1 or greater than bufferSize
+     * @see ShardedProducerSequencer
+     */
+    public static <E> RingBuffer<E> createShardedProducer(
+        final EventFactory<E> factory,
+        final int bufferSize,
+        final int laneCount,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        ShardedProducerSequencer sequencer =
+            new ShardedProducerSequencer(bufferSize, laneCount, waitStrategy, producerWaitStrategy);
+
+        return new RingBuffer<>(factory, sequencer);
+    }
+
     /**
      * Create a new Ring Buffer with the specified producer type (SINGLE or MULTI)
      *
@@ -210,6 +307,36 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         }
     }
 
+    /**
+     * Create a new Ring Buffer with the specified producer type (SINGLE or MULTI)
+     *
+     * @param <E> Class of the event stored in the ring buffer.
+     * @param producerType         producer type to use {@link ProducerType}.
+     * @param factory              used to create events within the ring buffer.
+     * @param bufferSize           number of elements to create within the ring buffer.
+     * @param waitStrategy         used to determine how to wait for new elements to become available.
+     * @param producerWaitStrategy used to determine how publishers wait for the ring buffer to have capacity.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static <E> RingBuffer<E> create(
+        final ProducerType producerType,
+        final EventFactory<E> factory,
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return createSingleProducer(factory, bufferSize, waitStrategy, producerWaitStrategy);
+            case MULTI:
+                return createMultiProducer(factory, bufferSize, waitStrategy, producerWaitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
     /**
      * <p>Get the event for a given sequence in the RingBuffer.</p>
      *
@@ -435,6 +562,21 @@ public final class RingBuffer<E> extends RingBufferFields<E> implements Cursored
         return sequencer.getCursor();
     }
 
+    /**
+     * Unbind the calling thread from its lane of a sharded producer ring buffer, so that the sequences left in the
+     * chunk of the lane do not hold back consumers while the thread is not publishing.  Does nothing for other ring
+     * buffers.
+     *
+     * @see ShardedProducerSequencer#releaseLane()
+     */
+    public void releaseLane()
+    {
+        if (sequencer instanceof ShardedProducerSequencer)
+        {
+            ((ShardedProducerSequencer) sequencer).releaseLane();
+        }
+    }
+
     /**
      * The size of the buffer.
      *
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+/**
+ * How a {@link MultiRingEventProcessor} chooses the ring to take the next batch of events from.
+ */
+public enum RingSelection
+{
+    /**
+     * Visit each ring in turn, taking up to its maximum batch size from each.  Equal batch sizes share the processor
+     * fairly between busy rings, unequal sizes weight it towards the rings with larger batches.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Always take the next batch from the first ring that has events available, in the order the rings were given.
+     * The maximum batch size of a ring bounds how long it can hold back events from the rings before it.
+     */
+    PRIORITY
+}
@@ -63,4 +63,13 @@ public interface SequenceBarrier
      * @throws AlertException if alert has been raised.
      */
     void checkAlert() throws AlertException;
+
+    /**
+     * Signal the publishers waiting for space in the ring buffer that the caller has updated its sequence.  This is
+     * done by {@link #waitFor(long)}, event processors that do not always come back to wait on the barrier after
+     * updating their sequence should call it before they wait elsewhere.
+     */
+    default void signalProgress()
+    {
+    }
 }
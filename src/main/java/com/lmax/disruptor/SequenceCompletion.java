@@ -0,0 +1,212 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets callers wait, without spinning, for the {@link Sequence} of an {@link EventProcessor} to reach a target, e.g.
+ * for the response to a request or for a stage to drain before shutting down.
+ *
+ * <p>Waiters are kept sorted by their target.  The event processor calls {@link #sequenceAdvanced(long)} after it
+ * updates its sequence at the end of each batch, which costs a full fence and a comparison with the lowest target
+ * unless a waiter is due.  Futures are completed on the event processor's thread, so slow dependent actions should use the
+ * async variants of {@link CompletableFuture}.
+ *
+ * <p>Targets that are never reached, e.g. because the event processor has been halted, are not completed.
+ */
+public final class SequenceCompletion
+{
+    private final Sequence sequence;
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(Comparator.comparingLong(waiter -> waiter.target));
+    private volatile long lowestTarget = Long.MAX_VALUE;
+
+    /**
+     * @param sequence the sequence whose progress is notified to this completion.
+     */
+    public SequenceCompletion(final Sequence sequence)
+    {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Get a future that is completed once the sequence has reached a target.
+     *
+     * @param target the sequence value to wait for.
+     * @return a future completed with the value of the sequence once it is at least the target.
+     */
+    public CompletableFuture<Long> whenReached(final long target)
+    {
+        final long current = sequence.get();
+        if (current >= target)
+        {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        final Waiter waiter = new Waiter(target);
+        synchronized (waiters)
+        {
+            waiters.add(waiter);
+            if (target < lowestTarget)
+            {
+                lowestTarget = target;
+            }
+        }
+
+        // The sequence may have passed the target before the event processor could see the new waiter
+        VarHandle.fullFence();
+        sequenceAdvanced(sequence.get());
+
+        return waiter.future;
+    }
+
+    /**
+     * Block until the sequence has reached a target.
+     *
+     * @param target the sequence value to wait for.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void await(final long target) throws InterruptedException
+    {
+        try
+        {
+            whenReached(target).get();
+        }
+        catch (final ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Block until the sequence has reached a target or the timeout expires.
+     *
+     * @param target  the sequence value to wait for.
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return true if the sequence reached the target, false if the timeout expired first.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public boolean await(final long target, final long timeout, final TimeUnit unit) throws InterruptedException
+    {
+        final CompletableFuture<Long> future = whenReached(target);
+        try
+        {
+            future.get(timeout, unit);
+            return true;
+        }
+        catch (final java.util.concurrent.TimeoutException e)
+        {
+            // Reached after all if the future completed before it could be cancelled
+            return !cancel(future);
+        }
+        catch (final InterruptedException e)
+        {
+            cancel(future);
+            throw e;
+        }
+        catch (final ExecutionException e)
+        {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Notify that the sequence has advanced, to be called by the event processor after it sets its sequence.
+     *
+     * <p>This issues a full fence on every call, which pairs with the fence in {@link #whenReached(long)} so that either
+     * the event processor sees a new waiter or the waiter sees the advanced sequence.
+     *
+     * @param value the new value of the sequence.
+     */
+    public void sequenceAdvanced(final long value)
+    {
+        // The sequence may have been set with a release store, order it before reading the lowest target
+        VarHandle.fullFence();
+        if (value >= lowestTarget)
+        {
+            complete(value);
+        }
+    }
+
+    private void complete(final long value)
+    {
+        final List<Waiter> reached = new ArrayList<>();
+        synchronized (waiters)
+        {
+            Waiter waiter;
+            while ((waiter = waiters.peek()) != null && waiter.target <= value)
+            {
+                reached.add(waiters.poll());
+            }
+            lowestTarget = waiter != null ? waiter.target : Long.MAX_VALUE;
+        }
+
+        for (final Waiter waiter : reached)
+        {
+            waiter.future.complete(value);
+        }
+    }
+
+    private boolean cancel(final CompletableFuture<Long> future)
+    {
+        synchronized (waiters)
+        {
+            waiters.removeIf(waiter -> waiter.future == future);
+            final Waiter lowest = waiters.peek();
+            lowestTarget = lowest != null ? lowest.target : Long.MAX_VALUE;
+        }
+        return future.cancel(false);
+    }
+
+    /**
+     * @return the number of targets that have not been reached yet.
+     */
+    public int getWaiterCount()
+    {
+        synchronized (waiters)
+        {
+            return waiters.size();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SequenceCompletion{" +
+            "sequence=" + sequence +
+            ", lowestTarget=" + lowestTarget +
+            '}';
+    }
+
+    private static final class Waiter
+    {
+        private final long target;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        Waiter(final long target)
+        {
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.util.Util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Coordinator for claiming sequences for access to a data structure while tracking dependent {@link Sequence}s.
+ * Suitable for use for sequencing across a fixed number of publisher threads that rarely contend on a shared claim
+ * counter.
+ *
+ * <p>Each publisher thread is bound to a lane of its own the first time it claims a sequence.  A lane takes a chunk
+ * of contiguous sequences from the shared claim counter at a time and hands them out to its thread, so publishers
+ * only contend on the counter once per chunk rather than once per claim.  As with {@link MultiProducerSequencer} the
+ * publication of each slot is tracked on its own, so the chunks of all of the lanes form a single ordered stream
+ * without gaps and a lane that is not bound to a thread holds nothing back.  A single thread publishing to a ring
+ * with several lanes claims contiguous sequences just as it would with one lane.
+ *
+ * <p>The sequences left in the chunk of a lane are only handed out to the thread of that lane, so consumers, and the
+ * publishers waiting on them for capacity, are held back at the first of them until that thread claims again.  A
+ * thread that stops publishing while others carry on must therefore hand its lane over with {@link #releaseLane()},
+ * or {@link RingBuffer#releaseLane()}, which passes the rest of its chunk on to the next lane that takes a chunk.
+ * The lane of a thread that terminated without doing so is taken over by the next thread that needs a lane.
+ */
+public final class ShardedProducerSequencer extends AbstractSequencer
+{
+    private static final VarHandle AVAILABLE_ARRAY = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int MAX_CHUNK_SIZE = 64;
+
+    private final Lane[] lanes;
+    private final int laneCount;
+    private final int chunkSize;
+    private final Sequence claimSequence = new Sequence(INITIAL_CURSOR_VALUE);
+    private final Queue<Chunk> releasedChunks = new ConcurrentLinkedQueue<>();
+    private final Queue<Lane> freeLanes = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Lane> laneForThread = new ThreadLocal<>();
+
+    // availableBuffer tracks the state of each ringbuffer slot, see MultiProducerSequencer
+    private final int[] availableBuffer;
+    private final int indexMask;
+    private final int indexShift;
+
+    /**
+     * Construct a Sequencer with the selected wait strategy, buffer size and number of lanes.
+     *
+     * @param bufferSize   the size of the buffer that this will sequence over.
+     * @param laneCount    the number of publisher threads, each gets a lane of its own.
+     * @param waitStrategy for those waiting on sequences.
+     */
+    public ShardedProducerSequencer(final int bufferSize, final int laneCount, final WaitStrategy waitStrategy)
+    {
+        this(bufferSize, laneCount, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Construct a Sequencer with the selected wait strategies, buffer size and number of lanes.
+     *
+     * @param bufferSize           the size of the buffer that this will sequence over.
+     * @param laneCount            the number of publisher threads, each gets a lane of its own.
+     * @param waitStrategy         for those waiting on sequences.
+     * @param producerWaitStrategy for publishers waiting on the buffer to have capacity.
+     */
+    public ShardedProducerSequencer(
+        final int bufferSize,
+        final int laneCount,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        this(bufferSize, waitStrategy, producerWaitStrategy, createLanes(bufferSize, laneCount));
+    }
+
+    private ShardedProducerSequencer(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy,
+        final Lane[] lanes)
+    {
+        super(bufferSize, waitStrategy, producerWaitStrategy, new ClaimedCursor(lanes));
+        this.lanes = lanes;
+        this.laneCount = lanes.length;
+        // Chunks of every lane fit in the buffer at once
+        this.chunkSize = Math.min(MAX_CHUNK_SIZE, bufferSize / laneCount);
+        freeLanes.addAll(Arrays.asList(lanes));
+
+        availableBuffer = new int[bufferSize];
+        Arrays.fill(availableBuffer, -1);
+        indexMask = bufferSize - 1;
+        indexShift = Util.log2(bufferSize);
+    }
+
+    private static Lane[] createLanes(final int bufferSize, final int laneCount)
+    {
+        if (laneCount < 1)
+        {
+            throw new IllegalArgumentException("laneCount must not be less than 1");
+        }
+        if (laneCount > bufferSize)
+        {
+            throw new IllegalArgumentException("laneCount must not be greater than bufferSize");
+        }
+
+        final Lane[] lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++)
+        {
+            lanes[i] = new Lane();
+        }
+        return lanes;
+    }
+
+    /**
+     * @return the number of lanes, and so the number of publisher threads, supported by this sequencer.
+     */
+    public int getLaneCount()
+    {
+        return laneCount;
+    }
+
+    /**
+     * @return the number of sequences a lane takes from the shared claim counter at a time.
+     */
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * Unbind the lane of the calling thread so that it can be used by the next thread to claim a sequence, and pass
+     * the sequences left in its chunk on to the next lane that takes a chunk.  The calling thread must have published
+     * every sequence it claimed.  Does nothing if the calling thread is not bound to a lane.
+     */
+    public void releaseLane()
+    {
+        final Lane lane = laneForThread.get();
+        if (lane != null)
+        {
+            laneForThread.remove();
+            releaseChunk(lane);
+            lane.owner.set(null);
+            freeLanes.offer(lane);
+        }
+    }
+
+    /**
+     * @see Sequencer#hasAvailableCapacity(int)
+     */
+    @Override
+    public boolean hasAvailableCapacity(final int requiredCapacity)
+    {
+        final long cursorValue = cursor.get();
+        final long wrapPoint = (cursorValue + requiredCapacity) - bufferSize;
+
+        return wrapPoint <= getMinimumGatingSequence(wrapPoint, cursorValue);
+    }
+
+    /**
+     * @see Sequencer#claim(long)
+     */
+    @Override
+    public void claim(final long sequence)
+    {
+        releasedChunks.clear();
+        claimSequence.set(sequence);
+        for (final Lane lane : lanes)
+        {
+            lane.next = sequence + 1;
+            lane.end = sequence;
+            lane.chunkStart = lane.next;
+            lane.claimed.set(sequence);
+            lane.gatingSequenceCache.set(sequence);
+        }
+    }
+
+    /**
+     * @see Sequencer#next()
+     */
+    @Override
+    public long next()
+    {
+        return next(1);
+    }
+
+    /**
+     * @see Sequencer#next(int)
+     */
+    @Override
+    public long next(final int n)
+    {
+        checkClaimSize(n);
+
+        final Lane lane = laneForCurrentThread();
+        final long nextSequence = takeFromChunk(lane, n);
+        final long wrapPoint = nextSequence - bufferSize;
+
+        if (wrapPoint > lane.gatingSequenceCache.get())
+        {
+            long gatingSequence = getMinimumGatingSequence(wrapPoint, cursor.get());
+            if (wrapPoint > gatingSequence)
+            {
+                gatingSequence = producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence);
+            }
+
+            lane.gatingSequenceCache.set(gatingSequence);
+        }
+
+        return handOut(lane, nextSequence);
+    }
+
+    /**
+     * @see Sequencer#tryNext()
+     */
+    @Override
+    public long tryNext() throws InsufficientCapacityException
+    {
+        return tryNext(1);
+    }
+
+    /**
+     * @see Sequencer#tryNext(int)
+     */
+    @Override
+    public long tryNext(final int n) throws InsufficientCapacityException
+    {
+        checkClaimSize(n);
+
+        final Lane lane = laneForCurrentThread();
+        final long nextSequence = takeFromChunk(lane, n);
+        final long wrapPoint = nextSequence - bufferSize;
+
+        if (wrapPoint > lane.gatingSequenceCache.get())
+        {
+            final long gatingSequence = getMinimumGatingSequence(wrapPoint, cursor.get());
+            lane.gatingSequenceCache.set(gatingSequence);
+
+            if (wrapPoint > gatingSequence)
+            {
+                // The sequences stay in the chunk of the lane for its next claim
+                throw InsufficientCapacityException.INSTANCE;
+            }
+        }
+
+        return handOut(lane, nextSequence);
+    }
+
+    private long takeFromChunk(final Lane lane, final int n)
+    {
+        if (lane.end - lane.next + 1 < n)
+        {
+            releaseChunk(lane);
+            takeChunk(lane, n);
+        }
+
+        return lane.next + n - 1;
+    }
+
+    private long handOut(final Lane lane, final long nextSequence)
+    {
+        lane.next = nextSequence + 1;
+        if (nextSequence > lane.claimed.get())
+        {
+            lane.claimed.set(nextSequence);
+        }
+
+        return nextSequence;
+    }
+
+    private void takeChunk(final Lane lane, final int n)
+    {
+        final Chunk released = releasedChunks.poll();
+        if (released != null)
+        {
+            if (released.end - released.start + 1 >= n)
+            {
+                setChunk(lane, released.start, released.end);
+                return;
+            }
+            releasedChunks.offer(released);
+        }
+
+        final int size = Math.max(chunkSize, n);
+        final long end = claimSequence.addAndGet(size);
+        setChunk(lane, end - size + 1, end);
+    }
+
+    private void releaseChunk(final Lane lane)
+    {
+        if (lane.next <= lane.end &&
+            !claimSequence.compareAndSet(lane.end, lane.next - 1))
+        {
+            // Other lanes have taken chunks after this one, so these sequences have to be claimed by one of them
+            releasedChunks.offer(new Chunk(lane.next, lane.end));
+        }
+
+        lane.end = lane.next - 1;
+    }
+
+    private static void setChunk(final Lane lane, final long start, final long end)
+    {
+        lane.chunkStart = start;
+        lane.next = start;
+        lane.end = end;
+    }
+
+    /**
+     * @see Sequencer#remainingCapacity()
+     */
+    @Override
+    public long remainingCapacity()
+    {
+        final long produced = cursor.get();
+        final long consumed = Util.getMinimumSequence(gatingSequences, produced);
+        return getBufferSize() - (produced - consumed);
+    }
+
+    /**
+     * @see Sequencer#publish(long)
+     */
+    @Override
+    public void publish(final long sequence)
+    {
+        setAvailable(sequence);
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * @see Sequencer#publish(long, long)
+     */
+    @Override
+    public void publish(final long lo, final long hi)
+    {
+        for (long sequence = lo; sequence <= hi; sequence++)
+        {
+            setAvailable(sequence);
+        }
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * @see Sequencer#isAvailable(long)
+     */
+    @Override
+    public boolean isAvailable(final long sequence)
+    {
+        final int flag = calculateAvailabilityFlag(sequence);
+        return (int) AVAILABLE_ARRAY.getAcquire(availableBuffer, calculateIndex(sequence)) == flag;
+    }
+
+    @Override
+    public long getHighestPublishedSequence(final long lowerBound, final long availableSequence)
+    {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++)
+        {
+            if (!isAvailable(sequence))
+            {
+                return sequence - 1;
+            }
+        }
+
+        return availableSequence;
+    }
+
+    private void setAvailable(final long sequence)
+    {
+        AVAILABLE_ARRAY.setRelease(availableBuffer, calculateIndex(sequence), calculateAvailabilityFlag(sequence));
+    }
+
+    private int calculateAvailabilityFlag(final long sequence)
+    {
+        return (int) (sequence >>> indexShift);
+    }
+
+    private int calculateIndex(final long sequence)
+    {
+        return ((int) sequence) & indexMask;
+    }
+
+    private Lane laneForCurrentThread()
+    {
+        final Lane lane = laneForThread.get();
+        if (lane != null)
+        {
+            return lane;
+        }
+
+        final Lane boundLane = bindLane(Thread.currentThread());
+        laneForThread.set(boundLane);
+        return boundLane;
+    }
+
+    private Lane bindLane(final Thread thread)
+    {
+        final Lane freeLane = freeLanes.poll();
+        if (freeLane != null)
+        {
+            freeLane.owner.set(thread);
+            return freeLane;
+        }
+
+        for (final Lane lane : lanes)
+        {
+            final Thread owner = lane.owner.get();
+            if (owner != null && !owner.isAlive() && lane.owner.compareAndSet(owner, thread))
+            {
+                // Sequences the owner claimed but never published were not seen by consumers, claim them again
+                long sequence = lane.chunkStart;
+                while (sequence < lane.next && isAvailable(sequence))
+                {
+                    sequence++;
+                }
+                lane.next = sequence;
+                return lane;
+            }
+        }
+
+        throw new IllegalStateException(
+            "All " + laneCount + " lanes are in use, thread " + thread.getName() +
+            " can not publish to this sequencer");
+    }
+
+    private void checkClaimSize(final int n)
+    {
+        if (n < 1 || n > bufferSize)
+        {
+            throw new IllegalArgumentException("n must be > 0 and < bufferSize");
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ShardedProducerSequencer{" +
+                "bufferSize=" + bufferSize +
+                ", laneCount=" + laneCount +
+                ", chunkSize=" + chunkSize +
+                ", waitStrategy=" + waitStrategy +
+                ", producerWaitStrategy=" + producerWaitStrategy +
+                ", cursor=" + cursor +
+                ", gatingSequences=" + Arrays.toString(gatingSequences) +
+                '}';
+    }
+
+    /**
+     * The chunk a lane hands out sequences from.  Only the thread the lane is bound to uses the chunk, apart from
+     * the highest sequence it has claimed, which is read for the cursor.
+     */
+    private static final class Lane
+    {
+        private long chunkStart = 0;
+        private long next = 0;
+        private long end = INITIAL_CURSOR_VALUE;
+        private final Sequence claimed = new Sequence(INITIAL_CURSOR_VALUE);
+        private final Sequence gatingSequenceCache = new Sequence(INITIAL_CURSOR_VALUE);
+        private final AtomicReference<Thread> owner = new AtomicReference<>();
+    }
+
+    private static final class Chunk
+    {
+        private final long start;
+        private final long end;
+
+        Chunk(final long start, final long end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Read only view of the highest sequence claimed by any lane.
+     */
+    private static final class ClaimedCursor extends Sequence
+    {
+        private final Lane[] lanes;
+
+        ClaimedCursor(final Lane[] lanes)
+        {
+            this.lanes = lanes;
+        }
+
+        @Override
+        public long get()
+        {
+            long maximum = Long.MIN_VALUE;
+            for (final Lane lane : lanes)
+            {
+                maximum = Math.max(maximum, lane.claimed.get());
+            }
+            return maximum;
+        }
+
+        @Override
+        public void set(final long value)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setVolatile(final long value)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean compareAndSet(final long expectedValue, final long newValue)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long addAndGet(final long increment)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getAndAdd(final long increment)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString()
+        {
+            return Long.toString(get());
+        }
+    }
+}
@@ -20,7 +20,6 @@ import com.lmax.disruptor.util.Util;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.LockSupport;
 
 abstract class SingleProducerSequencerPad extends AbstractSequencer
 {
@@ -33,17 +32,23 @@ abstract class SingleProducerSequencerPad extends AbstractSequencer
         p60, p61, p62, p63, p64, p65, p66, p67,
         p70, p71, p72, p73, p74, p75, p76, p77;
 
-    SingleProducerSequencerPad(final int bufferSize, final WaitStrategy waitStrategy)
+    SingleProducerSequencerPad(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        super(bufferSize, waitStrategy, producerWaitStrategy);
     }
 }
 
 abstract class SingleProducerSequencerFields extends SingleProducerSequencerPad
 {
-    SingleProducerSequencerFields(final int bufferSize, final WaitStrategy waitStrategy)
+    SingleProducerSequencerFields(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        super(bufferSize, waitStrategy, producerWaitStrategy);
     }
 
     /**
@@ -80,7 +85,22 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
      */
     public SingleProducerSequencer(final int bufferSize, final WaitStrategy waitStrategy)
     {
-        super(bufferSize, waitStrategy);
+        this(bufferSize, waitStrategy, new ParkingProducerWaitStrategy());
+    }
+
+    /**
+     * Construct a Sequencer with the selected wait strategies and buffer size.
+     *
+     * @param bufferSize           the size of the buffer that this will sequence over.
+     * @param waitStrategy         for those waiting on sequences.
+     * @param producerWaitStrategy for the publisher waiting on the buffer to have capacity.
+     */
+    public SingleProducerSequencer(
+        final int bufferSize,
+        final WaitStrategy waitStrategy,
+        final ProducerWaitStrategy producerWaitStrategy)
+    {
+        super(bufferSize, waitStrategy, producerWaitStrategy);
     }
 
     /**
@@ -106,7 +126,7 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
                 cursor.setVolatile(nextValue);  // StoreLoad fence
             }
 
-            long minSequence = Util.getMinimumSequence(gatingSequences, nextValue);
+            long minSequence = getMinimumGatingSequence(wrapPoint, nextValue);
             this.cachedValue = minSequence;
 
             if (wrapPoint > minSequence)
@@ -150,10 +170,10 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
         {
             cursor.setVolatile(nextValue);  // StoreLoad fence
 
-            long minSequence;
-            while (wrapPoint > (minSequence = Util.getMinimumSequence(gatingSequences, nextValue)))
+            long minSequence = getMinimumGatingSequence(wrapPoint, nextValue);
+            if (wrapPoint > minSequence)
             {
-                LockSupport.parkNanos(1L); // TODO: Use waitStrategy to spin?
+                minSequence = producerWaitStrategy.waitFor(wrapPoint, minimumGatingSequence);
             }
 
             this.cachedValue = minSequence;
@@ -257,6 +277,7 @@ public final class SingleProducerSequencer extends SingleProducerSequencerFields
         return "SingleProducerSequencer{" +
                 "bufferSize=" + bufferSize +
                 ", waitStrategy=" + waitStrategy +
+                ", producerWaitStrategy=" + producerWaitStrategy +
                 ", cursor=" + cursor +
                 ", gatingSequences=" + Arrays.toString(gatingSequences) +
                 '}';
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Blocking strategy for publishers waiting on a full ring buffer that only wakes a publisher once the slowest
+ * consumer has moved past its wrap point.
+ *
+ * <p>A blocked publisher parks after registering its wrap point.  When a consumer signals progress the gating
+ * sequences are read once, by the signalling consumer, and only the publishers whose wrap point has been passed are
+ * unparked.  Unlike the {@link BlockingProducerWaitStrategy}, which wakes every blocked publisher to recheck the
+ * gating sequences, many blocked publishers do not keep reading the consumers' sequences while the ring buffer
+ * stays full.
+ *
+ * <p>Consumers that do not go through a {@link SequenceBarrier} handed out by the sequencer (e.g. an
+ * {@link EventPoller}) will not signal, so blocked publishers also recheck the gating sequences after a bounded
+ * interval.  No lock or monitor is held, so blocked virtual threads do not pin their carrier.
+ */
+public final class TargetedWakeupProducerWaitStrategy implements ProducerWaitStrategy
+{
+    private static final long DEFAULT_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final long recheckNanos;
+
+    /**
+     * Provides a targeted wakeup producer wait strategy with the default recheck interval.
+     */
+    public TargetedWakeupProducerWaitStrategy()
+    {
+        this(DEFAULT_RECHECK_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param recheckInterval The maximum time a blocked publisher waits before rechecking the gating sequences.
+     * @param units           Time units used for the recheck interval.
+     */
+    public TargetedWakeupProducerWaitStrategy(final long recheckInterval, final TimeUnit units)
+    {
+        this.recheckNanos = units.toNanos(recheckInterval);
+    }
+
+    @Override
+    public long waitFor(final long wrapPoint, final Sequence gatingSequence)
+    {
+        long minSequence;
+        if ((minSequence = gatingSequence.get()) >= wrapPoint)
+        {
+            return minSequence;
+        }
+
+        boolean interrupted = false;
+        final Waiter waiter = new Waiter(Thread.currentThread(), wrapPoint, gatingSequence);
+        waiters.add(waiter);
+        try
+        {
+            // Registered before the check, so progress after it will unpark this thread
+            while (wrapPoint > (minSequence = gatingSequence.get()))
+            {
+                LockSupport.parkNanos(this, recheckNanos);
+                interrupted |= Thread.interrupted();
+            }
+        }
+        finally
+        {
+            waiters.remove(waiter);
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        return minSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        // The consumer's sequence may have been set with a release store, order it before reading the waiters
+        VarHandle.fullFence();
+        if (waiters.isEmpty())
+        {
+            return;
+        }
+
+        Sequence lastGatingSequence = null;
+        long minSequence = Long.MIN_VALUE;
+        for (final Waiter waiter : waiters)
+        {
+            if (waiter.gatingSequence != lastGatingSequence)
+            {
+                lastGatingSequence = waiter.gatingSequence;
+                minSequence = lastGatingSequence.get();
+            }
+
+            if (waiter.wrapPoint <= minSequence)
+            {
+                LockSupport.unpark(waiter.thread);
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TargetedWakeupProducerWaitStrategy{" +
+            "waiters=" + waiters.size() +
+            ", recheckNanos=" + recheckNanos +
+            '}';
+    }
+
+    private static final class Waiter
+    {
+        private final Thread thread;
+        private final long wrapPoint;
+        private final Sequence gatingSequence;
+
+        Waiter(final Thread thread, final long wrapPoint, final Sequence gatingSequence)
+        {
+            this.thread = thread;
+            this.wrapPoint = wrapPoint;
+            this.gatingSequence = gatingSequence;
+        }
+    }
+}
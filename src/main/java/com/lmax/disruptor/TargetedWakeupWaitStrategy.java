@@ -0,0 +1,119 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Blocking strategy that only wakes the {@link EventProcessor}s whose dependency has reached the sequence they are
+ * waiting for, instead of every waiting processor on every publish.
+ *
+ * <p>A waiting processor parks after registering the sequence it is gated on (the cursor, or the slowest of the
+ * processors ahead of it) and the value it needs.  Publishers only unpark the waiters gated on a sequence that has
+ * passed their target, so in a pipeline the later stages stay parked while an event is published.  Each processor
+ * wakes the waiters that were gated on it when it comes back to wait for more events, having advanced its own
+ * sequence, so progress is passed down the pipeline one stage at a time.
+ *
+ * <p>Like the {@link ParkingWaitStrategy} no lock or monitor is held, so waiting virtual threads do not pin their
+ * carrier.  An alerted barrier always wakes its waiter.
+ */
+public final class TargetedWakeupWaitStrategy implements WaitStrategy
+{
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursorSequence, final Sequence dependentSequence, final SequenceBarrier barrier)
+        throws AlertException, InterruptedException
+    {
+        // The caller has advanced its own sequence before coming back for more events
+        signalAllWhenBlocking();
+
+        long availableSequence = dependentSequence.get();
+        if (availableSequence < sequence)
+        {
+            final Waiter waiter = new Waiter(Thread.currentThread(), dependentSequence, sequence, barrier);
+            waiters.add(waiter);
+            try
+            {
+                // Registered before the check, so progress after it will unpark this thread
+                while ((availableSequence = dependentSequence.get()) < sequence)
+                {
+                    barrier.checkAlert();
+                    LockSupport.park(this);
+                    if (Thread.interrupted())
+                    {
+                        throw new InterruptedException();
+                    }
+                }
+            }
+            finally
+            {
+                waiters.remove(waiter);
+            }
+        }
+
+        return availableSequence;
+    }
+
+    @Override
+    public void signalAllWhenBlocking()
+    {
+        // The sequences may have been advanced with a release store, order them before reading the waiters
+        VarHandle.fullFence();
+        if (!waiters.isEmpty())
+        {
+            for (final Waiter waiter : waiters)
+            {
+                if (waiter.isReady())
+                {
+                    LockSupport.unpark(waiter.thread);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TargetedWakeupWaitStrategy{" +
+            "waiters=" + waiters.size() +
+            '}';
+    }
+
+    private static final class Waiter
+    {
+        private final Thread thread;
+        private final Sequence dependentSequence;
+        private final long target;
+        private final SequenceBarrier barrier;
+
+        Waiter(final Thread thread, final Sequence dependentSequence, final long target, final SequenceBarrier barrier)
+        {
+            this.thread = thread;
+            this.dependentSequence = dependentSequence;
+            this.target = target;
+            this.barrier = barrier;
+        }
+
+        boolean isReady()
+        {
+            return dependentSequence.get() >= target || barrier.isAlerted();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A member of a {@link WorkerPool}, passing the events it claims from the work sequence shared by the pool to its
+ * {@link EventHandler}.  Each event is handled by exactly one member of the pool.
+ *
+ * <p>Events are claimed in batches of up to the claim batch size with a single compare and set of the work sequence.
+ * Before claiming, the sequence of the processor is moved to the work sequence, so that the sequence of a processor is
+ * always before the events it has claimed but not yet handled, and the lowest sequence of the members of the pool is
+ * the last sequence up to which all events have been handled.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class WorkProcessor<T>
+    implements EventProcessor
+{
+    private static final int IDLE = 0;
+    private static final int HALTED = IDLE + 1;
+    private static final int RUNNING = HALTED + 1;
+
+    private final AtomicInteger running = new AtomicInteger(IDLE);
+    private ExceptionHandler<? super T> exceptionHandler;
+    private final DataProvider<T> dataProvider;
+    private final SequenceBarrier sequenceBarrier;
+    private final EventHandler<? super T> eventHandler;
+    private final Sequence workSequence;
+    private final int claimBatchSize;
+    private final Sequence sequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+
+    WorkProcessor(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final EventHandler<? super T> eventHandler,
+        final Sequence workSequence,
+        final int claimBatchSize)
+    {
+        this.dataProvider = dataProvider;
+        this.sequenceBarrier = sequenceBarrier;
+        this.eventHandler = eventHandler;
+        this.workSequence = workSequence;
+        this.claimBatchSize = claimBatchSize;
+
+        eventHandler.setSequenceCallback(sequence);
+    }
+
+    @Override
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    @Override
+    public void halt()
+    {
+        running.set(HALTED);
+        sequenceBarrier.alert();
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return running.get() != IDLE;
+    }
+
+    /**
+     * Set a new {@link ExceptionHandler} for handling exceptions propagated out of the {@link WorkProcessor}.
+     *
+     * @param exceptionHandler to replace the existing exceptionHandler.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        if (null == exceptionHandler)
+        {
+            throw new NullPointerException();
+        }
+
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * It is ok to have another thread rerun this method after a halt().
+     *
+     * @throws IllegalStateException if this object instance is already running in a thread
+     */
+    @Override
+    public void run()
+    {
+        int witnessValue = running.compareAndExchange(IDLE, RUNNING);
+        if (witnessValue == IDLE)
+        {
+            sequenceBarrier.clearAlert();
+
+            notifyStart();
+            try
+            {
+                if (running.get() == RUNNING)
+                {
+                    processEvents();
+                }
+            }
+            finally
+            {
+                notifyShutdown();
+                running.set(IDLE);
+            }
+        }
+        else
+        {
+            if (witnessValue == RUNNING)
+            {
+                throw new IllegalStateException("Thread is already running");
+            }
+            else
+            {
+                notifyStart();
+                notifyShutdown();
+            }
+        }
+    }
+
+    private void processEvents()
+    {
+        T event = null;
+        long nextSequence = 0L;
+        long endOfClaim = -1L;
+
+        while (true)
+        {
+            try
+            {
+                if (nextSequence > endOfClaim)
+                {
+                    final long current = workSequence.get();
+                    sequence.set(current);
+
+                    final long availableSequence = sequenceBarrier.waitFor(current + 1);
+                    final long claim = Math.min(availableSequence, current + claimBatchSize);
+                    if (claim <= current || !workSequence.compareAndSet(current, claim))
+                    {
+                        continue;
+                    }
+
+                    nextSequence = current + 1;
+                    endOfClaim = claim;
+                    notifyBatchStart(endOfClaim - current, nextSequence);
+                }
+
+                while (nextSequence <= endOfClaim)
+                {
+                    event = dataProvider.get(nextSequence);
+                    eventHandler.onEvent(event, nextSequence, nextSequence == endOfClaim);
+                    nextSequence++;
+                }
+            }
+            catch (final TimeoutException e)
+            {
+                notifyTimeout(sequence.get());
+            }
+            catch (final AlertException ex)
+            {
+                if (running.get() != RUNNING)
+                {
+                    break;
+                }
+            }
+            catch (final Throwable ex)
+            {
+                // Carry on with the rest of the claim, no other processor will handle it
+                handleEventException(ex, nextSequence, event);
+                nextSequence++;
+            }
+        }
+    }
+
+    private void notifyBatchStart(final long batchSize, final long firstSequence)
+    {
+        try
+        {
+            eventHandler.onBatchStart(batchSize);
+        }
+        catch (final Throwable ex)
+        {
+            // The whole claim is still handled, no other processor will handle it
+            handleEventException(ex, firstSequence, null);
+        }
+    }
+
+    private void notifyTimeout(final long availableSequence)
+    {
+        try
+        {
+            eventHandler.onTimeout(availableSequence);
+        }
+        catch (Throwable e)
+        {
+            handleEventException(e, availableSequence, null);
+        }
+    }
+
+    private void notifyStart()
+    {
+        try
+        {
+            eventHandler.onStart();
+        }
+        catch (final Throwable ex)
+        {
+            getExceptionHandler().handleOnStartException(ex);
+        }
+    }
+
+    private void notifyShutdown()
+    {
+        try
+        {
+            eventHandler.onShutdown();
+        }
+        catch (final Throwable ex)
+        {
+            getExceptionHandler().handleOnShutdownException(ex);
+        }
+    }
+
+    private void handleEventException(final Throwable ex, final long sequence, final T event)
+    {
+        getExceptionHandler().handleEventException(ex, sequence, event);
+    }
+
+    private ExceptionHandler<? super T> getExceptionHandler()
+    {
+        ExceptionHandler<? super T> handler = exceptionHandler;
+        return handler == null ? ExceptionHandlers.defaultHandler() : handler;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import java.util.Arrays;
+
+/**
+ * A pool of {@link WorkProcessor}s sharing the events from a ring buffer, each event is handled by exactly one
+ * {@link EventHandler} of the pool.  This spreads a stage across several threads when the order in which events are
+ * handled does not matter.
+ *
+ * <p>The pool is tracked by the ring buffer and by later stages through the single {@link Sequence} from
+ * {@link #getSequence()}, the lowest sequence of its members.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class WorkerPool<T>
+{
+    /**
+     * The default maximum number of events a member of the pool claims at a time.
+     */
+    public static final int DEFAULT_CLAIM_BATCH_SIZE = 16;
+
+    private final Sequence workSequence = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+    private final WorkProcessor<T>[] workProcessors;
+    private final Sequence sequence;
+
+    /**
+     * Create a pool with a member for each handler, claiming up to {@link #DEFAULT_CLAIM_BATCH_SIZE} events at a time.
+     *
+     * @param dataProvider    to which events are published.
+     * @param sequenceBarrier on which the members wait.
+     * @param eventHandlers   one for each member of the pool.
+     */
+    @SafeVarargs
+    public WorkerPool(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final EventHandler<? super T>... eventHandlers)
+    {
+        this(dataProvider, sequenceBarrier, DEFAULT_CLAIM_BATCH_SIZE, eventHandlers);
+    }
+
+    /**
+     * Create a pool with a member for each handler.
+     *
+     * @param dataProvider    to which events are published.
+     * @param sequenceBarrier on which the members wait.
+     * @param claimBatchSize  the maximum number of events a member claims at a time.  Larger batches make fewer
+     *                        updates to the shared work sequence, smaller batches share bursts between more members.
+     * @param eventHandlers   one for each member of the pool.
+     */
+    @SafeVarargs
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public WorkerPool(
+        final DataProvider<T> dataProvider,
+        final SequenceBarrier sequenceBarrier,
+        final int claimBatchSize,
+        final EventHandler<? super T>... eventHandlers)
+    {
+        if (eventHandlers.length == 0)
+        {
+            throw new IllegalArgumentException("A worker pool needs at least one event handler");
+        }
+        if (claimBatchSize < 1)
+        {
+            throw new IllegalArgumentException("claimBatchSize must not be less than 1");
+        }
+
+        workProcessors = new WorkProcessor[eventHandlers.length];
+        final Sequence[] sequences = new Sequence[eventHandlers.length];
+        for (int i = 0; i < eventHandlers.length; i++)
+        {
+            workProcessors[i] = new WorkProcessor<>(
+                dataProvider, sequenceBarrier, eventHandlers[i], workSequence, claimBatchSize);
+            sequences[i] = workProcessors[i].getSequence();
+        }
+
+        sequence = new PoolSequence(workSequence, sequences);
+    }
+
+    /**
+     * Get the sequence up to which all events have been handled by the pool, to gate the ring buffer or a later stage
+     * on.  Setting it moves all of the members of the pool to the value, which must only be done while the pool is
+     * not running, e.g. when adding it to the gating sequences of a ring buffer.
+     *
+     * @return the sequence of the pool.
+     */
+    public Sequence getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return the members of the pool, each is run by its own thread.
+     */
+    public EventProcessor[] getWorkProcessors()
+    {
+        return Arrays.copyOf(workProcessors, workProcessors.length, EventProcessor[].class);
+    }
+
+    /**
+     * Set the {@link ExceptionHandler} of all of the members of the pool.
+     *
+     * @param exceptionHandler to handle exceptions propagated out of the event handlers.
+     */
+    public void setExceptionHandler(final ExceptionHandler<? super T> exceptionHandler)
+    {
+        for (final WorkProcessor<T> workProcessor : workProcessors)
+        {
+            workProcessor.setExceptionHandler(exceptionHandler);
+        }
+    }
+
+    /**
+     * Halt all of the members of the pool, each finishes the events it has already claimed.
+     */
+    public void halt()
+    {
+        for (final WorkProcessor<T> workProcessor : workProcessors)
+        {
+            workProcessor.halt();
+        }
+    }
+
+    /**
+     * @return true if any member of the pool is running.
+     */
+    public boolean isRunning()
+    {
+        for (final WorkProcessor<T> workProcessor : workProcessors)
+        {
+            if (workProcessor.isRunning())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WorkerPool{" +
+            "workSequence=" + workSequence +
+            ", sequence=" + sequence +
+            '}';
+    }
+
+    private static final class PoolSequence extends CombinedSequence
+    {
+        private final Sequence workSequence;
+
+        PoolSequence(final Sequence workSequence, final Sequence[] sequences)
+        {
+            super(sequences);
+            this.workSequence = workSequence;
+        }
+
+        @Override
+        public void set(final long value)
+        {
+            workSequence.set(value);
+            super.set(value);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.lmax.disruptor.dsl;
 
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.SequenceCompletion;
+import com.lmax.disruptor.util.CpuSet;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -9,6 +11,8 @@ interface ConsumerInfo
 {
     Sequence[] getSequences();
 
+    String getName();
+
     SequenceBarrier getBarrier();
 
     boolean isEndOfChain();
@@ -19,5 +23,12 @@ interface ConsumerInfo
 
     void markAsUsedInBarrier();
 
+    void pinTo(CpuSet cpus);
+
     boolean isRunning();
+
+    /**
+     * @return the completion to wait on for the sequence of this consumer, or null if the consumer does not have one.
+     */
+    SequenceCompletion getSequenceCompletion();
 }
@@ -17,8 +17,13 @@ package com.lmax.disruptor.dsl;
 
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.KeyPartitionedGroup;
+import com.lmax.disruptor.MultiRingEventProcessor;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.SequenceCompletion;
+import com.lmax.disruptor.WorkerPool;
+import com.lmax.disruptor.util.CpuSet;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -27,6 +32,9 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Provides a repository mechanism to associate {@link EventHandler}s with {@link EventProcessor}s
@@ -35,11 +43,15 @@ import java.util.Map;
  */
 class ConsumerRepository<T> implements Iterable<ConsumerInfo>
 {
+    private static final long BACKLOG_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long HALT_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     private final Map<EventHandler<?>, EventProcessorInfo<T>> eventProcessorInfoByEventHandler =
         new IdentityHashMap<>();
     private final Map<Sequence, ConsumerInfo> eventProcessorInfoBySequence =
         new IdentityHashMap<>();
-    private final Collection<ConsumerInfo> consumerInfos = new ArrayList<>();
+    // Iterated by monitoring threads while consumers may still be added
+    private final Collection<ConsumerInfo> consumerInfos = new CopyOnWriteArrayList<>();
 
     public void add(
         final EventProcessor eventprocessor,
@@ -59,6 +71,30 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         consumerInfos.add(consumerInfo);
     }
 
+    public void add(final WorkerPool<T> workerPool, final SequenceBarrier barrier)
+    {
+        add(new ProcessorGroupInfo(workerPool, workerPool.getSequence(), workerPool.getWorkProcessors(), barrier));
+    }
+
+    public void add(final KeyPartitionedGroup<T> keyPartitionedGroup, final SequenceBarrier barrier)
+    {
+        add(new ProcessorGroupInfo(
+            keyPartitionedGroup, keyPartitionedGroup.getSequence(), keyPartitionedGroup.getEventProcessors(), barrier));
+    }
+
+    public void add(final MultiRingEventProcessor<? extends T> eventProcessor, final int ring)
+    {
+        final MultiRingProcessorInfo multiRingProcessorInfo = new MultiRingProcessorInfo(eventProcessor, ring);
+        eventProcessorInfoBySequence.put(eventProcessor.getSequence(ring), multiRingProcessorInfo);
+        consumerInfos.add(multiRingProcessorInfo);
+    }
+
+    private void add(final ProcessorGroupInfo processorGroupInfo)
+    {
+        eventProcessorInfoBySequence.put(processorGroupInfo.getSequences()[0], processorGroupInfo);
+        consumerInfos.add(processorGroupInfo);
+    }
+
     public boolean hasBacklog(final long cursor, final boolean includeStopped)
     {
         for (ConsumerInfo consumerInfo : consumerInfos)
@@ -79,6 +115,39 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         return false;
     }
 
+    /**
+     * Wait for the running consumers at the end of the chain to reach a sequence.  Consumers without a
+     * {@link SequenceCompletion} can not be waited on, so the caller is parked for a short interval instead and
+     * should check for a backlog again.  A consumer halted while it is waited on does not complete, so waits are
+     * also bounded to notice that.
+     *
+     * @param sequence     to wait for.
+     * @param timeoutNanos the maximum time to wait.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void awaitEndOfChain(final long sequence, final long timeoutNanos) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        for (ConsumerInfo consumerInfo : consumerInfos)
+        {
+            if (consumerInfo.isRunning() && consumerInfo.isEndOfChain())
+            {
+                final long remaining = Math.max(0, deadline - System.nanoTime());
+                final SequenceCompletion sequenceCompletion = consumerInfo.getSequenceCompletion();
+                if (sequenceCompletion == null)
+                {
+                    LockSupport.parkNanos(Math.min(remaining, BACKLOG_RECHECK_NANOS));
+                    return;
+                }
+
+                if (!sequenceCompletion.await(sequence, Math.min(remaining, HALT_RECHECK_NANOS), TimeUnit.NANOSECONDS))
+                {
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * @deprecated this function should no longer be used to determine the existence
      * of a backlog, instead use hasBacklog
@@ -123,6 +192,11 @@ class ConsumerRepository<T> implements Iterable<ConsumerInfo>
         }
     }
 
+    public void pinTo(final Sequence sequence, final CpuSet cpus)
+    {
+        getEventProcessorInfo(sequence).pinTo(cpus);
+    }
+
     @Override
     public Iterator<ConsumerInfo> iterator()
     {
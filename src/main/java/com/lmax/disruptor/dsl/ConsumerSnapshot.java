@@ -0,0 +1,106 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+/**
+ * The progress of one event processor of a {@link Disruptor} at the time of a {@link DisruptorSnapshot}.
+ */
+public final class ConsumerSnapshot
+{
+    private final String name;
+    private final long sequence;
+    private final long lag;
+    private final long throughput;
+    private final boolean running;
+    private final boolean endOfChain;
+
+    ConsumerSnapshot(
+        final String name,
+        final long sequence,
+        final long lag,
+        final long throughput,
+        final boolean running,
+        final boolean endOfChain)
+    {
+        this.name = name;
+        this.sequence = sequence;
+        this.lag = lag;
+        this.throughput = throughput;
+        this.running = running;
+        this.endOfChain = endOfChain;
+    }
+
+    /**
+     * @return the name of the event processor, the string value of its event handler if it has one.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return the sequence of the last event handled by the event processor.
+     */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /**
+     * @return the number of events the event processor is behind the cursor of the ring buffer.
+     */
+    public long getLag()
+    {
+        return lag;
+    }
+
+    /**
+     * @return the number of events handled per second since the previous sample, or 0 for the first sample.
+     */
+    public long getThroughput()
+    {
+        return throughput;
+    }
+
+    /**
+     * @return true if the event processor is running.
+     */
+    public boolean isRunning()
+    {
+        return running;
+    }
+
+    /**
+     * @return true if no other event processor is gated on this one, i.e. it gates the publishers.
+     */
+    public boolean isEndOfChain()
+    {
+        return endOfChain;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConsumerSnapshot{" +
+            "name='" + name + '\'' +
+            ", sequence=" + sequence +
+            ", lag=" + lag +
+            ", throughput=" + throughput +
+            ", running=" + running +
+            ", endOfChain=" + endOfChain +
+            '}';
+    }
+}
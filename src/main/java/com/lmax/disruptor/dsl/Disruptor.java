@@ -24,16 +24,29 @@ import com.lmax.disruptor.EventTranslatorOneArg;
 import com.lmax.disruptor.EventTranslatorThreeArg;
 import com.lmax.disruptor.EventTranslatorTwoArg;
 import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.KeyPartitionedGroup;
+import com.lmax.disruptor.MultiRingEventProcessor;
+import com.lmax.disruptor.ProducerWaitStrategy;
+import com.lmax.disruptor.RangeEventHandler;
+import com.lmax.disruptor.RangeEventProcessor;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.SequenceCompletion;
 import com.lmax.disruptor.TimeoutException;
 import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.WorkerPool;
+import com.lmax.disruptor.util.AffinityThreadFactory;
+import com.lmax.disruptor.util.CpuSet;
 import com.lmax.disruptor.util.Util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
 
 /**
  * A DSL-style API for setting up the disruptor pattern around a ring buffer
@@ -52,6 +65,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * RingBuffer ringBuffer = disruptor.start();</code>
  * </pre>
  *
+ * <p>Event processors are started on threads from the {@link ThreadFactory}.  To run many disruptors with a low event
+ * rate on virtual threads use a {@link com.lmax.disruptor.util.VirtualThreadFactory} together with the
+ * {@link com.lmax.disruptor.ParkingWaitStrategy}, which does not pin carrier threads while waiting.
+ *
  * @param <T> the type of event used.
  */
 public class Disruptor<T>
@@ -96,6 +113,52 @@ public class Disruptor<T>
             threadFactory);
     }
 
+    /**
+     * Create a new Disruptor.
+     *
+     * @param eventFactory         the factory to create events in the ring buffer.
+     * @param ringBufferSize       the size of the ring buffer, must be power of 2.
+     * @param threadFactory        a {@link ThreadFactory} to create threads for processors.
+     * @param producerType         the claim strategy to use for the ring buffer.
+     * @param waitStrategy         the wait strategy to use for the ring buffer.
+     * @param producerWaitStrategy the strategy publishers use to wait for the ring buffer to have capacity.
+     */
+    public Disruptor(
+            final EventFactory<T> eventFactory,
+            final int ringBufferSize,
+            final ThreadFactory threadFactory,
+            final ProducerType producerType,
+            final WaitStrategy waitStrategy,
+            final ProducerWaitStrategy producerWaitStrategy)
+    {
+        this(
+            RingBuffer.create(producerType, eventFactory, ringBufferSize, waitStrategy, producerWaitStrategy),
+            threadFactory);
+    }
+
+    /**
+     * Create a new Disruptor with a sharded producer ring buffer, each of the
+     * <code>producerLaneCount</code> publisher threads takes chunks of sequences in a lane of its own.
+     *
+     * @param eventFactory      the factory to create events in the ring buffer.
+     * @param ringBufferSize    the size of the ring buffer, must be power of 2.
+     * @param threadFactory     a {@link ThreadFactory} to create threads for processors.
+     * @param producerLaneCount the number of threads that will publish to the ring buffer.
+     * @param waitStrategy      the wait strategy to use for the ring buffer.
+     * @see com.lmax.disruptor.ShardedProducerSequencer
+     */
+    public Disruptor(
+            final EventFactory<T> eventFactory,
+            final int ringBufferSize,
+            final ThreadFactory threadFactory,
+            final int producerLaneCount,
+            final WaitStrategy waitStrategy)
+    {
+        this(
+            RingBuffer.createShardedProducer(eventFactory, ringBufferSize, producerLaneCount, waitStrategy),
+            threadFactory);
+    }
+
     /**
      * Private constructor helper
      */
@@ -179,6 +242,100 @@ public class Disruptor<T>
         return new EventHandlerGroup<>(this, consumerRepository, Util.getSequencesFor(processors));
     }
 
+    /**
+     * <p>Set up a {@link WorkerPool} to share the events from the ring buffer between the handlers, each event is
+     * handled by exactly one of the handlers.  The Disruptor will automatically start a thread for each handler when
+     * {@link #start()} is called.</p>
+     *
+     * <p>This method can be used as the start of a chain. For example if the pool of handlers <code>A</code> must
+     * process events before handler <code>B</code>:</p>
+     * <pre><code>dw.handleEventsWithWorkerPool(A1, A2, A3).then(B);</code></pre>
+     *
+     * @param handlers the handlers that will share the events, one for each thread of the pool.
+     * @return a {@link EventHandlerGroup} that can be used to chain dependencies.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventsWithWorkerPool(final EventHandler<? super T>... handlers)
+    {
+        return createWorkerPool(new Sequence[0], handlers);
+    }
+
+    /**
+     * <p>Set up a {@link KeyPartitionedGroup} to share the events from the ring buffer between the handlers by the
+     * key of each event, so all of the events with the same key are handled in order by the same handler.  The
+     * Disruptor will automatically start a thread for each handler when {@link #start()} is called.</p>
+     *
+     * <p>This method can be used as the start of a chain. For example if the partitioned handlers <code>A</code> must
+     * process events before handler <code>B</code>:</p>
+     * <pre><code>dw.handleEventsWithPartitioned(Order::getInstrumentId, A1, A2, A3).then(B);</code></pre>
+     *
+     * @param keyFunction to get the key of an event.
+     * @param handlers    the handlers that will share the events, one for each partition of the keys.
+     * @return a {@link EventHandlerGroup} that can be used to chain dependencies.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventsWithPartitioned(
+        final ToLongFunction<? super T> keyFunction, final EventHandler<? super T>... handlers)
+    {
+        return createKeyPartitionedGroup(new Sequence[0], keyFunction, handlers);
+    }
+
+    /**
+     * <p>Add a {@link MultiRingEventProcessor} that handles the events of this Disruptor's ring buffer along with
+     * those of other ring buffers.  Each of the Disruptors of its rings should add it, so that each ring is gated on
+     * its sequence for that ring.  The Disruptor of the first ring starts its thread when {@link #start()} is called,
+     * it is halted when any of them is halted.  To be woken by all of the rings the Disruptors must share a single
+     * {@link WaitStrategy} instance.</p>
+     *
+     * <p>This method can be used as the start of a chain. For example if the multi ring processor <code>A</code> must
+     * process events of both Disruptors before handler <code>B</code> of the first:</p>
+     * <pre><code>
+     * MultiRingEventProcessor&lt;Event&gt; a = new MultiRingEventProcessor&lt;&gt;(
+     *     waitStrategy, handler, first.getRingBuffer(), second.getRingBuffer());
+     * first.handleEventsWithMultiRing(a).then(B);
+     * second.handleEventsWithMultiRing(a);
+     * </code></pre>
+     *
+     * @param eventProcessor the processor, which must handle the events of this Disruptor's ring buffer.
+     * @return a {@link EventHandlerGroup} that can be used to chain dependencies on the events of this ring.
+     * @throws IllegalArgumentException if the processor does not handle the events of this Disruptor's ring buffer.
+     */
+    public EventHandlerGroup<T> handleEventsWithMultiRing(final MultiRingEventProcessor<? extends T> eventProcessor)
+    {
+        checkNotStarted();
+
+        final int ring = eventProcessor.indexOf(ringBuffer);
+        if (ring < 0)
+        {
+            throw new IllegalArgumentException("The processor does not handle the events of this ring buffer");
+        }
+
+        consumerRepository.add(eventProcessor, ring);
+
+        final Sequence[] processorSequences = {eventProcessor.getSequence(ring)};
+        updateGatingSequencesForNextInChain(new Sequence[0], processorSequences);
+
+        return new EventHandlerGroup<>(this, consumerRepository, processorSequences);
+    }
+
+    /**
+     * <p>Set up {@link RangeEventProcessor}s to handle events from the ring buffer, each handler is called once with
+     * all of the events available to it rather than once per event.  These handlers will process events as soon as
+     * they become available, in parallel.</p>
+     *
+     * <p>This method can be used as the start of a chain. For example if the range handler <code>A</code> must
+     * process events before handler <code>B</code>:</p>
+     * <pre><code>dw.handleEventRangesWith(A).then(B);</code></pre>
+     *
+     * @param handlers the range handlers that will process events.
+     * @return a {@link EventHandlerGroup} that can be used to chain dependencies.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventRangesWith(final RangeEventHandler<? super T>... handlers)
+    {
+        return createRangeEventProcessors(new Sequence[0], handlers);
+    }
+
 
     /**
      * <p>Specify an exception handler to be used for any future event handlers.</p>
@@ -389,18 +546,96 @@ public class Disruptor<T>
      */
     public void shutdown(final long timeout, final TimeUnit timeUnit) throws TimeoutException
     {
-        final long timeOutAt = System.currentTimeMillis() + timeUnit.toMillis(timeout);
-        while (hasBacklog())
+        final long timeOutAt = System.nanoTime() + timeUnit.toNanos(timeout);
+        boolean interrupted = false;
+        try
+        {
+            while (hasBacklog())
+            {
+                final long remaining = timeout >= 0 ? timeOutAt - System.nanoTime() : Long.MAX_VALUE;
+                if (remaining <= 0)
+                {
+                    throw TimeoutException.INSTANCE;
+                }
+
+                try
+                {
+                    consumerRepository.awaitEndOfChain(ringBuffer.getCursor(), remaining);
+                }
+                catch (final InterruptedException e)
+                {
+                    interrupted = true;
+                }
+            }
+        }
+        finally
         {
-            if (timeout >= 0 && System.currentTimeMillis() > timeOutAt)
+            if (interrupted)
             {
-                throw TimeoutException.INSTANCE;
+                Thread.currentThread().interrupt();
             }
-            // Busy spin
         }
         halt();
     }
 
+    /**
+     * Get a future that is completed once the event processor for a handler has processed up to a sequence, e.g. to
+     * wait for the response to a request without spinning.  The future is completed on the event processor's thread.
+     *
+     * @param handler  the handler to wait for.
+     * @param sequence the sequence the handler has to have processed.
+     * @return a future completed with the sequence of the event processor once it has reached the given sequence.
+     * @throws IllegalArgumentException if the handler is not processing events or its event processor does not
+     *                                  support waiting, see {@link EventProcessor#getSequenceCompletion()}.
+     */
+    public CompletableFuture<Long> whenProcessedBy(final EventHandler<T> handler, final long sequence)
+    {
+        final SequenceCompletion sequenceCompletion =
+            consumerRepository.getEventProcessorFor(handler).getSequenceCompletion();
+        if (sequenceCompletion == null)
+        {
+            throw new IllegalArgumentException("The event processor for " + handler + " does not support waiting");
+        }
+
+        return sequenceCompletion.whenReached(sequence);
+    }
+
+    /**
+     * Get a future that is completed once all of the consumers at the end of the chain have processed up to a
+     * sequence.
+     *
+     * @param sequence the sequence the consumers have to have processed.
+     * @return a future completed once every consumer at the end of the chain has reached the given sequence.
+     * @throws IllegalStateException if a consumer at the end of the chain does not support waiting, e.g. a
+     *                               {@link WorkerPool}.
+     */
+    public CompletableFuture<Void> whenProcessed(final long sequence)
+    {
+        final List<SequenceCompletion> sequenceCompletions = new ArrayList<>();
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            if (consumerInfo.isEndOfChain())
+            {
+                final SequenceCompletion sequenceCompletion = consumerInfo.getSequenceCompletion();
+                if (sequenceCompletion == null)
+                {
+                    throw new IllegalStateException(
+                        "The consumer " + consumerInfo.getName() + " at the end of the chain does not support waiting");
+                }
+                sequenceCompletions.add(sequenceCompletion);
+            }
+        }
+
+        // Only register once every consumer is known to support waiting, so a failure leaves no waiters behind
+        final List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (final SequenceCompletion sequenceCompletion : sequenceCompletions)
+        {
+            futures.add(sequenceCompletion.whenReached(sequence));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
     /**
      * The {@link RingBuffer} used by this Disruptor.  This is useful for creating custom
      * event processors if the behaviour of {@link BatchEventProcessor} is not suitable.
@@ -468,6 +703,17 @@ public class Disruptor<T>
         return consumerRepository.getSequenceFor(b1).get();
     }
 
+    /**
+     * Create a monitor to take snapshots of the sequences of the event processors and their lag behind the cursor,
+     * e.g. to alert when an event processor falls behind.
+     *
+     * @return a new monitor for this disruptor.
+     */
+    public DisruptorMonitor newMonitor()
+    {
+        return new DisruptorMonitor(ringBuffer, consumerRepository);
+    }
+
     /**
      * Confirms if all messages have been consumed by all event processors
      */
@@ -518,6 +764,80 @@ public class Disruptor<T>
         return new EventHandlerGroup<>(this, consumerRepository, processorSequences);
     }
 
+    EventHandlerGroup<T> createRangeEventProcessors(
+        final Sequence[] barrierSequences,
+        final RangeEventHandler<? super T>[] rangeEventHandlers)
+    {
+        checkNotStarted();
+
+        final Sequence[] processorSequences = new Sequence[rangeEventHandlers.length];
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+
+        for (int i = 0; i < rangeEventHandlers.length; i++)
+        {
+            final RangeEventProcessor<T> rangeEventProcessor =
+                new RangeEventProcessor<>(ringBuffer, barrier, rangeEventHandlers[i]);
+
+            if (exceptionHandler != null)
+            {
+                rangeEventProcessor.setExceptionHandler(exceptionHandler);
+            }
+
+            consumerRepository.add(rangeEventProcessor);
+            processorSequences[i] = rangeEventProcessor.getSequence();
+        }
+
+        updateGatingSequencesForNextInChain(barrierSequences, processorSequences);
+
+        return new EventHandlerGroup<>(this, consumerRepository, processorSequences);
+    }
+
+    EventHandlerGroup<T> createWorkerPool(
+        final Sequence[] barrierSequences,
+        final EventHandler<? super T>[] eventHandlers)
+    {
+        checkNotStarted();
+
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+        final WorkerPool<T> workerPool = new WorkerPool<>(ringBuffer, barrier, eventHandlers);
+
+        if (exceptionHandler != null)
+        {
+            workerPool.setExceptionHandler(exceptionHandler);
+        }
+
+        consumerRepository.add(workerPool, barrier);
+
+        final Sequence[] workerSequences = {workerPool.getSequence()};
+        updateGatingSequencesForNextInChain(barrierSequences, workerSequences);
+
+        return new EventHandlerGroup<>(this, consumerRepository, workerSequences);
+    }
+
+    EventHandlerGroup<T> createKeyPartitionedGroup(
+        final Sequence[] barrierSequences,
+        final ToLongFunction<? super T> keyFunction,
+        final EventHandler<? super T>[] eventHandlers)
+    {
+        checkNotStarted();
+
+        final SequenceBarrier barrier = ringBuffer.newBarrier(barrierSequences);
+        final KeyPartitionedGroup<T> keyPartitionedGroup =
+            new KeyPartitionedGroup<>(ringBuffer, barrier, keyFunction, eventHandlers);
+
+        if (exceptionHandler != null)
+        {
+            keyPartitionedGroup.setExceptionHandler(exceptionHandler);
+        }
+
+        consumerRepository.add(keyPartitionedGroup, barrier);
+
+        final Sequence[] groupSequences = {keyPartitionedGroup.getSequence()};
+        updateGatingSequencesForNextInChain(barrierSequences, groupSequences);
+
+        return new EventHandlerGroup<>(this, consumerRepository, groupSequences);
+    }
+
     private void updateGatingSequencesForNextInChain(final Sequence[] barrierSequences, final Sequence[] processorSequences)
     {
         if (processorSequences.length > 0)
@@ -543,6 +863,17 @@ public class Disruptor<T>
         return handleEventsWith(eventProcessors);
     }
 
+    void pinTo(final Sequence sequence, final CpuSet cpus)
+    {
+        checkNotStarted();
+        if (!(threadFactory instanceof AffinityThreadFactory))
+        {
+            throw new IllegalStateException("Pinning event processors to CPUs requires an AffinityThreadFactory");
+        }
+
+        consumerRepository.pinTo(sequence, cpus);
+    }
+
     private void checkNotStarted()
     {
         if (started.get())
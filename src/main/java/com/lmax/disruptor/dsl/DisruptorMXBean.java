@@ -0,0 +1,55 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import java.util.List;
+
+/**
+ * Management interface of a {@link Disruptor} registered with {@link DisruptorMonitor#registerMBean(String)}, the
+ * attributes of a {@link DisruptorSnapshot}.
+ */
+public interface DisruptorMXBean
+{
+    /**
+     * @return see {@link DisruptorSnapshot#getCursor()}.
+     */
+    long getCursor();
+
+    /**
+     * @return see {@link DisruptorSnapshot#getBufferSize()}.
+     */
+    int getBufferSize();
+
+    /**
+     * @return see {@link DisruptorSnapshot#getRemainingCapacity()}.
+     */
+    long getRemainingCapacity();
+
+    /**
+     * @return see {@link DisruptorSnapshot#getProducerRate()}.
+     */
+    long getProducerRate();
+
+    /**
+     * @return see {@link DisruptorSnapshot#getMaxLag()}.
+     */
+    long getMaxLag();
+
+    /**
+     * @return see {@link DisruptorSnapshot#getConsumers()}.
+     */
+    List<ConsumerSnapshot> getConsumers();
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes {@link DisruptorSnapshot}s of the backlog of a {@link Disruptor}, see {@link Disruptor#newMonitor()}.
+ *
+ * <p>Sampling only reads the cursor and the sequences of the event processors, so it does not slow down publishers
+ * or event processors.  Rates are calculated from the difference to the previous sample of the same monitor, so a
+ * monitor should be sampled at a regular interval, e.g. by a metrics scraper once a second.
+ */
+public final class DisruptorMonitor
+{
+    private static final long MBEAN_SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RingBuffer<?> ringBuffer;
+    private final ConsumerRepository<?> consumerRepository;
+    private final Map<Sequence, Long> previousSequences = new IdentityHashMap<>();
+    private long previousCursor;
+    private long previousNanos;
+    private boolean sampled;
+    private PlatformMBeanRegistration mBeanRegistration;
+
+    DisruptorMonitor(final RingBuffer<?> ringBuffer, final ConsumerRepository<?> consumerRepository)
+    {
+        this.ringBuffer = ringBuffer;
+        this.consumerRepository = consumerRepository;
+    }
+
+    /**
+     * Take a snapshot of the cursor, remaining capacity and the sequences of all of the event processors.
+     *
+     * @return the snapshot.
+     */
+    public synchronized DisruptorSnapshot sample()
+    {
+        final long nanos = System.nanoTime();
+        final long intervalNanos = sampled ? nanos - previousNanos : 0L;
+        final long cursor = ringBuffer.getCursor();
+        final long remainingCapacity = ringBuffer.remainingCapacity();
+
+        final List<ConsumerSnapshot> consumers = new ArrayList<>();
+        for (final ConsumerInfo consumerInfo : consumerRepository)
+        {
+            for (final Sequence sequence : consumerInfo.getSequences())
+            {
+                final long value = sequence.get();
+                final Long previous = previousSequences.put(sequence, value);
+                consumers.add(new ConsumerSnapshot(
+                    consumerInfo.getName(),
+                    value,
+                    Math.max(0L, cursor - value),
+                    previous != null ? rate(value - previous, intervalNanos) : 0L,
+                    consumerInfo.isRunning(),
+                    consumerInfo.isEndOfChain()));
+            }
+        }
+
+        final long producerRate = rate(cursor - previousCursor, intervalNanos);
+        previousCursor = cursor;
+        previousNanos = nanos;
+        sampled = true;
+
+        return new DisruptorSnapshot(
+            cursor, ringBuffer.getBufferSize(), remainingCapacity, producerRate, intervalNanos, consumers);
+    }
+
+    /**
+     * Register a {@link DisruptorMXBean} for the disruptor with the platform MBean server, under the object name
+     * <code>com.lmax.disruptor:type=Disruptor,name=&lt;name&gt;</code>.
+     *
+     * <p>Reading an attribute takes a new sample unless one was taken in the last 100 milliseconds, so that the
+     * attributes read by one scrape come from the same sample.  The MBean takes samples from this monitor, so the
+     * monitor should not also be sampled elsewhere.
+     *
+     * <p>Needs the java.management module, which is optional for the rest of the library.
+     *
+     * @param name to distinguish the disruptor from others in the same JVM.
+     * @return the object name the MBean was registered under.
+     * @throws IllegalStateException if an MBean has already been registered for this monitor, or the MBean can not
+     *                               be registered, e.g. as another MBean has the same name.
+     */
+    public synchronized String registerMBean(final String name)
+    {
+        if (mBeanRegistration != null)
+        {
+            throw new IllegalStateException("Already registered as " + mBeanRegistration.getObjectName());
+        }
+
+        mBeanRegistration = PlatformMBeanRegistration.register(new SampledMXBean(this), name);
+
+        return mBeanRegistration.getObjectName();
+    }
+
+    /**
+     * Unregister the MBean registered by {@link #registerMBean(String)}, if there is one.
+     *
+     * @throws IllegalStateException if the MBean can not be unregistered.
+     */
+    public synchronized void unregisterMBean()
+    {
+        if (mBeanRegistration != null)
+        {
+            mBeanRegistration.unregister();
+            mBeanRegistration = null;
+        }
+    }
+
+    private static long rate(final long delta, final long intervalNanos)
+    {
+        return intervalNanos <= 0 ? 0L : (long) (delta * (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos);
+    }
+
+    private static final class SampledMXBean implements DisruptorMXBean
+    {
+        private final DisruptorMonitor monitor;
+        private DisruptorSnapshot snapshot;
+        private long snapshotNanos;
+
+        SampledMXBean(final DisruptorMonitor monitor)
+        {
+            this.monitor = monitor;
+        }
+
+        private synchronized DisruptorSnapshot snapshot()
+        {
+            final long nanos = System.nanoTime();
+            if (snapshot == null || nanos - snapshotNanos > MBEAN_SAMPLE_INTERVAL_NANOS)
+            {
+                snapshot = monitor.sample();
+                snapshotNanos = nanos;
+            }
+            return snapshot;
+        }
+
+        @Override
+        public long getCursor()
+        {
+            return snapshot().getCursor();
+        }
+
+        @Override
+        public int getBufferSize()
+        {
+            return snapshot().getBufferSize();
+        }
+
+        @Override
+        public long getRemainingCapacity()
+        {
+            return snapshot().getRemainingCapacity();
+        }
+
+        @Override
+        public long getProducerRate()
+        {
+            return snapshot().getProducerRate();
+        }
+
+        @Override
+        public long getMaxLag()
+        {
+            return snapshot().getMaxLag();
+        }
+
+        @Override
+        public List<ConsumerSnapshot> getConsumers()
+        {
+            return snapshot().getConsumers();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DisruptorMonitor{" +
+            "ringBuffer=" + ringBuffer +
+            ", objectName=" + (mBeanRegistration != null ? mBeanRegistration.getObjectName() : null) +
+            '}';
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import java.util.List;
+
+/**
+ * A point in time view of the backlog of a {@link Disruptor}, taken by {@link DisruptorMonitor#sample()}.
+ *
+ * <p>The values are read from different sequences one after another while events are being published and handled,
+ * so they are only consistent to within the events handled while the snapshot was taken.
+ */
+public final class DisruptorSnapshot
+{
+    private final long cursor;
+    private final int bufferSize;
+    private final long remainingCapacity;
+    private final long producerRate;
+    private final long intervalNanos;
+    private final List<ConsumerSnapshot> consumers;
+
+    DisruptorSnapshot(
+        final long cursor,
+        final int bufferSize,
+        final long remainingCapacity,
+        final long producerRate,
+        final long intervalNanos,
+        final List<ConsumerSnapshot> consumers)
+    {
+        this.cursor = cursor;
+        this.bufferSize = bufferSize;
+        this.remainingCapacity = remainingCapacity;
+        this.producerRate = producerRate;
+        this.intervalNanos = intervalNanos;
+        this.consumers = consumers;
+    }
+
+    /**
+     * @return the cursor of the ring buffer, the highest sequence claimed by a publisher.
+     */
+    public long getCursor()
+    {
+        return cursor;
+    }
+
+    /**
+     * @return the size of the ring buffer.
+     */
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of slots publishers can claim before they have to wait on the slowest event processor.
+     */
+    public long getRemainingCapacity()
+    {
+        return remainingCapacity;
+    }
+
+    /**
+     * @return the number of sequences claimed per second since the previous sample, or 0 for the first sample.
+     */
+    public long getProducerRate()
+    {
+        return producerRate;
+    }
+
+    /**
+     * @return the time since the previous sample in nanoseconds, or 0 for the first sample.
+     */
+    public long getIntervalNanos()
+    {
+        return intervalNanos;
+    }
+
+    /**
+     * @return the event processors of the disruptor, in the order they were added.
+     */
+    public List<ConsumerSnapshot> getConsumers()
+    {
+        return consumers;
+    }
+
+    /**
+     * @return the largest lag of any event processor, or 0 if there are none.
+     */
+    public long getMaxLag()
+    {
+        long maxLag = 0;
+        for (final ConsumerSnapshot consumer : consumers)
+        {
+            maxLag = Math.max(maxLag, consumer.getLag());
+        }
+        return maxLag;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DisruptorSnapshot{" +
+            "cursor=" + cursor +
+            ", bufferSize=" + bufferSize +
+            ", remainingCapacity=" + remainingCapacity +
+            ", producerRate=" + producerRate +
+            ", intervalNanos=" + intervalNanos +
+            ", consumers=" + consumers +
+            '}';
+    }
+}
@@ -17,10 +17,13 @@ package com.lmax.disruptor.dsl;
 
 import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.RangeEventHandler;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.util.CpuSet;
 
 import java.util.Arrays;
+import java.util.function.ToLongFunction;
 
 /**
  * A group of {@link EventProcessor}s used as part of the {@link Disruptor}.
@@ -59,6 +62,33 @@ public class EventHandlerGroup<T>
         return new EventHandlerGroup<>(disruptor, consumerRepository, combinedSequences);
     }
 
+    /**
+     * Run the event processors in this group on the given CPUs.  The {@link Disruptor} must have been created with an
+     * {@link com.lmax.disruptor.util.AffinityThreadFactory}, which binds the thread of each event processor to its
+     * CPUs when it starts.
+     *
+     * @param cpuSets a single CPU set for all of the event processors in the group, or one for each event processor
+     *                in the order they are in the group.
+     * @return this group.
+     * @throws IllegalStateException    if the disruptor was not created with an AffinityThreadFactory or has started.
+     * @throws IllegalArgumentException if the number of CPU sets does not match the number of event processors.
+     */
+    public EventHandlerGroup<T> pinTo(final CpuSet... cpuSets)
+    {
+        if (cpuSets.length != 1 && cpuSets.length != sequences.length)
+        {
+            throw new IllegalArgumentException(
+                "Expected 1 or " + sequences.length + " CPU sets for the event processors but got " + cpuSets.length);
+        }
+
+        for (int i = 0; i < sequences.length; i++)
+        {
+            disruptor.pinTo(sequences[i], cpuSets.length == 1 ? cpuSets[0] : cpuSets[i]);
+        }
+
+        return this;
+    }
+
     /**
      * Create a new event handler group that combines the handlers in this group with <code>processors</code>.
      *
@@ -149,6 +179,126 @@ public class EventHandlerGroup<T>
         return disruptor.createEventProcessors(sequences, eventProcessorFactories);
     }
 
+    /**
+     * <p>Set up range handlers to consume events from the ring buffer.  These handlers will only process events
+     * after every {@link EventProcessor} in this group has processed the event, and are called once with all of the
+     * events available to them.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if handler <code>A</code> must
+     * process events before the range handler <code>B</code>:</p>
+     *
+     * <pre><code>dw.handleEventsWith(A).thenHandleEventRangesWith(B);</code></pre>
+     *
+     * @param handlers the range handlers that will process events.
+     * @return a {@link EventHandlerGroup} that can be used to set up a event processor barrier over the created event processors.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> thenHandleEventRangesWith(final RangeEventHandler<? super T>... handlers)
+    {
+        return handleEventRangesWith(handlers);
+    }
+
+    /**
+     * <p>Set up range handlers to consume events from the ring buffer.  These handlers will only process events
+     * after every {@link EventProcessor} in this group has processed the event, and are called once with all of the
+     * events available to them.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if <code>A</code> must
+     * process events before the range handler <code>B</code>:</p>
+     *
+     * <pre><code>dw.after(A).handleEventRangesWith(B);</code></pre>
+     *
+     * @param handlers the range handlers that will process events.
+     * @return a {@link EventHandlerGroup} that can be used to set up a event processor barrier over the created event processors.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventRangesWith(final RangeEventHandler<? super T>... handlers)
+    {
+        return disruptor.createRangeEventProcessors(sequences, handlers);
+    }
+
+    /**
+     * <p>Set up a {@link com.lmax.disruptor.WorkerPool} to share the events from the ring buffer between the
+     * handlers, each event is handled by exactly one of the handlers.  The pool will only process events after every
+     * {@link EventProcessor} in this group has processed the event.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if handler <code>A</code> must
+     * process events before the pool of handlers <code>B</code>:</p>
+     *
+     * <pre><code>dw.handleEventsWith(A).thenHandleEventsWithWorkerPool(B1, B2, B3);</code></pre>
+     *
+     * @param handlers the handlers that will share the events, one for each thread of the pool.
+     * @return a {@link EventHandlerGroup} that can be used to set up a event processor barrier over the created pool.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> thenHandleEventsWithWorkerPool(final EventHandler<? super T>... handlers)
+    {
+        return handleEventsWithWorkerPool(handlers);
+    }
+
+    /**
+     * <p>Set up a {@link com.lmax.disruptor.WorkerPool} to share the events from the ring buffer between the
+     * handlers, each event is handled by exactly one of the handlers.  The pool will only process events after every
+     * {@link EventProcessor} in this group has processed the event.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if <code>A</code> must
+     * process events before the pool of handlers <code>B</code>:</p>
+     *
+     * <pre><code>dw.after(A).handleEventsWithWorkerPool(B1, B2, B3);</code></pre>
+     *
+     * @param handlers the handlers that will share the events, one for each thread of the pool.
+     * @return a {@link EventHandlerGroup} that can be used to set up a event processor barrier over the created pool.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventsWithWorkerPool(final EventHandler<? super T>... handlers)
+    {
+        return disruptor.createWorkerPool(sequences, handlers);
+    }
+
+    /**
+     * <p>Set up a {@link com.lmax.disruptor.KeyPartitionedGroup} to share the events from the ring buffer between the
+     * handlers by the key of each event, so all of the events with the same key are handled in order by the same
+     * handler.  The handlers will only process events after every {@link EventProcessor} in this group has processed
+     * the event.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if handler <code>A</code> must
+     * process events before the partitioned handlers <code>B</code>:</p>
+     *
+     * <pre><code>dw.handleEventsWith(A).thenHandleEventsWithPartitioned(Order::getInstrumentId, B1, B2, B3);</code></pre>
+     *
+     * @param keyFunction to get the key of an event.
+     * @param handlers    the handlers that will share the events, one for each partition of the keys.
+     * @return a {@link EventHandlerGroup} that can be used to set up a event processor barrier over the created group.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> thenHandleEventsWithPartitioned(
+        final ToLongFunction<? super T> keyFunction, final EventHandler<? super T>... handlers)
+    {
+        return handleEventsWithPartitioned(keyFunction, handlers);
+    }
+
+    /**
+     * <p>Set up a {@link com.lmax.disruptor.KeyPartitionedGroup} to share the events from the ring buffer between the
+     * handlers by the key of each event, so all of the events with the same key are handled in order by the same
+     * handler.  The handlers will only process events after every {@link EventProcessor} in this group has processed
+     * the event.</p>
+     *
+     * <p>This method is generally used as part of a chain. For example if <code>A</code> must
+     * process events before the partitioned handlers <code>B</code>:</p>
+     *
+     * <pre><code>dw.after(A).handleEventsWithPartitioned(Order::getInstrumentId, B1, B2, B3);</code></pre>
+     *
+     * @param keyFunction to get the key of an event.
+     * @param handlers    the handlers that will share the events, one for each partition of the keys.
+     * @return a {@link EventHandlerGroup} that can be used to set up a event processor barrier over the created group.
+     */
+    @SafeVarargs
+    public final EventHandlerGroup<T> handleEventsWithPartitioned(
+        final ToLongFunction<? super T> keyFunction, final EventHandler<? super T>... handlers)
+    {
+        return disruptor.createKeyPartitionedGroup(sequences, keyFunction, handlers);
+    }
+
     /**
      * Create a dependency barrier for the processors in this group.
      * This allows custom event processors to have dependencies on
@@ -19,6 +19,9 @@ import com.lmax.disruptor.EventHandler;
 import com.lmax.disruptor.EventProcessor;
 import com.lmax.disruptor.Sequence;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.SequenceCompletion;
+import com.lmax.disruptor.util.AffinityThreadFactory;
+import com.lmax.disruptor.util.CpuSet;
 
 import java.util.concurrent.ThreadFactory;
 
@@ -35,6 +38,7 @@ class EventProcessorInfo<T> implements ConsumerInfo
     private final EventHandler<? super T> handler;
     private final SequenceBarrier barrier;
     private boolean endOfChain = true;
+    private CpuSet cpus;
 
     EventProcessorInfo(
         final EventProcessor eventprocessor, final EventHandler<? super T> handler, final SequenceBarrier barrier)
@@ -55,6 +59,12 @@ class EventProcessorInfo<T> implements ConsumerInfo
         return new Sequence[]{eventprocessor.getSequence()};
     }
 
+    @Override
+    public String getName()
+    {
+        return String.valueOf(handler != null ? handler : eventprocessor);
+    }
+
     public EventHandler<? super T> getHandler()
     {
         return handler;
@@ -75,7 +85,9 @@ class EventProcessorInfo<T> implements ConsumerInfo
     @Override
     public void start(final ThreadFactory threadFactory)
     {
-        final Thread thread = threadFactory.newThread(eventprocessor);
+        final Thread thread = cpus != null
+            ? ((AffinityThreadFactory) threadFactory).newThread(eventprocessor, cpus)
+            : threadFactory.newThread(eventprocessor);
         if (null == thread)
         {
             throw new RuntimeException("Failed to create thread to run: " + eventprocessor);
@@ -99,9 +111,21 @@ class EventProcessorInfo<T> implements ConsumerInfo
         endOfChain = false;
     }
 
+    @Override
+    public void pinTo(final CpuSet cpus)
+    {
+        this.cpus = cpus;
+    }
+
     @Override
     public boolean isRunning()
     {
         return eventprocessor.isRunning();
     }
+
+    @Override
+    public SequenceCompletion getSequenceCompletion()
+    {
+        return eventprocessor.getSequenceCompletion();
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.MultiRingEventProcessor;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.SequenceCompletion;
+import com.lmax.disruptor.util.AffinityThreadFactory;
+import com.lmax.disruptor.util.CpuSet;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Tracks a {@link MultiRingEventProcessor} in the {@link Disruptor} of one of its rings.  Only the {@link Disruptor}
+ * of the first ring starts the thread of the processor, any of them can halt it.
+ */
+class MultiRingProcessorInfo implements ConsumerInfo
+{
+    private final MultiRingEventProcessor<?> eventProcessor;
+    private final int ring;
+    private boolean endOfChain = true;
+    private CpuSet cpus;
+
+    MultiRingProcessorInfo(final MultiRingEventProcessor<?> eventProcessor, final int ring)
+    {
+        this.eventProcessor = eventProcessor;
+        this.ring = ring;
+    }
+
+    @Override
+    public Sequence[] getSequences()
+    {
+        return new Sequence[]{eventProcessor.getSequence(ring)};
+    }
+
+    @Override
+    public String getName()
+    {
+        return eventProcessor.toString();
+    }
+
+    @Override
+    public SequenceBarrier getBarrier()
+    {
+        return eventProcessor.getBarrier(ring);
+    }
+
+    @Override
+    public boolean isEndOfChain()
+    {
+        return endOfChain;
+    }
+
+    @Override
+    public void start(final ThreadFactory threadFactory)
+    {
+        if (ring != 0)
+        {
+            return;
+        }
+
+        final Thread thread = cpus != null
+            ? ((AffinityThreadFactory) threadFactory).newThread(eventProcessor, cpus)
+            : threadFactory.newThread(eventProcessor);
+        if (null == thread)
+        {
+            throw new RuntimeException("Failed to create thread to run: " + eventProcessor);
+        }
+
+        thread.start();
+    }
+
+    @Override
+    public void halt()
+    {
+        eventProcessor.halt();
+    }
+
+    @Override
+    public void markAsUsedInBarrier()
+    {
+        endOfChain = false;
+    }
+
+    @Override
+    public void pinTo(final CpuSet cpus)
+    {
+        this.cpus = cpus;
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return eventProcessor.isRunning();
+    }
+
+    @Override
+    public SequenceCompletion getSequenceCompletion()
+    {
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * An MBean registered with the platform MBean server.  Keeps the java.management types out of the signatures of
+ * {@link DisruptorMonitor}, so the module is optional for applications that do not register an MBean.
+ */
+final class PlatformMBeanRegistration
+{
+    private final ObjectName objectName;
+
+    private PlatformMBeanRegistration(final ObjectName objectName)
+    {
+        this.objectName = objectName;
+    }
+
+    static PlatformMBeanRegistration register(final Object mBean, final String name)
+    {
+        try
+        {
+            final ObjectName objectName =
+                new ObjectName("com.lmax.disruptor:type=Disruptor,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mBean, objectName);
+
+            return new PlatformMBeanRegistration(objectName);
+        }
+        catch (final JMException e)
+        {
+            throw new IllegalStateException("Unable to register MBean for " + name, e);
+        }
+    }
+
+    void unregister()
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+        catch (final JMException e)
+        {
+            throw new IllegalStateException("Unable to unregister MBean " + objectName, e);
+        }
+    }
+
+    String getObjectName()
+    {
+        return objectName.toString();
+    }
+}
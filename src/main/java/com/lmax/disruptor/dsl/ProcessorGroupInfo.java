@@ -0,0 +1,132 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.SequenceCompletion;
+import com.lmax.disruptor.util.AffinityThreadFactory;
+import com.lmax.disruptor.util.CpuSet;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Tracks a group of event processors created by the {@link Disruptor} that is followed through a single
+ * {@link Sequence}, such as a {@link com.lmax.disruptor.WorkerPool}, starting a thread for each of its members.
+ */
+class ProcessorGroupInfo implements ConsumerInfo
+{
+    private final Object group;
+    private final Sequence sequence;
+    private final EventProcessor[] eventProcessors;
+    private final SequenceBarrier barrier;
+    private boolean endOfChain = true;
+    private CpuSet cpus;
+
+    ProcessorGroupInfo(
+        final Object group,
+        final Sequence sequence,
+        final EventProcessor[] eventProcessors,
+        final SequenceBarrier barrier)
+    {
+        this.group = group;
+        this.sequence = sequence;
+        this.eventProcessors = eventProcessors;
+        this.barrier = barrier;
+    }
+
+    @Override
+    public Sequence[] getSequences()
+    {
+        return new Sequence[]{sequence};
+    }
+
+    @Override
+    public String getName()
+    {
+        return group.toString();
+    }
+
+    @Override
+    public SequenceBarrier getBarrier()
+    {
+        return barrier;
+    }
+
+    @Override
+    public boolean isEndOfChain()
+    {
+        return endOfChain;
+    }
+
+    @Override
+    public void start(final ThreadFactory threadFactory)
+    {
+        for (final EventProcessor eventProcessor : eventProcessors)
+        {
+            final Thread thread = cpus != null
+                ? ((AffinityThreadFactory) threadFactory).newThread(eventProcessor, cpus)
+                : threadFactory.newThread(eventProcessor);
+            if (null == thread)
+            {
+                throw new RuntimeException("Failed to create thread to run: " + eventProcessor);
+            }
+
+            thread.start();
+        }
+    }
+
+    @Override
+    public void halt()
+    {
+        for (final EventProcessor eventProcessor : eventProcessors)
+        {
+            eventProcessor.halt();
+        }
+    }
+
+    @Override
+    public void markAsUsedInBarrier()
+    {
+        endOfChain = false;
+    }
+
+    @Override
+    public void pinTo(final CpuSet cpus)
+    {
+        this.cpus = cpus;
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        for (final EventProcessor eventProcessor : eventProcessors)
+        {
+            if (eventProcessor.isRunning())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public SequenceCompletion getSequenceCompletion()
+    {
+        return null;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.flow;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.TimeoutException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * A {@link Flow.Publisher} of the events published into a {@link RingBuffer}.
+ *
+ * <p>Each subscription reads the ring buffer through an {@link EventPoller} of its own, on a thread from the
+ * thread factory, and only advances its sequence over the events it has delivered within the demand requested by
+ * its subscriber.  The sequence gates the publishers of the ring buffer, so a subscriber that stops requesting
+ * holds them up once the ring buffer is full, rather than letting events queue up without bound.  Subscribers only
+ * see the events published after they subscribed.
+ *
+ * <p>Events are reused by the ring buffer once they have been delivered, so the mapper should copy out what the
+ * subscriber needs, unless the subscriber is finished with the event when {@link Flow.Subscriber#onNext} returns.
+ * The thread of a subscription waits for events with the {@link com.lmax.disruptor.WaitStrategy} of the ring
+ * buffer.
+ *
+ * @param <E> the type of the events of the ring buffer.
+ * @param <T> the type of the items delivered to subscribers.
+ */
+public final class RingBufferPublisher<E, T> implements Flow.Publisher<T>, AutoCloseable
+{
+    private static final long NOT_CLOSED = Long.MAX_VALUE;
+
+    private final RingBuffer<E> ringBuffer;
+    private final Function<? super E, ? extends T> mapper;
+    private final ThreadFactory threadFactory;
+    private final List<RingBufferSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile long closedAt = NOT_CLOSED;
+
+    /**
+     * @param ringBuffer    to deliver the events of.
+     * @param mapper        to turn an event into the item delivered to subscribers.
+     * @param threadFactory to create the thread of each subscription.
+     */
+    public RingBufferPublisher(
+        final RingBuffer<E> ringBuffer,
+        final Function<? super E, ? extends T> mapper,
+        final ThreadFactory threadFactory)
+    {
+        this.ringBuffer = ringBuffer;
+        this.mapper = mapper;
+        this.threadFactory = threadFactory;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber)
+    {
+        final RingBufferSubscription subscription = new RingBufferSubscription(subscriber);
+        subscriptions.add(subscription);
+        threadFactory.newThread(subscription).start();
+    }
+
+    /**
+     * Complete the subscribers once they have been delivered the events published so far.
+     */
+    @Override
+    public void close()
+    {
+        closedAt = ringBuffer.getCursor();
+        for (final RingBufferSubscription subscription : subscriptions)
+        {
+            subscription.alert();
+        }
+    }
+
+    /**
+     * @return the number of subscriptions that have not been cancelled or completed.
+     */
+    public int getSubscriberCount()
+    {
+        return subscriptions.size();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RingBufferPublisher{" +
+            "subscriptions=" + subscriptions.size() +
+            ", closedAt=" + closedAt +
+            '}';
+    }
+
+    private final class RingBufferSubscription implements Flow.Subscription, Runnable, EventPoller.Handler<E>
+    {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final EventPoller<E> poller = ringBuffer.newPoller();
+        private final Sequence sequence = poller.getSequence();
+        private final SequenceBarrier barrier = ringBuffer.newBarrier();
+        private final AtomicLong demand = new AtomicLong();
+        private volatile boolean cancelled = false;
+        private volatile Throwable error;
+        private volatile Thread thread;
+
+        RingBufferSubscription(final Flow.Subscriber<? super T> subscriber)
+        {
+            this.subscriber = subscriber;
+            ringBuffer.addGatingSequences(sequence);
+        }
+
+        @Override
+        public void request(final long n)
+        {
+            if (n <= 0)
+            {
+                error = new IllegalArgumentException("Requested " + n + ", must be positive");
+                cancel();
+                return;
+            }
+
+            // Only a subscription without demand is parked rather than waiting for events
+            if (demand.getAndAccumulate(n, RingBufferPublisher::addCapped) == 0)
+            {
+                unpark();
+            }
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            alert();
+        }
+
+        @Override
+        public boolean onEvent(final E event, final long sequence, final boolean endOfBatch)
+        {
+            subscriber.onNext(mapper.apply(event));
+            return !cancelled && (demand.get() == Long.MAX_VALUE || demand.decrementAndGet() > 0);
+        }
+
+        @Override
+        public void run()
+        {
+            thread = Thread.currentThread();
+            try
+            {
+                subscriber.onSubscribe(this);
+                while (!cancelled)
+                {
+                    if (sequence.get() >= closedAt)
+                    {
+                        subscriber.onComplete();
+                        return;
+                    }
+
+                    if (demand.get() == 0)
+                    {
+                        LockSupport.park(this);
+                    }
+                    else if (poller.poll(this) != EventPoller.PollState.PROCESSING)
+                    {
+                        awaitEvents();
+                    }
+                }
+
+                final Throwable error = this.error;
+                if (error != null)
+                {
+                    subscriber.onError(error);
+                }
+            }
+            catch (final Throwable ex)
+            {
+                cancelled = true;
+                subscriber.onError(ex);
+            }
+            finally
+            {
+                subscriptions.remove(this);
+                ringBuffer.removeGatingSequence(sequence);
+            }
+        }
+
+        private void awaitEvents() throws InterruptedException
+        {
+            try
+            {
+                barrier.waitFor(sequence.get() + 1);
+            }
+            catch (final AlertException ex)
+            {
+                // Woken by a cancel or close, which are checked at the top of the loop
+                barrier.clearAlert();
+            }
+            catch (final TimeoutException ex)
+            {
+                // Check the subscription again
+            }
+        }
+
+        private void alert()
+        {
+            barrier.alert();
+            unpark();
+        }
+
+        private void unpark()
+        {
+            final Thread thread = this.thread;
+            if (thread != null)
+            {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private static long addCapped(final long current, final long n)
+    {
+        final long sum = current + n;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+}
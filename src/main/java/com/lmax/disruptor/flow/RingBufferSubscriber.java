@@ -0,0 +1,136 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.flow;
+
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * A {@link Flow.Subscriber} publishing the items it receives into a {@link RingBuffer}.
+ *
+ * <p>The demand signalled upstream is sized to the {@link RingBuffer#remainingCapacity()} of the ring buffer, less
+ * the items already requested but not yet received, and is topped up as items are published.  While the ring buffer
+ * is full a single item is requested, and publishing it blocks the upstream thread until there is space, so that
+ * the subscription keeps going without items queueing up anywhere else.
+ *
+ * <p>Items are published from the thread calling {@link #onNext(Object)}, so a single producer ring buffer must not
+ * be published to by anything else.
+ *
+ * @param <E> the type of the events of the ring buffer.
+ * @param <T> the type of the items received.
+ */
+public final class RingBufferSubscriber<E, T> implements Flow.Subscriber<T>
+{
+    // More items are requested once fewer than a quarter of the buffer size are still outstanding
+    private static final int REPLENISH_FRACTION = 4;
+
+    private final RingBuffer<E> ringBuffer;
+    private final EventTranslatorOneArg<E, T> translator;
+    private final long replenishBelow;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile Flow.Subscription subscription;
+    private long outstanding;
+
+    /**
+     * @param ringBuffer to publish the items into.
+     * @param translator to translate an item into an event.
+     */
+    public RingBufferSubscriber(final RingBuffer<E> ringBuffer, final EventTranslatorOneArg<E, T> translator)
+    {
+        this.ringBuffer = ringBuffer;
+        this.translator = translator;
+        this.replenishBelow = Math.max(1, ringBuffer.getBufferSize() / REPLENISH_FRACTION);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription)
+    {
+        if (this.subscription != null)
+        {
+            subscription.cancel();
+            return;
+        }
+
+        this.subscription = subscription;
+        replenish();
+    }
+
+    @Override
+    public void onNext(final T item)
+    {
+        outstanding--;
+        ringBuffer.publishEvent(translator, item);
+
+        if (outstanding < replenishBelow)
+        {
+            replenish();
+        }
+    }
+
+    @Override
+    public void onError(final Throwable throwable)
+    {
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete()
+    {
+        completion.complete(null);
+    }
+
+    /**
+     * Cancel the subscription, no more items will be published once the publisher has seen the cancel.
+     */
+    public void cancel()
+    {
+        final Flow.Subscription subscription = this.subscription;
+        if (subscription != null)
+        {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * @return a future completed when the publisher completes, or completed exceptionally with its error.
+     */
+    public CompletableFuture<Void> getCompletion()
+    {
+        return completion;
+    }
+
+    private void replenish()
+    {
+        final long n = Math.max(ringBuffer.remainingCapacity() - outstanding, outstanding == 0 ? 1 : 0);
+        if (n > 0)
+        {
+            outstanding += n;
+            subscription.request(n);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RingBufferSubscriber{" +
+            "ringBuffer=" + ringBuffer +
+            ", completion=" + completion +
+            '}';
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Adapters between ring buffers and the {@link java.util.concurrent.Flow} reactive streams interfaces, carrying the
+ * backpressure of the ring buffer through demand.
+ */
+package com.lmax.disruptor.flow;
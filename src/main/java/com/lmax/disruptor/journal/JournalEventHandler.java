@@ -0,0 +1,69 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import com.lmax.disruptor.EventHandler;
+
+/**
+ * Records every event in a journal, forcing the journal to storage at the end of each batch so that a whole
+ * batch is committed with a single sync.
+ *
+ * <p>The {@link com.lmax.disruptor.BatchEventProcessor} running this handler only moves its sequence on once a
+ * batch is complete, so its sequence is the highest durably journaled sequence and handlers that run after this
+ * one, e.g. with {@link com.lmax.disruptor.dsl.EventHandlerGroup#then(EventHandler[])}, only see journaled events.
+ * The processor should keep the default fatal exception handler, so that an event that could not be journaled is
+ * never passed on.
+ *
+ * <p>Events with a sequence that is already in the journal, e.g. when the journal is being replayed after a
+ * restart, are not appended again.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class JournalEventHandler<T> implements EventHandler<T>
+{
+    private final JournalWriter writer;
+    private final JournalSerializer<? super T> serializer;
+
+    /**
+     * @param writer     to append the events to.
+     * @param serializer to write each event into its record.
+     */
+    public JournalEventHandler(final JournalWriter writer, final JournalSerializer<? super T> serializer)
+    {
+        this.writer = writer;
+        this.serializer = serializer;
+    }
+
+    @Override
+    public void onEvent(final T event, final long sequence, final boolean endOfBatch) throws Exception
+    {
+        if (sequence > writer.getLastSequence())
+        {
+            writer.append(sequence, event, serializer);
+        }
+
+        if (endOfBatch)
+        {
+            writer.force();
+        }
+    }
+
+    @Override
+    public void onShutdown()
+    {
+        writer.force();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * The layout of journal segments.
+ *
+ * <p>A journal is a directory of segment files, each named after the sequence of the first record it holds, so that
+ * the files sort in the order they were written.  A segment starts with a header of a magic number and the format
+ * version, followed by the records.  Each record has a header of a magic number, the length of the payload, the
+ * sequence and a CRC32 checksum of the payload, followed by the payload.  The magic number of a record is written
+ * last, the records of a segment end at the first position without a valid record.
+ */
+final class JournalFormat
+{
+    static final int SEGMENT_MAGIC = 0x4C4D4A4E;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_LENGTH = 8;
+    static final int VERSION_OFFSET = 4;
+
+    static final int RECORD_MAGIC = 0x52454344;
+    static final int RECORD_HEADER_LENGTH = 20;
+    static final int LENGTH_OFFSET = 4;
+    static final int SEQUENCE_OFFSET = 8;
+    static final int CHECKSUM_OFFSET = 16;
+
+    static final String SEGMENT_SUFFIX = ".journal";
+    private static final int SEGMENT_NAME_DIGITS = 20;
+
+    private JournalFormat()
+    {
+    }
+
+    static String segmentName(final long firstSequence)
+    {
+        final StringBuilder name = new StringBuilder(Long.toString(firstSequence));
+        while (name.length() < SEGMENT_NAME_DIGITS)
+        {
+            name.insert(0, '0');
+        }
+        return name.append(SEGMENT_SUFFIX).toString();
+    }
+
+    static long firstSequence(final Path segment)
+    {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static List<Path> segments(final Path directory) throws IOException
+    {
+        try (Stream<Path> files = Files.list(directory))
+        {
+            return files
+                .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    static void writeSegmentHeader(final ByteBuffer segment)
+    {
+        segment.putInt(0, SEGMENT_MAGIC);
+        segment.putInt(VERSION_OFFSET, VERSION);
+    }
+
+    static void checkSegmentHeader(final ByteBuffer segment, final Path file)
+    {
+        if (segment.capacity() < SEGMENT_HEADER_LENGTH ||
+            segment.getInt(0) != SEGMENT_MAGIC ||
+            segment.getInt(VERSION_OFFSET) != VERSION)
+        {
+            throw new IllegalStateException("Not a version " + VERSION + " journal segment: " + file);
+        }
+    }
+
+    /**
+     * @param segment  to read the record from, its position is moved to check the payload.
+     * @param position of the record.
+     * @param crc      to calculate the checksum of the payload with.
+     * @return the length of the payload of the record, or -1 if there is no complete record at the position.
+     */
+    static int payloadLength(final ByteBuffer segment, final int position, final CRC32 crc)
+    {
+        if (position > segment.capacity() - RECORD_HEADER_LENGTH || segment.getInt(position) != RECORD_MAGIC)
+        {
+            return -1;
+        }
+
+        final int length = segment.getInt(position + LENGTH_OFFSET);
+        final int payloadStart = position + RECORD_HEADER_LENGTH;
+        if (length < 0 || length > segment.capacity() - payloadStart)
+        {
+            return -1;
+        }
+
+        if (segment.getInt(position + CHECKSUM_OFFSET) != checksum(crc, segment, payloadStart, length))
+        {
+            return -1;
+        }
+
+        return length;
+    }
+
+    static long sequence(final ByteBuffer segment, final int position)
+    {
+        return segment.getLong(position + SEQUENCE_OFFSET);
+    }
+
+    /**
+     * @param crc          to calculate the checksum with.
+     * @param segment      holding the payload, its position is moved to the end of the payload.
+     * @param payloadStart position of the payload.
+     * @param length       of the payload.
+     * @return the checksum of the payload.
+     */
+    static int checksum(final CRC32 crc, final ByteBuffer segment, final int payloadStart, final int length)
+    {
+        segment.limit(payloadStart + length).position(payloadStart);
+
+        crc.reset();
+        crc.update(segment);
+        segment.limit(segment.capacity());
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.lmax.disruptor.journal.JournalFormat.RECORD_HEADER_LENGTH;
+import static com.lmax.disruptor.journal.JournalFormat.SEGMENT_HEADER_LENGTH;
+
+/**
+ * Publishes the records of a journal written by a {@link JournalWriter} back into a {@link RingBuffer}, e.g. to
+ * rebuild the state of the handlers after a restart before accepting new events.
+ *
+ * <p>The segments are mapped read only and read front to back, so the pages are faulted in sequentially.  Records
+ * are published in batches of up to the batch size with {@link RingBuffer#publishEvents(EventTranslatorOneArg, int,
+ * int, Object[])}, the translator is passed a buffer positioned on the payload of each record.
+ *
+ * <p>Each event is published at the sequence it was recorded with, so that a {@link JournalEventHandler} in the
+ * handler chain recognises the replayed events and does not append them again.  To replay from a snapshot the ring
+ * buffer and the sequences of its event processors are moved to the snapshot with
+ * {@link #resumeFrom(RingBuffer, long, Sequence...)} before the processors are started.
+ *
+ * <p>Example:
+ * <pre><code>
+ * JournalReplayer.resumeFrom(ringBuffer, snapshotSequence, processor.getSequence());
+ * executor.execute(processor);
+ * ReplayStatistics statistics = new JournalReplayer(directory).replay(ringBuffer, TRANSLATOR, snapshotSequence + 1);
+ * </code></pre>
+ */
+public final class JournalReplayer
+{
+    /**
+     * The default maximum number of records published in one batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final Path directory;
+    private final int batchSize;
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Read the journal in a directory, publishing in batches of up to {@link #DEFAULT_BATCH_SIZE}.
+     *
+     * @param directory holding the segment files.
+     */
+    public JournalReplayer(final Path directory)
+    {
+        this(directory, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Read the journal in a directory.
+     *
+     * @param directory holding the segment files.
+     * @param batchSize the maximum number of records to publish in one batch, limited to the size of the ring buffer.
+     */
+    public JournalReplayer(final Path directory, final int batchSize)
+    {
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("batchSize must not be less than 1");
+        }
+
+        this.directory = directory;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Move the cursor of a ring buffer and the sequences of its event processors to a snapshot, so that the next
+     * event is published and handled at the sequence following the snapshot.  Must only be called before the event
+     * processors are started and nothing has been published.
+     *
+     * @param ringBuffer       to move the cursor of.
+     * @param snapshotSequence the sequence of the last event included in the snapshot.
+     * @param sequences        of the event processors that handle events from the ring buffer.
+     */
+    public static void resumeFrom(final RingBuffer<?> ringBuffer, final long snapshotSequence, final Sequence... sequences)
+    {
+        for (final Sequence sequence : sequences)
+        {
+            sequence.set(snapshotSequence);
+        }
+
+        ringBuffer.claimAndGetPreallocated(snapshotSequence);
+        ringBuffer.publish(snapshotSequence);
+    }
+
+    /**
+     * Publish all of the records in the journal, starting from sequence 0.
+     *
+     * @param <T>        the type of the events.
+     * @param ringBuffer to publish to, its cursor must be at -1.
+     * @param translator to read each record into an event.
+     * @return the statistics of the replay.
+     * @throws IOException if a segment can not be read.
+     * @see #replay(RingBuffer, EventTranslatorOneArg, long)
+     */
+    public <T> ReplayStatistics replay(final RingBuffer<T> ringBuffer, final EventTranslatorOneArg<T, ByteBuffer> translator)
+        throws IOException
+    {
+        return replay(ringBuffer, translator, 0L);
+    }
+
+    /**
+     * Publish the records in the journal from a sequence onwards, up to the last complete record.  Returns once the
+     * last record has been published, the event processors may still be handling the replayed events.
+     *
+     * @param <T>           the type of the events.
+     * @param ringBuffer    to publish to, its cursor must be at the sequence before the first sequence.
+     * @param translator    to read each record into an event.
+     * @param firstSequence the sequence of the first record to replay.
+     * @return the statistics of the replay.
+     * @throws IOException           if a segment can not be read.
+     * @throws IllegalStateException if the cursor of the ring buffer is not at the sequence before the first
+     *                               sequence, or the journal is missing the record for a sequence.
+     */
+    public <T> ReplayStatistics replay(
+        final RingBuffer<T> ringBuffer,
+        final EventTranslatorOneArg<T, ByteBuffer> translator,
+        final long firstSequence)
+        throws IOException
+    {
+        if (ringBuffer.getCursor() != firstSequence - 1)
+        {
+            throw new IllegalStateException(
+                "Ring buffer cursor is at " + ringBuffer.getCursor() + ", replaying from " + firstSequence +
+                " requires it to be at " + (firstSequence - 1));
+        }
+
+        final long start = System.nanoTime();
+        final List<Path> segments = JournalFormat.segments(directory);
+        final ByteBuffer[] payloads = new ByteBuffer[Math.min(batchSize, ringBuffer.getBufferSize())];
+
+        long nextSequence = firstSequence;
+        long byteCount = 0;
+        int segmentCount = 0;
+
+        for (int i = firstSegment(segments, firstSequence); i < segments.size(); i++)
+        {
+            final Path file = segments.get(i);
+            final MappedByteBuffer segment = map(file);
+            JournalFormat.checkSegmentHeader(segment, file);
+            segmentCount++;
+
+            final ByteBuffer checksumView = segment.duplicate();
+            for (int j = 0; j < payloads.length; j++)
+            {
+                payloads[j] = segment.duplicate();
+            }
+
+            int count = 0;
+            int position = SEGMENT_HEADER_LENGTH;
+            int length;
+            while ((length = JournalFormat.payloadLength(checksumView, position, crc)) >= 0)
+            {
+                final long sequence = JournalFormat.sequence(segment, position);
+                final int payloadStart = position + RECORD_HEADER_LENGTH;
+                position = payloadStart + length;
+
+                if (sequence < nextSequence)
+                {
+                    continue;
+                }
+                if (sequence != nextSequence)
+                {
+                    throw new IllegalStateException("Journal has no record for sequence " + nextSequence + " in " + file);
+                }
+
+                payloads[count++].limit(position).position(payloadStart);
+                byteCount += length;
+                nextSequence++;
+
+                if (count == payloads.length)
+                {
+                    ringBuffer.publishEvents(translator, 0, count, payloads);
+                    count = 0;
+                }
+            }
+
+            if (count > 0)
+            {
+                ringBuffer.publishEvents(translator, 0, count, payloads);
+            }
+        }
+
+        return new ReplayStatistics(
+            firstSequence, nextSequence - firstSequence, byteCount, segmentCount, System.nanoTime() - start);
+    }
+
+    private static int firstSegment(final List<Path> segments, final long firstSequence)
+    {
+        int first = 0;
+        for (int i = 1; i < segments.size() && JournalFormat.firstSequence(segments.get(i)) <= firstSequence; i++)
+        {
+            first = i;
+        }
+        return first;
+    }
+
+    private static MappedByteBuffer map(final Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(Integer.MAX_VALUE, Files.size(file)));
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "JournalReplayer{" +
+            "directory=" + directory +
+            ", batchSize=" + batchSize +
+            '}';
+    }
+}
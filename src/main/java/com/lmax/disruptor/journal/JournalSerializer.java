@@ -0,0 +1,38 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes the content of an event into a journal record.
+ *
+ * @param <T> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public interface JournalSerializer<T>
+{
+    /**
+     * Write the event into the buffer, starting at its current position.  The number of bytes written is taken from
+     * the position of the buffer after the call.  If the event does not fit before the limit of the buffer a
+     * {@link java.nio.BufferOverflowException} should be thrown, which the standard put methods of the buffer do,
+     * and the record will be written into the next segment instead.
+     *
+     * @param event    to write.
+     * @param sequence of the event.
+     * @param buffer   to write the event into.
+     */
+    void serialize(T event, long sequence, ByteBuffer buffer);
+}
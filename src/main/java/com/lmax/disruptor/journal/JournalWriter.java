@@ -0,0 +1,277 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.lmax.disruptor.journal.JournalFormat.CHECKSUM_OFFSET;
+import static com.lmax.disruptor.journal.JournalFormat.LENGTH_OFFSET;
+import static com.lmax.disruptor.journal.JournalFormat.RECORD_HEADER_LENGTH;
+import static com.lmax.disruptor.journal.JournalFormat.RECORD_MAGIC;
+import static com.lmax.disruptor.journal.JournalFormat.SEGMENT_HEADER_LENGTH;
+import static com.lmax.disruptor.journal.JournalFormat.SEQUENCE_OFFSET;
+
+/**
+ * Appends records to a journal of memory-mapped segment files, see {@link JournalFormat} for the layout.
+ *
+ * <p>Records are written into the mapped segment and only made durable by {@link #force()}, so that a batch of
+ * records can be committed with a single sync.  When a record does not fit in the current segment a new segment is
+ * started.  Opening an existing journal continues after the last complete record of the last segment.
+ *
+ * <p>Not thread safe, a journal should be written by a single thread.
+ */
+public final class JournalWriter implements Closeable
+{
+    /**
+     * The default size of a segment file.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+    private MappedByteBuffer segment;
+    private ByteBuffer checksumView;
+    private long lastSequence = -1L;
+
+    /**
+     * Open the journal in a directory with {@link #DEFAULT_SEGMENT_SIZE} segments, creating the directory if needed.
+     *
+     * @param directory to hold the segment files.
+     * @throws IOException if the journal can not be opened.
+     */
+    public JournalWriter(final Path directory) throws IOException
+    {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open the journal in a directory, creating the directory if needed.
+     *
+     * @param directory   to hold the segment files.
+     * @param segmentSize the size in bytes of new segment files.
+     * @throws IOException if the journal can not be opened.
+     */
+    public JournalWriter(final Path directory, final int segmentSize) throws IOException
+    {
+        if (segmentSize <= SEGMENT_HEADER_LENGTH + RECORD_HEADER_LENGTH)
+        {
+            throw new IllegalArgumentException("segmentSize must be larger than " + (SEGMENT_HEADER_LENGTH + RECORD_HEADER_LENGTH));
+        }
+
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+
+        final List<Path> segments = JournalFormat.segments(directory);
+        if (!segments.isEmpty())
+        {
+            recover(segments);
+        }
+    }
+
+    /**
+     * Append a record for an event, the record is not durable until the next call to {@link #force()}.
+     *
+     * @param <T>        the type of the event.
+     * @param sequence   of the event, must be greater than the sequence of the previous record.
+     * @param event      to append.
+     * @param serializer to write the event into the record.
+     * @throws IOException              if a new segment can not be created.
+     * @throws IllegalArgumentException if the sequence is not greater than the last appended sequence or the
+     *                                  record does not fit in an empty segment.
+     */
+    public <T> void append(final long sequence, final T event, final JournalSerializer<? super T> serializer)
+        throws IOException
+    {
+        if (sequence <= lastSequence)
+        {
+            throw new IllegalArgumentException(
+                "Sequence " + sequence + " is not after the last appended sequence " + lastSequence);
+        }
+
+        if (segment == null || segment.remaining() <= RECORD_HEADER_LENGTH)
+        {
+            roll(sequence);
+        }
+
+        if (!tryAppend(sequence, event, serializer))
+        {
+            if (segment.position() == SEGMENT_HEADER_LENGTH)
+            {
+                throw new IllegalArgumentException("Record for sequence " + sequence + " does not fit in a segment");
+            }
+
+            roll(sequence);
+            if (!tryAppend(sequence, event, serializer))
+            {
+                throw new IllegalArgumentException("Record for sequence " + sequence + " does not fit in a segment");
+            }
+        }
+
+        lastSequence = sequence;
+    }
+
+    private <T> boolean tryAppend(final long sequence, final T event, final JournalSerializer<? super T> serializer)
+    {
+        final int position = segment.position();
+        final int payloadStart = position + RECORD_HEADER_LENGTH;
+
+        segment.position(payloadStart);
+        try
+        {
+            serializer.serialize(event, sequence, segment);
+        }
+        catch (final BufferOverflowException e)
+        {
+            segment.position(position);
+            return false;
+        }
+
+        final int length = segment.position() - payloadStart;
+        segment.putInt(position + LENGTH_OFFSET, length);
+        segment.putLong(position + SEQUENCE_OFFSET, sequence);
+        segment.putInt(position + CHECKSUM_OFFSET, JournalFormat.checksum(crc, checksumView, payloadStart, length));
+        segment.putInt(position, RECORD_MAGIC);
+
+        return true;
+    }
+
+    /**
+     * Make all of the appended records durable.
+     */
+    public void force()
+    {
+        if (segment != null)
+        {
+            segment.force();
+        }
+    }
+
+    /**
+     * @return the sequence of the last appended record, or -1 if there are none.
+     */
+    public long getLastSequence()
+    {
+        return lastSequence;
+    }
+
+    /**
+     * @return the directory holding the segment files.
+     */
+    public Path getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Force the appended records and release the current segment.
+     */
+    @Override
+    public void close()
+    {
+        force();
+        segment = null;
+        checksumView = null;
+    }
+
+    private void roll(final long firstSequence) throws IOException
+    {
+        force();
+
+        segment = map(directory.resolve(JournalFormat.segmentName(firstSequence)), segmentSize);
+        JournalFormat.writeSegmentHeader(segment);
+        segment.force();
+        segment.position(SEGMENT_HEADER_LENGTH);
+        checksumView = segment.duplicate();
+    }
+
+    private void recover(final List<Path> segments) throws IOException
+    {
+        for (int i = segments.size() - 1; i >= 0; i--)
+        {
+            final Path file = segments.get(i);
+            final MappedByteBuffer existing = map(file, (int) Math.min(Integer.MAX_VALUE, Files.size(file)));
+            final boolean hasHeader = existing.capacity() >= SEGMENT_HEADER_LENGTH && existing.getInt(0) != 0;
+            if (hasHeader)
+            {
+                JournalFormat.checkSegmentHeader(existing, file);
+            }
+
+            final ByteBuffer view = existing.duplicate();
+            int position = SEGMENT_HEADER_LENGTH;
+            int length;
+            while ((length = JournalFormat.payloadLength(view, position, crc)) >= 0)
+            {
+                lastSequence = JournalFormat.sequence(existing, position);
+                position += RECORD_HEADER_LENGTH + length;
+            }
+
+            if (position == SEGMENT_HEADER_LENGTH && i > 0)
+            {
+                // Rolled over without completing a record, carry on from the previous segment
+                Files.delete(file);
+                continue;
+            }
+
+            if (existing.capacity() <= SEGMENT_HEADER_LENGTH)
+            {
+                throw new IllegalStateException("Journal segment is too small to recover: " + file);
+            }
+
+            // Clear anything left behind by an incomplete write, so that it can not be mistaken for a record later
+            for (int j = position; j < existing.capacity(); j++)
+            {
+                existing.put(j, (byte) 0);
+            }
+            JournalFormat.writeSegmentHeader(existing);
+            existing.force();
+
+            segment = existing;
+            segment.position(position);
+            checksumView = view;
+            return;
+        }
+    }
+
+    private static MappedByteBuffer map(final Path file, final int size) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "JournalWriter{" +
+            "directory=" + directory +
+            ", segmentSize=" + segmentSize +
+            ", lastSequence=" + lastSequence +
+            '}';
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outcome of a {@link JournalReplayer#replay replay}, how many events were published and how fast.
+ */
+public final class ReplayStatistics
+{
+    private final long firstSequence;
+    private final long eventCount;
+    private final long byteCount;
+    private final int segmentCount;
+    private final long durationNanos;
+
+    ReplayStatistics(
+        final long firstSequence,
+        final long eventCount,
+        final long byteCount,
+        final int segmentCount,
+        final long durationNanos)
+    {
+        this.firstSequence = firstSequence;
+        this.eventCount = eventCount;
+        this.byteCount = byteCount;
+        this.segmentCount = segmentCount;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return the sequence of the first replayed event.
+     */
+    public long getFirstSequence()
+    {
+        return firstSequence;
+    }
+
+    /**
+     * @return the sequence of the last replayed event, or one less than the first sequence if none were replayed.
+     */
+    public long getLastSequence()
+    {
+        return firstSequence + eventCount - 1;
+    }
+
+    /**
+     * @return the number of events published to the ring buffer.
+     */
+    public long getEventCount()
+    {
+        return eventCount;
+    }
+
+    /**
+     * @return the number of payload bytes read from the journal.
+     */
+    public long getByteCount()
+    {
+        return byteCount;
+    }
+
+    /**
+     * @return the number of segment files read.
+     */
+    public int getSegmentCount()
+    {
+        return segmentCount;
+    }
+
+    /**
+     * @return the time taken to read and publish the events, in nanoseconds.
+     */
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+
+    /**
+     * @return the number of events published per second.
+     */
+    public long getEventsPerSecond()
+    {
+        return durationNanos == 0 ? 0 : (long) (eventCount * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos);
+    }
+
+    /**
+     * @return the number of payload bytes read per second.
+     */
+    public long getBytesPerSecond()
+    {
+        return durationNanos == 0 ? 0 : (long) (byteCount * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ReplayStatistics{" +
+            "firstSequence=" + firstSequence +
+            ", eventCount=" + eventCount +
+            ", byteCount=" + byteCount +
+            ", segmentCount=" + segmentCount +
+            ", durationNanos=" + durationNanos +
+            ", eventsPerSecond=" + getEventsPerSecond() +
+            '}';
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Durable journaling of events to memory-mapped, segmented, append-only files.
+ */
+package com.lmax.disruptor.journal;
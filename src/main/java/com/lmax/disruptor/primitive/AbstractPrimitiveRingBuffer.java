@@ -0,0 +1,272 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.Cursored;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequenced;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.SingleProducerSequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * Base class for the ring buffers of primitive values.  Provides the sequencing, which is the same as for a
+ * {@link com.lmax.disruptor.RingBuffer}, and the creation of processors that hand the primitive values to a handler.
+ */
+public abstract class AbstractPrimitiveRingBuffer implements Cursored, Sequenced
+{
+    protected final Sequencer sequencer;
+    protected final int bufferSize;
+    private final int indexMask;
+
+    /**
+     * Construct with the sequencer that orders the entries of the ring buffer.
+     *
+     * @param sequencer sequencer to handle the ordering of events moving through the ring buffer.
+     */
+    protected AbstractPrimitiveRingBuffer(final Sequencer sequencer)
+    {
+        this.sequencer = sequencer;
+        this.bufferSize = sequencer.getBufferSize();
+        this.indexMask = bufferSize - 1;
+    }
+
+    /**
+     * Create the sequencer for a producer type.
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of elements to create within the ring buffer.
+     * @param waitStrategy used to determine how to wait for new elements to become available.
+     * @return a sequencer for the producer type.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    protected static Sequencer newSequencer(
+        final ProducerType producerType,
+        final int bufferSize,
+        final WaitStrategy waitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return new SingleProducerSequencer(bufferSize, waitStrategy);
+            case MULTI:
+                return new MultiProducerSequencer(bufferSize, waitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    /**
+     * @param sequence of the entry
+     * @return the index in the ring buffer of the first value of the entry for the sequence
+     */
+    protected final int index(final long sequence)
+    {
+        return (int) sequence & indexMask;
+    }
+
+    /**
+     * Create a {@link BatchEventProcessor} that passes each sequence to the handler, which reads the entry for
+     * the sequence.
+     *
+     * @param handler          to receive the sequences.
+     * @param sequencesToTrack the sequences of the processors that have to process an entry before this one.
+     * @return an event processor that is not yet gating the ring buffer.
+     */
+    protected final EventProcessor newProcessor(
+        final EventHandler<AbstractPrimitiveRingBuffer> handler,
+        final Sequence... sequencesToTrack)
+    {
+        return new BatchEventProcessor<>(sequence -> this, sequencer.newBarrier(sequencesToTrack), handler);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#next()
+     */
+    @Override
+    public long next()
+    {
+        return sequencer.next();
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#next(int)
+     */
+    @Override
+    public long next(final int n)
+    {
+        return sequencer.next(n);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#tryNext()
+     */
+    @Override
+    public long tryNext() throws InsufficientCapacityException
+    {
+        return sequencer.tryNext();
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#tryNext(int)
+     */
+    @Override
+    public long tryNext(final int n) throws InsufficientCapacityException
+    {
+        return sequencer.tryNext(n);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#publish(long)
+     */
+    @Override
+    public void publish(final long sequence)
+    {
+        sequencer.publish(sequence);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#publish(long, long)
+     */
+    @Override
+    public void publish(final long lo, final long hi)
+    {
+        sequencer.publish(lo, hi);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#isAvailable(long)
+     * @param sequence The sequence to identify the entry.
+     * @return If the value published with the given sequence number is currently available.
+     */
+    public boolean isAvailable(final long sequence)
+    {
+        return sequencer.isAvailable(sequence);
+    }
+
+    /**
+     * Add the specified gating sequences to this instance of the ring buffer.  They will
+     * safely and atomically added to the list of gating sequences.
+     *
+     * @param gatingSequences The sequences to add.
+     */
+    public void addGatingSequences(final Sequence... gatingSequences)
+    {
+        sequencer.addGatingSequences(gatingSequences);
+    }
+
+    /**
+     * Remove the specified sequence from this ring buffer.
+     *
+     * @param sequence to be removed.
+     * @return <code>true</code> if this sequence was found, <code>false</code> otherwise.
+     */
+    public boolean removeGatingSequence(final Sequence sequence)
+    {
+        return sequencer.removeGatingSequence(sequence);
+    }
+
+    /**
+     * Create a new SequenceBarrier to be used by an EventProcessor to track which messages
+     * are available to be read from the ring buffer given a list of sequences to track.
+     *
+     * @param sequencesToTrack the additional sequences to track
+     * @return A sequence barrier that will track the specified sequences.
+     * @see SequenceBarrier
+     */
+    public SequenceBarrier newBarrier(final Sequence... sequencesToTrack)
+    {
+        return sequencer.newBarrier(sequencesToTrack);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#getCursor()
+     */
+    @Override
+    public long getCursor()
+    {
+        return sequencer.getCursor();
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#getBufferSize()
+     */
+    @Override
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#hasAvailableCapacity(int)
+     */
+    @Override
+    public boolean hasAvailableCapacity(final int requiredCapacity)
+    {
+        return sequencer.hasAvailableCapacity(requiredCapacity);
+    }
+
+    /**
+     * @see com.lmax.disruptor.RingBuffer#remainingCapacity()
+     */
+    @Override
+    public long remainingCapacity()
+    {
+        return sequencer.remainingCapacity();
+    }
+
+    /**
+     * Check that a batch of values fits within both the source array and the ring buffer.
+     *
+     * @param length    of the source array.
+     * @param offset    of the first value of the batch in the source array.
+     * @param batchSize number of values in the batch.
+     */
+    protected final void checkBatch(final int length, final int offset, final int batchSize)
+    {
+        if (offset < 0 || batchSize < 0)
+        {
+            throw new IllegalArgumentException("Both offset and batchSize must be positive but got: offset " + offset + " and batchSize " + batchSize);
+        }
+        else if (batchSize > bufferSize)
+        {
+            throw new IllegalArgumentException("The ring buffer cannot accommodate " + batchSize + " it only has space for " + bufferSize + " entities.");
+        }
+        else if (offset + batchSize > length)
+        {
+            throw new IllegalArgumentException(
+                "A batchSize of: " + batchSize +
+                    " with offset of: " + offset +
+                    " will overrun the available number of values: " + (length - offset));
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "{" +
+            "bufferSize=" + bufferSize +
+            ", sequencer=" + sequencer +
+            "}";
+    }
+}
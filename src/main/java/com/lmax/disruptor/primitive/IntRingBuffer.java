@@ -0,0 +1,234 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+/**
+ * Ring buffer of <code>int</code> values held in a single <code>int[]</code>, values are published without
+ * an event object or translator and processed by a {@link IntEventHandler}.
+ */
+public final class IntRingBuffer extends AbstractPrimitiveRingBuffer
+{
+    private final int[] entries;
+
+    /**
+     * Construct a IntRingBuffer.
+     *
+     * @param sequencer sequencer to handle the ordering of values moving through the ring buffer.
+     */
+    public IntRingBuffer(final Sequencer sequencer)
+    {
+        super(sequencer);
+        this.entries = new int[bufferSize];
+    }
+
+    /**
+     * Create a new IntRingBuffer with the specified producer type.
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of values held within the ring buffer.
+     * @param waitStrategy used to determine how to wait for new values to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static IntRingBuffer create(
+        final ProducerType producerType,
+        final int bufferSize,
+        final WaitStrategy waitStrategy)
+    {
+        return new IntRingBuffer(newSequencer(producerType, bufferSize, waitStrategy));
+    }
+
+    /**
+     * Create a new multiple producer IntRingBuffer using the default wait strategy {@link BlockingWaitStrategy}.
+     *
+     * @param bufferSize number of values held within the ring buffer.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2
+     */
+    public static IntRingBuffer createMultiProducer(final int bufferSize)
+    {
+        return create(ProducerType.MULTI, bufferSize, new BlockingWaitStrategy());
+    }
+
+    /**
+     * Get the value for a sequence, when consuming the value must have been published.
+     *
+     * @param sequence of the value.
+     * @return the value held for the sequence.
+     */
+    public int get(final long sequence)
+    {
+        return entries[index(sequence)];
+    }
+
+    /**
+     * Set the value for a sequence that has been claimed with {@link #next()} but not yet published.
+     *
+     * @param sequence of the value.
+     * @param value    to hold for the sequence.
+     */
+    public void set(final long sequence, final int value)
+    {
+        entries[index(sequence)] = value;
+    }
+
+    /**
+     * Claim the next sequence, set the value and publish it.
+     *
+     * @param value to publish.
+     */
+    public void put(final int value)
+    {
+        final long sequence = sequencer.next();
+        entries[index(sequence)] = value;
+        sequencer.publish(sequence);
+    }
+
+    /**
+     * Attempt to claim the next sequence, set the value and publish it.
+     *
+     * @param value to publish.
+     * @return true if the value was published, false if there was insufficient capacity.
+     */
+    public boolean tryPut(final int value)
+    {
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            entries[index(sequence)] = value;
+            sequencer.publish(sequence);
+            return true;
+        }
+        catch (final InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Publish each of the values as a single batch.
+     *
+     * @param values to publish.
+     */
+    public void put(final int... values)
+    {
+        put(values, 0, values.length);
+    }
+
+    /**
+     * Publish a range of the values as a single batch.
+     *
+     * @param values    holding the batch to publish.
+     * @param offset    of the first value to publish.
+     * @param batchSize number of values to publish.
+     */
+    public void put(final int[] values, final int offset, final int batchSize)
+    {
+        checkBatch(values.length, offset, batchSize);
+        copyAndPublish(values, offset, batchSize, sequencer.next(batchSize));
+    }
+
+    /**
+     * Attempt to publish a range of the values as a single batch.
+     *
+     * @param values    holding the batch to publish.
+     * @param offset    of the first value to publish.
+     * @param batchSize number of values to publish.
+     * @return true if the values were published, false if there was insufficient capacity.
+     */
+    public boolean tryPut(final int[] values, final int offset, final int batchSize)
+    {
+        checkBatch(values.length, offset, batchSize);
+        try
+        {
+            copyAndPublish(values, offset, batchSize, sequencer.tryNext(batchSize));
+            return true;
+        }
+        catch (final InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    private void copyAndPublish(final int[] values, final int offset, final int batchSize, final long finalSequence)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        final int firstIndex = index(initialSequence);
+        final int firstPart = Math.min(batchSize, bufferSize - firstIndex);
+
+        System.arraycopy(values, offset, entries, firstIndex, firstPart);
+        System.arraycopy(values, offset + firstPart, entries, 0, batchSize - firstPart);
+
+        sequencer.publish(initialSequence, finalSequence);
+    }
+
+    /**
+     * Create an event processor that passes the published values to the handler, the processor still has to be
+     * added as a gating sequence of this ring buffer, either directly or through processors that depend on it.
+     *
+     * @param handler          to process the values.
+     * @param sequencesToTrack the sequences of the processors that have to process a value before this one.
+     * @return an event processor for the handler.
+     */
+    public EventProcessor createProcessor(final IntEventHandler handler, final Sequence... sequencesToTrack)
+    {
+        return newProcessor(new IntEventHandlerAdapter(handler), sequencesToTrack);
+    }
+
+    private final class IntEventHandlerAdapter implements EventHandler<AbstractPrimitiveRingBuffer>
+    {
+        private final IntEventHandler handler;
+
+        IntEventHandlerAdapter(final IntEventHandler handler)
+        {
+            this.handler = handler;
+        }
+
+        @Override
+        public void onEvent(final AbstractPrimitiveRingBuffer ringBuffer, final long sequence, final boolean endOfBatch)
+            throws Exception
+        {
+            handler.onEvent(entries[index(sequence)], sequence, endOfBatch);
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            handler.onBatchStart(batchSize);
+        }
+
+        @Override
+        public void onStart()
+        {
+            handler.onStart();
+        }
+
+        @Override
+        public void onShutdown()
+        {
+            handler.onShutdown();
+        }
+    }
+}
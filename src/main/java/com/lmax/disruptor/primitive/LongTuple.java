@@ -0,0 +1,77 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import java.util.Objects;
+
+/**
+ * Read only view of the fields of one entry of a {@link LongTupleRingBuffer}.  The view is moved along the
+ * ring buffer as values are processed so it should not be held on to after the call to the handler.
+ */
+public final class LongTuple
+{
+    private final long[] entries;
+    private final int arity;
+    private int offset;
+
+    LongTuple(final long[] entries, final int arity)
+    {
+        this.entries = entries;
+        this.arity = arity;
+    }
+
+    void moveTo(final int offset)
+    {
+        this.offset = offset;
+    }
+
+    /**
+     * @param field index of the field, from 0 to arity - 1.
+     * @return the value of the field.
+     */
+    public long get(final int field)
+    {
+        return entries[offset + Objects.checkIndex(field, arity)];
+    }
+
+    /**
+     * @return the number of fields in the tuple.
+     */
+    public int getArity()
+    {
+        return arity;
+    }
+
+    /**
+     * @param destination to copy the fields to, must have space for the arity of the tuple.
+     * @param position    of the first field in the destination.
+     */
+    public void copyTo(final long[] destination, final int position)
+    {
+        System.arraycopy(entries, offset, destination, position, arity);
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder("LongTuple{");
+        for (int i = 0; i < arity; i++)
+        {
+            builder.append(i == 0 ? "" : ", ").append(entries[offset + i]);
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+/**
+ * Callback interface to be implemented for processing tuples as they become available in a {@link LongTupleRingBuffer}.
+ *
+ * @see com.lmax.disruptor.EventHandler
+ */
+public interface LongTupleEventHandler
+{
+    /**
+     * Called when a publisher has published a tuple to the {@link LongTupleRingBuffer}.
+     *
+     * @param tuple      view of the tuple published to the {@link LongTupleRingBuffer}, only valid during the call
+     * @param sequence   of the tuple being processed
+     * @param endOfBatch flag to indicate if this is the last tuple in a batch from the {@link LongTupleRingBuffer}
+     * @throws Exception if the handler would like the exception handled further up the chain.
+     */
+    void onEvent(LongTuple tuple, long sequence, boolean endOfBatch) throws Exception;
+
+    /**
+     * Invoked prior to processing a batch of tuples
+     *
+     * @param batchSize the size of the batch that is starting
+     */
+    default void onBatchStart(long batchSize)
+    {
+    }
+
+    /**
+     * Called once on thread start before first tuple is available.
+     */
+    default void onStart()
+    {
+    }
+
+    /**
+     * Called once just before the processing thread is shutdown.
+     */
+    default void onShutdown()
+    {
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.util.Objects;
+
+/**
+ * Ring buffer of tuples with a fixed number of <code>long</code> fields, e.g. price, quantity and timestamp.  The
+ * fields of all entries are held next to each other in a single <code>long[]</code>, tuples are published without
+ * an event object or translator and processed by a {@link LongTupleEventHandler}.
+ */
+public final class LongTupleRingBuffer extends AbstractPrimitiveRingBuffer
+{
+    // Some VMs reserve header words in an array, so larger arrays may fail to allocate
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private final long[] entries;
+    private final int arity;
+
+    /**
+     * Construct a LongTupleRingBuffer.
+     *
+     * @param sequencer sequencer to handle the ordering of tuples moving through the ring buffer.
+     * @param arity     number of fields in each tuple.
+     * @throws IllegalArgumentException if arity is less than 1 or the fields of all tuples do not fit in an array
+     */
+    public LongTupleRingBuffer(final Sequencer sequencer, final int arity)
+    {
+        super(sequencer);
+        if (arity < 1)
+        {
+            throw new IllegalArgumentException("arity must not be less than 1");
+        }
+        if ((long) bufferSize * arity > MAX_ARRAY_SIZE)
+        {
+            throw new IllegalArgumentException("bufferSize * arity must fit in an array");
+        }
+
+        this.arity = arity;
+        this.entries = new long[bufferSize * arity];
+    }
+
+    /**
+     * Create a new LongTupleRingBuffer with the specified producer type.
+     *
+     * @param producerType producer type to use {@link ProducerType}.
+     * @param bufferSize   number of tuples held within the ring buffer.
+     * @param arity        number of fields in each tuple.
+     * @param waitStrategy used to determine how to wait for new tuples to become available.
+     * @return a constructed ring buffer.
+     * @throws IllegalArgumentException if bufferSize is less than 1 or not a power of 2, or arity is less than 1
+     */
+    public static LongTupleRingBuffer create(
+        final ProducerType producerType,
+        final int bufferSize,
+        final int arity,
+        final WaitStrategy waitStrategy)
+    {
+        return new LongTupleRingBuffer(newSequencer(producerType, bufferSize, waitStrategy), arity);
+    }
+
+    /**
+     * @return the number of fields in each tuple.
+     */
+    public int getArity()
+    {
+        return arity;
+    }
+
+    /**
+     * Get a field of the tuple for a sequence, when consuming the tuple must have been published.
+     *
+     * @param sequence of the tuple.
+     * @param field    index of the field, from 0 to arity - 1.
+     * @return the value of the field.
+     */
+    public long get(final long sequence, final int field)
+    {
+        return entries[offset(sequence) + Objects.checkIndex(field, arity)];
+    }
+
+    /**
+     * Set a field of the tuple for a sequence that has been claimed with {@link #next()} but not yet published.
+     *
+     * @param sequence of the tuple.
+     * @param field    index of the field, from 0 to arity - 1.
+     * @param value    of the field.
+     */
+    public void set(final long sequence, final int field, final long value)
+    {
+        entries[offset(sequence) + Objects.checkIndex(field, arity)] = value;
+    }
+
+    /**
+     * Claim the next sequence, set the fields of the tuple and publish it.
+     *
+     * @param fields of the tuple, exactly arity values.
+     * @throws IllegalArgumentException if the number of fields does not match the arity.
+     */
+    public void put(final long... fields)
+    {
+        checkArity(fields.length);
+        final long sequence = sequencer.next();
+        System.arraycopy(fields, 0, entries, offset(sequence), arity);
+        sequencer.publish(sequence);
+    }
+
+    /**
+     * Attempt to claim the next sequence, set the fields of the tuple and publish it.
+     *
+     * @param fields of the tuple, exactly arity values.
+     * @return true if the tuple was published, false if there was insufficient capacity.
+     * @throws IllegalArgumentException if the number of fields does not match the arity.
+     */
+    public boolean tryPut(final long... fields)
+    {
+        checkArity(fields.length);
+        try
+        {
+            final long sequence = sequencer.tryNext();
+            System.arraycopy(fields, 0, entries, offset(sequence), arity);
+            sequencer.publish(sequence);
+            return true;
+        }
+        catch (final InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Publish a range of tuples as a single batch.
+     *
+     * @param tuples    holding the fields of consecutive tuples.
+     * @param offset    index of the first tuple to publish, the fields of which start at <code>offset * arity</code>.
+     * @param batchSize number of tuples to publish.
+     */
+    public void putAll(final long[] tuples, final int offset, final int batchSize)
+    {
+        checkBatch(tuples.length / arity, offset, batchSize);
+        copyAndPublish(tuples, offset, batchSize, sequencer.next(batchSize));
+    }
+
+    /**
+     * Attempt to publish a range of tuples as a single batch.
+     *
+     * @param tuples    holding the fields of consecutive tuples.
+     * @param offset    index of the first tuple to publish, the fields of which start at <code>offset * arity</code>.
+     * @param batchSize number of tuples to publish.
+     * @return true if the tuples were published, false if there was insufficient capacity.
+     */
+    public boolean tryPutAll(final long[] tuples, final int offset, final int batchSize)
+    {
+        checkBatch(tuples.length / arity, offset, batchSize);
+        try
+        {
+            copyAndPublish(tuples, offset, batchSize, sequencer.tryNext(batchSize));
+            return true;
+        }
+        catch (final InsufficientCapacityException e)
+        {
+            return false;
+        }
+    }
+
+    private void copyAndPublish(final long[] tuples, final int offset, final int batchSize, final long finalSequence)
+    {
+        final long initialSequence = finalSequence - (batchSize - 1);
+        final int firstIndex = index(initialSequence);
+        final int firstPart = Math.min(batchSize, bufferSize - firstIndex);
+
+        System.arraycopy(tuples, offset * arity, entries, firstIndex * arity, firstPart * arity);
+        System.arraycopy(tuples, (offset + firstPart) * arity, entries, 0, (batchSize - firstPart) * arity);
+
+        sequencer.publish(initialSequence, finalSequence);
+    }
+
+    /**
+     * Create an event processor that passes the published tuples to the handler, the processor still has to be
+     * added as a gating sequence of this ring buffer, either directly or through processors that depend on it.
+     *
+     * @param handler          to process the tuples.
+     * @param sequencesToTrack the sequences of the processors that have to process a tuple before this one.
+     * @return an event processor for the handler.
+     */
+    public EventProcessor createProcessor(final LongTupleEventHandler handler, final Sequence... sequencesToTrack)
+    {
+        return newProcessor(new LongTupleEventHandlerAdapter(handler), sequencesToTrack);
+    }
+
+    private int offset(final long sequence)
+    {
+        return index(sequence) * arity;
+    }
+
+    private void checkArity(final int fields)
+    {
+        if (fields != arity)
+        {
+            throw new IllegalArgumentException("Expected " + arity + " fields but got " + fields);
+        }
+    }
+
+    private final class LongTupleEventHandlerAdapter implements EventHandler<AbstractPrimitiveRingBuffer>
+    {
+        private final LongTupleEventHandler handler;
+        private final LongTuple tuple = new LongTuple(entries, arity);
+
+        LongTupleEventHandlerAdapter(final LongTupleEventHandler handler)
+        {
+            this.handler = handler;
+        }
+
+        @Override
+        public void onEvent(final AbstractPrimitiveRingBuffer ringBuffer, final long sequence, final boolean endOfBatch)
+            throws Exception
+        {
+            tuple.moveTo(offset(sequence));
+            handler.onEvent(tuple, sequence, endOfBatch);
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            handler.onBatchStart(batchSize);
+        }
+
+        @Override
+        public void onStart()
+        {
+            handler.onStart();
+        }
+
+        @Override
+        public void onShutdown()
+        {
+            handler.onShutdown();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Ring buffers specialised for primitive payloads, held in a contiguous primitive array rather than as an
+ * event object per entry.
+ */
+package com.lmax.disruptor.primitive;
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.queue;
+
+import com.lmax.disruptor.DataProvider;
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded {@link BlockingQueue} backed by a {@link RingBuffer} of reference holders, for code written against
+ * the queue interface that can not be moved to event handlers.
+ *
+ * <p>Elements are published into the ring buffer with {@link RingBuffer#tryNext()}, so {@link #offer(Object)}
+ * fails rather than waits when the queue is full.  The consumers share a single sequence gating the ring buffer,
+ * {@link #poll()} takes the element at the next sequence if it has been published, while
+ * {@link #drainTo(Collection, int)} consumes all of the available elements through an {@link EventPoller} as a
+ * single batch, with one update of the sequence.  Threads waiting for space or elements park, and the first of
+ * them is unparked each time the other side makes progress.
+ *
+ * <ul>
+ *     <li>{@link #createSingleProducerSingleConsumer(int)} is for one thread putting and one thread taking, and
+ *     does not coordinate either side.</li>
+ *     <li>{@link #createMultiProducerMultiConsumer(int)} lets any number of threads put and take, producers claim
+ *     slots without locking while consumers take turns on a lock.</li>
+ * </ul>
+ *
+ * <p>The capacity is the size of the ring buffer, so it must be a power of 2.  {@link #size()} is an estimate
+ * while elements are being put or taken.  Elements can only leave the queue from its head, so removing other
+ * elements, including through the iterator, is not supported.  The iterator is a snapshot of the elements in the
+ * queue when it was created.
+ *
+ * @param <E> the type of the elements.
+ */
+public final class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E>
+{
+    private final RingBuffer<Holder<E>> ringBuffer;
+    private final EventPoller<Holder<E>> poller;
+    private final Sequence sequence;
+    private final ReentrantLock consumerLock;
+    private final ConcurrentLinkedQueue<Waiter> waitingProducers = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Waiter> waitingConsumers = new ConcurrentLinkedQueue<>();
+    private final DrainHandler<E> drainHandler = new DrainHandler<>();
+
+    private RingBufferBlockingQueue(final RingBuffer<Holder<E>> ringBuffer, final boolean multiConsumer)
+    {
+        this.ringBuffer = ringBuffer;
+        this.poller = ringBuffer.newPoller();
+        this.sequence = poller.getSequence();
+        this.consumerLock = multiConsumer ? new ReentrantLock() : null;
+        ringBuffer.addGatingSequences(sequence);
+    }
+
+    /**
+     * Create a queue for a single thread putting elements and a single thread taking them.
+     *
+     * @param <E>      the type of the elements.
+     * @param capacity the number of elements the queue holds, must be a power of 2.
+     * @return the queue.
+     * @throws IllegalArgumentException if the capacity is not a power of 2.
+     */
+    public static <E> RingBufferBlockingQueue<E> createSingleProducerSingleConsumer(final int capacity)
+    {
+        return new RingBufferBlockingQueue<>(RingBuffer.createSingleProducer(Holder::new, capacity), false);
+    }
+
+    /**
+     * Create a queue for any number of threads putting and taking elements.
+     *
+     * @param <E>      the type of the elements.
+     * @param capacity the number of elements the queue holds, must be a power of 2.
+     * @return the queue.
+     * @throws IllegalArgumentException if the capacity is not a power of 2.
+     */
+    public static <E> RingBufferBlockingQueue<E> createMultiProducerMultiConsumer(final int capacity)
+    {
+        return new RingBufferBlockingQueue<>(RingBuffer.createMultiProducer(Holder::new, capacity), true);
+    }
+
+    @Override
+    public boolean offer(final E e)
+    {
+        Objects.requireNonNull(e);
+
+        final long next;
+        try
+        {
+            next = ringBuffer.tryNext();
+        }
+        catch (final InsufficientCapacityException ex)
+        {
+            return false;
+        }
+
+        ringBuffer.get(next).value = e;
+        ringBuffer.publish(next);
+        signal(waitingConsumers);
+
+        return true;
+    }
+
+    @Override
+    public void put(final E e) throws InterruptedException
+    {
+        while (!offer(e))
+        {
+            await(waitingProducers, true, false, 0L);
+        }
+    }
+
+    @Override
+    public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e))
+        {
+            if (!await(waitingProducers, true, true, deadline))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public E poll()
+    {
+        final E e;
+        lockConsumers();
+        try
+        {
+            // Checks the one slot rather than polling, which would look for the end of everything published
+            final long next = sequence.get() + 1;
+            if (!ringBuffer.isAvailable(next))
+            {
+                return null;
+            }
+
+            final Holder<E> holder = ringBuffer.get(next);
+            e = holder.value;
+            holder.value = null;
+            sequence.set(next);
+        }
+        finally
+        {
+            unlockConsumers();
+        }
+
+        signal(waitingProducers);
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException
+    {
+        E e;
+        while ((e = poll()) == null)
+        {
+            await(waitingConsumers, false, false, 0L);
+        }
+
+        return e;
+    }
+
+    @Override
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        while ((e = poll()) == null)
+        {
+            if (!await(waitingConsumers, false, true, deadline))
+            {
+                return null;
+            }
+        }
+
+        return e;
+    }
+
+    @Override
+    public E peek()
+    {
+        lockConsumers();
+        try
+        {
+            final long next = sequence.get() + 1;
+            return ringBuffer.isAvailable(next) ? ringBuffer.get(next).value : null;
+        }
+        finally
+        {
+            unlockConsumers();
+        }
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c)
+    {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c, final int maxElements)
+    {
+        Objects.requireNonNull(c);
+        if (c == this)
+        {
+            throw new IllegalArgumentException("Can not drain a queue into itself");
+        }
+        if (maxElements <= 0)
+        {
+            return 0;
+        }
+
+        final int drained;
+        lockConsumers();
+        try
+        {
+            drainHandler.target = c;
+            drainHandler.maxElements = maxElements;
+            poller.pollRange(drainHandler);
+            drained = drainHandler.drained;
+        }
+        catch (final RuntimeException ex)
+        {
+            throw ex;
+        }
+        catch (final Exception ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+        finally
+        {
+            drainHandler.target = null;
+            drainHandler.drained = 0;
+            unlockConsumers();
+        }
+
+        if (drained != 0)
+        {
+            signal(waitingProducers);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size()
+    {
+        final long size = ringBuffer.getCursor() - sequence.get();
+        return (int) Math.max(0, Math.min(size, ringBuffer.getBufferSize()));
+    }
+
+    @Override
+    public int remainingCapacity()
+    {
+        return ringBuffer.getBufferSize() - size();
+    }
+
+    @Override
+    public Iterator<E> iterator()
+    {
+        final List<E> snapshot = new ArrayList<>();
+        lockConsumers();
+        try
+        {
+            poller.pollRange((events, firstSequence, lastSequence) ->
+            {
+                for (long s = firstSequence; s <= lastSequence; s++)
+                {
+                    snapshot.add(events.get(s).value);
+                }
+                return firstSequence - 1;
+            });
+        }
+        catch (final Exception ex)
+        {
+            throw new IllegalStateException(ex);
+        }
+        finally
+        {
+            unlockConsumers();
+        }
+
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    private boolean await(
+        final ConcurrentLinkedQueue<Waiter> waiters,
+        final boolean forSpace,
+        final boolean timed,
+        final long deadline) throws InterruptedException
+    {
+        final Waiter waiter = new Waiter(Thread.currentThread());
+        waiters.add(waiter);
+        try
+        {
+            while (true)
+            {
+                // Make the registration and cleared signal visible before checking, the other side does the opposite
+                waiter.signalled = false;
+                VarHandle.fullFence();
+                if (isReady(forSpace))
+                {
+                    return true;
+                }
+
+                if (Thread.interrupted())
+                {
+                    throw new InterruptedException();
+                }
+
+                if (timed)
+                {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                    {
+                        return false;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+                else
+                {
+                    LockSupport.park(this);
+                }
+            }
+        }
+        finally
+        {
+            waiters.remove(waiter);
+
+            // Only the first waiter is woken, so pass the wakeup on in case this thread no longer needed it
+            if (isReady(forSpace))
+            {
+                signal(waiters);
+            }
+        }
+    }
+
+    private boolean isReady(final boolean forSpace)
+    {
+        return forSpace ? ringBuffer.hasAvailableCapacity(1) : ringBuffer.isAvailable(sequence.get() + 1);
+    }
+
+    private static void signal(final ConcurrentLinkedQueue<Waiter> waiters)
+    {
+        VarHandle.fullFence();
+        final Waiter waiter = waiters.peek();
+        if (waiter != null && !waiter.signalled)
+        {
+            // Unparking is costly, do it once until the waiter has checked again
+            waiter.signalled = true;
+            LockSupport.unpark(waiter.thread);
+        }
+    }
+
+    private void lockConsumers()
+    {
+        if (consumerLock != null)
+        {
+            consumerLock.lock();
+        }
+    }
+
+    private void unlockConsumers()
+    {
+        if (consumerLock != null)
+        {
+            consumerLock.unlock();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RingBufferBlockingQueue{" +
+            "capacity=" + ringBuffer.getBufferSize() +
+            ", size=" + size() +
+            ", multiConsumer=" + (consumerLock != null) +
+            '}';
+    }
+
+    private static final class Waiter
+    {
+        private final Thread thread;
+        private volatile boolean signalled;
+
+        Waiter(final Thread thread)
+        {
+            this.thread = thread;
+        }
+    }
+
+    private static final class Holder<E>
+    {
+        private E value;
+    }
+
+    private static final class DrainHandler<E> implements EventPoller.RangeHandler<Holder<E>>
+    {
+        private Collection<? super E> target;
+        private int maxElements;
+        private int drained;
+
+        @Override
+        public long onEvents(final DataProvider<Holder<E>> events, final long firstSequence, final long lastSequence)
+        {
+            final long end = Math.min(lastSequence, firstSequence + maxElements - 1);
+            for (long s = firstSequence; s <= end; s++)
+            {
+                target.add(events.get(s).value);
+            }
+
+            // Only release the elements once they have all been added, a failed add leaves them all in the queue
+            for (long s = firstSequence; s <= end; s++)
+            {
+                events.get(s).value = null;
+            }
+
+            drained = (int) (end - firstSequence + 1);
+            return end;
+        }
+    }
+}
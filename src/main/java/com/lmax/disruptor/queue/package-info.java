@@ -0,0 +1,5 @@
+/**
+ * Queues backed by ring buffers, for code written against the {@link java.util.concurrent.BlockingQueue}
+ * interface.
+ */
+package com.lmax.disruptor.queue;
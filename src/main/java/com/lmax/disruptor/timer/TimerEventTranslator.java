@@ -0,0 +1,37 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.timer;
+
+/**
+ * Translates a due timer of a {@link TimerWheel} into an event of the ring buffer it publishes to.
+ *
+ * @param <E> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+@FunctionalInterface
+public interface TimerEventTranslator<E>
+{
+    /**
+     * Translate a due timer into the event claimed for it.  Must not schedule or cancel timers of the wheel
+     * publishing the event.
+     *
+     * @param event    into which the timer should be translated.
+     * @param sequence that is assigned to the event.
+     * @param handle   of the timer, as returned when it was scheduled.
+     * @param deadline of the timer.
+     * @param payload  the timer was scheduled with.
+     */
+    void translateTo(E event, long sequence, long handle, long deadline, long payload);
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.timer;
+
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A hashed timing wheel that publishes timers into a {@link RingBuffer} once they are due, e.g. for delayed retries
+ * or expiries, without a task object or a thread per timer.
+ *
+ * <p>Time is divided into ticks of a fixed duration and each tick hashes to one of a power of two number of
+ * buckets, with timers further in the future than a turn of the wheel sharing the bucket until their round comes.
+ * The timers are held in preallocated arrays linked into lists per bucket, so scheduling and cancelling are
+ * constant time and do not allocate.  A timer is identified by a handle that combines its slot with a generation,
+ * so that the handle of a timer that has already fired or been cancelled can not cancel a later timer reusing
+ * the slot.
+ *
+ * <p>The wheel does not keep time itself, {@link #poll(long)} is called with the current time, e.g. from a duty
+ * cycle or the timeout of an event handler, and publishes the due timers in batches through
+ * {@link RingBuffer#publishEvents(EventTranslatorOneArg, int, int, Object[])}, so it blocks like any other
+ * publisher while the ring buffer is full.  Deadlines are in the same unit as the times passed to the wheel, which
+ * would usually be {@link System#nanoTime()}.  A timer fires on the first poll at or after its deadline, so its
+ * accuracy depends on how often the wheel is polled rather than on the tick duration, which only trades the number
+ * of buckets against the number of timers visited in each one.
+ *
+ * <p>Not thread safe, a wheel should be scheduled on and polled by a single thread.
+ *
+ * @param <E> event implementation storing the data for sharing during exchange or parallel coordination of an event.
+ */
+public final class TimerWheel<E>
+{
+    /**
+     * The largest number of timers published into the ring buffer in one batch.
+     */
+    public static final int MAX_BATCH_SIZE = 1024;
+
+    private static final int NONE = -1;
+    private static final int GENERATION_SHIFT = Integer.SIZE;
+
+    private final RingBuffer<E> ringBuffer;
+    private final EventTranslatorOneArg<E, DueTimer> translator;
+    private final long startTime;
+    private final long tickDuration;
+    private final int tickMask;
+    private final int capacity;
+    private final int[] wheel;
+    private final long[] deadlines;
+    private final long[] payloads;
+    private final int[] generations;
+    private final int[] buckets;
+    private final int[] next;
+    private final int[] previous;
+    private final DueTimer[] batch;
+    private int batchCount;
+    private int freeHead;
+    private int timerCount;
+    private long currentTick;
+
+    /**
+     * Construct a wheel publishing into a ring buffer.
+     *
+     * @param ringBuffer    into which due timers are published.
+     * @param translator    to translate a due timer into an event.
+     * @param startTime     the time of the start of the first tick.
+     * @param tickDuration  the duration of a tick, in the unit of the start time.
+     * @param ticksPerWheel the number of buckets in the wheel, must be a power of 2.
+     * @param capacity      the largest number of outstanding timers.
+     * @throws IllegalArgumentException if the tick duration or capacity are not positive or the ticks per wheel is
+     *                                  not a power of 2.
+     */
+    public TimerWheel(
+        final RingBuffer<E> ringBuffer,
+        final TimerEventTranslator<E> translator,
+        final long startTime,
+        final long tickDuration,
+        final int ticksPerWheel,
+        final int capacity)
+    {
+        if (tickDuration < 1)
+        {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        if (Integer.bitCount(ticksPerWheel) != 1)
+        {
+            throw new IllegalArgumentException("ticksPerWheel must be a power of 2");
+        }
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        this.ringBuffer = ringBuffer;
+        this.translator = (event, sequence, timer) ->
+            translator.translateTo(event, sequence, timer.handle, timer.deadline, timer.payload);
+        this.startTime = startTime;
+        this.tickDuration = tickDuration;
+        this.tickMask = ticksPerWheel - 1;
+        this.capacity = capacity;
+
+        wheel = new int[ticksPerWheel];
+        Arrays.fill(wheel, NONE);
+        deadlines = new long[capacity];
+        payloads = new long[capacity];
+        generations = new int[capacity];
+        buckets = new int[capacity];
+        Arrays.fill(buckets, NONE);
+        previous = new int[capacity];
+        next = new int[capacity];
+        for (int i = 0; i < capacity; i++)
+        {
+            next[i] = i + 1 < capacity ? i + 1 : NONE;
+        }
+
+        batch = new DueTimer[Math.min(MAX_BATCH_SIZE, ringBuffer.getBufferSize())];
+        for (int i = 0; i < batch.length; i++)
+        {
+            batch[i] = new DueTimer();
+        }
+    }
+
+    /**
+     * Schedule a timer, a deadline that has already passed fires on the next poll.
+     *
+     * @param deadline the time at which the timer is due.
+     * @param payload  to pass to the translator when the timer is due, e.g. the key of the order to expire.
+     * @return the handle of the timer, to cancel it with.
+     * @throws IllegalStateException if the wheel already holds its capacity of timers.
+     */
+    public long schedule(final long deadline, final long payload)
+    {
+        final int index = freeHead;
+        if (index == NONE)
+        {
+            throw new IllegalStateException("TimerWheel is full, capacity is " + capacity);
+        }
+        freeHead = next[index];
+
+        final long tick = Math.max(currentTick, (deadline - startTime) / tickDuration);
+        final int bucket = (int) (tick & tickMask);
+        final int head = wheel[bucket];
+
+        deadlines[index] = deadline;
+        payloads[index] = payload;
+        buckets[index] = bucket;
+        previous[index] = NONE;
+        next[index] = head;
+        if (head != NONE)
+        {
+            previous[head] = index;
+        }
+        wheel[bucket] = index;
+        timerCount++;
+
+        return ((long) generations[index] << GENERATION_SHIFT) | index;
+    }
+
+    /**
+     * Cancel a timer that has not fired yet.
+     *
+     * @param handle of the timer.
+     * @return true if the timer was cancelled, false if it has already fired or been cancelled.
+     */
+    public boolean cancel(final long handle)
+    {
+        final int index = (int) handle;
+        final int generation = (int) (handle >>> GENERATION_SHIFT);
+        if (index < 0 || index >= capacity || buckets[index] == NONE || generations[index] != generation)
+        {
+            return false;
+        }
+
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Publish the timers that are due at a time into the ring buffer, advancing the wheel up to it.
+     *
+     * @param now the current time.
+     * @return the number of timers published.
+     */
+    public int poll(final long now)
+    {
+        if (timerCount == 0)
+        {
+            // Nothing to visit on the way, skip straight to the current tick
+            currentTick = Math.max(currentTick, (now - startTime) / tickDuration);
+        }
+
+        int published = 0;
+        while (true)
+        {
+            int index = wheel[(int) (currentTick & tickMask)];
+            while (index != NONE)
+            {
+                final int following = next[index];
+                if (deadlines[index] <= now)
+                {
+                    addToBatch(index);
+                    remove(index);
+                    published++;
+                }
+                index = following;
+            }
+
+            if (now - startTime < (currentTick + 1) * tickDuration)
+            {
+                break;
+            }
+            currentTick++;
+        }
+
+        publishBatch();
+        return published;
+    }
+
+    /**
+     * @return the number of timers that have not fired or been cancelled.
+     */
+    public int getTimerCount()
+    {
+        return timerCount;
+    }
+
+    /**
+     * @return the start time of the tick the wheel has been polled up to.
+     */
+    public long getCurrentTickTime()
+    {
+        return startTime + currentTick * tickDuration;
+    }
+
+    private void addToBatch(final int index)
+    {
+        final DueTimer timer = batch[batchCount++];
+        timer.handle = ((long) generations[index] << GENERATION_SHIFT) | index;
+        timer.deadline = deadlines[index];
+        timer.payload = payloads[index];
+
+        if (batchCount == batch.length)
+        {
+            publishBatch();
+        }
+    }
+
+    private void publishBatch()
+    {
+        if (batchCount != 0)
+        {
+            ringBuffer.publishEvents(translator, 0, batchCount, batch);
+            batchCount = 0;
+        }
+    }
+
+    private void remove(final int index)
+    {
+        final int before = previous[index];
+        final int after = next[index];
+        if (before != NONE)
+        {
+            next[before] = after;
+        }
+        else
+        {
+            wheel[buckets[index]] = after;
+        }
+        if (after != NONE)
+        {
+            previous[after] = before;
+        }
+
+        buckets[index] = NONE;
+        generations[index]++;
+        next[index] = freeHead;
+        freeHead = index;
+        timerCount--;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TimerWheel{" +
+            "tickDuration=" + tickDuration +
+            ", ticksPerWheel=" + wheel.length +
+            ", capacity=" + capacity +
+            ", timerCount=" + timerCount +
+            ", currentTick=" + currentTick +
+            '}';
+    }
+
+    private static final class DueTimer
+    {
+        private long handle;
+        private long deadline;
+        private long payload;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Timers that publish events into a ring buffer once they are due.
+ */
+package com.lmax.disruptor.timer;
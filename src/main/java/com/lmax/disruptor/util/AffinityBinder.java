@@ -0,0 +1,34 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+/**
+ * Restricts the calling thread to a set of CPUs, used by {@link AffinityThreadFactory}.
+ *
+ * <p>The default is {@link TasksetAffinityBinder}, other mechanisms such as a native affinity library can be plugged
+ * in by implementing this interface.
+ */
+@FunctionalInterface
+public interface AffinityBinder
+{
+    /**
+     * Restrict the calling thread to run only on the given CPUs.
+     *
+     * @param cpus to run on.
+     * @throws Exception if the affinity of the thread could not be set.
+     */
+    void bindCurrentThread(CpuSet cpus) throws Exception;
+}
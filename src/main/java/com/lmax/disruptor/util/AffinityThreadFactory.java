@@ -0,0 +1,144 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadFactory} that binds each thread it creates to a set of CPUs when the thread starts, e.g. to run each
+ * event processor of a {@link com.lmax.disruptor.dsl.Disruptor} on an isolated core.
+ *
+ * <p>Threads are placed on the CPU sets of the layout in the order they are created, wrapping around when there are
+ * more threads than CPU sets.  Event processors can be given a placement of their own with
+ * {@link com.lmax.disruptor.dsl.EventHandlerGroup#pinTo(CpuSet...)}, and publishing threads can bind themselves with
+ * {@link #bindCurrentThread(CpuSet)}.  The resulting layout is reported by {@link #getPlacements()}.
+ *
+ * <p>A thread that can not be bound, e.g. because the CPUs are not available to the process, still runs but is not
+ * restricted to its CPUs; this is reported by its {@link ThreadPlacement}.
+ */
+public final class AffinityThreadFactory implements ThreadFactory
+{
+    private final ThreadFactory threadFactory;
+    private final AffinityBinder binder;
+    private final CpuSet[] layout;
+    private final AtomicInteger nextPlacement = new AtomicInteger();
+    private final List<ThreadPlacement> placements = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create daemon threads bound with the {@link TasksetAffinityBinder}.
+     *
+     * @param layout the CPU sets to place threads on in the order they are created.
+     */
+    public AffinityThreadFactory(final CpuSet... layout)
+    {
+        this(DaemonThreadFactory.INSTANCE, TasksetAffinityBinder.INSTANCE, layout);
+    }
+
+    /**
+     * @param threadFactory to create the threads.
+     * @param binder        to bind the threads to their CPUs.
+     * @param layout        the CPU sets to place threads on in the order they are created, if empty threads are only
+     *                      bound when given a placement of their own.
+     */
+    public AffinityThreadFactory(final ThreadFactory threadFactory, final AffinityBinder binder, final CpuSet... layout)
+    {
+        this.threadFactory = threadFactory;
+        this.binder = binder;
+        this.layout = layout.clone();
+    }
+
+    /**
+     * Create a thread placed on the next CPU set of the layout.
+     *
+     * @param r to run in the thread.
+     * @return the new thread, or null if the underlying thread factory did not create one.
+     */
+    @Override
+    public Thread newThread(final Runnable r)
+    {
+        if (layout.length == 0)
+        {
+            return threadFactory.newThread(r);
+        }
+
+        return newThread(r, layout[Math.floorMod(nextPlacement.getAndIncrement(), layout.length)]);
+    }
+
+    /**
+     * Create a thread placed on the given CPUs.
+     *
+     * @param r    to run in the thread.
+     * @param cpus to bind the thread to when it starts.
+     * @return the new thread, or null if the underlying thread factory did not create one.
+     */
+    public Thread newThread(final Runnable r, final CpuSet cpus)
+    {
+        return threadFactory.newThread(() ->
+        {
+            bindCurrentThread(cpus);
+            r.run();
+        });
+    }
+
+    /**
+     * Bind the calling thread to a set of CPUs and add it to the reported layout, e.g. for a publishing thread.
+     *
+     * @param cpus to bind the thread to.
+     * @return the placement of the thread.
+     */
+    public ThreadPlacement bindCurrentThread(final CpuSet cpus)
+    {
+        Throwable failure = null;
+        try
+        {
+            binder.bindCurrentThread(cpus);
+        }
+        catch (final InterruptedException e)
+        {
+            failure = e;
+            Thread.currentThread().interrupt();
+        }
+        catch (final Exception e)
+        {
+            failure = e;
+        }
+
+        final ThreadPlacement placement = new ThreadPlacement(Thread.currentThread().getName(), cpus, failure);
+        placements.add(placement);
+        return placement;
+    }
+
+    /**
+     * @return the placements of the threads that have started, in the order they started.
+     */
+    public List<ThreadPlacement> getPlacements()
+    {
+        return new ArrayList<>(placements);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AffinityThreadFactory{" +
+            "binder=" + binder +
+            ", placements=" + placements +
+            '}';
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.util.BitSet;
+
+/**
+ * An immutable set of CPU numbers that a thread may run on, see {@link AffinityThreadFactory}.
+ *
+ * <p>The string form is the CPU list format used by <code>taskset -c</code> and <code>/proc/&lt;pid&gt;/status</code>,
+ * e.g. <code>0-3,6</code>.
+ */
+public final class CpuSet
+{
+    private final BitSet cpus;
+
+    private CpuSet(final BitSet cpus)
+    {
+        if (cpus.isEmpty())
+        {
+            throw new IllegalArgumentException("A CPU set must contain at least one CPU");
+        }
+
+        this.cpus = cpus;
+    }
+
+    /**
+     * @param cpus the CPU numbers.
+     * @return a set of the given CPUs.
+     */
+    public static CpuSet of(final int... cpus)
+    {
+        final BitSet set = new BitSet();
+        for (final int cpu : cpus)
+        {
+            set.set(checkCpu(cpu));
+        }
+        return new CpuSet(set);
+    }
+
+    /**
+     * @param from the lowest CPU number.
+     * @param to   the highest CPU number, inclusive.
+     * @return a set of the CPUs from <code>from</code> to <code>to</code>.
+     */
+    public static CpuSet range(final int from, final int to)
+    {
+        if (to < from)
+        {
+            throw new IllegalArgumentException("Empty CPU range " + from + "-" + to);
+        }
+
+        final BitSet set = new BitSet();
+        set.set(checkCpu(from), checkCpu(to) + 1);
+        return new CpuSet(set);
+    }
+
+    /**
+     * @param list of CPUs in CPU list format, e.g. <code>0-3,6</code>.
+     * @return a set of the listed CPUs.
+     * @throws IllegalArgumentException if the list is not in CPU list format.
+     */
+    public static CpuSet parse(final String list)
+    {
+        final BitSet set = new BitSet();
+        try
+        {
+            for (final String part : list.split(","))
+            {
+                final int dash = part.indexOf('-');
+                if (dash < 0)
+                {
+                    set.set(checkCpu(Integer.parseInt(part.trim())));
+                }
+                else
+                {
+                    final int from = checkCpu(Integer.parseInt(part.substring(0, dash).trim()));
+                    final int to = checkCpu(Integer.parseInt(part.substring(dash + 1).trim()));
+                    if (to < from)
+                    {
+                        throw new IllegalArgumentException("Empty CPU range in " + list);
+                    }
+                    set.set(from, to + 1);
+                }
+            }
+        }
+        catch (final NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Not a CPU list: " + list, e);
+        }
+
+        return new CpuSet(set);
+    }
+
+    /**
+     * @return the CPU numbers in ascending order.
+     */
+    public int[] getCpus()
+    {
+        return cpus.stream().toArray();
+    }
+
+    /**
+     * @param cpu number.
+     * @return true if the CPU is in this set.
+     */
+    public boolean contains(final int cpu)
+    {
+        return cpu >= 0 && cpus.get(cpu);
+    }
+
+    /**
+     * @return the number of CPUs in this set.
+     */
+    public int size()
+    {
+        return cpus.cardinality();
+    }
+
+    private static int checkCpu(final int cpu)
+    {
+        if (cpu < 0)
+        {
+            throw new IllegalArgumentException("CPU numbers must not be negative: " + cpu);
+        }
+        return cpu;
+    }
+
+    @Override
+    public boolean equals(final Object o)
+    {
+        return this == o || o instanceof CpuSet && cpus.equals(((CpuSet) o).cpus);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return cpus.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder list = new StringBuilder();
+        for (int from = cpus.nextSetBit(0); from >= 0; from = cpus.nextSetBit(from))
+        {
+            final int to = cpus.nextClearBit(from) - 1;
+            if (list.length() > 0)
+            {
+                list.append(',');
+            }
+            list.append(from);
+            if (to > from)
+            {
+                list.append('-').append(to);
+            }
+            from = to + 1;
+        }
+        return list.toString();
+    }
+}
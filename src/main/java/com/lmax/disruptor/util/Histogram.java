@@ -0,0 +1,150 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative long values with a fixed number of log-linear buckets, so that recording a value is
+ * constant time and does not allocate.  Each power of two range is split into 8 buckets, so values are reported to
+ * within 12.5%.
+ *
+ * <p>Values must be recorded by a single thread, they can be read by any thread while they are being recorded.
+ */
+public final class Histogram
+{
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+    private static final double MAX_PERCENTILE = 100.0;
+    private static final double MEDIAN = 50.0;
+    private static final double P99 = 99.0;
+    private static final double P99_9 = 99.9;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value, negative values are recorded as 0.
+     *
+     * @param value to record.
+     */
+    public void record(final long value)
+    {
+        final long v = Math.max(0L, value);
+        final int index = bucketIndex(v);
+
+        counts.lazySet(index, counts.get(index) + 1);
+        total.lazySet(total.get() + v);
+        if (v > max.get())
+        {
+            max.lazySet(v);
+        }
+        count.lazySet(count.get() + 1);
+    }
+
+    /**
+     * @return the number of values recorded.
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /**
+     * @return the largest value recorded, or 0 if none have been.
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the values recorded, or 0 if none have been.
+     */
+    public double getMean()
+    {
+        final long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Get the value below or at which a percentage of the recorded values fall, to the precision of the buckets.
+     *
+     * @param percentile between 0 and 100.
+     * @return the highest value in the bucket holding the percentile, or 0 if no values have been recorded.
+     */
+    public long getValueAtPercentile(final double percentile)
+    {
+        if (percentile < 0 || percentile > MAX_PERCENTILE)
+        {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        final long n = count.get();
+        final long target = Math.max(1L, (long) Math.ceil(n * percentile / MAX_PERCENTILE));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += counts.get(i);
+            if (seen >= target)
+            {
+                return Math.min(highestValueInBucket(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    static int bucketIndex(final long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    static long highestValueInBucket(final int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        final int shift = index / SUB_BUCKET_COUNT - 1;
+        final long lowest = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Histogram{" +
+            "count=" + getCount() +
+            ", mean=" + getMean() +
+            ", p50=" + getValueAtPercentile(MEDIAN) +
+            ", p99=" + getValueAtPercentile(P99) +
+            ", p99.9=" + getValueAtPercentile(P99_9) +
+            ", max=" + getMax() +
+            '}';
+    }
+}
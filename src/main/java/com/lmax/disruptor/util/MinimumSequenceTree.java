@@ -0,0 +1,164 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import com.lmax.disruptor.Sequence;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Tracks the minimum of many {@link Sequence}s, such as the gating sequences of a ring buffer with a large number of
+ * consumers, without reading every sequence each time.
+ *
+ * <p>The sequences are the leaves of a tree with a fan out of {@value #FAN_OUT}, each node caching the minimum of
+ * its subtree as last seen.  As the sequences only move forward a cached minimum is always a lower bound, so a query
+ * for a target only descends into the nodes whose cached minimum is below the target, refreshing them on the way
+ * back up.  When a ring buffer is nearly full only the few slowest consumers are read on each claim, rather than all
+ * of them.
+ *
+ * <p>Safe for concurrent queries, a cache updated by several threads at once may end up lower than it could be, which
+ * costs a later query some extra reads but never gives a wrong answer.
+ */
+public final class MinimumSequenceTree
+{
+    /**
+     * The number of children of each node.
+     */
+    public static final int FAN_OUT = 8;
+
+    private static final VarHandle CACHE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Sequence[] sequences;
+    private final long[][] levels;
+
+    /**
+     * @param sequences to track, the tree keeps a reference to the array so it must not be modified afterwards.
+     */
+    public MinimumSequenceTree(final Sequence[] sequences)
+    {
+        this.sequences = sequences;
+
+        int depth = 0;
+        for (int nodes = sequences.length; nodes > 1; nodes = divideRoundingUp(nodes))
+        {
+            depth++;
+        }
+
+        levels = new long[depth][];
+        int nodes = sequences.length;
+        for (int level = 0; level < depth; level++)
+        {
+            nodes = divideRoundingUp(nodes);
+            levels[level] = new long[nodes];
+            Arrays.fill(levels[level], Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * @param sequences to compare with the tracked sequences.
+     * @return true if the tree tracks exactly this array of sequences.
+     */
+    public boolean isFor(final Sequence[] sequences)
+    {
+        return this.sequences == sequences;
+    }
+
+    /**
+     * Get the minimum of the tracked sequences, or a lower bound of it that is at least the target.
+     *
+     * @param target  the value the caller needs the minimum to have reached.
+     * @param minimum an initial default minimum, returned if there are no sequences.
+     * @return the smaller of {@code minimum} and the minimum of the sequences if that minimum is below the target,
+     * otherwise the smaller of {@code minimum} and a lower bound of the minimum that is not below the target.
+     */
+    public long getMinimumSequence(final long target, final long minimum)
+    {
+        if (sequences.length == 0)
+        {
+            return minimum;
+        }
+
+        return Math.min(minimum, minimumOf(levels.length - 1, 0, target));
+    }
+
+    /**
+     * Get the exact minimum of the tracked sequences, reading all of them.
+     *
+     * @param minimum an initial default minimum, returned if there are no sequences.
+     * @return the smaller of {@code minimum} and the minimum of the sequences.
+     */
+    public long getMinimumSequence(final long minimum)
+    {
+        return getMinimumSequence(Long.MAX_VALUE, minimum);
+    }
+
+    private long minimumOf(final int level, final int index, final long target)
+    {
+        if (level < 0)
+        {
+            return sequences[index].get();
+        }
+
+        final long[] caches = levels[level];
+        final long cached = (long) CACHE.getAcquire(caches, index);
+        if (cached >= target)
+        {
+            return cached;
+        }
+
+        final int start = index * FAN_OUT;
+        long minimum = Long.MAX_VALUE;
+        if (level == 0)
+        {
+            final int end = Math.min(sequences.length, start + FAN_OUT);
+            for (int child = start; child < end; child++)
+            {
+                minimum = Math.min(minimum, sequences[child].get());
+            }
+        }
+        else
+        {
+            final int end = Math.min(levels[level - 1].length, start + FAN_OUT);
+            for (int child = start; child < end; child++)
+            {
+                minimum = Math.min(minimum, minimumOf(level - 1, child, target));
+            }
+        }
+
+        if (minimum > cached)
+        {
+            CACHE.setRelease(caches, index, minimum);
+        }
+
+        return minimum;
+    }
+
+    private static int divideRoundingUp(final int nodes)
+    {
+        return (nodes + FAN_OUT - 1) / FAN_OUT;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "MinimumSequenceTree{" +
+            "sequences=" + sequences.length +
+            ", depth=" + levels.length +
+            '}';
+    }
+}
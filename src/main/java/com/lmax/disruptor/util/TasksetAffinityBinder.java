@@ -0,0 +1,73 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Binds the calling thread to a set of CPUs by running <code>taskset -p -c &lt;cpus&gt; &lt;tid&gt;</code> on Linux,
+ * which calls <code>sched_setaffinity</code> for the thread without needing native code in the JVM.  The Linux thread
+ * id is read from <code>/proc/thread-self</code>.
+ *
+ * <p>Starting a process is slow, so threads should be bound once when they start, as {@link AffinityThreadFactory}
+ * does.
+ */
+public enum TasksetAffinityBinder implements AffinityBinder
+{
+    /**
+     * The singleton instance
+     */
+    INSTANCE;
+
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+
+    @Override
+    public void bindCurrentThread(final CpuSet cpus) throws IOException, InterruptedException
+    {
+        final Process process = new ProcessBuilder("taskset", "-p", "-c", cpus.toString(), Long.toString(currentThreadId()))
+            .redirectErrorStream(true)
+            .start();
+        try
+        {
+            final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+
+            final int exitCode = process.waitFor();
+            if (exitCode != 0)
+            {
+                throw new IOException("taskset exited with " + exitCode + ": " + output);
+            }
+        }
+        finally
+        {
+            // Nothing to do once taskset has exited, but it must not be left running if the wait was interrupted
+            process.destroy();
+        }
+    }
+
+    /**
+     * @return the Linux thread id of the calling thread.
+     * @throws IOException if <code>/proc/thread-self</code> can not be read, e.g. when not running on Linux.
+     */
+    static long currentThreadId() throws IOException
+    {
+        // Links to <pid>/task/<tid>
+        return Long.parseLong(Files.readSymbolicLink(THREAD_SELF).getFileName().toString());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+/**
+ * The CPUs a thread created by an {@link AffinityThreadFactory} was placed on, and whether binding it succeeded.
+ */
+public final class ThreadPlacement
+{
+    private final String threadName;
+    private final CpuSet cpus;
+    private final Throwable failure;
+
+    ThreadPlacement(final String threadName, final CpuSet cpus, final Throwable failure)
+    {
+        this.threadName = threadName;
+        this.cpus = cpus;
+        this.failure = failure;
+    }
+
+    /**
+     * @return the name of the thread.
+     */
+    public String getThreadName()
+    {
+        return threadName;
+    }
+
+    /**
+     * @return the CPUs the thread was placed on.
+     */
+    public CpuSet getCpus()
+    {
+        return cpus;
+    }
+
+    /**
+     * @return true if the thread was bound to its CPUs.
+     */
+    public boolean isBound()
+    {
+        return failure == null;
+    }
+
+    /**
+     * @return why the thread could not be bound to its CPUs, or null if it was.
+     */
+    public Throwable getFailure()
+    {
+        return failure;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ThreadPlacement{" +
+            "threadName='" + threadName + '\'' +
+            ", cpus=" + cpus +
+            ", bound=" + isBound() +
+            (failure != null ? ", failure=" + failure : "") +
+            '}';
+    }
+}
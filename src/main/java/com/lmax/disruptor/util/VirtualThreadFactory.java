@@ -0,0 +1,119 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link ThreadFactory} that starts each event processor of a {@link com.lmax.disruptor.dsl.Disruptor} on a virtual
+ * thread, so that many disruptors with a low event rate can share a few carrier threads.
+ *
+ * <p>Virtual threads are only available from Java 21, so they are looked up reflectively and
+ * {@link #isSupported()} tells whether the running JVM has them.  Processors on virtual threads should use a wait
+ * strategy that does not hold a monitor while waiting, such as the {@link com.lmax.disruptor.ParkingWaitStrategy},
+ * otherwise a waiting processor pins its carrier thread.  Busy spinning strategies never give up the carrier.
+ */
+public final class VirtualThreadFactory implements ThreadFactory
+{
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+
+    static
+    {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try
+        {
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        }
+        catch (final ClassNotFoundException | NoSuchMethodException e)
+        {
+            // Virtual threads are not available in this JVM
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private final String namePrefix;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Create virtual threads named with a prefix followed by a counter starting at 0.
+     *
+     * @param namePrefix for the names of the threads.
+     * @throws UnsupportedOperationException if virtual threads are not available in this JVM.
+     */
+    public VirtualThreadFactory(final String namePrefix)
+    {
+        if (!isSupported())
+        {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+
+        this.namePrefix = namePrefix;
+        try
+        {
+            final Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), namePrefix, 0L);
+            this.threadFactory = (ThreadFactory) FACTORY.invoke(builder);
+        }
+        catch (final InvocationTargetException e)
+        {
+            // e.g. virtual threads are a preview feature that has not been enabled
+            throw new UnsupportedOperationException("Virtual threads are not enabled in this JVM", e.getCause());
+        }
+        catch (final IllegalAccessException e)
+        {
+            throw new UnsupportedOperationException("Virtual threads are not accessible in this JVM", e);
+        }
+    }
+
+    /**
+     * @return true if the running JVM can create virtual threads.
+     */
+    public static boolean isSupported()
+    {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Create an unstarted virtual thread.
+     *
+     * @param r to run in the thread.
+     * @return the new virtual thread.
+     */
+    @Override
+    public Thread newThread(final Runnable r)
+    {
+        return threadFactory.newThread(r);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "VirtualThreadFactory{" +
+            "namePrefix='" + namePrefix + '\'' +
+            '}';
+    }
+}
@@ -1,5 +1,12 @@
 module com.lmax.disruptor {
+    requires static java.management;
+
     exports com.lmax.disruptor;
     exports com.lmax.disruptor.dsl;
+    exports com.lmax.disruptor.flow;
+    exports com.lmax.disruptor.journal;
+    exports com.lmax.disruptor.primitive;
+    exports com.lmax.disruptor.queue;
+    exports com.lmax.disruptor.timer;
     exports com.lmax.disruptor.util;
 }
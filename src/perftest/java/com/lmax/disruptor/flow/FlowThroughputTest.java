@@ -0,0 +1,210 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.flow;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.support.ValueEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *
+ * Pass values from a publisher to a subscriber through the java.util.concurrent.Flow interfaces.
+ *
+ * submission: SubmissionPublisher ---&gt; Subscriber
+ * publisher:  RingBuffer ---&gt; RingBufferPublisher ---&gt; Subscriber
+ * subscriber: SubmissionPublisher ---&gt; RingBufferSubscriber ---&gt; RingBuffer ---&gt; EventProcessor
+ *
+ * </pre>
+ *
+ * <p>The subscribers request as much as the buffer holds and top up their demand as they go, so every route is
+ * bounded by a buffer of the same size.
+ *
+ * <p>Usage: FlowThroughputTest [items]
+ */
+public final class FlowThroughputTest
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    private static long runSubmissionPublisher(final long items) throws Exception
+    {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+        final SummingSubscriber subscriber = new SummingSubscriber(items);
+        final long start = System.nanoTime();
+        try (SubmissionPublisher<Long> publisher = new SubmissionPublisher<>(executor, BUFFER_SIZE))
+        {
+            publisher.subscribe(subscriber);
+            for (long i = 0; i < items; i++)
+            {
+                publisher.submit(i);
+            }
+            subscriber.done.await();
+        }
+        final long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        check(subscriber.sum, items);
+        return elapsed;
+    }
+
+    private static long runRingBufferPublisher(final long items) throws Exception
+    {
+        final RingBuffer<ValueEvent> ringBuffer =
+            RingBuffer.createSingleProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+        final RingBufferPublisher<ValueEvent, Long> publisher =
+            new RingBufferPublisher<>(ringBuffer, ValueEvent::getValue, DaemonThreadFactory.INSTANCE);
+        final SummingSubscriber subscriber = new SummingSubscriber(items);
+        publisher.subscribe(subscriber);
+        subscriber.subscribed.await();
+
+        final long start = System.nanoTime();
+        for (long i = 0; i < items; i++)
+        {
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).setValue(i);
+            ringBuffer.publish(sequence);
+        }
+        subscriber.done.await();
+        final long elapsed = System.nanoTime() - start;
+        publisher.close();
+
+        check(subscriber.sum, items);
+        return elapsed;
+    }
+
+    private static long runRingBufferSubscriber(final long items) throws Exception
+    {
+        final RingBuffer<ValueEvent> ringBuffer =
+            RingBuffer.createSingleProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+        final long[] sum = new long[1];
+        final BatchEventProcessor<ValueEvent> eventProcessor = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), (event, sequence, endOfBatch) -> sum[0] += event.getValue());
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+        final Thread consumer = DaemonThreadFactory.INSTANCE.newThread(eventProcessor);
+        consumer.start();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+        final RingBufferSubscriber<ValueEvent, Long> subscriber =
+            new RingBufferSubscriber<>(ringBuffer, (event, sequence, value) -> event.setValue(value));
+        final long start = System.nanoTime();
+        try (SubmissionPublisher<Long> publisher = new SubmissionPublisher<>(executor, BUFFER_SIZE))
+        {
+            publisher.subscribe(subscriber);
+            for (long i = 0; i < items; i++)
+            {
+                publisher.submit(i);
+            }
+        }
+        subscriber.getCompletion().get();
+        while (eventProcessor.getSequence().get() < items - 1)
+        {
+            Thread.yield();
+        }
+        final long elapsed = System.nanoTime() - start;
+        eventProcessor.halt();
+        consumer.join();
+        executor.shutdown();
+
+        check(sum[0], items);
+        return elapsed;
+    }
+
+    private static void check(final long sum, final long items)
+    {
+        if (sum != items * (items - 1) / 2)
+        {
+            throw new IllegalStateException("Sum was " + sum);
+        }
+    }
+
+    private static void report(final String name, final long items, final long elapsed)
+    {
+        System.out.format(
+            "%s %-10s items=%,d ops/sec=%,d%n",
+            FlowThroughputTest.class.getSimpleName(), name, items, items * TimeUnit.SECONDS.toNanos(1) / elapsed);
+    }
+
+    private static final class SummingSubscriber implements Flow.Subscriber<Long>
+    {
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final long items;
+        private Flow.Subscription subscription;
+        private long received;
+        private long outstanding;
+        private long sum;
+
+        SummingSubscriber(final long items)
+        {
+            this.items = items;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+            outstanding = BUFFER_SIZE;
+            subscription.request(BUFFER_SIZE);
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(final Long item)
+        {
+            sum += item;
+            if (--outstanding < BUFFER_SIZE / 2)
+            {
+                outstanding += BUFFER_SIZE / 2;
+                subscription.request(BUFFER_SIZE / 2);
+            }
+            if (++received == items)
+            {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable)
+        {
+            throwable.printStackTrace();
+        }
+
+        @Override
+        public void onComplete()
+        {
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final long items = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        for (int i = 0; i < 5; i++)
+        {
+            report("submission", items, runSubmissionPublisher(items));
+            report("publisher", items, runRingBufferPublisher(items));
+            report("subscriber", items, runRingBufferSubscriber(items));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import com.lmax.disruptor.AbstractPerfTestDisruptor;
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.PerfTestContext;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.support.PerfTestUtil;
+import com.lmax.disruptor.support.ValueAdditionEventHandler;
+import com.lmax.disruptor.support.ValueEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.lmax.disruptor.support.PerfTestUtil.failIfNot;
+
+/**
+ * Replay a journal of long values recorded by a {@link JournalWriter} into 1 event processor through a
+ * {@link JournalReplayer}, compare with {@link com.lmax.disruptor.sequenced.OneToOneSequencedThroughputTest}.
+ *
+ * <p>The journal is written once up front, each pass replays it from the start into a new ring buffer.
+ */
+public final class OneToOneJournalReplayThroughputTest extends AbstractPerfTestDisruptor
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long ITERATIONS = 1000L * 1000L * 10L;
+    private static final EventTranslatorOneArg<ValueEvent, ByteBuffer> TRANSLATOR =
+        (event, sequence, payload) -> event.setValue(payload.getLong());
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+    private final long expectedResult = PerfTestUtil.accumulatedAddition(ITERATIONS);
+    private final ValueAdditionEventHandler handler = new ValueAdditionEventHandler();
+    private final Path directory;
+
+    private OneToOneJournalReplayThroughputTest() throws IOException
+    {
+        directory = Files.createTempDirectory("journal");
+        directory.toFile().deleteOnExit();
+
+        try (JournalWriter writer = new JournalWriter(directory))
+        {
+            for (long i = 0; i < ITERATIONS; i++)
+            {
+                writer.append(i, i, (event, sequence, buffer) -> buffer.putLong(event));
+            }
+        }
+
+        for (final Path segment : JournalFormat.segments(directory))
+        {
+            segment.toFile().deleteOnExit();
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected int getRequiredProcessorCount()
+    {
+        return 2;
+    }
+
+    @Override
+    protected PerfTestContext runDisruptorPass() throws Exception
+    {
+        PerfTestContext perfTestContext = new PerfTestContext();
+
+        final RingBuffer<ValueEvent> ringBuffer =
+            RingBuffer.createSingleProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+        final BatchEventProcessor<ValueEvent> eventProcessor =
+            new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), handler);
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        handler.reset(latch, ITERATIONS - 1);
+        executor.submit(eventProcessor);
+        long start = System.currentTimeMillis();
+
+        final ReplayStatistics statistics = new JournalReplayer(directory).replay(ringBuffer, TRANSLATOR);
+
+        latch.await();
+        perfTestContext.setDisruptorOps((ITERATIONS * 1000L) / (System.currentTimeMillis() - start));
+        perfTestContext.setBatchData(handler.getBatchesProcessed(), ITERATIONS);
+        while (eventProcessor.getSequence().get() != ITERATIONS - 1)
+        {
+            Thread.sleep(1);
+        }
+        eventProcessor.halt();
+
+        failIfNot(ITERATIONS, statistics.getEventCount());
+        failIfNot(expectedResult, handler.getValue());
+        System.out.println(statistics);
+
+        return perfTestContext;
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        OneToOneJournalReplayThroughputTest test = new OneToOneJournalReplayThroughputTest();
+        test.testImplementations();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.AbstractPerfTestDisruptor;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.PerfTestContext;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.PerfTestUtil;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.PaddedLong;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.lmax.disruptor.support.PerfTestUtil.failIfNot;
+
+/**
+ * UniCast a series of long values between 1 publisher and 1 event processor through a {@link LongRingBuffer},
+ * compare with {@link com.lmax.disruptor.sequenced.OneToOneSequencedThroughputTest}.
+ */
+public final class OneToOneLongRingBufferThroughputTest extends AbstractPerfTestDisruptor
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long ITERATIONS = 1000L * 1000L * 100L;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+    private final long expectedResult = PerfTestUtil.accumulatedAddition(ITERATIONS);
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final LongRingBuffer ringBuffer =
+        LongRingBuffer.create(ProducerType.SINGLE, BUFFER_SIZE, new YieldingWaitStrategy());
+    private final ValueAdditionHandler handler = new ValueAdditionHandler();
+    private final EventProcessor eventProcessor = ringBuffer.createProcessor(handler);
+
+    {
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected int getRequiredProcessorCount()
+    {
+        return 2;
+    }
+
+    @Override
+    protected PerfTestContext runDisruptorPass() throws InterruptedException
+    {
+        PerfTestContext perfTestContext = new PerfTestContext();
+        final CountDownLatch latch = new CountDownLatch(1);
+        long expectedCount = eventProcessor.getSequence().get() + ITERATIONS;
+        handler.reset(latch, expectedCount);
+        executor.submit(eventProcessor);
+        long start = System.currentTimeMillis();
+
+        final LongRingBuffer rb = ringBuffer;
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            rb.put(i);
+        }
+
+        latch.await();
+        perfTestContext.setDisruptorOps((ITERATIONS * 1000L) / (System.currentTimeMillis() - start));
+        perfTestContext.setBatchData(handler.getBatchesProcessed(), ITERATIONS);
+        waitForEventProcessorSequence(expectedCount);
+        eventProcessor.halt();
+
+        failIfNot(expectedResult, handler.getValue());
+
+        return perfTestContext;
+    }
+
+    private void waitForEventProcessorSequence(final long expectedCount) throws InterruptedException
+    {
+        while (eventProcessor.getSequence().get() != expectedCount)
+        {
+            Thread.sleep(1);
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        OneToOneLongRingBufferThroughputTest test = new OneToOneLongRingBufferThroughputTest();
+        test.testImplementations();
+    }
+
+    private static final class ValueAdditionHandler implements LongEventHandler
+    {
+        private final PaddedLong value = new PaddedLong();
+        private final PaddedLong batchesProcessed = new PaddedLong();
+        private long count;
+        private CountDownLatch latch;
+
+        public long getValue()
+        {
+            return value.get();
+        }
+
+        public long getBatchesProcessed()
+        {
+            return batchesProcessed.get();
+        }
+
+        public void reset(final CountDownLatch latch, final long expectedCount)
+        {
+            value.set(0L);
+            this.latch = latch;
+            count = expectedCount;
+            batchesProcessed.set(0);
+        }
+
+        @Override
+        public void onEvent(final long event, final long sequence, final boolean endOfBatch)
+        {
+            value.set(value.get() + event);
+
+            if (count == sequence)
+            {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            batchesProcessed.increment();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BlockingProducerWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ParkingProducerWaitStrategy;
+import com.lmax.disruptor.ProducerWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.TargetedWakeupProducerWaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ *
+ * Many publishers held up by a slow consumer, so that the ring buffer is full nearly all of the time.
+ *
+ * +----+
+ * | P1 |---+
+ * +----+   |
+ *   ...    +---&gt;+====+    +-----+
+ * +----+   |    | RB |&lt;---| EP1 |
+ * | Pn |---+    +====+    +-----+
+ * +----+
+ *
+ * P1..Pn - Publishers, 32 by default
+ * RB     - RingBuffer, multi producer
+ * EP1    - EventProcessor doing some work for each event
+ *
+ * </pre>
+ *
+ * <p>Reports the throughput and the CPU time used by the blocked publishers for each producer wait strategy.  With a
+ * strategy that wakes every publisher on each consumer batch the publishers spend their CPU rereading the
+ * consumer's sequence, with targeted wakeups they only wake when their claim can proceed.
+ *
+ * <p>Usage: ManyBlockedProducersTest [publishers]
+ */
+public final class ManyBlockedProducersTest
+{
+    private static final int BUFFER_SIZE = 1024;
+    private static final int EVENTS_PER_PUBLISHER = 20_000;
+    private static final int WORK_ITERATIONS = 200;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static void run(final String name, final Supplier<ProducerWaitStrategy> producerWaitStrategies, final int publishers)
+        throws Exception
+    {
+        final RingBuffer<long[]> ringBuffer = RingBuffer.create(
+            ProducerType.MULTI, () -> new long[1], BUFFER_SIZE, new YieldingWaitStrategy(), producerWaitStrategies.get());
+        final BatchEventProcessor<long[]> eventProcessor =
+            new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), new SlowHandler());
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+
+        final Thread consumer = new Thread(eventProcessor);
+        consumer.setDaemon(true);
+        consumer.start();
+
+        final CyclicBarrier barrier = new CyclicBarrier(publishers + 1);
+        final AtomicLong publisherCpu = new AtomicLong();
+        final Thread[] threads = new Thread[publishers];
+        for (int i = 0; i < publishers; i++)
+        {
+            threads[i] = new Thread(() ->
+            {
+                try
+                {
+                    barrier.await();
+                }
+                catch (final Exception e)
+                {
+                    throw new IllegalStateException(e);
+                }
+
+                for (long j = 0; j < EVENTS_PER_PUBLISHER; j++)
+                {
+                    final long sequence = ringBuffer.next();
+                    ringBuffer.get(sequence)[0] = j;
+                    ringBuffer.publish(sequence);
+                }
+                publisherCpu.addAndGet(THREADS.getCurrentThreadCpuTime());
+            });
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        barrier.await();
+        final long start = System.nanoTime();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        final long expected = (long) publishers * EVENTS_PER_PUBLISHER - 1;
+        while (eventProcessor.getSequence().get() < expected)
+        {
+            Thread.yield();
+        }
+        final long elapsed = System.nanoTime() - start;
+        eventProcessor.halt();
+        consumer.join();
+
+        System.out.format(
+            "%s %-9s publishers=%d ops/sec=%,d publisher cpu=%,dms%n",
+            ManyBlockedProducersTest.class.getSimpleName(), name, publishers,
+            (expected + 1) * TimeUnit.SECONDS.toNanos(1) / elapsed,
+            TimeUnit.NANOSECONDS.toMillis(publisherCpu.get()));
+    }
+
+    private static final class SlowHandler implements EventHandler<long[]>
+    {
+        private long state = 1;
+
+        @Override
+        public void onEvent(final long[] event, final long sequence, final boolean endOfBatch)
+        {
+            long x = state + event[0];
+            for (int i = 0; i < WORK_ITERATIONS; i++)
+            {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+            state = x;
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final int publishers = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        for (int i = 0; i < 3; i++)
+        {
+            run("parking", ParkingProducerWaitStrategy::new, publishers);
+            run("blocking", BlockingProducerWaitStrategy::new, publishers);
+            run("targeted", TargetedWakeupProducerWaitStrategy::new, publishers);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import com.lmax.disruptor.ParkingWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.Histogram;
+import com.lmax.disruptor.util.VirtualThreadFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *
+ * Many low rate disruptors in one JVM, each with a single event processor waiting with the ParkingWaitStrategy.
+ *
+ * +----+    +====+    +-----+
+ * |    |---&gt;| RB |&lt;---| EP1 |
+ * |    |    +====+    +-----+
+ * | P1 |      ...       ...
+ * |    |    +====+    +-----+
+ * |    |---&gt;| RB |&lt;---| EPn |
+ * +----+    +====+    +-----+
+ *
+ * P1  - Publisher sending one event to each disruptor in turn
+ * RB  - RingBuffer
+ * EPn - EventProcessor on a platform or virtual thread
+ *
+ * </pre>
+ *
+ * <p>Reports the time to start the disruptors, the platform threads and heap they use, and the latency from
+ * publishing an event to a parked processor until it is handled.  Virtual threads are only measured on a JVM that
+ * supports them.
+ *
+ * <p>Usage: ManyDisruptorsWakeupLatencyTest [disruptors]
+ */
+public final class ManyDisruptorsWakeupLatencyTest
+{
+    private static final int DEFAULT_DISRUPTORS = 1000;
+    private static final int BUFFER_SIZE = 64;
+    private static final int ROUNDS = 20;
+    private static final long PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private final int disruptorCount;
+
+    private ManyDisruptorsWakeupLatencyTest(final int disruptorCount)
+    {
+        this.disruptorCount = disruptorCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(final String name, final ThreadFactory threadFactory) throws InterruptedException
+    {
+        final long[] latencies = new long[disruptorCount * ROUNDS];
+        final CountDownLatch[] rounds = new CountDownLatch[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++)
+        {
+            rounds[i] = new CountDownLatch(disruptorCount);
+        }
+
+        System.gc();
+        final long heapBefore = usedHeap();
+        final int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        final long startBegin = System.nanoTime();
+
+        final Disruptor<long[]>[] disruptors = new Disruptor[disruptorCount];
+        for (int i = 0; i < disruptorCount; i++)
+        {
+            final Disruptor<long[]> disruptor = new Disruptor<>(
+                () -> new long[2], BUFFER_SIZE, threadFactory, ProducerType.SINGLE, new ParkingWaitStrategy());
+            disruptor.handleEventsWith((event, sequence, endOfBatch) ->
+            {
+                final int index = (int) event[1];
+                latencies[index] = System.nanoTime() - event[0];
+                rounds[index / disruptorCount].countDown();
+            });
+            disruptor.start();
+            disruptors[i] = disruptor;
+        }
+
+        final long startNanos = System.nanoTime() - startBegin;
+        final int platformThreads = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+        final long heap = usedHeap() - heapBefore;
+
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            for (int i = 0; i < disruptorCount; i++)
+            {
+                final long pauseStart = System.nanoTime();
+                while (System.nanoTime() - pauseStart < PAUSE_NANOS)
+                {
+                    Thread.onSpinWait();
+                }
+
+                final RingBuffer<long[]> ringBuffer = disruptors[i].getRingBuffer();
+                final long sequence = ringBuffer.next();
+                final long[] event = ringBuffer.get(sequence);
+                event[0] = System.nanoTime();
+                event[1] = (long) round * disruptorCount + i;
+                ringBuffer.publish(sequence);
+            }
+            rounds[round].await();
+        }
+
+        for (final Disruptor<long[]> disruptor : disruptors)
+        {
+            disruptor.halt();
+        }
+
+        final Histogram histogram = new Histogram();
+        for (final long latency : latencies)
+        {
+            histogram.record(latency);
+        }
+
+        System.out.format(
+            "%s %s disruptors=%,d start=%,dms platformThreads=%,d heap=%,dKB " +
+                "wakeup 50%%=%,dns 99%%=%,dns 99.9%%=%,dns max=%,dns%n",
+            getClass().getSimpleName(), name, disruptorCount,
+            TimeUnit.NANOSECONDS.toMillis(startNanos), platformThreads, heap / 1024,
+            histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+            histogram.getValueAtPercentile(99.9), histogram.getMax());
+    }
+
+    private static long usedHeap()
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final int disruptors = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DISRUPTORS;
+        final ManyDisruptorsWakeupLatencyTest test = new ManyDisruptorsWakeupLatencyTest(disruptors);
+
+        for (int i = 0; i < 3; i++)
+        {
+            test.run("platform", DaemonThreadFactory.INSTANCE);
+            if (VirtualThreadFactory.isSupported())
+            {
+                test.run("virtual", new VirtualThreadFactory("processor-"));
+            }
+            else
+            {
+                System.out.println("Virtual threads are not supported by this JVM");
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import com.lmax.disruptor.AbstractPerfTestDisruptor;
+import com.lmax.disruptor.DataProvider;
+import com.lmax.disruptor.PerfTestContext;
+import com.lmax.disruptor.RangeEventHandler;
+import com.lmax.disruptor.RangeEventProcessor;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.support.PerfTestUtil;
+import com.lmax.disruptor.support.ValueEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.lmax.disruptor.RingBuffer.createSingleProducer;
+import static com.lmax.disruptor.support.PerfTestUtil.failIfNot;
+
+/**
+ * <pre>
+ * UniCast a series of items between 1 publisher and 1 event processor that handles each available range of events
+ * with a single call to a {@link RangeEventHandler}.
+ *
+ * +----+    +-----+
+ * | P1 |--->| EP1 |
+ * +----+    +-----+
+ *
+ * P1  - Publisher 1
+ * EP1 - RangeEventProcessor 1
+ *
+ * </pre>
+ */
+public final class OneToOneSequencedRangeThroughputTest extends AbstractPerfTestDisruptor
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long ITERATIONS = 1000L * 1000L * 100L;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+    private final long expectedResult = PerfTestUtil.accumulatedAddition(ITERATIONS);
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEvent> ringBuffer =
+        createSingleProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+    private final SequenceBarrier sequenceBarrier = ringBuffer.newBarrier();
+    private final ValueAdditionRangeHandler handler = new ValueAdditionRangeHandler();
+    private final RangeEventProcessor<ValueEvent> rangeEventProcessor =
+        new RangeEventProcessor<>(ringBuffer, sequenceBarrier, handler);
+
+    {
+        ringBuffer.addGatingSequences(rangeEventProcessor.getSequence());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected int getRequiredProcessorCount()
+    {
+        return 2;
+    }
+
+    @Override
+    protected PerfTestContext runDisruptorPass() throws InterruptedException
+    {
+        PerfTestContext perfTestContext = new PerfTestContext();
+        final CountDownLatch latch = new CountDownLatch(1);
+        long expectedCount = rangeEventProcessor.getSequence().get() + ITERATIONS;
+        handler.reset(latch, expectedCount);
+        executor.submit(rangeEventProcessor);
+        long start = System.currentTimeMillis();
+
+        final RingBuffer<ValueEvent> rb = ringBuffer;
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            long next = rb.next();
+            rb.get(next).setValue(i);
+            rb.publish(next);
+        }
+
+        latch.await();
+        perfTestContext.setDisruptorOps((ITERATIONS * 1000L) / (System.currentTimeMillis() - start));
+        perfTestContext.setBatchData(handler.batchesProcessed, ITERATIONS);
+        rangeEventProcessor.halt();
+
+        failIfNot(expectedResult, handler.value);
+
+        return perfTestContext;
+    }
+
+    private static final class ValueAdditionRangeHandler implements RangeEventHandler<ValueEvent>
+    {
+        private long value;
+        private long batchesProcessed;
+        private long count;
+        private CountDownLatch latch;
+
+        void reset(final CountDownLatch latch, final long expectedCount)
+        {
+            value = 0;
+            batchesProcessed = 0;
+            count = expectedCount;
+            this.latch = latch;
+        }
+
+        @Override
+        public void onEvents(final DataProvider<? extends ValueEvent> events, final long firstSequence, final long lastSequence)
+        {
+            long sum = value;
+            for (long sequence = firstSequence; sequence <= lastSequence; sequence++)
+            {
+                sum += events.get(sequence).getValue();
+            }
+            value = sum;
+            batchesProcessed++;
+
+            if (lastSequence == count)
+            {
+                latch.countDown();
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        OneToOneSequencedRangeThroughputTest test = new OneToOneSequencedRangeThroughputTest();
+        test.testImplementations();
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.Histogram;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.lmax.disruptor.RingBuffer.createSingleProducer;
+
+/**
+ * <pre>
+ *
+ * Measures how long a two stage pipeline holds events back while the first stage catches up with a full ring buffer,
+ * with and without limits on the batches of the first stage.
+ *
+ * +----+    +-----+    +-----+
+ * | P1 |---&gt;| EP1 |---&gt;| EP2 |
+ * +----+    +-----+    +-----+
+ *
+ * P1  - Publisher 1, fills the ring buffer before the event processors start
+ * EP1 - EventProcessor 1, does some work on each event and stamps it with the time it was handled
+ * EP2 - EventProcessor 2, records the time from EP1 handling each event to EP2 handling it
+ *
+ * </pre>
+ *
+ * <p>Without a limit EP1 handles the whole backlog as one batch, so EP2 sees nothing until it is done.  Limiting the
+ * size or duration of the batches lets EP2 follow EP1 through the backlog, for a little more coordination overhead.
+ */
+public final class PipelineCatchUpLatencyTest
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final int RUNS = 5;
+    private static final int WORK_ITERATIONS = 50;
+    private final ExecutorService executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+
+    private void run(final String name, final Consumer<BatchEventProcessor<long[]>> limit) throws InterruptedException
+    {
+        for (int i = 0; i < RUNS; i++)
+        {
+            final Histogram histogram = new Histogram();
+            final long[] firstHandOffNanos = new long[1];
+            final long elapsedNanos = runPass(limit, histogram, firstHandOffNanos);
+
+            System.out.format(
+                "%s %s run %d: backlog cleared in %,dus, first event reached EP2 after %,dus, hand off 50%%=%,dns 99%%=%,dns max=%,dns%n",
+                getClass().getSimpleName(), name, i,
+                TimeUnit.NANOSECONDS.toMicros(elapsedNanos),
+                TimeUnit.NANOSECONDS.toMicros(firstHandOffNanos[0]),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getMax());
+        }
+    }
+
+    private long runPass(
+        final Consumer<BatchEventProcessor<long[]>> limit,
+        final Histogram histogram,
+        final long[] firstHandOffNanos) throws InterruptedException
+    {
+        final RingBuffer<long[]> ringBuffer = createSingleProducer(() -> new long[1], BUFFER_SIZE, new YieldingWaitStrategy());
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] start = new long[1];
+
+        final BatchEventProcessor<long[]> stage1 = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), new WorkingHandler());
+        limit.accept(stage1);
+
+        final EventHandler<long[]> recorder = (event, sequence, endOfBatch) ->
+        {
+            final long now = System.nanoTime();
+            if (sequence == 0)
+            {
+                firstHandOffNanos[0] = now - start[0];
+            }
+            histogram.record(now - event[0]);
+            if (sequence == BUFFER_SIZE - 1)
+            {
+                latch.countDown();
+            }
+        };
+        final BatchEventProcessor<long[]> stage2 = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(stage1.getSequence()), recorder);
+        ringBuffer.addGatingSequences(stage2.getSequence());
+
+        for (int i = 0; i < BUFFER_SIZE; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        executor.submit(stage2);
+        start[0] = System.nanoTime();
+        executor.submit(stage1);
+
+        latch.await();
+        final long elapsedNanos = System.nanoTime() - start[0];
+
+        stage1.halt();
+        stage2.halt();
+
+        return elapsedNanos;
+    }
+
+    private static final class WorkingHandler implements EventHandler<long[]>
+    {
+        private long state = 1;
+
+        @Override
+        public void onEvent(final long[] event, final long sequence, final boolean endOfBatch)
+        {
+            long x = state + sequence;
+            for (int i = 0; i < WORK_ITERATIONS; i++)
+            {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+            state = x;
+            event[0] = System.nanoTime();
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final PipelineCatchUpLatencyTest test = new PipelineCatchUpLatencyTest();
+        test.run("unlimited", processor ->
+        {
+        });
+        test.run("maxBatchSize=256", processor -> processor.setMaxBatchSize(256));
+        test.run("maxBatchDuration=20us", processor -> processor.setMaxBatchDuration(20, TimeUnit.MICROSECONDS));
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.MultiRingEventProcessor;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import com.lmax.disruptor.util.Histogram;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.lmax.disruptor.RingBuffer.createSingleProducer;
+
+/**
+ * <pre>
+ *
+ * Measures the cost and benefit of priority lanes, a control lane and a data lane handled by one event processor.
+ *
+ * +----+    +=========+
+ * | PC |---&gt;| control |--+
+ * +----+    +=========+  |   +----+
+ *                        +--&gt;| EP |
+ * +----+    +=========+  |   +----+
+ * | PD |---&gt;|  data   |--+
+ * +----+    +=========+
+ *
+ * PC - Control publisher
+ * PD - Data publisher
+ * EP - MultiRingEventProcessor with priority lanes
+ *
+ * </pre>
+ *
+ * <p>The first part measures the latency of paced data events through the priority lanes against a
+ * {@link BatchEventProcessor} on the data ring alone, the extra cost being the check of the idle control lane.
+ * The second part fills the data lane with a backlog and measures how long a control event waits to overtake it,
+ * for several check intervals.
+ */
+public final class PriorityLanesLatencyTest
+{
+    private static final int DATA_BUFFER_SIZE = 1024 * 64;
+    private static final int CONTROL_BUFFER_SIZE = 1024;
+    private static final int PACED_EVENTS = 1000 * 100;
+    private static final long PAUSE_NANOS = 2000L;
+    private static final int BACKLOG = 1024 * 32;
+    private static final int RUNS = 5;
+    private static final int WORK_ITERATIONS = 50;
+    private static final long CONTROL = 1L;
+    private final ExecutorService executor = Executors.newCachedThreadPool(DaemonThreadFactory.INSTANCE);
+
+    private void measureDataLane() throws InterruptedException
+    {
+        for (int i = 0; i < RUNS; i++)
+        {
+            report("single ring", i, pacedDataLatency(false));
+            report("priority lanes", i, pacedDataLatency(true));
+        }
+    }
+
+    private Histogram pacedDataLatency(final boolean lanes) throws InterruptedException
+    {
+        final WaitStrategy waitStrategy = new YieldingWaitStrategy();
+        final RingBuffer<long[]> control = createSingleProducer(() -> new long[2], CONTROL_BUFFER_SIZE, waitStrategy);
+        final RingBuffer<long[]> data = createSingleProducer(() -> new long[2], DATA_BUFFER_SIZE, waitStrategy);
+        final Histogram histogram = new Histogram();
+        final CountDownLatch latch = new CountDownLatch(PACED_EVENTS);
+        final RecordingHandler handler = new RecordingHandler(histogram, latch, null);
+
+        final EventProcessor eventProcessor = lanes
+            ? newLanes(waitStrategy, 64, handler, control, data)
+            : newSingle(handler, data);
+
+        executor.submit(eventProcessor);
+        for (int i = 0; i < PACED_EVENTS; i++)
+        {
+            final long pauseStart = System.nanoTime();
+            while (System.nanoTime() - pauseStart < PAUSE_NANOS)
+            {
+                Thread.onSpinWait();
+            }
+            publish(data, 0L);
+        }
+        latch.await();
+        eventProcessor.halt();
+
+        return histogram;
+    }
+
+    private void measureOvertake() throws InterruptedException
+    {
+        for (final int checkInterval : new int[]{Integer.MAX_VALUE, 1024, 64, 1})
+        {
+            final Histogram histogram = new Histogram();
+            for (int i = 0; i < RUNS; i++)
+            {
+                overtake(checkInterval, histogram);
+            }
+            report("overtake, check interval " + checkInterval, RUNS, histogram);
+        }
+    }
+
+    private void overtake(final int checkInterval, final Histogram histogram) throws InterruptedException
+    {
+        final WaitStrategy waitStrategy = new YieldingWaitStrategy();
+        final RingBuffer<long[]> control = createSingleProducer(() -> new long[2], CONTROL_BUFFER_SIZE, waitStrategy);
+        final RingBuffer<long[]> data = createSingleProducer(() -> new long[2], DATA_BUFFER_SIZE, waitStrategy);
+        final CountDownLatch controlHandled = new CountDownLatch(1);
+        final CountDownLatch dataStarted = new CountDownLatch(1);
+        final RecordingHandler handler = new RecordingHandler(histogram, controlHandled, dataStarted);
+
+        final MultiRingEventProcessor<long[]> eventProcessor = newLanes(waitStrategy, checkInterval, handler, control, data);
+        for (int i = 0; i < BACKLOG; i++)
+        {
+            publish(data, 0L);
+        }
+
+        executor.submit(eventProcessor);
+        dataStarted.await();
+        publish(control, CONTROL);
+        controlHandled.await();
+        eventProcessor.halt();
+    }
+
+    private static MultiRingEventProcessor<long[]> newLanes(
+        final WaitStrategy waitStrategy,
+        final int checkInterval,
+        final EventHandler<long[]> handler,
+        final RingBuffer<long[]> control,
+        final RingBuffer<long[]> data)
+    {
+        final MultiRingEventProcessor<long[]> eventProcessor =
+            MultiRingEventProcessor.withPriorityLanes(waitStrategy, checkInterval, handler, control, data);
+        control.addGatingSequences(eventProcessor.getSequence(0));
+        data.addGatingSequences(eventProcessor.getSequence(1));
+        return eventProcessor;
+    }
+
+    private static BatchEventProcessor<long[]> newSingle(final EventHandler<long[]> handler, final RingBuffer<long[]> data)
+    {
+        final BatchEventProcessor<long[]> eventProcessor = new BatchEventProcessor<>(data, data.newBarrier(), handler);
+        data.addGatingSequences(eventProcessor.getSequence());
+        return eventProcessor;
+    }
+
+    private static void publish(final RingBuffer<long[]> ringBuffer, final long kind)
+    {
+        final long sequence = ringBuffer.next();
+        final long[] event = ringBuffer.get(sequence);
+        event[0] = System.nanoTime();
+        event[1] = kind;
+        ringBuffer.publish(sequence);
+    }
+
+    private void report(final String name, final int run, final Histogram histogram)
+    {
+        System.out.format(
+            "%s %s run %d: 50%%=%,dns 99%%=%,dns 99.99%%=%,dns max=%,dns%n",
+            getClass().getSimpleName(), name, run,
+            histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+            histogram.getValueAtPercentile(99.99), histogram.getMax());
+    }
+
+    private static final class RecordingHandler implements EventHandler<long[]>
+    {
+        private final Histogram histogram;
+        private final CountDownLatch latch;
+        private final CountDownLatch dataStarted;
+        private long state = 1;
+
+        RecordingHandler(final Histogram histogram, final CountDownLatch latch, final CountDownLatch dataStarted)
+        {
+            this.histogram = histogram;
+            this.latch = latch;
+            this.dataStarted = dataStarted;
+        }
+
+        @Override
+        public void onEvent(final long[] event, final long sequence, final boolean endOfBatch)
+        {
+            final boolean overtaking = dataStarted != null;
+            if (!overtaking || event[1] == CONTROL)
+            {
+                histogram.record(System.nanoTime() - event[0]);
+                latch.countDown();
+            }
+            else
+            {
+                dataStarted.countDown();
+            }
+
+            long x = state + sequence;
+            for (int i = 0; i < WORK_ITERATIONS; i++)
+            {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+            }
+            state = x;
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final PriorityLanesLatencyTest test = new PriorityLanesLatencyTest();
+        test.measureDataLane();
+        test.measureOvertake();
+    }
+}
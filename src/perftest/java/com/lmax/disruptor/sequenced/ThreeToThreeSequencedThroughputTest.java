@@ -17,13 +17,14 @@ package com.lmax.disruptor.sequenced;
 
 import com.lmax.disruptor.AbstractPerfTestDisruptor;
 import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.MultiRingEventProcessor;
 import com.lmax.disruptor.PerfTestContext;
 import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.support.LongArrayEventHandler;
 import com.lmax.disruptor.support.LongArrayPublisher;
-import com.lmax.disruptor.support.MultiBufferBatchEventProcessor;
 import com.lmax.disruptor.util.DaemonThreadFactory;
 
 import java.util.concurrent.CountDownLatch;
@@ -79,17 +80,18 @@ public final class ThreeToThreeSequencedThroughputTest extends AbstractPerfTestD
     @SuppressWarnings("unchecked")
     private final RingBuffer<long[]>[] buffers = new RingBuffer[NUM_PUBLISHERS];
     private final SequenceBarrier[] barriers = new SequenceBarrier[NUM_PUBLISHERS];
+    private final WaitStrategy waitStrategy = new YieldingWaitStrategy();
     private final LongArrayPublisher[] valuePublishers = new LongArrayPublisher[NUM_PUBLISHERS];
 
     private final LongArrayEventHandler handler = new LongArrayEventHandler();
-    private final MultiBufferBatchEventProcessor<long[]> batchEventProcessor;
+    private final MultiRingEventProcessor<long[]> batchEventProcessor;
 
     private static final EventFactory<long[]> FACTORY = () -> new long[ARRAY_SIZE];
 
     {
         for (int i = 0; i < NUM_PUBLISHERS; i++)
         {
-            buffers[i] = RingBuffer.createSingleProducer(FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+            buffers[i] = RingBuffer.createSingleProducer(FACTORY, BUFFER_SIZE, waitStrategy);
             barriers[i] = buffers[i].newBarrier();
             valuePublishers[i] = new LongArrayPublisher(
                 cyclicBarrier,
@@ -98,11 +100,11 @@ public final class ThreeToThreeSequencedThroughputTest extends AbstractPerfTestD
                 ARRAY_SIZE);
         }
 
-        batchEventProcessor = new MultiBufferBatchEventProcessor<>(buffers, barriers, handler);
+        batchEventProcessor = new MultiRingEventProcessor<>(buffers, barriers, waitStrategy, handler);
 
         for (int i = 0; i < NUM_PUBLISHERS; i++)
         {
-            buffers[i].addGatingSequences(batchEventProcessor.getSequences()[i]);
+            buffers[i].addGatingSequences(batchEventProcessor.getSequence(i));
         }
     }
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.sequenced;
+
+import com.lmax.disruptor.AdaptiveWaitStrategy;
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.util.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.lmax.disruptor.RingBuffer.createSingleProducer;
+
+/**
+ * <pre>
+ *
+ * Sweeps the arrival rate of a single publisher and reports latency and consumer CPU for several wait strategies.
+ *
+ * +----+    +====+    +-----+
+ * | P1 |---&gt;| RB |&lt;---| EP1 |
+ * +----+    +====+    +-----+
+ *
+ * P1  - Publisher paced to the arrival rate
+ * RB  - RingBuffer
+ * EP1 - EventProcessor
+ *
+ * </pre>
+ *
+ * <p>Each rate runs for about half a second.  CPU is the consumer thread's CPU time as a percentage of the elapsed
+ * time, so a busy spinning consumer reports close to 100% at every rate.
+ */
+public final class WaitStrategyArrivalRateSweepTest
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long RUN_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long[] RATES = {1_000L, 10_000L, 100_000L, 1_000_000L, 5_000_000L};
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static void run(final String name, final Supplier<WaitStrategy> waitStrategies, final long rate)
+        throws InterruptedException
+    {
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        final int events = (int) (RUN_NANOS / intervalNanos);
+        final RingBuffer<long[]> ringBuffer = createSingleProducer(() -> new long[1], BUFFER_SIZE, waitStrategies.get());
+        final LatencyHandler handler = new LatencyHandler(events);
+        final BatchEventProcessor<long[]> eventProcessor =
+            new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), handler);
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+
+        final Thread thread = new Thread(eventProcessor);
+        thread.setDaemon(true);
+        thread.start();
+        handler.started.await();
+
+        final long cpuStart = THREADS.getThreadCpuTime(thread.getId());
+        final long start = System.nanoTime();
+        long nextPublish = start;
+        for (int i = 0; i < events; i++)
+        {
+            nextPublish += intervalNanos;
+            while (System.nanoTime() < nextPublish)
+            {
+                Thread.onSpinWait();
+            }
+
+            final long sequence = ringBuffer.next();
+            ringBuffer.get(sequence)[0] = System.nanoTime();
+            ringBuffer.publish(sequence);
+        }
+        handler.done.await();
+        final long elapsed = System.nanoTime() - start;
+        final long cpu = THREADS.getThreadCpuTime(thread.getId()) - cpuStart;
+        eventProcessor.halt();
+        thread.join();
+
+        final Histogram histogram = handler.histogram;
+        System.out.format(
+            "%s %-10s rate=%,11d/s cpu=%5.1f%% latency 50%%=%,10dns 99%%=%,10dns 99.9%%=%,10dns%n",
+            WaitStrategyArrivalRateSweepTest.class.getSimpleName(), name, rate, 100.0 * cpu / elapsed,
+            histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+            histogram.getValueAtPercentile(99.9));
+    }
+
+    private static final class LatencyHandler implements EventHandler<long[]>
+    {
+        private final Histogram histogram = new Histogram();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final long lastSequence;
+
+        LatencyHandler(final int events)
+        {
+            this.lastSequence = events - 1;
+        }
+
+        @Override
+        public void onStart()
+        {
+            started.countDown();
+        }
+
+        @Override
+        public void onEvent(final long[] event, final long sequence, final boolean endOfBatch)
+        {
+            histogram.record(System.nanoTime() - event[0]);
+            if (sequence == lastSequence)
+            {
+                done.countDown();
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        for (final long rate : RATES)
+        {
+            run("adaptive", AdaptiveWaitStrategy::new, rate);
+            run("yielding", YieldingWaitStrategy::new, rate);
+            run("sleeping", SleepingWaitStrategy::new, rate);
+            run("blocking", BlockingWaitStrategy::new, rate);
+        }
+    }
+}
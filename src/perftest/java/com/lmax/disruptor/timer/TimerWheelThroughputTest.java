@@ -0,0 +1,207 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.timer;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.Histogram;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *
+ * Schedule timers spread over a window and publish each one into a ring buffer when it is due.
+ *
+ * +----+    +====+    +-----+
+ * | TW |---&gt;| RB |&lt;---| EP1 |
+ * +----+    +====+    +-----+
+ *
+ * TW  - TimerWheel polled by the scheduling thread, or a ScheduledThreadPoolExecutor with a task per timer
+ * RB  - RingBuffer, multi producer so that the executor thread can publish too
+ * EP1 - EventProcessor recording how late each timer is handled
+ *
+ * </pre>
+ *
+ * <p>Reports the rate at which timers are scheduled, a quarter of which are then cancelled, and the percentiles of
+ * the time from the deadline of a timer to its event being handled.
+ *
+ * <p>Usage: TimerWheelThroughputTest [timers]
+ */
+public final class TimerWheelThroughputTest
+{
+    private static final int BUFFER_SIZE = 1024 * 64;
+    private static final long SPREAD_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int TICKS_PER_WHEEL = 1024;
+
+    private interface Scheduler
+    {
+        Object schedule(long deadline, long payload);
+
+        boolean cancel(Object timer);
+
+        void awaitAll(long lastSequence, BatchEventProcessor<long[]> eventProcessor);
+    }
+
+    private static void run(final String name, final RingBuffer<long[]> ringBuffer, final Scheduler scheduler, final int timers)
+        throws Exception
+    {
+        final LatenessHandler handler = new LatenessHandler();
+        final BatchEventProcessor<long[]> eventProcessor = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), handler);
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+        final Thread consumer = new Thread(eventProcessor);
+        consumer.setDaemon(true);
+        consumer.start();
+
+        final SplittableRandom random = new SplittableRandom(7);
+        final Object[] handles = new Object[timers];
+        final long start = System.nanoTime();
+        for (int i = 0; i < timers; i++)
+        {
+            handles[i] = scheduler.schedule(start + SPREAD_NANOS / 10 + random.nextLong(SPREAD_NANOS), i);
+        }
+        final long scheduled = System.nanoTime();
+
+        int cancelled = 0;
+        for (int i = 0; i < timers; i += 4)
+        {
+            cancelled += scheduler.cancel(handles[i]) ? 1 : 0;
+        }
+
+        scheduler.awaitAll(timers - cancelled - 1L, eventProcessor);
+        eventProcessor.halt();
+        consumer.join();
+
+        final Histogram histogram = handler.histogram;
+        System.out.format(
+            "%s %-8s timers=%,d schedule ops/sec=%,d fired=%,d late mean=%,.0fus 99%%=%,dus 99.99%%=%,dus max=%,dus%n",
+            TimerWheelThroughputTest.class.getSimpleName(), name, timers,
+            timers * TimeUnit.SECONDS.toNanos(1) / Math.max(1, scheduled - start),
+            histogram.getCount(),
+            histogram.getMean() / 1000,
+            histogram.getValueAtPercentile(99) / 1000,
+            histogram.getValueAtPercentile(99.99) / 1000,
+            histogram.getMax() / 1000);
+    }
+
+    private static void runTimerWheel(final int timers) throws Exception
+    {
+        final RingBuffer<long[]> ringBuffer = newRingBuffer();
+        final TimerWheel<long[]> timerWheel = new TimerWheel<>(
+            ringBuffer,
+            (event, sequence, handle, deadline, payload) -> event[0] = deadline,
+            System.nanoTime(), TICK_NANOS, TICKS_PER_WHEEL, timers);
+
+        run("wheel", ringBuffer, new Scheduler()
+        {
+            @Override
+            public Object schedule(final long deadline, final long payload)
+            {
+                return timerWheel.schedule(deadline, payload);
+            }
+
+            @Override
+            public boolean cancel(final Object timer)
+            {
+                return timerWheel.cancel((Long) timer);
+            }
+
+            @Override
+            public void awaitAll(final long lastSequence, final BatchEventProcessor<long[]> eventProcessor)
+            {
+                while (timerWheel.getTimerCount() != 0)
+                {
+                    timerWheel.poll(System.nanoTime());
+                    Thread.yield();
+                }
+                awaitSequence(lastSequence, eventProcessor);
+            }
+        }, timers);
+    }
+
+    private static void runExecutor(final int timers) throws Exception
+    {
+        final RingBuffer<long[]> ringBuffer = newRingBuffer();
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+
+        run("executor", ringBuffer, new Scheduler()
+        {
+            @Override
+            public Object schedule(final long deadline, final long payload)
+            {
+                return executor.schedule(
+                    () -> ringBuffer.publishEvent((event, sequence) -> event[0] = deadline),
+                    deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public boolean cancel(final Object timer)
+            {
+                return ((ScheduledFuture<?>) timer).cancel(false);
+            }
+
+            @Override
+            public void awaitAll(final long lastSequence, final BatchEventProcessor<long[]> eventProcessor)
+            {
+                awaitSequence(lastSequence, eventProcessor);
+            }
+        }, timers);
+
+        executor.shutdownNow();
+    }
+
+    private static RingBuffer<long[]> newRingBuffer()
+    {
+        return RingBuffer.create(ProducerType.MULTI, () -> new long[1], BUFFER_SIZE, new YieldingWaitStrategy());
+    }
+
+    private static void awaitSequence(final long lastSequence, final BatchEventProcessor<long[]> eventProcessor)
+    {
+        while (eventProcessor.getSequence().get() < lastSequence)
+        {
+            Thread.yield();
+        }
+    }
+
+    private static final class LatenessHandler implements EventHandler<long[]>
+    {
+        private final Histogram histogram = new Histogram();
+
+        @Override
+        public void onEvent(final long[] event, final long sequence, final boolean endOfBatch)
+        {
+            histogram.record(Math.max(0, System.nanoTime() - event[0]));
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final int timers = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        for (int i = 0; i < 3; i++)
+        {
+            runTimerWheel(timers);
+            runExecutor(timers);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.workhandler;
+
+import com.lmax.disruptor.AbstractPerfTestDisruptor;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.PerfTestContext;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WorkerPool;
+import com.lmax.disruptor.YieldingWaitStrategy;
+import com.lmax.disruptor.support.ValueEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.lmax.disruptor.RingBuffer.createSingleProducer;
+import static com.lmax.disruptor.support.PerfTestUtil.failIfNot;
+
+/**
+ * <pre>
+ * Share the events of one publisher between a pool of three workers, each event is handled by only one worker.
+ *
+ *           +----+
+ *    +-----&gt;| W1 |
+ *    |      +----+
+ * +----+    +----+
+ * | P1 |---&gt;| W2 |
+ * +----+    +----+
+ *    |      +----+
+ *    +-----&gt;| W3 |
+ *           +----+
+ *
+ * P1 - Publisher 1
+ * W1 - Worker 1, claiming batches from the shared work sequence
+ * W2 - Worker 2, claiming batches from the shared work sequence
+ * W3 - Worker 3, claiming batches from the shared work sequence
+ * </pre>
+ */
+public final class OneToThreeWorkerPoolThroughputTest extends AbstractPerfTestDisruptor
+{
+    private static final int NUM_WORKERS = 3;
+    private static final int BUFFER_SIZE = 1024 * 8;
+    private static final long ITERATIONS = 1000L * 1000L * 10L;
+    private final ExecutorService executor = Executors.newFixedThreadPool(NUM_WORKERS, DaemonThreadFactory.INSTANCE);
+    private final long expectedResult = ITERATIONS * (ITERATIONS - 1) / 2;
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    private final RingBuffer<ValueEvent> ringBuffer =
+        createSingleProducer(ValueEvent.EVENT_FACTORY, BUFFER_SIZE, new YieldingWaitStrategy());
+
+    private final SummingHandler[] handlers = new SummingHandler[NUM_WORKERS];
+
+    {
+        for (int i = 0; i < NUM_WORKERS; i++)
+        {
+            handlers[i] = new SummingHandler();
+        }
+    }
+
+    private final WorkerPool<ValueEvent> workerPool = new WorkerPool<>(ringBuffer, ringBuffer.newBarrier(), handlers);
+
+    {
+        ringBuffer.addGatingSequences(workerPool.getSequence());
+    }
+
+    ///////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    protected int getRequiredProcessorCount()
+    {
+        return 4;
+    }
+
+    @Override
+    protected PerfTestContext runDisruptorPass() throws InterruptedException
+    {
+        PerfTestContext perfTestContext = new PerfTestContext();
+        CountDownLatch latch = new CountDownLatch(NUM_WORKERS);
+        for (SummingHandler handler : handlers)
+        {
+            handler.reset(latch);
+        }
+        for (EventProcessor workProcessor : workerPool.getWorkProcessors())
+        {
+            executor.submit(workProcessor);
+        }
+
+        final long expectedSequence = ringBuffer.getCursor() + ITERATIONS;
+        long start = System.currentTimeMillis();
+
+        for (long i = 0; i < ITERATIONS; i++)
+        {
+            long sequence = ringBuffer.next();
+            ringBuffer.get(sequence).setValue(i);
+            ringBuffer.publish(sequence);
+        }
+
+        while (workerPool.getSequence().get() < expectedSequence)
+        {
+            Thread.yield();
+        }
+
+        perfTestContext.setDisruptorOps((ITERATIONS * 1000L) / (System.currentTimeMillis() - start));
+        workerPool.halt();
+        latch.await();
+
+        long total = 0;
+        long batches = 0;
+        for (SummingHandler handler : handlers)
+        {
+            total += handler.value;
+            batches += handler.batches;
+        }
+        perfTestContext.setBatchData(batches, ITERATIONS);
+        failIfNot(expectedResult, total);
+
+        return perfTestContext;
+    }
+
+    private static final class SummingHandler implements EventHandler<ValueEvent>
+    {
+        private long value;
+        private long batches;
+        private CountDownLatch latch;
+
+        void reset(final CountDownLatch latch)
+        {
+            this.value = 0;
+            this.batches = 0;
+            this.latch = latch;
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            batches++;
+        }
+
+        @Override
+        public void onEvent(final ValueEvent event, final long sequence, final boolean endOfBatch)
+        {
+            value += event.getValue();
+        }
+
+        @Override
+        public void onShutdown()
+        {
+            latch.countDown();
+        }
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        new OneToThreeWorkerPoolThroughputTest().testImplementations();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.DummySequenceBarrier;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.lmax.disruptor.support.WaitStrategyTestUtil.assertWaitForWithDelayOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveWaitStrategyTest
+{
+    @Test
+    public void shouldWaitForValue() throws Exception
+    {
+        assertWaitForWithDelayOf(50, new AdaptiveWaitStrategy());
+    }
+
+    @Test
+    public void shouldLearnWaitsPerBarrier() throws Exception
+    {
+        final AdaptiveWaitStrategy waitStrategy =
+            new AdaptiveWaitStrategy(20, 200, TimeUnit.MICROSECONDS, new SleepingWaitStrategy(0, 1000));
+        final SequenceBarrier idleBarrier = new DummySequenceBarrier();
+        final SequenceBarrier otherBarrier = new DummySequenceBarrier();
+        final Sequence cursor = new Sequence();
+
+        for (int i = 0; i < 10; i++)
+        {
+            waitForDelayedPublish(waitStrategy, cursor, idleBarrier, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        final long idleAverage = waitStrategy.getAverageWaitNanos(idleBarrier);
+
+        assertTrue(idleAverage > TimeUnit.MICROSECONDS.toNanos(200));
+        assertThat(waitStrategy.getAverageWaitNanos(otherBarrier), is(0L));
+
+        for (int i = 0; i < 10; i++)
+        {
+            waitForDelayedPublish(waitStrategy, cursor, idleBarrier, 0);
+        }
+
+        assertTrue(waitStrategy.getAverageWaitNanos(idleBarrier) < idleAverage);
+    }
+
+    @Test
+    public void shouldNotKeepBarriersAlive() throws Exception
+    {
+        final AdaptiveWaitStrategy waitStrategy = new AdaptiveWaitStrategy();
+        final WeakReference<SequenceBarrier> barrier = waitOnNewBarrier(waitStrategy);
+
+        for (int i = 0; i < 100 && barrier.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(barrier.get(), is((SequenceBarrier) null));
+    }
+
+    private static WeakReference<SequenceBarrier> waitOnNewBarrier(final AdaptiveWaitStrategy waitStrategy)
+        throws Exception
+    {
+        final SequenceBarrier barrier = new DummySequenceBarrier();
+        waitForDelayedPublish(waitStrategy, new Sequence(), barrier, TimeUnit.MICROSECONDS.toNanos(100));
+        waitStrategy.getAverageWaitNanos(barrier);
+        return new WeakReference<>(barrier);
+    }
+
+    private static void waitForDelayedPublish(
+        final WaitStrategy waitStrategy,
+        final Sequence cursor,
+        final SequenceBarrier barrier,
+        final long delayNanos)
+        throws Exception
+    {
+        final long next = cursor.get() + 1;
+        final Thread publisher = new Thread(() ->
+        {
+            if (delayNanos > 0)
+            {
+                LockSupport.parkNanos(delayNanos);
+            }
+            cursor.set(next);
+            waitStrategy.signalAllWhenBlocking();
+        });
+        publisher.start();
+
+        waitStrategy.waitFor(next, cursor, cursor, barrier);
+        publisher.join();
+    }
+}
@@ -197,13 +197,164 @@ public final class BatchEventProcessorTest
         assertEquals(Arrays.asList(3L, 2L, 1L), batchSizes);
     }
 
+    @Test
+    public void shouldReportBatchesAndEventsToMetrics()
+        throws Exception
+    {
+        final List<Long> batchSizes = new ArrayList<>();
+        final List<Long> sequences = new ArrayList<>();
+        final CountDownLatch eventLatch = new CountDownLatch(3);
+        final BatchEventProcessor<StubEvent> batchEventProcessor = new BatchEventProcessor<>(
+                ringBuffer, sequenceBarrier, new LatchEventHandler(eventLatch));
+        batchEventProcessor.setMetrics(new ProcessorMetrics<StubEvent>()
+        {
+            @Override
+            public void onBatchProcessed(final long batchSize, final long waitNanos, final long serviceNanos)
+            {
+                batchSizes.add(batchSize);
+            }
+
+            @Override
+            public void onEventProcessed(final StubEvent event, final long sequence)
+            {
+                sequences.add(sequence);
+            }
+        });
+
+        ringBuffer.publish(ringBuffer.next());
+        ringBuffer.publish(ringBuffer.next());
+        ringBuffer.publish(ringBuffer.next());
+
+        Thread thread = new Thread(batchEventProcessor);
+        thread.start();
+
+        assertTrue(eventLatch.await(2, TimeUnit.SECONDS));
+
+        batchEventProcessor.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(3L), batchSizes);
+        assertEquals(Arrays.asList(0L, 1L, 2L), sequences);
+    }
+
+    @Test
+    public void shouldThrowExceptionOnSettingNullMetrics()
+    {
+        final BatchEventProcessor<StubEvent> batchEventProcessor = new BatchEventProcessor<>(
+                ringBuffer, sequenceBarrier, new ExceptionEventHandler());
+
+        assertThrows(NullPointerException.class, () -> batchEventProcessor.setMetrics(null));
+    }
+
+    @Test
+    public void shouldSplitBacklogIntoBatchesOfMaxBatchSize()
+        throws Exception
+    {
+        final CountDownLatch eventLatch = new CountDownLatch(5);
+        final BatchRecordingHandler handler = new BatchRecordingHandler(eventLatch, 0);
+        final BatchEventProcessor<StubEvent> batchEventProcessor = new BatchEventProcessor<>(
+                ringBuffer, sequenceBarrier, handler);
+        batchEventProcessor.setMaxBatchSize(2);
+
+        for (int i = 0; i < 5; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        Thread thread = new Thread(batchEventProcessor);
+        thread.start();
+
+        assertTrue(eventLatch.await(2, TimeUnit.SECONDS));
+
+        batchEventProcessor.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(2L, 2L, 1L), handler.batchSizes);
+        assertEquals(Arrays.asList(-1L, 1L, 3L), handler.sequencesAtBatchStart);
+        assertEquals(Arrays.asList(false, true, false, true, true), handler.endOfBatches);
+    }
+
+    @Test
+    public void shouldEndBatchOnceMaxBatchDurationHasPassed()
+        throws Exception
+    {
+        final CountDownLatch eventLatch = new CountDownLatch(4);
+        final BatchRecordingHandler handler = new BatchRecordingHandler(eventLatch, 5);
+        final BatchEventProcessor<StubEvent> batchEventProcessor = new BatchEventProcessor<>(
+                ringBuffer, sequenceBarrier, handler);
+        batchEventProcessor.setMaxBatchDuration(1, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 4; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        Thread thread = new Thread(batchEventProcessor);
+        thread.start();
+
+        assertTrue(eventLatch.await(2, TimeUnit.SECONDS));
+
+        batchEventProcessor.halt();
+        thread.join();
+
+        assertEquals(Arrays.asList(-1L, 1L), handler.sequencesAtBatchStart);
+        assertEquals(Arrays.asList(false, true, false, true), handler.endOfBatches);
+    }
+
+    @Test
+    public void shouldRejectInvalidBatchLimits()
+    {
+        final BatchEventProcessor<StubEvent> batchEventProcessor = new BatchEventProcessor<>(
+                ringBuffer, sequenceBarrier, new ExceptionEventHandler());
+
+        assertThrows(IllegalArgumentException.class, () -> batchEventProcessor.setMaxBatchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> batchEventProcessor.setMaxBatchDuration(0, TimeUnit.SECONDS));
+    }
+
+    private static final class BatchRecordingHandler implements EventHandler<StubEvent>
+    {
+        private final List<Long> batchSizes = new ArrayList<>();
+        private final List<Long> sequencesAtBatchStart = new ArrayList<>();
+        private final List<Boolean> endOfBatches = new ArrayList<>();
+        private final CountDownLatch latch;
+        private final long sleepMillis;
+        private Sequence sequence;
+
+        BatchRecordingHandler(final CountDownLatch latch, final long sleepMillis)
+        {
+            this.latch = latch;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public void setSequenceCallback(final Sequence sequenceCallback)
+        {
+            this.sequence = sequenceCallback;
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            batchSizes.add(batchSize);
+            sequencesAtBatchStart.add(sequence.get());
+        }
+
+        @Override
+        public void onEvent(final StubEvent event, final long sequence, final boolean endOfBatch) throws Exception
+        {
+            Thread.sleep(sleepMillis);
+            endOfBatches.add(endOfBatch);
+            latch.countDown();
+        }
+    }
+
     @Test
     public void shouldAlwaysHalt() throws InterruptedException
     {
         WaitStrategy waitStrategy = new BusySpinWaitStrategy();
         final SingleProducerSequencer sequencer = new SingleProducerSequencer(8, waitStrategy);
         final ProcessingSequenceBarrier barrier = new ProcessingSequenceBarrier(
-            sequencer, waitStrategy, new Sequence(-1), new Sequence[0]);
+            sequencer, waitStrategy, new ParkingProducerWaitStrategy(), new Sequence(-1), new Sequence[0]);
         DataProvider<Object> dp = sequence -> null;
 
         final LatchLifeCycleHandler h1 = new LatchLifeCycleHandler();
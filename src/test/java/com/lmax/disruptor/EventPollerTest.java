@@ -4,9 +4,11 @@ import com.lmax.disruptor.EventPoller.PollState;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class EventPollerTest
 {
@@ -67,4 +69,56 @@ public class EventPollerTest
 
         assertThat(events.size(), is(4));
     }
+
+    @Test
+    public void shouldPollAvailableEventsAsOneRange() throws Exception
+    {
+        final RingBuffer<long[]> ringBuffer = RingBuffer.createMultiProducer(() -> new long[1], 8, new SleepingWaitStrategy());
+        final EventPoller<long[]> poller = ringBuffer.newPoller();
+        ringBuffer.addGatingSequences(poller.getSequence());
+
+        for (long i = 0; i < 5; i++)
+        {
+            final long next = ringBuffer.next();
+            ringBuffer.get(next)[0] = i * 10;
+            ringBuffer.publish(next);
+        }
+
+        final ArrayList<Long> values = new ArrayList<>();
+        final EventPoller.RangeHandler<long[]> firstThree = (events, firstSequence, lastSequence) ->
+        {
+            assertThat(firstSequence, is(0L));
+            assertThat(lastSequence, is(4L));
+            for (long sequence = firstSequence; sequence <= 2; sequence++)
+            {
+                values.add(events.get(sequence)[0]);
+            }
+            return 2;
+        };
+        final EventPoller.RangeHandler<long[]> all = (events, firstSequence, lastSequence) ->
+        {
+            for (long sequence = firstSequence; sequence <= lastSequence; sequence++)
+            {
+                values.add(events.get(sequence)[0]);
+            }
+            return lastSequence;
+        };
+
+        assertThat(poller.pollRange(firstThree), is(PollState.PROCESSING));
+        assertThat(poller.getSequence().get(), is(2L));
+        assertThat(poller.pollRange(all), is(PollState.PROCESSING));
+        assertThat(poller.pollRange(all), is(PollState.IDLE));
+        assertThat(values, is(Arrays.asList(0L, 10L, 20L, 30L, 40L)));
+    }
+
+    @Test
+    public void shouldRejectConsumedSequenceOutsideOfRange()
+    {
+        final RingBuffer<long[]> ringBuffer = RingBuffer.createMultiProducer(() -> new long[1], 8, new SleepingWaitStrategy());
+        final EventPoller<long[]> poller = ringBuffer.newPoller();
+        ringBuffer.publish(ringBuffer.next());
+
+        assertThrows(IllegalStateException.class, () -> poller.pollRange((events, firstSequence, lastSequence) -> lastSequence + 1));
+        assertThat(poller.getSequence().get(), is(-1L));
+    }
 }
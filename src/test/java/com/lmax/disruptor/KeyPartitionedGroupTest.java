@@ -0,0 +1,288 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeyPartitionedGroupTest
+{
+    private static final int KEYS = 10;
+
+    private final RingBuffer<LongEvent> ringBuffer = RingBuffer.createMultiProducer(LongEvent.FACTORY, 16);
+
+    @Test
+    public void shouldSpreadSequentialAndStridedKeysEvenly()
+    {
+        final int partitions = 4;
+        final int[] sequential = new int[partitions];
+        final int[] strided = new int[partitions];
+        for (long key = 0; key < 4000; key++)
+        {
+            sequential[KeyPartitionedGroup.partitionOf(key, partitions)]++;
+            strided[KeyPartitionedGroup.partitionOf(key * partitions, partitions)]++;
+        }
+
+        for (int i = 0; i < partitions; i++)
+        {
+            assertTrue(sequential[i] > 900, "sequential partition " + i + " has " + sequential[i]);
+            assertTrue(strided[i] > 900, "strided partition " + i + " has " + strided[i]);
+        }
+    }
+
+    @Test
+    public void shouldHandleEachKeyOnOneHandlerInOrder() throws Exception
+    {
+        final RecordingHandler[] handlers = {new RecordingHandler(), new RecordingHandler(), new RecordingHandler()};
+        final KeyPartitionedGroup<LongEvent> group =
+            new KeyPartitionedGroup<>(ringBuffer, ringBuffer.newBarrier(), event -> event.get() % KEYS, handlers);
+        ringBuffer.addGatingSequences(group.getSequence());
+
+        final List<Thread> threads = start(group);
+        for (long i = 0; i < 1000; i++)
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+        while (group.getSequence().get() < 999)
+        {
+            Thread.sleep(1);
+        }
+        group.halt();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int i = 0; i < handlers.length; i++)
+        {
+            long previous = -1;
+            for (final long value : handlers[i].values)
+            {
+                assertThat(KeyPartitionedGroup.partitionOf(value % KEYS, handlers.length), is(i));
+                assertTrue(value > previous);
+                previous = value;
+            }
+            total += handlers[i].values.size();
+        }
+        assertThat(total, is(1000));
+    }
+
+    @Test
+    public void shouldEndBatchOnLastEventOfPartition() throws Exception
+    {
+        final long key0 = keyInPartition(0);
+        final long key1 = keyInPartition(1);
+        final RecordingHandler handler = new RecordingHandler();
+        final KeyPartitionedGroup<LongEvent> group = new KeyPartitionedGroup<>(
+            ringBuffer, ringBuffer.newBarrier(), LongEvent::get, handler, new RecordingHandler());
+        ringBuffer.addGatingSequences(group.getSequence());
+
+        for (final long key : new long[]{key0, key0, key1, key0, key1, key1})
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), key);
+        }
+
+        final Thread thread = new Thread(group.getEventProcessors()[0]);
+        thread.start();
+        while (group.getEventProcessors()[0].getSequence().get() < 5)
+        {
+            Thread.sleep(1);
+        }
+        group.halt();
+        thread.join();
+
+        assertThat(handler.sequences, is(List.of(0L, 1L, 3L)));
+        assertThat(handler.endOfBatches, is(List.of(false, false, true)));
+        assertThat(handler.batchStarts, is(1));
+    }
+
+    @Test
+    public void shouldNotDropEventsAfterAHeldEventFails() throws Exception
+    {
+        final long key0 = keyInPartition(0);
+        final long key1 = keyInPartition(1);
+        final RecordingHandler handler = new RecordingHandler(0L, 3L);
+        final KeyPartitionedGroup<LongEvent> group = new KeyPartitionedGroup<>(
+            ringBuffer, ringBuffer.newBarrier(), LongEvent::get, handler, new RecordingHandler());
+        group.setExceptionHandler(new IgnoreExceptionHandler());
+        ringBuffer.addGatingSequences(group.getSequence());
+
+        for (final long key : new long[]{key0, key0, key1, key0, key1, key0})
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), key);
+        }
+
+        final Thread thread = new Thread(group.getEventProcessors()[0]);
+        thread.start();
+        while (group.getEventProcessors()[0].getSequence().get() < 5)
+        {
+            Thread.sleep(1);
+        }
+        group.halt();
+        thread.join();
+
+        assertThat(handler.sequences, is(List.of(0L, 1L, 3L, 5L)));
+        assertThat(handler.endOfBatches, is(List.of(false, false, false, true)));
+    }
+
+    @Test
+    public void shouldReportHeldEventFailureOnceWhenExceptionHandlerRethrows() throws Exception
+    {
+        final long key0 = keyInPartition(0);
+        final List<Long> reported = new ArrayList<>();
+        final KeyPartitionedGroup<LongEvent> group = new KeyPartitionedGroup<>(
+            ringBuffer, ringBuffer.newBarrier(), LongEvent::get, new RecordingHandler(0L), new RecordingHandler());
+        group.setExceptionHandler(new ExceptionHandler<LongEvent>()
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final LongEvent event)
+            {
+                reported.add(sequence);
+                throw new RuntimeException(ex);
+            }
+
+            @Override
+            public void handleOnStartException(final Throwable ex)
+            {
+            }
+
+            @Override
+            public void handleOnShutdownException(final Throwable ex)
+            {
+            }
+        });
+        ringBuffer.addGatingSequences(group.getSequence());
+
+        for (final long key : new long[]{key0, key0})
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), key);
+        }
+
+        final Thread thread = new Thread(group.getEventProcessors()[0]);
+        thread.setUncaughtExceptionHandler((t, e) -> { });
+        thread.start();
+        thread.join();
+
+        assertThat(reported, is(List.of(0L)));
+    }
+
+    @Test
+    public void shouldRequireAtLeastOneHandler()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new KeyPartitionedGroup<LongEvent>(
+            ringBuffer, ringBuffer.newBarrier(), LongEvent::get));
+    }
+
+    @Test
+    public void shouldGateLaterStagesOnWholeGroup() throws Exception
+    {
+        final int events = 200;
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new BlockingWaitStrategy());
+        final CountDownLatch latch = new CountDownLatch(events);
+        final AtomicIntegerArray handledCounts = new AtomicIntegerArray(events);
+        final List<Long> notHandledOnce = new ArrayList<>();
+        final EventHandler<LongEvent> handler = (event, sequence, endOfBatch) -> handledCounts.incrementAndGet((int) sequence);
+
+        disruptor.handleEventsWithPartitioned(event -> event.get() % KEYS, handler, handler, handler)
+            .then((event, sequence, endOfBatch) ->
+            {
+                if (handledCounts.get((int) sequence) != 1)
+                {
+                    notHandledOnce.add(sequence);
+                }
+                latch.countDown();
+            });
+        disruptor.start();
+
+        for (int i = 0; i < events; i++)
+        {
+            disruptor.publishEvent((event, sequence) -> event.set(sequence));
+        }
+        latch.await();
+        disruptor.shutdown();
+
+        assertThat(notHandledOnce, is(List.of()));
+    }
+
+    private static long keyInPartition(final int partition)
+    {
+        long key = 0;
+        while (KeyPartitionedGroup.partitionOf(key, 2) != partition)
+        {
+            key++;
+        }
+        return key;
+    }
+
+    private static List<Thread> start(final KeyPartitionedGroup<?> group)
+    {
+        final List<Thread> threads = new ArrayList<>();
+        for (final EventProcessor eventProcessor : group.getEventProcessors())
+        {
+            final Thread thread = new Thread(eventProcessor);
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    private static final class RecordingHandler implements EventHandler<LongEvent>
+    {
+        private final List<Long> values = new ArrayList<>();
+        private final List<Long> sequences = new ArrayList<>();
+        private final List<Boolean> endOfBatches = new ArrayList<>();
+        private final List<Long> failingSequences;
+        private int batchStarts;
+
+        RecordingHandler(final Long... failingSequences)
+        {
+            this.failingSequences = List.of(failingSequences);
+        }
+
+        @Override
+        public void onBatchStart(final long batchSize)
+        {
+            batchStarts++;
+        }
+
+        @Override
+        public void onEvent(final LongEvent event, final long sequence, final boolean endOfBatch)
+        {
+            values.add(event.get());
+            sequences.add(sequence);
+            endOfBatches.add(endOfBatch);
+            if (failingSequences.contains(sequence))
+            {
+                throw new IllegalStateException("Failed on " + sequence);
+            }
+        }
+    }
+}
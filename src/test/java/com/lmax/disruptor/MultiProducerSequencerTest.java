@@ -38,4 +38,40 @@ public class MultiProducerSequencerTest
         assertThat(publisher.isAvailable(5), is(true));
         assertThat(publisher.isAvailable(6), is(false));
     }
+
+    @Test
+    public void shouldMakeWholeBatchAvailableWhenPublishedAcrossBlocks() throws Exception
+    {
+        long hi = publisher.next(100);
+        long lo = hi - 99;
+
+        publisher.publish(lo + 3, hi);
+
+        assertThat(publisher.getHighestPublishedSequence(lo, hi), is(lo - 1));
+        assertThat(publisher.getHighestPublishedSequence(lo + 3, hi), is(hi));
+        for (long sequence = lo + 3; sequence <= hi; sequence++)
+        {
+            assertThat(publisher.isAvailable(sequence), is(true));
+        }
+
+        publisher.publish(lo, lo + 2);
+
+        assertThat(publisher.getHighestPublishedSequence(lo, hi), is(hi));
+        assertThat(publisher.getHighestPublishedSequence(lo, hi + 1), is(hi));
+        assertThat(publisher.isAvailable(hi + 1), is(false));
+    }
+
+    @Test
+    public void shouldNotReportBatchPublishedBlocksAsAvailableAfterWrapping() throws Exception
+    {
+        long hi = publisher.next(1024);
+        publisher.publish(hi - 1023, hi);
+
+        publisher.publish(publisher.next());
+
+        assertThat(publisher.isAvailable(0), is(false));
+        assertThat(publisher.isAvailable(1), is(true));
+        assertThat(publisher.isAvailable(1024), is(true));
+        assertThat(publisher.getHighestPublishedSequence(1024, 1025), is(1024L));
+    }
 }
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiRingEventProcessorTest
+{
+    private final WaitStrategy waitStrategy = new BlockingWaitStrategy();
+    private final RingBuffer<LongEvent> first = RingBuffer.createMultiProducer(LongEvent.FACTORY, 16, waitStrategy);
+    private final RingBuffer<LongEvent> second = RingBuffer.createMultiProducer(LongEvent.FACTORY, 16, waitStrategy);
+    private final List<Long> values = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void shouldBeWokenByEitherRing() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final MultiRingEventProcessor<LongEvent> processor = newProcessor(latch);
+
+        final Thread thread = start(processor);
+        publish(second, 100);
+        while (latch.getCount() == 2)
+        {
+            Thread.sleep(1);
+        }
+        publish(first, 0);
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        halt(processor, thread);
+
+        assertThat(values, is(List.of(100L, 0L)));
+        assertThat(processor.getSequence(0).get(), is(0L));
+        assertThat(processor.getSequence(1).get(), is(0L));
+    }
+
+    @Test
+    public void shouldTakeBatchesFromRingsInTurnByWeight() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(12);
+        final MultiRingEventProcessor<LongEvent> processor = newProcessor(latch);
+        processor.setMaxBatchSize(0, 2);
+        processor.setMaxBatchSize(1, 1);
+
+        for (long i = 0; i < 6; i++)
+        {
+            publish(first, i);
+            publish(second, 100 + i);
+        }
+
+        final Thread thread = start(processor);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        halt(processor, thread);
+
+        assertThat(values, is(List.of(0L, 1L, 100L, 2L, 3L, 101L, 4L, 5L, 102L, 103L, 104L, 105L)));
+    }
+
+    @Test
+    public void shouldLetEarlierRingOvertakeWithPriority() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(7);
+        final MultiRingEventProcessor<LongEvent> processor = new MultiRingEventProcessor<>(
+            waitStrategy,
+            (event, sequence, endOfBatch) ->
+            {
+                values.add(event.get());
+                if (event.get() == 100)
+                {
+                    publish(first, 50);
+                }
+                latch.countDown();
+            },
+            first, second);
+        processor.setRingSelection(RingSelection.PRIORITY);
+        processor.setMaxBatchSize(1, 1);
+        first.addGatingSequences(processor.getSequence(0));
+        second.addGatingSequences(processor.getSequence(1));
+
+        for (long i = 0; i < 3; i++)
+        {
+            publish(first, i);
+            publish(second, 100 + i);
+        }
+
+        final Thread thread = start(processor);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        halt(processor, thread);
+
+        assertThat(values, is(List.of(0L, 1L, 2L, 100L, 50L, 101L, 102L)));
+    }
+
+    @Test
+    public void shouldLetControlLaneOvertakeWithinCheckInterval() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(11);
+        final MultiRingEventProcessor<LongEvent> processor = MultiRingEventProcessor.withPriorityLanes(
+            waitStrategy,
+            4,
+            (event, sequence, endOfBatch) ->
+            {
+                values.add(event.get());
+                if (event.get() == 101)
+                {
+                    publish(first, 50);
+                }
+                latch.countDown();
+            },
+            first, second);
+        first.addGatingSequences(processor.getSequence(0));
+        second.addGatingSequences(processor.getSequence(1));
+
+        for (long i = 0; i < 10; i++)
+        {
+            publish(second, 100 + i);
+        }
+
+        final Thread thread = start(processor);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        halt(processor, thread);
+
+        assertThat(values, is(List.of(100L, 101L, 102L, 103L, 50L, 104L, 105L, 106L, 107L, 108L, 109L)));
+    }
+
+    @Test
+    public void shouldContinueAfterExceptionFromHandler() throws Exception
+    {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final List<Long> failed = new CopyOnWriteArrayList<>();
+        final MultiRingEventProcessor<LongEvent> processor = new MultiRingEventProcessor<>(
+            waitStrategy,
+            (event, sequence, endOfBatch) ->
+            {
+                if (event.get() == 1)
+                {
+                    throw new IllegalStateException();
+                }
+                values.add(event.get());
+                latch.countDown();
+            },
+            first, second);
+        processor.setExceptionHandler(new ExceptionHandler<LongEvent>()
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final LongEvent event)
+            {
+                failed.add(event.get());
+            }
+
+            @Override
+            public void handleOnStartException(final Throwable ex)
+            {
+            }
+
+            @Override
+            public void handleOnShutdownException(final Throwable ex)
+            {
+            }
+        });
+
+        publish(first, 0);
+        publish(first, 1);
+        publish(first, 2);
+
+        final Thread thread = start(processor);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        halt(processor, thread);
+
+        assertThat(values, is(List.of(0L, 2L)));
+        assertThat(failed, is(List.of(1L)));
+        assertThat(processor.getSequence(0).get(), is(2L));
+    }
+
+    @Test
+    public void shouldBeWokenWhenBarrierIsGatedOnAnotherProcessor() throws Exception
+    {
+        final CountDownLatch upstreamReached = new CountDownLatch(1);
+        final CountDownLatch releaseUpstream = new CountDownLatch(1);
+        final BatchEventProcessor<LongEvent> upstream = new BatchEventProcessor<>(
+            first, first.newBarrier(),
+            (event, sequence, endOfBatch) ->
+            {
+                upstreamReached.countDown();
+                releaseUpstream.await();
+            });
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        @SuppressWarnings("unchecked")
+        final MultiRingEventProcessor<LongEvent> processor = new MultiRingEventProcessor<LongEvent>(
+            new DataProvider[] {first},
+            new SequenceBarrier[] {first.newBarrier(upstream.getSequence())},
+            waitStrategy,
+            (event, sequence, endOfBatch) ->
+            {
+                values.add(event.get());
+                latch.countDown();
+            });
+        first.addGatingSequences(processor.getSequence(0));
+
+        final Thread upstreamThread = start(upstream);
+        final Thread thread = start(processor);
+        publish(first, 7);
+
+        // The event is published while the upstream processor holds it back, so only it makes the event available
+        assertTrue(upstreamReached.await(2, TimeUnit.SECONDS));
+        Thread.sleep(10);
+        releaseUpstream.countDown();
+
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        halt(processor, thread);
+        halt(upstream, upstreamThread);
+
+        assertThat(values, is(List.of(7L)));
+    }
+
+    @Test
+    public void shouldNotHaveSingleSequence()
+    {
+        assertThrows(UnsupportedOperationException.class, () -> newProcessor(new CountDownLatch(0)).getSequence());
+    }
+
+    @Test
+    public void shouldHandleEventsOfSeveralDisruptors() throws Exception
+    {
+        final Disruptor<LongEvent> firstDisruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, waitStrategy);
+        final Disruptor<LongEvent> secondDisruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, waitStrategy);
+        final CountDownLatch handled = new CountDownLatch(40);
+        final CountDownLatch after = new CountDownLatch(20);
+
+        final MultiRingEventProcessor<LongEvent> processor = new MultiRingEventProcessor<>(
+            waitStrategy,
+            (event, sequence, endOfBatch) -> handled.countDown(),
+            firstDisruptor.getRingBuffer(), secondDisruptor.getRingBuffer());
+        firstDisruptor.handleEventsWithMultiRing(processor).then((event, sequence, endOfBatch) -> after.countDown());
+        secondDisruptor.handleEventsWithMultiRing(processor);
+
+        firstDisruptor.start();
+        secondDisruptor.start();
+
+        for (long i = 0; i < 20; i++)
+        {
+            firstDisruptor.publishEvent((event, sequence, value) -> event.set(value), i);
+            secondDisruptor.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+
+        assertTrue(handled.await(2, TimeUnit.SECONDS));
+        assertTrue(after.await(2, TimeUnit.SECONDS));
+        firstDisruptor.shutdown();
+        secondDisruptor.shutdown();
+    }
+
+    private MultiRingEventProcessor<LongEvent> newProcessor(final CountDownLatch latch)
+    {
+        final MultiRingEventProcessor<LongEvent> processor = new MultiRingEventProcessor<>(
+            waitStrategy,
+            (event, sequence, endOfBatch) ->
+            {
+                values.add(event.get());
+                latch.countDown();
+            },
+            first, second);
+        first.addGatingSequences(processor.getSequence(0));
+        second.addGatingSequences(processor.getSequence(1));
+        return processor;
+    }
+
+    private static void publish(final RingBuffer<LongEvent> ringBuffer, final long value)
+    {
+        ringBuffer.publishEvent((event, sequence, arg) -> event.set(arg), value);
+    }
+
+    private static Thread start(final EventProcessor processor)
+    {
+        final Thread thread = new Thread(processor);
+        thread.start();
+        return thread;
+    }
+
+    private static void halt(final EventProcessor processor, final Thread thread) throws InterruptedException
+    {
+        processor.halt();
+        thread.join();
+    }
+}
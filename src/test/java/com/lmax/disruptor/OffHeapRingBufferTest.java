@@ -0,0 +1,152 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OffHeapRingBufferTest
+{
+    private static final int SLOT_SIZE = 16;
+
+    private final OffHeapRingBuffer ringBuffer =
+        OffHeapRingBuffer.allocateDirect(ProducerType.MULTI, 32, SLOT_SIZE, new BlockingWaitStrategy());
+
+    @Test
+    public void shouldPositionViewOverSlotOfSequence() throws Exception
+    {
+        final long sequence = ringBuffer.next();
+        final ByteBuffer slot = ringBuffer.get(sequence);
+
+        assertThat(slot.remaining(), is(SLOT_SIZE));
+        slot.putLong(7L).putLong(11L);
+        assertThat(slot.hasRemaining(), is(false));
+        ringBuffer.publish(sequence);
+
+        final ByteBuffer readBack = ringBuffer.get(sequence);
+        assertThat(readBack.getLong(readBack.position()), is(7L));
+        assertThat(readBack.getLong(readBack.position() + Long.BYTES), is(11L));
+    }
+
+    @Test
+    public void shouldPublishAndConsumeThroughBatchEventProcessor() throws Exception
+    {
+        final int events = 100;
+        final CountDownLatch latch = new CountDownLatch(events);
+        final long[] total = new long[1];
+        final BatchEventProcessor<ByteBuffer> processor = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(),
+            (event, sequence, endOfBatch) ->
+            {
+                total[0] += event.getLong(event.position());
+                latch.countDown();
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+
+        for (long i = 0; i < events; i++)
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.putLong(value), i);
+        }
+
+        latch.await();
+        processor.halt();
+        thread.join();
+
+        assertThat(total[0], is((long) events * (events - 1) / 2));
+    }
+
+    @Test
+    public void shouldPublishBatchOfEvents() throws Exception
+    {
+        final Long[] values = {1L, 2L, 3L};
+        ringBuffer.publishEvents((event, sequence, value) -> event.putLong(value), values);
+
+        for (int i = 0; i < values.length; i++)
+        {
+            assertThat(ringBuffer.isAvailable(i), is(true));
+            final ByteBuffer slot = ringBuffer.get(i);
+            assertThat(slot.getLong(slot.position()), is(values[i]));
+        }
+    }
+
+    @Test
+    public void shouldNotPublishWhenFull() throws Exception
+    {
+        ringBuffer.addGatingSequences(new Sequence());
+
+        for (int i = 0; i < ringBuffer.getBufferSize(); i++)
+        {
+            assertThat(ringBuffer.tryPublishEvent((event, sequence) -> event.putLong(sequence)), is(true));
+        }
+
+        assertThat(ringBuffer.tryPublishEvent((event, sequence) -> event.putLong(sequence)), is(false));
+        assertThat(ringBuffer.remainingCapacity(), is(0L));
+    }
+
+    @Test
+    public void shouldSpreadSlotsOverSegmentsOfMappedFile() throws Exception
+    {
+        final int slotSize = 1 << 28;
+        final Path file = Files.createTempFile("disruptor", ".ring");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            final OffHeapRingBuffer mapped =
+                OffHeapRingBuffer.map(new SingleProducerSequencer(8, new BlockingWaitStrategy()), slotSize, channel);
+
+            for (long i = 0; i < mapped.getBufferSize(); i++)
+            {
+                final long sequence = mapped.next();
+                final ByteBuffer slot = mapped.get(sequence);
+                assertThat(slot.remaining(), is(slotSize));
+                slot.putLong(slot.limit() - Long.BYTES, sequence);
+                mapped.publish(sequence);
+            }
+
+            for (long i = 0; i < mapped.getBufferSize(); i++)
+            {
+                final ByteBuffer slot = mapped.get(i);
+                assertThat(slot.getLong(slot.limit() - Long.BYTES), is(i));
+            }
+            assertThat(channel.size(), is((long) slotSize * mapped.getBufferSize()));
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidSlotSize() throws Exception
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> OffHeapRingBuffer.allocateDirect(new SingleProducerSequencer(8, new BlockingWaitStrategy()), 0));
+    }
+}
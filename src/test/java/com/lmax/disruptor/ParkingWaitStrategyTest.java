@@ -0,0 +1,90 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.lmax.disruptor.support.WaitStrategyTestUtil.assertWaitForWithDelayOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ParkingWaitStrategyTest
+{
+    @Test
+    public void shouldWaitForValue() throws Exception
+    {
+        assertWaitForWithDelayOf(50, new ParkingWaitStrategy());
+    }
+
+    @Test
+    public void shouldUnparkProcessorWhenEventIsPublished() throws Exception
+    {
+        final int events = 20;
+        final CountDownLatch latch = new CountDownLatch(events);
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new ParkingWaitStrategy(0));
+        disruptor.handleEventsWith((event, sequence, endOfBatch) -> latch.countDown());
+        disruptor.start();
+
+        for (long i = 0; i < events; i++)
+        {
+            Thread.sleep(5);
+            disruptor.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        disruptor.halt();
+    }
+
+    @Test
+    public void shouldUnparkWaiterWhenBarrierIsAlerted() throws Exception
+    {
+        final RingBuffer<LongEvent> ringBuffer =
+            RingBuffer.createSingleProducer(LongEvent.FACTORY, 16, new ParkingWaitStrategy(0));
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+
+        final Thread waiter = new Thread(() ->
+        {
+            try
+            {
+                barrier.waitFor(0);
+            }
+            catch (final Throwable e)
+            {
+                thrown.set(e);
+            }
+        });
+        waiter.start();
+
+        while (waiter.getState() != Thread.State.WAITING)
+        {
+            Thread.yield();
+        }
+        barrier.alert();
+        waiter.join(5000);
+
+        assertThat(thrown.get() instanceof AlertException, is(true));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+public class ProducerWaitStrategyTest
+{
+    private static final int BUFFER_SIZE = 16;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(DaemonThreadFactory.INSTANCE);
+    private final Sequence gatingSequence = new Sequence();
+
+    private static Stream<Arguments> strategyGenerator()
+    {
+        return Stream.of(ProducerType.SINGLE, ProducerType.MULTI)
+            .flatMap(producerType -> Stream.of(
+                arguments(producerType, new ParkingProducerWaitStrategy()),
+                arguments(producerType, new BusySpinProducerWaitStrategy()),
+                arguments(producerType, new YieldingProducerWaitStrategy()),
+                arguments(producerType, PhasedBackoffProducerWaitStrategy.withParking(1, 1, TimeUnit.MILLISECONDS)),
+                arguments(producerType, PhasedBackoffProducerWaitStrategy.withLock(1, 1, TimeUnit.MILLISECONDS)),
+                arguments(producerType, new BlockingProducerWaitStrategy()),
+                arguments(producerType, new TargetedWakeupProducerWaitStrategy())));
+    }
+
+    private static Sequencer newSequencer(final ProducerType producerType, final ProducerWaitStrategy producerWaitStrategy)
+    {
+        switch (producerType)
+        {
+            case SINGLE:
+                return new SingleProducerSequencer(BUFFER_SIZE, new BlockingWaitStrategy(), producerWaitStrategy);
+            case MULTI:
+                return new MultiProducerSequencer(BUFFER_SIZE, new BlockingWaitStrategy(), producerWaitStrategy);
+            default:
+                throw new IllegalStateException(producerType.toString());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategyGenerator")
+    public void shouldHoldUpPublisherUntilGatingSequenceAdvances(
+        final ProducerType producerType, final ProducerWaitStrategy producerWaitStrategy) throws Exception
+    {
+        final Sequencer sequencer = newSequencer(producerType, producerWaitStrategy);
+        sequencer.addGatingSequences(gatingSequence);
+
+        final CountDownLatch waitingLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(1);
+
+        executor.submit(
+            () ->
+            {
+                long sequence = sequencer.next(BUFFER_SIZE);
+                sequencer.publish(sequence - (BUFFER_SIZE - 1), sequence);
+
+                waitingLatch.countDown();
+
+                sequencer.publish(sequencer.next());
+
+                doneLatch.countDown();
+            });
+
+        waitingLatch.await();
+        assertFalse(doneLatch.await(10, TimeUnit.MILLISECONDS));
+
+        gatingSequence.set(0L);
+        producerWaitStrategy.signalAllWhenBlocking();
+
+        assertTrue(doneLatch.await(5, TimeUnit.SECONDS));
+        assertThat(sequencer.getCursor(), is((long) BUFFER_SIZE));
+    }
+
+    @Test
+    public void shouldWakeBlockedPublisherWhenConsumerReturnsToBarrier() throws Exception
+    {
+        final Sequencer sequencer = new MultiProducerSequencer(
+            BUFFER_SIZE, new BlockingWaitStrategy(), new BlockingProducerWaitStrategy(1, TimeUnit.HOURS));
+        final SequenceBarrier barrier = sequencer.newBarrier();
+        sequencer.addGatingSequences(gatingSequence);
+
+        final CountDownLatch waitingLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(1);
+
+        executor.submit(
+            () ->
+            {
+                long sequence = sequencer.next(BUFFER_SIZE);
+                sequencer.publish(sequence - (BUFFER_SIZE - 1), sequence);
+
+                waitingLatch.countDown();
+
+                sequencer.publish(sequencer.next());
+
+                doneLatch.countDown();
+            });
+
+        waitingLatch.await();
+        assertFalse(doneLatch.await(10, TimeUnit.MILLISECONDS));
+
+        gatingSequence.set(0L);
+
+        final long deadline = System.currentTimeMillis() + 5000;
+        do
+        {
+            barrier.waitFor(1L);
+        }
+        while (!doneLatch.await(1, TimeUnit.MILLISECONDS) && System.currentTimeMillis() < deadline);
+
+        assertThat(doneLatch.getCount(), is(0L));
+    }
+
+    @Test
+    public void shouldOnlyWakePublishersWhoseWrapPointHasBeenPassed() throws Exception
+    {
+        final TargetedWakeupProducerWaitStrategy producerWaitStrategy =
+            new TargetedWakeupProducerWaitStrategy(1, TimeUnit.HOURS);
+        final AtomicReference<Thread> nearThread = new AtomicReference<>();
+        final AtomicReference<Thread> farThread = new AtomicReference<>();
+        final AtomicInteger checksByFar = new AtomicInteger();
+        final Sequence countingGatingSequence = new Sequence()
+        {
+            @Override
+            public long get()
+            {
+                if (Thread.currentThread() == farThread.get())
+                {
+                    checksByFar.incrementAndGet();
+                }
+                return super.get();
+            }
+        };
+
+        final Thread near = new Thread(() -> producerWaitStrategy.waitFor(2L, countingGatingSequence));
+        final Thread far = new Thread(() -> producerWaitStrategy.waitFor(10L, countingGatingSequence));
+        nearThread.set(near);
+        farThread.set(far);
+        near.start();
+        far.start();
+        awaitParked(near);
+        awaitParked(far);
+
+        final int checksWhenParked = checksByFar.get();
+        countingGatingSequence.set(2L);
+        producerWaitStrategy.signalAllWhenBlocking();
+        near.join(5000);
+
+        assertFalse(near.isAlive());
+        assertThat(checksByFar.get(), is(checksWhenParked));
+
+        countingGatingSequence.set(10L);
+        producerWaitStrategy.signalAllWhenBlocking();
+        far.join(5000);
+
+        assertFalse(far.isAlive());
+    }
+
+    private static void awaitParked(final Thread thread)
+    {
+        while (thread.getState() != Thread.State.TIMED_WAITING)
+        {
+            Thread.yield();
+        }
+    }
+}
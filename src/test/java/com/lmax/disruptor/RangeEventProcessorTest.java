@@ -0,0 +1,181 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RangeEventProcessorTest
+{
+    private final RingBuffer<LongEvent> ringBuffer = RingBuffer.createMultiProducer(LongEvent.FACTORY, 16);
+
+    @Test
+    public void shouldHandleAllAvailableEventsInOneCall() throws Exception
+    {
+        final List<long[]> ranges = new ArrayList<>();
+        final List<Long> values = new ArrayList<>();
+        final RangeEventProcessor<LongEvent> processor = new RangeEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), (events, firstSequence, lastSequence) ->
+            {
+                ranges.add(new long[]{firstSequence, lastSequence});
+                for (long sequence = firstSequence; sequence <= lastSequence; sequence++)
+                {
+                    values.add(events.get(sequence).get());
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        for (long i = 0; i < 5; i++)
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        waitFor(processor.getSequence(), 4);
+        processor.halt();
+        thread.join();
+
+        assertThat(ranges.size(), is(1));
+        assertThat(ranges.get(0)[0], is(0L));
+        assertThat(ranges.get(0)[1], is(4L));
+        assertThat(values, is(List.of(0L, 1L, 2L, 3L, 4L)));
+    }
+
+    @Test
+    public void shouldSkipWholeRangeWhenHandlerThrows() throws Exception
+    {
+        final List<Long> failedSequences = new ArrayList<>();
+        final List<Long> firstSequences = new ArrayList<>();
+        final RangeEventProcessor<LongEvent> processor = new RangeEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), (events, firstSequence, lastSequence) ->
+            {
+                firstSequences.add(firstSequence);
+                if (firstSequence == 0)
+                {
+                    throw new IllegalStateException();
+                }
+            });
+        processor.setExceptionHandler(new ExceptionHandler<LongEvent>()
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final LongEvent event)
+            {
+                failedSequences.add(sequence);
+            }
+
+            @Override
+            public void handleOnStartException(final Throwable ex)
+            {
+            }
+
+            @Override
+            public void handleOnShutdownException(final Throwable ex)
+            {
+            }
+        });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        for (int i = 0; i < 3; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        waitFor(processor.getSequence(), 2);
+        ringBuffer.publish(ringBuffer.next());
+        waitFor(processor.getSequence(), 3);
+        processor.halt();
+        thread.join();
+
+        assertThat(failedSequences, is(List.of(2L)));
+        assertThat(firstSequences, is(List.of(0L, 3L)));
+    }
+
+    @Test
+    public void shouldRewindRangeOnRewindableException() throws Exception
+    {
+        final List<Long> firstSequences = new ArrayList<>();
+        final RangeEventProcessor<LongEvent> processor = new RangeEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), (events, firstSequence, lastSequence) ->
+            {
+                firstSequences.add(firstSequence);
+                if (firstSequences.size() == 1)
+                {
+                    throw new RewindableException(new IllegalStateException());
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+        ringBuffer.publish(ringBuffer.next());
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        waitFor(processor.getSequence(), 0);
+        processor.halt();
+        thread.join();
+
+        assertThat(firstSequences, is(List.of(0L, 0L)));
+    }
+
+    @Test
+    public void shouldChainRangeHandlersInDsl() throws Exception
+    {
+        final int events = 100;
+        final CountDownLatch latch = new CountDownLatch(events);
+        final long[] sum = new long[1];
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new BlockingWaitStrategy());
+
+        disruptor.handleEventsWith((event, sequence, endOfBatch) -> event.set(sequence))
+            .thenHandleEventRangesWith((eventsInRange, firstSequence, lastSequence) ->
+            {
+                for (long sequence = firstSequence; sequence <= lastSequence; sequence++)
+                {
+                    sum[0] += eventsInRange.get(sequence).get();
+                    latch.countDown();
+                }
+            });
+        disruptor.start();
+
+        for (int i = 0; i < events; i++)
+        {
+            disruptor.publishEvent((event, sequence) -> event.set(-1));
+        }
+        latch.await();
+        disruptor.shutdown();
+
+        assertThat(sum[0], is((long) events * (events - 1) / 2));
+    }
+
+    private static void waitFor(final Sequence sequence, final long value) throws InterruptedException
+    {
+        while (sequence.get() < value)
+        {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SequenceCompletionTest
+{
+    private final Sequence sequence = new Sequence();
+    private final SequenceCompletion sequenceCompletion = new SequenceCompletion(sequence);
+
+    @Test
+    public void shouldCompleteImmediatelyWhenSequenceHasAlreadyReachedTarget()
+    {
+        sequence.set(5);
+
+        final CompletableFuture<Long> future = sequenceCompletion.whenReached(3);
+
+        assertTrue(future.isDone());
+        assertThat(future.join(), is(5L));
+        assertThat(sequenceCompletion.getWaiterCount(), is(0));
+    }
+
+    @Test
+    public void shouldOnlyCompleteTargetsThatHaveBeenReached()
+    {
+        final CompletableFuture<Long> later = sequenceCompletion.whenReached(10);
+        final CompletableFuture<Long> sooner = sequenceCompletion.whenReached(2);
+
+        advanceTo(4);
+
+        assertThat(sooner.join(), is(4L));
+        assertFalse(later.isDone());
+        assertThat(sequenceCompletion.getWaiterCount(), is(1));
+
+        advanceTo(10);
+
+        assertThat(later.join(), is(10L));
+        assertThat(sequenceCompletion.getWaiterCount(), is(0));
+    }
+
+    @Test
+    public void shouldReturnFalseAndForgetWaiterWhenAwaitTimesOut() throws Exception
+    {
+        assertFalse(sequenceCompletion.await(1, 10, TimeUnit.MILLISECONDS));
+        assertThat(sequenceCompletion.getWaiterCount(), is(0));
+    }
+
+    @Test
+    public void shouldWakeBlockedThreadWhenTargetIsReached() throws Exception
+    {
+        final Thread advancer = new Thread(() ->
+        {
+            for (long i = 0; i <= 100; i++)
+            {
+                advanceTo(i);
+            }
+        });
+        advancer.start();
+
+        assertTrue(sequenceCompletion.await(100, 5, TimeUnit.SECONDS));
+        advancer.join();
+    }
+
+    private void advanceTo(final long value)
+    {
+        sequence.set(value);
+        sequenceCompletion.sequenceAdvanced(value);
+    }
+}
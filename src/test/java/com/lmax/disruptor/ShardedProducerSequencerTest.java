@@ -0,0 +1,334 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.support.LongEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShardedProducerSequencerTest
+{
+    private static final int BUFFER_SIZE = 16;
+    private static final int LANE_COUNT = 4;
+    private static final int CHUNK_SIZE = BUFFER_SIZE / LANE_COUNT;
+
+    private final ShardedProducerSequencer sequencer =
+        new ShardedProducerSequencer(BUFFER_SIZE, LANE_COUNT, new BlockingWaitStrategy());
+
+    @Test
+    public void shouldClaimContiguousSequencesFromASingleThread() throws Exception
+    {
+        assertThat(sequencer.getChunkSize(), is(CHUNK_SIZE));
+
+        for (long i = 0; i < 2 * BUFFER_SIZE; i++)
+        {
+            final long sequence = sequencer.next();
+            sequencer.publish(sequence);
+
+            assertThat(sequence, is(i));
+            assertThat(sequencer.getCursor(), is(i));
+            assertThat(sequencer.getHighestPublishedSequence(i, sequencer.getCursor()), is(i));
+        }
+    }
+
+    @Test
+    public void shouldHandleEveryEventFromASinglePublisherOnSeveralLanes() throws Exception
+    {
+        final int eventCount = 10 * BUFFER_SIZE;
+        final RingBuffer<LongEvent> ringBuffer =
+            RingBuffer.createShardedProducer(LongEvent.FACTORY, BUFFER_SIZE, 2, new BlockingWaitStrategy());
+        final AtomicLong expectedValue = new AtomicLong(0);
+        final AtomicLong outOfOrder = new AtomicLong(0);
+        final CountDownLatch done = new CountDownLatch(eventCount);
+
+        final BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(),
+            (event, sequence, endOfBatch) ->
+            {
+                if (event.get() != expectedValue.getAndIncrement())
+                {
+                    outOfOrder.incrementAndGet();
+                }
+                done.countDown();
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        final Thread processorThread = new Thread(processor);
+        processorThread.start();
+
+        for (long i = 0; i < eventCount; i++)
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        processor.halt();
+        processorThread.join();
+
+        assertThat(outOfOrder.get(), is(0L));
+    }
+
+    @Test
+    public void shouldGiveEachLaneAChunkOfItsOwn() throws Exception
+    {
+        final long first = claimOnNewThread();
+        final long second = claimOnNewThread();
+        sequencer.publish(second);
+
+        assertThat(first, is(0L));
+        assertThat(second, is((long) CHUNK_SIZE));
+        assertThat(sequencer.getCursor(), is((long) CHUNK_SIZE));
+        assertThat(sequencer.isAvailable(second), is(true));
+        assertThat(sequencer.getHighestPublishedSequence(0, sequencer.getCursor()), is(-1L));
+
+        sequencer.publish(first);
+        assertThat(sequencer.getHighestPublishedSequence(0, sequencer.getCursor()), is(0L));
+    }
+
+    @Test
+    public void shouldReturnRestOfChunkOfReleasedLane() throws Exception
+    {
+        final Thread thread = new Thread(() ->
+        {
+            sequencer.publish(sequencer.next());
+            sequencer.releaseLane();
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(sequencer.next(), is(1L));
+    }
+
+    @Test
+    public void shouldPassRestOfChunkOfReleasedLaneToNextLane() throws Exception
+    {
+        final CountDownLatch claimed = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread thread = new Thread(() ->
+        {
+            sequencer.publish(sequencer.next());
+            claimed.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (final InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            sequencer.releaseLane();
+        });
+        thread.start();
+        claimed.await();
+
+        assertThat(claimOnNewThread(), is((long) CHUNK_SIZE));
+
+        release.countDown();
+        thread.join();
+
+        assertThat(sequencer.next(), is(1L));
+    }
+
+    @Test
+    public void shouldNotAllowMoreThreadsThanLanes() throws Exception
+    {
+        final CountDownLatch claimed = new CountDownLatch(LANE_COUNT);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread[] threads = new Thread[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++)
+        {
+            threads[i] = new Thread(() ->
+            {
+                sequencer.next();
+                claimed.countDown();
+                try
+                {
+                    done.await();
+                }
+                catch (final InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads[i].start();
+        }
+        claimed.await();
+
+        assertThrows(IllegalStateException.class, sequencer::next);
+
+        done.countDown();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+    }
+
+    @Test
+    public void shouldTakeOverLaneOfTerminatedThread() throws Exception
+    {
+        for (int i = 0; i < LANE_COUNT; i++)
+        {
+            claimOnNewThread();
+        }
+
+        final long sequence = sequencer.next();
+        sequencer.publish(sequence);
+
+        assertThat(sequence, is(0L));
+        assertThat(sequencer.isAvailable(0), is(true));
+    }
+
+    @Test
+    public void shouldPreventWrap() throws Exception
+    {
+        final Sequence gatingSequence = new Sequence();
+        sequencer.addGatingSequences(gatingSequence);
+
+        for (int i = 0; i < BUFFER_SIZE; i++)
+        {
+            sequencer.publish(sequencer.tryNext());
+        }
+
+        assertThat(sequencer.remainingCapacity(), is(0L));
+        assertThat(sequencer.hasAvailableCapacity(1), is(false));
+        assertThrows(InsufficientCapacityException.class, sequencer::tryNext);
+
+        gatingSequence.set(0);
+
+        assertThat(sequencer.remainingCapacity(), is(1L));
+        assertThat(sequencer.tryNext(), is((long) BUFFER_SIZE));
+    }
+
+    @Test
+    public void shouldClaimContiguousBatches() throws Exception
+    {
+        final long first = sequencer.next(3);
+        sequencer.publish(first - 2, first);
+        final long second = sequencer.next(CHUNK_SIZE + 1);
+        sequencer.publish(second - CHUNK_SIZE, second);
+
+        assertThat(first, is(2L));
+        assertThat(second, is(3L + CHUNK_SIZE));
+        assertThat(sequencer.getHighestPublishedSequence(0, sequencer.getCursor()), is(second));
+    }
+
+    @Test
+    public void shouldRejectInvalidBatches() throws Exception
+    {
+        assertThrows(IllegalArgumentException.class, () -> sequencer.next(0));
+        assertThrows(IllegalArgumentException.class, () -> sequencer.next(BUFFER_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> sequencer.tryNext(BUFFER_SIZE + 1));
+    }
+
+    @Test
+    public void shouldPublishEventBatchesToShardedRingBuffer() throws Exception
+    {
+        final RingBuffer<LongEvent> ringBuffer =
+            RingBuffer.createShardedProducer(LongEvent.FACTORY, BUFFER_SIZE, 2, new BlockingWaitStrategy());
+        final EventTranslatorOneArg<LongEvent, Long> translator = (event, sequence, value) -> event.set(value);
+
+        ringBuffer.publishEvents(translator, new Long[]{10L, 11L, 12L});
+        assertThat(ringBuffer.tryPublishEvents(translator, new Long[]{13L}), is(true));
+        final Thread thread = new Thread(() -> ringBuffer.publishEvents(translator, new Long[]{20L, 21L, 22L}));
+        thread.start();
+        thread.join();
+
+        assertThat(ringBuffer.getCursor(), is(10L));
+        final long[] values = new long[7];
+        for (int i = 0; i < 4; i++)
+        {
+            values[i] = ringBuffer.get(i).get();
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            values[4 + i] = ringBuffer.get(8 + i).get();
+        }
+        assertThat(values, is(new long[]{10L, 11L, 12L, 13L, 20L, 21L, 22L}));
+    }
+
+    @Test
+    public void shouldDeliverEveryEventInOrderFromConcurrentPublishers() throws Exception
+    {
+        final int iterationsPerPublisher = 10_000;
+        final RingBuffer<LongEvent> ringBuffer =
+            RingBuffer.createShardedProducer(LongEvent.FACTORY, 64, LANE_COUNT, new YieldingWaitStrategy());
+        final AtomicLong expectedSequence = new AtomicLong(0);
+        final AtomicLong outOfOrder = new AtomicLong(0);
+        final CountDownLatch done = new CountDownLatch(1);
+        final long lastSequence = (long) iterationsPerPublisher * LANE_COUNT - 1;
+
+        final BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(),
+            (event, sequence, endOfBatch) ->
+            {
+                if (event.get() != expectedSequence.getAndIncrement())
+                {
+                    outOfOrder.incrementAndGet();
+                }
+                if (sequence == lastSequence)
+                {
+                    done.countDown();
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        final Thread processorThread = new Thread(processor);
+        processorThread.start();
+
+        final Thread[] publishers = new Thread[LANE_COUNT];
+        for (int i = 0; i < LANE_COUNT; i++)
+        {
+            publishers[i] = new Thread(() ->
+            {
+                for (int j = 0; j < iterationsPerPublisher; j++)
+                {
+                    final long sequence = ringBuffer.next();
+                    ringBuffer.get(sequence).set(sequence);
+                    ringBuffer.publish(sequence);
+                }
+            });
+            publishers[i].start();
+        }
+
+        for (final Thread publisher : publishers)
+        {
+            publisher.join();
+        }
+        done.await();
+        processor.halt();
+        processorThread.join();
+
+        assertThat(outOfOrder.get(), is(0L));
+        assertThat(expectedSequence.get(), is(lastSequence + 1));
+    }
+
+    private long claimOnNewThread() throws InterruptedException
+    {
+        final long[] sequence = new long[1];
+        final Thread thread = new Thread(() -> sequence[0] = sequencer.next());
+        thread.start();
+        thread.join();
+        return sequence[0];
+    }
+}
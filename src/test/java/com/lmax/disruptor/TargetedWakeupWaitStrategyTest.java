@@ -0,0 +1,169 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.EventHandlerGroup;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.DummySequenceBarrier;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.lmax.disruptor.support.WaitStrategyTestUtil.assertWaitForWithDelayOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TargetedWakeupWaitStrategyTest
+{
+    @Test
+    public void shouldWaitForValue() throws Exception
+    {
+        assertWaitForWithDelayOf(50, new TargetedWakeupWaitStrategy());
+    }
+
+    @Test
+    public void shouldOnlyWakeWaiterWhenItsDependencyPassesTarget() throws Exception
+    {
+        final TargetedWakeupWaitStrategy waitStrategy = new TargetedWakeupWaitStrategy();
+        final Sequence cursor = new Sequence();
+        final AtomicInteger checksByWaiter = new AtomicInteger();
+        final AtomicReference<Thread> waiterThread = new AtomicReference<>();
+        final Sequence upstream = new Sequence()
+        {
+            @Override
+            public long get()
+            {
+                if (Thread.currentThread() == waiterThread.get())
+                {
+                    checksByWaiter.incrementAndGet();
+                }
+                return super.get();
+            }
+        };
+
+        final AtomicReference<Long> available = new AtomicReference<>();
+        final Thread waiter = new Thread(() ->
+        {
+            try
+            {
+                available.set(waitStrategy.waitFor(0, cursor, upstream, new DummySequenceBarrier()));
+            }
+            catch (final Exception e)
+            {
+                e.printStackTrace();
+            }
+        });
+        waiterThread.set(waiter);
+        waiter.start();
+        awaitParked(waiter);
+
+        final int checksWhenParked = checksByWaiter.get();
+        for (long i = 0; i < 10; i++)
+        {
+            cursor.set(i);
+            waitStrategy.signalAllWhenBlocking();
+        }
+        Thread.sleep(10);
+
+        assertThat(waiter.getState(), is(Thread.State.WAITING));
+        assertThat(checksByWaiter.get(), is(checksWhenParked));
+
+        upstream.set(3);
+        waitStrategy.signalAllWhenBlocking();
+        waiter.join(5000);
+
+        assertThat(available.get(), is(3L));
+    }
+
+    @Test
+    public void shouldPassProgressDownPipeline() throws Exception
+    {
+        final int stages = 10;
+        final int events = 20;
+        final CountDownLatch latch = new CountDownLatch(events);
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new TargetedWakeupWaitStrategy());
+
+        EventHandlerGroup<LongEvent> group = disruptor.handleEventsWith(
+            (event, sequence, endOfBatch) -> event.set(event.get() + 1));
+        for (int i = 1; i < stages - 1; i++)
+        {
+            group = group.then((event, sequence, endOfBatch) -> event.set(event.get() + 1));
+        }
+        final AtomicInteger wrongValues = new AtomicInteger();
+        group.then((event, sequence, endOfBatch) ->
+        {
+            if (event.get() != stages - 1)
+            {
+                wrongValues.incrementAndGet();
+            }
+            latch.countDown();
+        });
+        disruptor.start();
+
+        for (int i = 0; i < events; i++)
+        {
+            Thread.sleep(2);
+            disruptor.publishEvent((event, sequence) -> event.set(0));
+        }
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(wrongValues.get(), is(0));
+        disruptor.halt();
+    }
+
+    @Test
+    public void shouldWakeWaiterWhenBarrierIsAlerted() throws Exception
+    {
+        final RingBuffer<LongEvent> ringBuffer =
+            RingBuffer.createSingleProducer(LongEvent.FACTORY, 16, new TargetedWakeupWaitStrategy());
+        final SequenceBarrier barrier = ringBuffer.newBarrier();
+        final AtomicReference<Throwable> thrown = new AtomicReference<>();
+
+        final Thread waiter = new Thread(() ->
+        {
+            try
+            {
+                barrier.waitFor(0);
+            }
+            catch (final Throwable e)
+            {
+                thrown.set(e);
+            }
+        });
+        waiter.start();
+        awaitParked(waiter);
+
+        barrier.alert();
+        waiter.join(5000);
+
+        assertThat(thrown.get() instanceof AlertException, is(true));
+    }
+
+    private static void awaitParked(final Thread thread)
+    {
+        while (thread.getState() != Thread.State.WAITING)
+        {
+            Thread.yield();
+        }
+    }
+}
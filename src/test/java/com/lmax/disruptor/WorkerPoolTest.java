@@ -0,0 +1,251 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor;
+
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class WorkerPoolTest
+{
+    private final RingBuffer<LongEvent> ringBuffer = RingBuffer.createMultiProducer(LongEvent.FACTORY, 8);
+
+    @Test
+    public void shouldHandleEachEventExactlyOnce() throws Exception
+    {
+        final List<Long> handled = new CopyOnWriteArrayList<>();
+        final EventHandler<LongEvent> handler = (event, sequence, endOfBatch) -> handled.add(event.get());
+        final WorkerPool<LongEvent> workerPool = new WorkerPool<>(ringBuffer, ringBuffer.newBarrier(), handler, handler, handler);
+        ringBuffer.addGatingSequences(workerPool.getSequence());
+
+        final List<Thread> threads = start(workerPool);
+        for (long i = 0; i < 1000; i++)
+        {
+            ringBuffer.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+        waitFor(workerPool.getSequence(), 999);
+        halt(workerPool, threads);
+
+        final Set<Long> distinct = new HashSet<>(handled);
+        assertThat(handled.size(), is(1000));
+        assertThat(distinct.size(), is(1000));
+    }
+
+    @Test
+    public void shouldClaimEventsInBatches() throws Exception
+    {
+        final List<Long> batchSizes = new ArrayList<>();
+        final List<Boolean> endOfBatches = new ArrayList<>();
+        final EventHandler<LongEvent> handler = new EventHandler<LongEvent>()
+        {
+            @Override
+            public void onBatchStart(final long batchSize)
+            {
+                batchSizes.add(batchSize);
+            }
+
+            @Override
+            public void onEvent(final LongEvent event, final long sequence, final boolean endOfBatch)
+            {
+                endOfBatches.add(endOfBatch);
+            }
+        };
+        final WorkerPool<LongEvent> workerPool = new WorkerPool<>(ringBuffer, ringBuffer.newBarrier(), 3, handler);
+        ringBuffer.addGatingSequences(workerPool.getSequence());
+
+        for (int i = 0; i < 7; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        final List<Thread> threads = start(workerPool);
+        waitFor(workerPool.getSequence(), 6);
+        halt(workerPool, threads);
+
+        assertThat(batchSizes, is(List.of(3L, 3L, 1L)));
+        assertThat(endOfBatches, is(List.of(false, false, true, false, false, true, true)));
+    }
+
+    @Test
+    public void shouldHandleRestOfClaimAfterException() throws Exception
+    {
+        final List<Long> handled = new ArrayList<>();
+        final List<Long> failed = new ArrayList<>();
+        final EventHandler<LongEvent> handler = (event, sequence, endOfBatch) ->
+        {
+            if (sequence == 1)
+            {
+                throw new IllegalStateException();
+            }
+            handled.add(sequence);
+        };
+        final WorkerPool<LongEvent> workerPool = new WorkerPool<>(ringBuffer, ringBuffer.newBarrier(), 4, handler);
+        workerPool.setExceptionHandler(new ExceptionHandler<LongEvent>()
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final LongEvent event)
+            {
+                failed.add(sequence);
+            }
+
+            @Override
+            public void handleOnStartException(final Throwable ex)
+            {
+            }
+
+            @Override
+            public void handleOnShutdownException(final Throwable ex)
+            {
+            }
+        });
+        ringBuffer.addGatingSequences(workerPool.getSequence());
+
+        for (int i = 0; i < 4; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        final List<Thread> threads = start(workerPool);
+        waitFor(workerPool.getSequence(), 3);
+        halt(workerPool, threads);
+
+        assertThat(handled, is(List.of(0L, 2L, 3L)));
+        assertThat(failed, is(List.of(1L)));
+    }
+
+    @Test
+    public void shouldHandleWholeClaimAfterBatchStartException() throws Exception
+    {
+        final List<Long> handled = new ArrayList<>();
+        final List<Long> failed = new ArrayList<>();
+        final EventHandler<LongEvent> handler = new EventHandler<LongEvent>()
+        {
+            @Override
+            public void onBatchStart(final long batchSize)
+            {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public void onEvent(final LongEvent event, final long sequence, final boolean endOfBatch)
+            {
+                handled.add(sequence);
+            }
+        };
+        final WorkerPool<LongEvent> workerPool = new WorkerPool<>(ringBuffer, ringBuffer.newBarrier(), 4, handler);
+        workerPool.setExceptionHandler(new ExceptionHandler<LongEvent>()
+        {
+            @Override
+            public void handleEventException(final Throwable ex, final long sequence, final LongEvent event)
+            {
+                failed.add(sequence);
+            }
+
+            @Override
+            public void handleOnStartException(final Throwable ex)
+            {
+            }
+
+            @Override
+            public void handleOnShutdownException(final Throwable ex)
+            {
+            }
+        });
+        ringBuffer.addGatingSequences(workerPool.getSequence());
+
+        for (int i = 0; i < 4; i++)
+        {
+            ringBuffer.publish(ringBuffer.next());
+        }
+
+        final List<Thread> threads = start(workerPool);
+        waitFor(workerPool.getSequence(), 3);
+        halt(workerPool, threads);
+
+        assertThat(handled, is(List.of(0L, 1L, 2L, 3L)));
+        assertThat(failed, is(List.of(0L)));
+    }
+
+    @Test
+    public void shouldGateLaterStagesOnWholePool() throws Exception
+    {
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 8, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new BlockingWaitStrategy());
+        final Set<Long> notYetDoubled = new HashSet<>();
+        final List<Long> later = new ArrayList<>();
+        final EventHandler<LongEvent> worker = (event, sequence, endOfBatch) -> event.set(event.get() * 2);
+
+        disruptor.handleEventsWithWorkerPool(worker, worker)
+            .then((event, sequence, endOfBatch) ->
+            {
+                if (event.get() != sequence * 2)
+                {
+                    notYetDoubled.add(sequence);
+                }
+                later.add(sequence);
+            });
+        disruptor.start();
+
+        for (long i = 0; i < 100; i++)
+        {
+            disruptor.publishEvent((event, sequence) -> event.set(sequence));
+        }
+        disruptor.shutdown();
+
+        assertThat(later.size(), is(100));
+        assertThat(notYetDoubled.isEmpty(), is(true));
+    }
+
+    private static List<Thread> start(final WorkerPool<?> workerPool)
+    {
+        final List<Thread> threads = new ArrayList<>();
+        for (final EventProcessor workProcessor : workerPool.getWorkProcessors())
+        {
+            final Thread thread = new Thread(workProcessor);
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    private static void halt(final WorkerPool<?> workerPool, final List<Thread> threads) throws InterruptedException
+    {
+        workerPool.halt();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+    }
+
+    private static void waitFor(final Sequence sequence, final long value) throws InterruptedException
+    {
+        while (sequence.get() < value)
+        {
+            Thread.sleep(1);
+        }
+    }
+}
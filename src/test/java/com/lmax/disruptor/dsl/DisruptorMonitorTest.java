@@ -0,0 +1,141 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.dsl;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class DisruptorMonitorTest
+{
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final EventHandler<LongEvent> fastHandler = (event, sequence, endOfBatch) ->
+    {
+    };
+    private final EventHandler<LongEvent> slowHandler = (event, sequence, endOfBatch) -> release.await();
+    private final Disruptor<LongEvent> disruptor = new Disruptor<>(
+        LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE, ProducerType.MULTI, new BlockingWaitStrategy());
+
+    @AfterEach
+    public void tearDown()
+    {
+        release.countDown();
+        disruptor.halt();
+    }
+
+    @Test
+    public void shouldReportLagOfEachConsumer() throws Exception
+    {
+        disruptor.handleEventsWith(fastHandler).then(slowHandler);
+        final DisruptorMonitor monitor = disruptor.newMonitor();
+        disruptor.start();
+
+        publishAndWaitForFastHandler(10);
+
+        final DisruptorSnapshot snapshot = monitor.sample();
+        final List<ConsumerSnapshot> consumers = snapshot.getConsumers();
+
+        assertThat(snapshot.getCursor(), is(9L));
+        assertThat(snapshot.getBufferSize(), is(16));
+        assertThat(snapshot.getRemainingCapacity(), is(6L));
+        assertThat(snapshot.getMaxLag(), is(10L));
+        assertThat(snapshot.getProducerRate(), is(0L));
+        assertThat(consumers.size(), is(2));
+        assertThat(consumers.get(0).getSequence(), is(9L));
+        assertThat(consumers.get(0).getLag(), is(0L));
+        assertThat(consumers.get(0).isEndOfChain(), is(false));
+        assertThat(consumers.get(0).isRunning(), is(true));
+        assertThat(consumers.get(1).getSequence(), is(-1L));
+        assertThat(consumers.get(1).getLag(), is(10L));
+        assertThat(consumers.get(1).isEndOfChain(), is(true));
+    }
+
+    @Test
+    public void shouldReportRatesSincePreviousSample() throws Exception
+    {
+        disruptor.handleEventsWith(fastHandler).then(slowHandler);
+        final DisruptorMonitor monitor = disruptor.newMonitor();
+        disruptor.start();
+
+        monitor.sample();
+        publishAndWaitForFastHandler(10);
+        release.countDown();
+        while (disruptor.getSequenceValueFor(slowHandler) != 9)
+        {
+            Thread.sleep(1);
+        }
+
+        final DisruptorSnapshot snapshot = monitor.sample();
+
+        assertThat(snapshot.getMaxLag(), is(0L));
+        assertThat(snapshot.getIntervalNanos() > 0, is(true));
+        assertThat(snapshot.getProducerRate() > 0, is(true));
+        assertThat(snapshot.getConsumers().get(1).getThroughput() > 0, is(true));
+    }
+
+    @Test
+    public void shouldExposeSnapshotThroughMBean() throws Exception
+    {
+        disruptor.handleEventsWith(fastHandler).then(slowHandler);
+        final DisruptorMonitor monitor = disruptor.newMonitor();
+        disruptor.start();
+        publishAndWaitForFastHandler(3);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(monitor.registerMBean("monitor-test"));
+        try
+        {
+            assertThat(server.getAttribute(name, "Cursor"), is(2L));
+            assertThat(server.getAttribute(name, "MaxLag"), is(3L));
+
+            final CompositeData[] consumers = (CompositeData[]) server.getAttribute(name, "Consumers");
+            assertThat(consumers.length, is(2));
+            assertThat(consumers[1].get("lag"), is(3L));
+        }
+        finally
+        {
+            monitor.unregisterMBean();
+        }
+
+        assertThat(server.isRegistered(name), is(false));
+    }
+
+    private void publishAndWaitForFastHandler(final int events) throws InterruptedException
+    {
+        for (int i = 0; i < events; i++)
+        {
+            disruptor.publishEvent((event, sequence) -> event.set(sequence));
+        }
+
+        while (disruptor.getSequenceValueFor(fastHandler) != events - 1)
+        {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -40,9 +40,11 @@ import org.junit.jupiter.api.Timeout;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -553,6 +555,61 @@ public class DisruptorTest
         });
     }
 
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void shouldShutdownOnceDelayedHandlerCatchesUp() throws Exception
+    {
+        final DelayedEventHandler delayedEventHandler = createDelayedEventHandler();
+        disruptor.handleEventsWith(delayedEventHandler);
+        publishEvent();
+
+        final Thread releaser = new Thread(() ->
+        {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+            delayedEventHandler.processEvent();
+        });
+        releaser.start();
+
+        disruptor.shutdown(1, SECONDS);
+        releaser.join();
+
+        assertThat(disruptor.getSequenceValueFor(delayedEventHandler), is(0L));
+    }
+
+    @Test
+    @Timeout(value = 2000, unit = TimeUnit.MILLISECONDS)
+    public void shouldCompleteFutureWhenHandlerHasProcessedSequence() throws Exception
+    {
+        final DelayedEventHandler delayedEventHandler = createDelayedEventHandler();
+        final DelayedEventHandler lastEventHandler = createDelayedEventHandler();
+        disruptor.handleEventsWith(delayedEventHandler).then(lastEventHandler);
+        publishEvent();
+
+        final CompletableFuture<Long> processedByFirst = disruptor.whenProcessedBy(delayedEventHandler, 0);
+        final CompletableFuture<Void> processed = disruptor.whenProcessed(0);
+        assertFalse(processedByFirst.isDone());
+
+        delayedEventHandler.processEvent();
+        assertThat(processedByFirst.get(), is(0L));
+        assertFalse(processed.isDone());
+
+        lastEventHandler.processEvent();
+        processed.get();
+    }
+
+    @Test
+    public void shouldNotRegisterWaitersWhenAConsumerAtTheEndOfTheChainDoesNotSupportWaiting()
+    {
+        RingBuffer<TestEvent> rb = disruptor.getRingBuffer();
+        final BatchEventProcessor<TestEvent> processor =
+                new BatchEventProcessor<>(rb, rb.newBarrier(), new SleepingEventHandler());
+        disruptor.handleEventsWith(processor);
+        disruptor.handleEventsWithWorkerPool(new SleepingEventHandler(), new SleepingEventHandler());
+
+        assertThrows(IllegalStateException.class, () -> disruptor.whenProcessed(0));
+        assertThat(processor.getSequenceCompletion().getWaiterCount(), is(0));
+    }
+
     @Test
     @Timeout(value = 1000, unit = TimeUnit.MILLISECONDS)
     public void shouldTrackRemainingCapacity() throws Exception
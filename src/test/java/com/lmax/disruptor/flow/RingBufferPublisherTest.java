@@ -0,0 +1,164 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.flow;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferPublisherTest
+{
+    private final RingBuffer<LongEvent> ringBuffer =
+        RingBuffer.createSingleProducer(LongEvent.FACTORY, 8, new BlockingWaitStrategy());
+    private final RingBufferPublisher<LongEvent, Long> publisher =
+        new RingBufferPublisher<>(ringBuffer, LongEvent::get, DaemonThreadFactory.INSTANCE);
+
+    @Test
+    public void shouldOnlyDeliverRequestedEventsAndHoldBackThePublisher() throws Exception
+    {
+        final CollectingSubscriber subscriber = subscribe();
+        subscriber.subscription.request(2);
+        publish(5);
+
+        assertThat(subscriber.items.poll(5, TimeUnit.SECONDS), is(0L));
+        assertThat(subscriber.items.poll(5, TimeUnit.SECONDS), is(1L));
+        assertNull(subscriber.items.poll(50, TimeUnit.MILLISECONDS));
+        assertThat(ringBuffer.remainingCapacity(), is(5L));
+
+        subscriber.subscription.request(3);
+
+        assertThat(subscriber.items.poll(5, TimeUnit.SECONDS), is(2L));
+        assertThat(subscriber.items.poll(5, TimeUnit.SECONDS), is(3L));
+        assertThat(subscriber.items.poll(5, TimeUnit.SECONDS), is(4L));
+    }
+
+    @Test
+    public void shouldCompleteSubscribersOncePublishedEventsAreDeliveredAfterClose() throws Exception
+    {
+        final CollectingSubscriber subscriber = subscribe();
+        publish(3);
+
+        publisher.close();
+        assertTrue(subscriber.items.isEmpty());
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        subscriber.completion.get(5, TimeUnit.SECONDS);
+        assertThat(subscriber.items.size(), is(3));
+        awaitNoSubscribers();
+    }
+
+    @Test
+    public void shouldReleaseThePublisherWhenCancelled() throws Exception
+    {
+        final CollectingSubscriber subscriber = subscribe();
+        subscriber.subscription.cancel();
+        awaitNoSubscribers();
+
+        for (int i = 0; i < 16; i++)
+        {
+            assertTrue(ringBuffer.tryPublishEvent((event, sequence) -> event.set(sequence)));
+        }
+    }
+
+    @Test
+    public void shouldSignalErrorForNonPositiveRequest() throws Exception
+    {
+        final CollectingSubscriber subscriber = subscribe();
+        subscriber.subscription.request(0);
+
+        try
+        {
+            subscriber.completion.get(5, TimeUnit.SECONDS);
+        }
+        catch (final java.util.concurrent.ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+            awaitNoSubscribers();
+            return;
+        }
+        throw new AssertionError("Expected an error");
+    }
+
+    private CollectingSubscriber subscribe() throws Exception
+    {
+        final CollectingSubscriber subscriber = new CollectingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.subscribed.get(5, TimeUnit.SECONDS);
+        return subscriber;
+    }
+
+    private void publish(final int events)
+    {
+        for (int i = 0; i < events; i++)
+        {
+            ringBuffer.publishEvent((event, sequence) -> event.set(sequence));
+        }
+    }
+
+    private void awaitNoSubscribers()
+    {
+        while (publisher.getSubscriberCount() != 0)
+        {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<Long>
+    {
+        private final CompletableFuture<Void> subscribed = new CompletableFuture<>();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private final LinkedBlockingQueue<Long> items = new LinkedBlockingQueue<>();
+        private volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+            subscribed.complete(null);
+        }
+
+        @Override
+        public void onNext(final Long item)
+        {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable)
+        {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete()
+        {
+            completion.complete(null);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.flow;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.support.LongEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferSubscriberTest
+{
+    private final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 8);
+    private final RingBufferSubscriber<LongEvent, Long> subscriber =
+        new RingBufferSubscriber<>(ringBuffer, (event, sequence, value) -> event.set(value));
+
+    @Test
+    public void shouldRequestUpToTheRemainingCapacity()
+    {
+        ringBuffer.addGatingSequences(new Sequence());
+        final RecordingSubscription subscription = new RecordingSubscription();
+
+        subscriber.onSubscribe(subscription);
+        assertThat(subscription.requests, is(List.of(8L)));
+
+        for (long i = 0; i < 8; i++)
+        {
+            subscriber.onNext(i);
+        }
+
+        // Once full only one more item is requested, which waits for space when published
+        assertThat(subscription.requests, is(List.of(8L, 1L)));
+        assertThat(ringBuffer.get(7).get(), is(7L));
+    }
+
+    @Test
+    public void shouldCancelSecondSubscription()
+    {
+        final RecordingSubscription first = new RecordingSubscription();
+        final RecordingSubscription second = new RecordingSubscription();
+
+        subscriber.onSubscribe(first);
+        subscriber.onSubscribe(second);
+
+        assertTrue(second.cancelled);
+        subscriber.cancel();
+        assertTrue(first.cancelled);
+    }
+
+    @Test
+    public void shouldPublishEverythingSubmittedIntoARingBufferBeingConsumed() throws Exception
+    {
+        final AtomicLong sum = new AtomicLong();
+        final BatchEventProcessor<LongEvent> eventProcessor = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), (event, sequence, endOfBatch) -> sum.addAndGet(event.get()));
+        ringBuffer.addGatingSequences(eventProcessor.getSequence());
+        final Thread thread = new Thread(eventProcessor);
+        thread.start();
+
+        try (SubmissionPublisher<Long> publisher = new SubmissionPublisher<>())
+        {
+            publisher.subscribe(subscriber);
+            for (long i = 0; i < 1000; i++)
+            {
+                publisher.submit(i);
+            }
+        }
+
+        subscriber.getCompletion().get(5, TimeUnit.SECONDS);
+        while (eventProcessor.getSequence().get() < 999)
+        {
+            Thread.yield();
+        }
+        eventProcessor.halt();
+        thread.join();
+
+        assertThat(sum.get(), is(999L * 1000L / 2));
+    }
+
+    private static final class RecordingSubscription implements Flow.Subscription
+    {
+        private final List<Long> requests = new ArrayList<>();
+        private boolean cancelled;
+
+        @Override
+        public void request(final long n)
+        {
+            requests.add(n);
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+        }
+    }
+}
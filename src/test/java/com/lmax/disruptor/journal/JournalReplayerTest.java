@@ -0,0 +1,155 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import com.lmax.disruptor.BatchEventProcessor;
+import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.support.LongEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JournalReplayerTest
+{
+    private static final JournalSerializer<Long> LONG_SERIALIZER = (event, sequence, buffer) -> buffer.putLong(event);
+    private static final EventTranslatorOneArg<LongEvent, ByteBuffer> TRANSLATOR =
+        (event, sequence, payload) -> event.set(payload.getLong());
+    private static final int SEGMENT_SIZE = 8 + 3 * (20 + 8);
+
+    private final Path directory;
+
+    public JournalReplayerTest() throws IOException
+    {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    public void deleteJournal() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldReplayAllRecordsAtTheirRecordedSequences() throws Exception
+    {
+        writeJournal(0, 10);
+
+        final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 16);
+        final ReplayStatistics statistics = new JournalReplayer(directory, 4).replay(ringBuffer, TRANSLATOR);
+
+        assertThat(ringBuffer.getCursor(), is(9L));
+        for (long sequence = 0; sequence < 10; sequence++)
+        {
+            assertThat(ringBuffer.get(sequence).get(), is(sequence * 10));
+        }
+        assertThat(statistics.getFirstSequence(), is(0L));
+        assertThat(statistics.getLastSequence(), is(9L));
+        assertThat(statistics.getEventCount(), is(10L));
+        assertThat(statistics.getByteCount(), is(10L * Long.BYTES));
+        assertThat(statistics.getSegmentCount(), is(4));
+    }
+
+    @Test
+    public void shouldResumeProcessorsFromSnapshot() throws Exception
+    {
+        writeJournal(0, 10);
+
+        final List<Long> handled = new ArrayList<>();
+        final RingBuffer<LongEvent> ringBuffer = RingBuffer.createMultiProducer(LongEvent.FACTORY, 4);
+        final BatchEventProcessor<LongEvent> processor = new BatchEventProcessor<>(
+            ringBuffer, ringBuffer.newBarrier(), (event, sequence, endOfBatch) -> handled.add(event.get()));
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        JournalReplayer.resumeFrom(ringBuffer, 4, processor.getSequence());
+        final Thread thread = new Thread(processor);
+        thread.start();
+
+        final ReplayStatistics statistics = new JournalReplayer(directory).replay(ringBuffer, TRANSLATOR, 5);
+        while (processor.getSequence().get() != 9)
+        {
+            Thread.sleep(1);
+        }
+        processor.halt();
+        thread.join();
+
+        assertThat(handled, is(List.of(50L, 60L, 70L, 80L, 90L)));
+        assertThat(statistics.getFirstSequence(), is(5L));
+        assertThat(statistics.getEventCount(), is(5L));
+        assertThat(statistics.getSegmentCount(), is(3));
+    }
+
+    @Test
+    public void shouldReplayNothingWhenSnapshotIncludesTheWholeJournal() throws Exception
+    {
+        writeJournal(0, 3);
+
+        final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 16);
+        JournalReplayer.resumeFrom(ringBuffer, 2);
+        final ReplayStatistics statistics = new JournalReplayer(directory).replay(ringBuffer, TRANSLATOR, 3);
+
+        assertThat(ringBuffer.getCursor(), is(2L));
+        assertThat(statistics.getEventCount(), is(0L));
+        assertThat(statistics.getLastSequence(), is(2L));
+    }
+
+    @Test
+    public void shouldFailWhenJournalIsMissingARecord() throws Exception
+    {
+        writeJournal(0, 2);
+        writeJournal(3, 2);
+
+        final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 16);
+
+        assertThrows(IllegalStateException.class, () -> new JournalReplayer(directory).replay(ringBuffer, TRANSLATOR));
+    }
+
+    @Test
+    public void shouldFailWhenCursorIsNotBeforeTheFirstSequence() throws Exception
+    {
+        writeJournal(0, 3);
+
+        final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 16);
+
+        assertThrows(IllegalStateException.class, () -> new JournalReplayer(directory).replay(ringBuffer, TRANSLATOR, 1));
+    }
+
+    private void writeJournal(final long firstSequence, final int count) throws IOException
+    {
+        try (JournalWriter writer = new JournalWriter(directory, SEGMENT_SIZE))
+        {
+            for (long sequence = firstSequence; sequence < firstSequence + count; sequence++)
+            {
+                writer.append(sequence, sequence * 10, LONG_SERIALIZER);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.journal;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import com.lmax.disruptor.util.DaemonThreadFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JournalWriterTest
+{
+    private static final JournalSerializer<Long> LONG_SERIALIZER = (event, sequence, buffer) -> buffer.putLong(event);
+    private static final int SEGMENT_SIZE = 8 + 3 * (20 + 8);
+
+    private final Path directory;
+
+    public JournalWriterTest() throws IOException
+    {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    public void deleteJournal() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void shouldAppendRecordsAndRollToNewSegmentWhenFull() throws Exception
+    {
+        try (JournalWriter writer = new JournalWriter(directory, SEGMENT_SIZE))
+        {
+            for (long sequence = 0; sequence < 5; sequence++)
+            {
+                writer.append(sequence, sequence * 10, LONG_SERIALIZER);
+            }
+        }
+
+        final List<Path> segments = JournalFormat.segments(directory);
+        assertThat(segments.size(), is(2));
+        assertThat(JournalFormat.firstSequence(segments.get(0)), is(0L));
+        assertThat(JournalFormat.firstSequence(segments.get(1)), is(3L));
+        assertThat(readValues(), is(List.of(0L, 10L, 20L, 30L, 40L)));
+    }
+
+    @Test
+    public void shouldContinueAfterLastCompleteRecordWhenReopened() throws Exception
+    {
+        try (JournalWriter writer = new JournalWriter(directory, SEGMENT_SIZE))
+        {
+            writer.append(0, 1L, LONG_SERIALIZER);
+            writer.append(1, 2L, LONG_SERIALIZER);
+        }
+
+        corruptChecksumOfSecondRecord(JournalFormat.segments(directory).get(0));
+
+        try (JournalWriter writer = new JournalWriter(directory, SEGMENT_SIZE))
+        {
+            assertThat(writer.getLastSequence(), is(0L));
+            writer.append(1, 3L, LONG_SERIALIZER);
+        }
+
+        assertThat(readValues(), is(List.of(1L, 3L)));
+    }
+
+    @Test
+    public void shouldRejectSequencesThatAreNotIncreasing() throws Exception
+    {
+        try (JournalWriter writer = new JournalWriter(directory, SEGMENT_SIZE))
+        {
+            writer.append(5, 1L, LONG_SERIALIZER);
+
+            assertThrows(IllegalArgumentException.class, () -> writer.append(5, 1L, LONG_SERIALIZER));
+        }
+    }
+
+    @Test
+    public void shouldRejectRecordLargerThanSegment() throws Exception
+    {
+        try (JournalWriter writer = new JournalWriter(directory, SEGMENT_SIZE))
+        {
+            assertThrows(
+                IllegalArgumentException.class,
+                () -> writer.append(0, new byte[SEGMENT_SIZE], (event, sequence, buffer) -> buffer.put(event)));
+        }
+    }
+
+    @Test
+    public void shouldOnlyPassJournaledEventsToLaterHandlers() throws Exception
+    {
+        final int events = 100;
+        final CountDownLatch latch = new CountDownLatch(events);
+        final List<Long> journaledWhenHandled = new ArrayList<>();
+        final JournalWriter writer = new JournalWriter(directory, 1024);
+
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 64, DaemonThreadFactory.INSTANCE, ProducerType.SINGLE, new BlockingWaitStrategy());
+        disruptor
+            .handleEventsWith(new JournalEventHandler<LongEvent>(writer, (event, sequence, buffer) -> buffer.putLong(event.get())))
+            .then((event, sequence, endOfBatch) ->
+            {
+                journaledWhenHandled.add(writer.getLastSequence() >= sequence ? sequence : -1L);
+                latch.countDown();
+            });
+        disruptor.start();
+
+        for (long i = 0; i < events; i++)
+        {
+            disruptor.publishEvent((event, sequence, value) -> event.set(value), i);
+        }
+
+        latch.await();
+        disruptor.shutdown();
+        writer.close();
+
+        final List<Long> expected = new ArrayList<>();
+        for (long i = 0; i < events; i++)
+        {
+            expected.add(i);
+        }
+        assertThat(journaledWhenHandled, is(expected));
+        assertThat(readValues(), is(expected));
+    }
+
+    private List<Long> readValues() throws IOException
+    {
+        final CRC32 crc = new CRC32();
+        final List<Long> values = new ArrayList<>();
+        for (final Path file : JournalFormat.segments(directory))
+        {
+            final ByteBuffer segment = map(file);
+            JournalFormat.checkSegmentHeader(segment, file);
+
+            int position = JournalFormat.SEGMENT_HEADER_LENGTH;
+            int length;
+            while ((length = JournalFormat.payloadLength(segment.duplicate(), position, crc)) >= 0)
+            {
+                values.add(segment.getLong(position + JournalFormat.RECORD_HEADER_LENGTH));
+                position += JournalFormat.RECORD_HEADER_LENGTH + length;
+            }
+        }
+        return values;
+    }
+
+    private static void corruptChecksumOfSecondRecord(final Path file) throws IOException
+    {
+        final MappedByteBuffer segment = map(file);
+        final int secondRecord = JournalFormat.SEGMENT_HEADER_LENGTH + JournalFormat.RECORD_HEADER_LENGTH + Long.BYTES;
+        segment.putInt(secondRecord + JournalFormat.CHECKSUM_OFFSET, 0);
+        segment.force();
+    }
+
+    private static MappedByteBuffer map(final Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LongRingBufferTest
+{
+    private final LongRingBuffer ringBuffer = LongRingBuffer.create(ProducerType.SINGLE, 8, new BlockingWaitStrategy());
+
+    @Test
+    public void shouldPublishSingleValues() throws Exception
+    {
+        ringBuffer.put(3L);
+        ringBuffer.put(5L);
+
+        assertThat(ringBuffer.getCursor(), is(1L));
+        assertThat(ringBuffer.get(0), is(3L));
+        assertThat(ringBuffer.get(1), is(5L));
+    }
+
+    @Test
+    public void shouldPublishBatchWrappingAroundTheEndOfTheBuffer() throws Exception
+    {
+        final Sequence gatingSequence = new Sequence();
+        ringBuffer.addGatingSequences(gatingSequence);
+
+        ringBuffer.put(1L, 2L, 3L, 4L, 5L, 6L);
+        gatingSequence.set(ringBuffer.getCursor());
+
+        ringBuffer.put(new long[]{0L, 7L, 8L, 9L, 10L, 0L}, 1, 4);
+
+        assertThat(ringBuffer.getCursor(), is(9L));
+        for (long sequence = 6; sequence <= 9; sequence++)
+        {
+            assertThat(ringBuffer.isAvailable(sequence), is(true));
+            assertThat(ringBuffer.get(sequence), is(sequence + 1));
+        }
+    }
+
+    @Test
+    public void shouldNotPutWhenFull() throws Exception
+    {
+        ringBuffer.addGatingSequences(new Sequence());
+
+        assertThat(ringBuffer.tryPut(new long[8], 0, 8), is(true));
+        assertThat(ringBuffer.tryPut(1L), is(false));
+        assertThat(ringBuffer.tryPut(new long[1], 0, 1), is(false));
+    }
+
+    @Test
+    public void shouldRejectBatchLargerThanSource() throws Exception
+    {
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer.put(new long[4], 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer.put(new long[16], 0, 16));
+    }
+
+    @Test
+    public void shouldPassValuesToHandlerInBatches() throws Exception
+    {
+        final long[] total = new long[1];
+        final long[] batches = new long[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        final EventProcessor processor = ringBuffer.createProcessor(new LongEventHandler()
+        {
+            @Override
+            public void onEvent(final long value, final long sequence, final boolean endOfBatch)
+            {
+                total[0] += value;
+                if (sequence == 2)
+                {
+                    latch.countDown();
+                }
+            }
+
+            @Override
+            public void onBatchStart(final long batchSize)
+            {
+                batches[0]++;
+            }
+        });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        ringBuffer.put(1L, 2L, 3L);
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        latch.await();
+        processor.halt();
+        thread.join();
+
+        assertThat(total[0], is(6L));
+        assertThat(batches[0], is(1L));
+    }
+}
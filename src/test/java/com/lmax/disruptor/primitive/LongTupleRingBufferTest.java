@@ -0,0 +1,101 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.primitive;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LongTupleRingBufferTest
+{
+    private static final int PRICE = 0;
+    private static final int QUANTITY = 1;
+    private static final int TIMESTAMP = 2;
+
+    private final LongTupleRingBuffer ringBuffer =
+        LongTupleRingBuffer.create(ProducerType.MULTI, 4, 3, new BlockingWaitStrategy());
+
+    @Test
+    public void shouldPublishTuple() throws Exception
+    {
+        ringBuffer.put(101L, 5L, 1000L);
+
+        assertThat(ringBuffer.get(0, PRICE), is(101L));
+        assertThat(ringBuffer.get(0, QUANTITY), is(5L));
+        assertThat(ringBuffer.get(0, TIMESTAMP), is(1000L));
+    }
+
+    @Test
+    public void shouldRejectTupleOfWrongArity() throws Exception
+    {
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer.put(1L, 2L));
+        assertThrows(IndexOutOfBoundsException.class, () -> ringBuffer.get(0, 3));
+    }
+
+    @Test
+    public void shouldPublishBatchOfTuplesWrappingAroundTheEndOfTheBuffer() throws Exception
+    {
+        final Sequence gatingSequence = new Sequence();
+        ringBuffer.addGatingSequences(gatingSequence);
+
+        ringBuffer.putAll(new long[]{1, 1, 1, 2, 2, 2, 3, 3, 3}, 0, 3);
+        gatingSequence.set(ringBuffer.getCursor());
+
+        ringBuffer.putAll(new long[]{0, 0, 0, 4, 40, 400, 5, 50, 500}, 1, 2);
+
+        assertThat(ringBuffer.getCursor(), is(4L));
+        assertThat(ringBuffer.get(3, QUANTITY), is(40L));
+        assertThat(ringBuffer.get(4, PRICE), is(5L));
+        assertThat(ringBuffer.get(4, TIMESTAMP), is(500L));
+        assertThat(ringBuffer.tryPutAll(new long[9], 0, 3), is(false));
+    }
+
+    @Test
+    public void shouldPassTuplesToHandler() throws Exception
+    {
+        final long[] notional = new long[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        final EventProcessor processor = ringBuffer.createProcessor(
+            (tuple, sequence, endOfBatch) ->
+            {
+                notional[0] += tuple.get(PRICE) * tuple.get(QUANTITY);
+                if (sequence == 1)
+                {
+                    latch.countDown();
+                }
+            });
+        ringBuffer.addGatingSequences(processor.getSequence());
+
+        ringBuffer.put(10L, 2L, 0L);
+        ringBuffer.put(20L, 3L, 0L);
+
+        final Thread thread = new Thread(processor);
+        thread.start();
+        latch.await();
+        processor.halt();
+        thread.join();
+
+        assertThat(notional[0], is(80L));
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferBlockingQueueTest
+{
+    @Test
+    public void shouldOfferAndPollInOrderUpToCapacity()
+    {
+        final BlockingQueue<Integer> queue = RingBufferBlockingQueue.createSingleProducerSingleConsumer(4);
+        for (int i = 0; i < 4; i++)
+        {
+            assertTrue(queue.offer(i));
+        }
+
+        assertFalse(queue.offer(4));
+        assertThat(queue.size(), is(4));
+        assertThat(queue.remainingCapacity(), is(0));
+        assertThat(queue.peek(), is(0));
+
+        for (int i = 0; i < 4; i++)
+        {
+            assertThat(queue.poll(), is(i));
+        }
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+        assertTrue(queue.offer(4));
+    }
+
+    @Test
+    public void shouldDrainUpToMaxElementsAsOneBatch()
+    {
+        final BlockingQueue<Integer> queue = RingBufferBlockingQueue.createMultiProducerMultiConsumer(8);
+        for (int i = 0; i < 5; i++)
+        {
+            queue.add(i);
+        }
+
+        final List<Integer> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained, 3), is(3));
+        assertThat(drained, is(List.of(0, 1, 2)));
+        assertThat(queue.size(), is(2));
+
+        assertThat(queue.drainTo(drained), is(2));
+        assertThat(drained, is(List.of(0, 1, 2, 3, 4)));
+        assertThrows(IllegalArgumentException.class, () -> queue.drainTo(queue));
+    }
+
+    @Test
+    public void shouldIterateOverSnapshotWithoutRemoving()
+    {
+        final BlockingQueue<Integer> queue = RingBufferBlockingQueue.createSingleProducerSingleConsumer(4);
+        queue.add(1);
+        queue.add(2);
+
+        final Iterator<Integer> iterator = queue.iterator();
+        assertThat(iterator.next(), is(1));
+        assertThrows(UnsupportedOperationException.class, iterator::remove);
+        assertThat(iterator.next(), is(2));
+        assertFalse(iterator.hasNext());
+        assertThat(queue.size(), is(2));
+    }
+
+    @Test
+    public void shouldTimeOutWaitingForElementsOrSpace() throws Exception
+    {
+        final BlockingQueue<Integer> queue = RingBufferBlockingQueue.createMultiProducerMultiConsumer(2);
+
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        queue.put(1);
+        queue.put(2);
+        assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldWakeBlockedTakerAndPutter() throws Exception
+    {
+        final BlockingQueue<Integer> queue = RingBufferBlockingQueue.createSingleProducerSingleConsumer(2);
+        final List<Integer> taken = new ArrayList<>();
+        final Thread consumer = new Thread(() ->
+        {
+            try
+            {
+                for (int i = 0; i < 100; i++)
+                {
+                    taken.add(queue.take());
+                }
+            }
+            catch (final InterruptedException e)
+            {
+                throw new IllegalStateException(e);
+            }
+        });
+        consumer.start();
+
+        for (int i = 0; i < 100; i++)
+        {
+            queue.put(i);
+        }
+        consumer.join(5000);
+
+        assertFalse(consumer.isAlive());
+        assertThat(taken.size(), is(100));
+        assertThat(taken.get(99), is(99));
+    }
+
+    @Test
+    public void shouldThrowWhenInterruptedWhileTaking() throws Exception
+    {
+        final BlockingQueue<Integer> queue = RingBufferBlockingQueue.createSingleProducerSingleConsumer(2);
+        final AtomicLong interrupted = new AtomicLong();
+        final Thread consumer = new Thread(() ->
+        {
+            try
+            {
+                queue.take();
+            }
+            catch (final InterruptedException e)
+            {
+                interrupted.incrementAndGet();
+            }
+        });
+        consumer.start();
+
+        consumer.interrupt();
+        consumer.join(5000);
+
+        assertThat(interrupted.get(), is(1L));
+    }
+
+    @Test
+    public void shouldPassEveryElementFromManyProducersToManyConsumers() throws Exception
+    {
+        final BlockingQueue<Long> queue = RingBufferBlockingQueue.createMultiProducerMultiConsumer(16);
+        final int producers = 3;
+        final int consumers = 2;
+        final long perProducer = 10_000;
+        final AtomicLong sum = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producers; i++)
+        {
+            threads.add(new Thread(() ->
+            {
+                for (long j = 1; j <= perProducer; j++)
+                {
+                    try
+                    {
+                        queue.put(j);
+                    }
+                    catch (final InterruptedException e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < consumers; i++)
+        {
+            threads.add(new Thread(() ->
+            {
+                while (count.get() < producers * perProducer)
+                {
+                    try
+                    {
+                        final Long value = queue.poll(1, TimeUnit.MILLISECONDS);
+                        if (value != null)
+                        {
+                            sum.addAndGet(value);
+                            count.incrementAndGet();
+                        }
+                    }
+                    catch (final InterruptedException e)
+                    {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }));
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join(10_000);
+        }
+
+        assertThat(count.get(), is(producers * perProducer));
+        assertThat(sum.get(), is(producers * perProducer * (perProducer + 1) / 2));
+    }
+}
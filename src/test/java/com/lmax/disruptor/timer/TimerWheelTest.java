@@ -0,0 +1,139 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.timer;
+
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.support.LongEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimerWheelTest
+{
+    private final RingBuffer<LongEvent> ringBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 16);
+    private final TimerWheel<LongEvent> timerWheel = new TimerWheel<>(
+        ringBuffer, (event, sequence, handle, deadline, payload) -> event.set(payload), 0, 10, 8, 64);
+    private long nextSequence = 0;
+
+    @Test
+    public void shouldPublishTimersOnlyOnceTheyAreDue()
+    {
+        timerWheel.schedule(25, 1);
+        timerWheel.schedule(5, 2);
+
+        assertThat(timerWheel.poll(4), is(0));
+        assertThat(timerWheel.poll(5), is(1));
+        assertThat(published(), is(List.of(2L)));
+
+        assertThat(timerWheel.poll(24), is(0));
+        assertThat(timerWheel.poll(30), is(1));
+        assertThat(published(), is(List.of(1L)));
+        assertThat(timerWheel.getTimerCount(), is(0));
+    }
+
+    @Test
+    public void shouldNotFireTimersForLaterTurnsOfTheWheel()
+    {
+        // 8 ticks of 10 make a turn of 80, so both timers share a bucket
+        timerWheel.schedule(15, 1);
+        timerWheel.schedule(95, 2);
+
+        assertThat(timerWheel.poll(20), is(1));
+        assertThat(timerWheel.poll(90), is(0));
+        assertThat(timerWheel.poll(100), is(1));
+        assertThat(published(), is(List.of(1L, 2L)));
+    }
+
+    @Test
+    public void shouldPublishMoreTimersThanTheRingBufferHoldsInBatches()
+    {
+        final RingBuffer<LongEvent> smallRingBuffer = RingBuffer.createSingleProducer(LongEvent.FACTORY, 4);
+        final TimerWheel<LongEvent> wheel = new TimerWheel<>(
+            smallRingBuffer, (event, sequence, handle, deadline, payload) -> event.set(payload), 0, 10, 8, 64);
+        for (int i = 0; i < 10; i++)
+        {
+            wheel.schedule(i, i);
+        }
+
+        assertThat(wheel.poll(10), is(10));
+        assertThat(smallRingBuffer.getCursor(), is(9L));
+    }
+
+    @Test
+    public void shouldNotPublishCancelledTimers()
+    {
+        final long handle = timerWheel.schedule(5, 1);
+        timerWheel.schedule(5, 2);
+
+        assertTrue(timerWheel.cancel(handle));
+        assertFalse(timerWheel.cancel(handle));
+
+        assertThat(timerWheel.poll(10), is(1));
+        assertThat(published(), is(List.of(2L)));
+    }
+
+    @Test
+    public void shouldNotCancelLaterTimerReusingTheSlotOfAFiredOne()
+    {
+        final long firedHandle = timerWheel.schedule(5, 1);
+        timerWheel.poll(10);
+
+        final long handle = timerWheel.schedule(50, 2);
+
+        assertFalse(timerWheel.cancel(firedHandle));
+        assertThat(timerWheel.getTimerCount(), is(1));
+        assertTrue(timerWheel.cancel(handle));
+    }
+
+    @Test
+    public void shouldFireTimersScheduledInThePastOnNextPoll()
+    {
+        timerWheel.poll(1000);
+        timerWheel.schedule(10, 7);
+
+        assertThat(timerWheel.poll(1000), is(1));
+        assertThat(published(), is(List.of(7L)));
+    }
+
+    @Test
+    public void shouldThrowWhenFull()
+    {
+        for (int i = 0; i < 64; i++)
+        {
+            timerWheel.schedule(i, i);
+        }
+
+        assertThrows(IllegalStateException.class, () -> timerWheel.schedule(100, 100));
+    }
+
+    private List<Long> published()
+    {
+        final List<Long> values = new ArrayList<>();
+        final long cursor = ringBuffer.getCursor();
+        for (; nextSequence <= cursor; nextSequence++)
+        {
+            values.add(ringBuffer.get(nextSequence).get());
+        }
+        return values;
+    }
+}
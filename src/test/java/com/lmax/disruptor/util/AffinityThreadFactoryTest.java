@@ -0,0 +1,162 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AffinityThreadFactoryTest
+{
+    private final List<CpuSet> boundTo = new CopyOnWriteArrayList<>();
+    private final AffinityBinder recordingBinder = boundTo::add;
+
+    @Test
+    public void shouldParseAndFormatCpuLists()
+    {
+        assertThat(CpuSet.parse("0-3,6").toString(), is("0-3,6"));
+        assertThat(CpuSet.parse(" 5, 1-2 ").getCpus(), is(new int[]{1, 2, 5}));
+        assertThat(CpuSet.of(3, 1, 2).toString(), is("1-3"));
+        assertThat(CpuSet.range(4, 4), is(CpuSet.of(4)));
+        assertThat(CpuSet.of(0, 2).contains(1), is(false));
+
+        assertThrows(IllegalArgumentException.class, () -> CpuSet.parse("1-x"));
+        assertThrows(IllegalArgumentException.class, () -> CpuSet.parse("3-1"));
+        assertThrows(IllegalArgumentException.class, () -> CpuSet.of());
+    }
+
+    @Test
+    public void shouldPlaceThreadsOnLayoutInCreationOrder() throws Exception
+    {
+        final AffinityThreadFactory factory = new AffinityThreadFactory(
+            DaemonThreadFactory.INSTANCE, recordingBinder, CpuSet.of(1), CpuSet.of(2, 3));
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            final Thread thread = factory.newThread(() ->
+            {
+            });
+            thread.setName("worker-" + i);
+            threads.add(thread);
+        }
+
+        for (final Thread thread : threads)
+        {
+            thread.start();
+            thread.join();
+        }
+
+        assertThat(boundTo, is(List.of(CpuSet.of(1), CpuSet.of(2, 3), CpuSet.of(1))));
+
+        final List<ThreadPlacement> placements = factory.getPlacements();
+        assertThat(placements.size(), is(3));
+        assertThat(placements.get(1).getThreadName(), is("worker-1"));
+        assertThat(placements.get(1).getCpus(), is(CpuSet.of(2, 3)));
+        assertThat(placements.get(1).isBound(), is(true));
+    }
+
+    @Test
+    public void shouldStillRunThreadThatCouldNotBeBound() throws Exception
+    {
+        final AffinityThreadFactory factory = new AffinityThreadFactory(
+            DaemonThreadFactory.INSTANCE,
+            cpus ->
+            {
+                throw new IllegalStateException("CPU not available");
+            },
+            CpuSet.of(7));
+
+        final boolean[] ran = new boolean[1];
+        final Thread thread = factory.newThread(() -> ran[0] = true);
+        thread.start();
+        thread.join();
+
+        assertThat(ran[0], is(true));
+        assertThat(factory.getPlacements().get(0).isBound(), is(false));
+        assertThat(factory.getPlacements().get(0).getFailure().getMessage(), is("CPU not available"));
+    }
+
+    @Test
+    public void shouldKeepInterruptWhenBindingIsInterrupted() throws Exception
+    {
+        final AffinityThreadFactory factory = new AffinityThreadFactory(
+            DaemonThreadFactory.INSTANCE,
+            cpus ->
+            {
+                throw new InterruptedException();
+            },
+            CpuSet.of(7));
+
+        final boolean[] interrupted = new boolean[1];
+        final Thread thread = factory.newThread(() -> interrupted[0] = Thread.currentThread().isInterrupted());
+        thread.start();
+        thread.join();
+
+        assertThat(interrupted[0], is(true));
+        assertThat(factory.getPlacements().get(0).isBound(), is(false));
+    }
+
+    @Test
+    public void shouldPinEventProcessorsDeclaredInDsl() throws Exception
+    {
+        final AffinityThreadFactory factory = new AffinityThreadFactory(DaemonThreadFactory.INSTANCE, recordingBinder);
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(
+            LongEvent.FACTORY, 16, factory, ProducerType.SINGLE, new BlockingWaitStrategy());
+        final EventHandler<LongEvent> first = (event, sequence, endOfBatch) ->
+        {
+        };
+        final EventHandler<LongEvent> second = (event, sequence, endOfBatch) ->
+        {
+        };
+
+        disruptor.handleEventsWith(first, second).pinTo(CpuSet.of(2), CpuSet.of(3));
+        disruptor.start();
+        while (boundTo.size() < 2)
+        {
+            Thread.sleep(1);
+        }
+        disruptor.halt();
+
+        final Set<CpuSet> expected = new HashSet<>(List.of(CpuSet.of(2), CpuSet.of(3)));
+        assertThat(new HashSet<>(boundTo), is(expected));
+    }
+
+    @Test
+    public void shouldRejectPinningWithoutAffinityThreadFactory()
+    {
+        final Disruptor<LongEvent> disruptor = new Disruptor<>(LongEvent.FACTORY, 16, DaemonThreadFactory.INSTANCE);
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> disruptor.handleEventsWith((event, sequence, endOfBatch) ->
+            {
+            }).pinTo(CpuSet.of(0)));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HistogramTest
+{
+    @Test
+    public void shouldReportZeroWhenEmpty()
+    {
+        final Histogram histogram = new Histogram();
+
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMax(), is(0L));
+        assertThat(histogram.getMean(), is(0.0));
+        assertThat(histogram.getValueAtPercentile(99), is(0L));
+    }
+
+    @Test
+    public void shouldReportSmallValuesExactly()
+    {
+        final Histogram histogram = new Histogram();
+        for (long value = 1; value <= 10; value++)
+        {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getCount(), is(10L));
+        assertThat(histogram.getMax(), is(10L));
+        assertThat(histogram.getMean(), is(5.5));
+        assertThat(histogram.getValueAtPercentile(50), is(5L));
+        assertThat(histogram.getValueAtPercentile(90), is(9L));
+        assertThat(histogram.getValueAtPercentile(100), is(10L));
+    }
+
+    @Test
+    public void shouldReportLargeValuesWithinBucketPrecision()
+    {
+        final Histogram histogram = new Histogram();
+        histogram.record(1_000_000L);
+        histogram.record(Long.MAX_VALUE);
+
+        final long p50 = histogram.getValueAtPercentile(50);
+        assertThat(p50 >= 1_000_000L && p50 <= 1_125_000L, is(true));
+        assertThat(histogram.getValueAtPercentile(100), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldRecordNegativeValuesAsZero()
+    {
+        final Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertThat(histogram.getValueAtPercentile(100), is(0L));
+    }
+
+    @Test
+    public void shouldMapEveryBucketBackToItsHighestValue()
+    {
+        for (int shift = 0; shift < Long.SIZE - 1; shift++)
+        {
+            final long value = 1L << shift;
+            final int index = Histogram.bucketIndex(value);
+            assertThat(Histogram.bucketIndex(Histogram.highestValueInBucket(index)), is(index));
+            assertThat(Histogram.bucketIndex(Histogram.highestValueInBucket(index) + 1), is(index + 1));
+        }
+    }
+
+    @Test
+    public void shouldRejectPercentileOutOfRange()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new Histogram().getValueAtPercentile(101));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.MultiProducerSequencer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.Sequencer;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class MinimumSequenceTreeTest
+{
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @Test
+    public void shouldReturnMinimumSequenceForAnyNumberOfSequences()
+    {
+        for (final int count : new int[]{1, 7, 8, 9, 64, 65, 128})
+        {
+            final Sequence[] sequences = newSequences(count, 100L);
+            sequences[count / 2].set(42L);
+            final MinimumSequenceTree tree = new MinimumSequenceTree(sequences);
+
+            assertEquals(42L, tree.getMinimumSequence(Long.MAX_VALUE));
+            assertEquals(42L, tree.getMinimumSequence(50L, Long.MAX_VALUE));
+            assertEquals(10L, tree.getMinimumSequence(10L));
+
+            sequences[count / 2].set(200L);
+            assertEquals(count == 1 ? 200L : 100L, tree.getMinimumSequence(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void shouldReturnMinimumWhenThereAreNoSequences()
+    {
+        assertEquals(5L, new MinimumSequenceTree(new Sequence[0]).getMinimumSequence(10L, 5L));
+    }
+
+    @Test
+    public void shouldOnlyReadSequencesBehindTarget()
+    {
+        final Sequence[] sequences = newSequences(128, 1000L);
+        final Sequence slowest = sequences[77];
+        slowest.set(10L);
+        final MinimumSequenceTree tree = new MinimumSequenceTree(sequences);
+
+        assertEquals(10L, tree.getMinimumSequence(Long.MAX_VALUE));
+        assertEquals(128, reads.getAndSet(0));
+
+        slowest.set(20L);
+        assertEquals(20L, tree.getMinimumSequence(15L, Long.MAX_VALUE));
+        assertEquals(MinimumSequenceTree.FAN_OUT, reads.getAndSet(0));
+
+        final long bound = tree.getMinimumSequence(15L, Long.MAX_VALUE);
+        assertTrue(bound >= 15L && bound <= 20L);
+        assertEquals(0, reads.get());
+    }
+
+    @Test
+    public void shouldHoldUpClaimWithManyGatingSequences()
+    {
+        final Sequencer sequencer = new MultiProducerSequencer(16, new BlockingWaitStrategy());
+        final Sequence[] gatingSequences = newSequences(40, -1L);
+        sequencer.addGatingSequences(gatingSequences);
+
+        for (final Sequence sequence : gatingSequences)
+        {
+            sequence.set(3L);
+        }
+        gatingSequences[31].set(-1L);
+        sequencer.next(16);
+
+        assertFalse(sequencer.hasAvailableCapacity(1));
+
+        gatingSequences[31].set(0L);
+        assertTrue(sequencer.hasAvailableCapacity(1));
+        assertFalse(sequencer.hasAvailableCapacity(2));
+    }
+
+    private Sequence[] newSequences(final int count, final long initialValue)
+    {
+        final Sequence[] sequences = new Sequence[count];
+        for (int i = 0; i < count; i++)
+        {
+            sequences[i] = new Sequence(initialValue)
+            {
+                @Override
+                public long get()
+                {
+                    reads.incrementAndGet();
+                    return super.get();
+                }
+            };
+        }
+        return sequences;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2011 LMAX Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.lmax.disruptor.util;
+
+import com.lmax.disruptor.ParkingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.lmax.disruptor.support.LongEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class VirtualThreadFactoryTest
+{
+    @Test
+    public void shouldRunEventProcessorsOnVirtualThreadsWhenSupported() throws Exception
+    {
+        if (!VirtualThreadFactory.isSupported())
+        {
+            assertThrows(UnsupportedOperationException.class, () -> new VirtualThreadFactory("processor-"));
+            return;
+        }
+
+        final int disruptors = 100;
+        final CountDownLatch latch = new CountDownLatch(disruptors);
+        final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        final VirtualThreadFactory threadFactory = new VirtualThreadFactory("processor-");
+
+        final Disruptor<?>[] started = new Disruptor<?>[disruptors];
+        for (int i = 0; i < disruptors; i++)
+        {
+            final Disruptor<LongEvent> disruptor = new Disruptor<>(
+                LongEvent.FACTORY, 16, threadFactory, ProducerType.SINGLE, new ParkingWaitStrategy());
+            disruptor.handleEventsWith((event, sequence, endOfBatch) ->
+            {
+                threadNames.add(Thread.currentThread().getName());
+                latch.countDown();
+            });
+            disruptor.start();
+            started[i] = disruptor;
+        }
+
+        for (final Disruptor<?> disruptor : started)
+        {
+            disruptor.getRingBuffer().publish(disruptor.getRingBuffer().next());
+        }
+
+        assertThat(latch.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(threadNames.size(), is(disruptors));
+        for (final Disruptor<?> disruptor : started)
+        {
+            disruptor.halt();
+        }
+    }
+}